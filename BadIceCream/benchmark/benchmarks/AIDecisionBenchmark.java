@@ -0,0 +1,58 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.AIAction;
+import domain.AIPlayer;
+import domain.AIProfile;
+import domain.Game;
+import domain.GameMode;
+import domain.Level;
+
+/**
+ * Latencia de AIPlayer.decideAction por perfil, sobre el estado inicial de
+ * una partida MACHINE_VS_MACHINE. Incluye los ticks de espera del AIPlayer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIDecisionBenchmark {
+
+    @Param({ "1", "2", "3" })
+    public int levelNumber;
+
+    @Param({ "HUNGRY", "FEARFUL", "EXPERT", "PLANNER" })
+    public AIProfile profile;
+
+    private AIPlayer ai;
+    private Level level;
+
+    @Setup
+    public void setup() {
+        Game game = new Game();
+        game.startGame(levelNumber, null, GameMode.MACHINE_VS_MACHINE, profile, profile);
+        level = game.getLevel();
+        level.setRandomSeed(42L);
+        ai = game.getAIPlayer1();
+    }
+
+    @Benchmark
+    public AIAction decideAction() {
+        return ai.decideAction(level);
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.AIProfile;
+import domain.Game;
+import domain.GameMode;
+import domain.IceCreamFlavour;
+import presentation.GameBoardPanel;
+
+/**
+ * Tiempo de pintar el tablero completo (GameBoardPanel.paintComponent) sobre
+ * una imagen fuera de pantalla. Corre en modo headless.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BoardPaintBenchmark {
+    private static final int WIDTH = 15 * 40;
+    private static final int HEIGHT = 11 * 40;
+
+    @Param({ "1", "2", "3" })
+    public int levelNumber;
+
+    private GameBoardPanel panel;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup
+    public void setup() {
+        Game game = new Game();
+        game.startGame(levelNumber, IceCreamFlavour.VANILLA, GameMode.PLAYER_VS_MACHINE, AIProfile.EXPERT, null);
+        panel = new GameBoardPanel(game);
+        panel.setSize(WIDTH, HEIGHT);
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage paint() {
+        // paint() llama a paintComponent con el clip completo del panel
+        panel.paint(graphics);
+        return image;
+    }
+}
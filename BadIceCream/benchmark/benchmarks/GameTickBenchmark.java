@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.AIProfile;
+import domain.Game;
+import domain.GameMode;
+import domain.GameState;
+import domain.IceCreamFlavour;
+import domain.SimulationEngine;
+
+/**
+ * Ticks por segundo de Game.update() por nivel y modo de juego.
+ * La partida corre con el reloj de ticks del SimulationEngine y se reinicia
+ * con la misma semilla cuando termina.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameTickBenchmark {
+
+    @Param({ "1", "2", "3" })
+    public int levelNumber;
+
+    @Param({ "PLAYER", "PLAYER_VS_MACHINE", "MACHINE_VS_MACHINE" })
+    public GameMode mode;
+
+    private SimulationEngine engine;
+    private Game game;
+
+    @Setup
+    public void setup() {
+        engine = new SimulationEngine();
+        game = engine.getGame();
+        restart();
+    }
+
+    private void restart() {
+        game.startGame(levelNumber, IceCreamFlavour.VANILLA, mode, AIProfile.EXPERT, AIProfile.HUNGRY);
+        game.getLevel().setRandomSeed(42L);
+    }
+
+    @Benchmark
+    public GameState tick() {
+        if (!engine.step()) {
+            restart();
+        }
+        return game.getState();
+    }
+}
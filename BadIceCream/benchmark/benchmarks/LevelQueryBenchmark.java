@@ -0,0 +1,84 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import domain.Level;
+import domain.Position;
+
+/**
+ * Rendimiento de las consultas puntuales del nivel (canMoveTo, getFruitAt),
+ * recorriendo todas las celdas del tablero con Position y con celdas int.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelQueryBenchmark {
+    // Tablero de 15 x 11
+    private static final int CELLS = 15 * 11;
+
+    @Param({ "1", "2", "3" })
+    public int levelNumber;
+
+    private Level level;
+    private Position[] positions;
+
+    @Setup
+    public void setup() {
+        level = new Level(levelNumber);
+        positions = new Position[level.getWidth() * level.getHeight()];
+        for (int y = 0; y < level.getHeight(); y++) {
+            for (int x = 0; x < level.getWidth(); x++) {
+                positions[y * level.getWidth() + x] = new Position(x, y);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void canMoveToPosition(Blackhole bh) {
+        for (Position pos : positions) {
+            bh.consume(level.canMoveTo(pos));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void canMoveToCell(Blackhole bh) {
+        for (int cell = 0; cell < positions.length; cell++) {
+            bh.consume(level.canMoveTo(cell));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void getFruitAtPosition(Blackhole bh) {
+        for (Position pos : positions) {
+            bh.consume(level.getFruitAt(pos));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void getFruitAtCell(Blackhole bh) {
+        for (int cell = 0; cell < positions.length; cell++) {
+            bh.consume(level.getFruitAt(cell));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.BadIceCreamException;
+import domain.Game;
+import domain.GameClock;
+import domain.GameSaveManager;
+import domain.IceCreamFlavour;
+
+/**
+ * Tiempo del códec de partidas guardadas: codificar una partida y volver a
+ * decodificarla en memoria, sin archivos ni registro.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaveRoundTripBenchmark {
+
+    @Param({ "1", "2", "3" })
+    public int levelNumber;
+
+    private Game game;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        game = new Game();
+        game.startGame(levelNumber, IceCreamFlavour.VANILLA);
+        encoded = GameSaveManager.encode(game);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return GameSaveManager.encode(game);
+    }
+
+    @Benchmark
+    public Game decode() throws BadIceCreamException {
+        return GameSaveManager.decode(encoded, GameClock.SYSTEM);
+    }
+
+    @Benchmark
+    public Game encodeAndDecode() throws BadIceCreamException {
+        return GameSaveManager.decode(GameSaveManager.encode(game), GameClock.SYSTEM);
+    }
+}
@@ -2,11 +2,30 @@ package domain;
 
 
 /**
- * Representa una acción decidida por la IA
+ * Representa una acción decidida por la IA. Las acciones son inmutables; la
+ * IA usa las compartidas de {@link #of} y {@link #WAIT} para no crear objetos
+ * en cada tick.
  */
 public class AIAction {
-    private AIActionType type;
-    private Direction direction;
+    private static final AIActionType[] TYPES = AIActionType.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    // Acción compartida por tipo y dirección (0 sin dirección, ordinal + 1)
+    private static final AIAction[][] SHARED = new AIAction[TYPES.length][DIRECTIONS.length + 1];
+
+    static {
+        for (AIActionType type : TYPES) {
+            SHARED[type.ordinal()][0] = new AIAction(type, null);
+            for (Direction direction : DIRECTIONS) {
+                SHARED[type.ordinal()][direction.ordinal() + 1] = new AIAction(type, direction);
+            }
+        }
+    }
+
+    /** Acción compartida de esperar */
+    public static final AIAction WAIT = of(AIActionType.WAIT, null);
+
+    private final AIActionType type;
+    private final Direction direction;
 
     /**
      * Constructor de AIAction.
@@ -19,6 +38,17 @@ public class AIAction {
         this.direction = direction;
     }
 
+    /**
+     * Obtiene la acción compartida de un tipo y una dirección.
+     * 
+     * @param type      Tipo de acción.
+     * @param direction Dirección de la acción (puede ser null).
+     * @return La acción, siempre la misma instancia para el mismo par.
+     */
+    public static AIAction of(AIActionType type, Direction direction) {
+        return SHARED[type.ordinal()][direction == null ? 0 : direction.ordinal() + 1];
+    }
+
     /**
      * Obtiene el tipo de acción.
      * 
@@ -0,0 +1,11 @@
+package domain;
+
+/**
+ * Tipos de acciones que puede realizar la IA
+ */
+enum AIActionType {
+    MOVE,
+    CREATE_ICE,
+    DESTROY_ICE,
+    WAIT
+}
@@ -1,5 +1,6 @@
 package domain;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -7,11 +8,24 @@ import java.util.*;
  * Implementa diferentes estrategias según el perfil asignado.
  */
 public class AIPlayer extends Player {
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /** Coste extra de un bloque de hielo en el camino: una acción para romperlo */
+    private static final int ICE_BREAK_COST = 1;
+
     private AIProfile profile;
     private int thinkDelay;
     private int thinkCounter;
     private Direction lastDecision;
     private Position targetFruit;
+    /** Buffer reutilizable de direcciones candidatas (evita crear arreglos por decisión) */
+    private final Direction[] candidateDirections = new Direction[4];
+    /** Búsqueda del perfil PLANNER, creada en su primera decisión */
+    private transient MonteCarloPlanner planner;
+    /** Árboles que reparten la búsqueda del perfil PLANNER; es configuración, no estado de la partida */
+    private transient int plannerWorkers = 1;
+    /** Celdas amenazadas por los enemigos según su trayectoria prevista (EXPERT) */
+    private transient int[] predictedThreats;
+    private transient int threatStamp;
 
     /**
      * Constructor de la clase AIPlayer.
@@ -49,9 +63,26 @@ public class AIPlayer extends Player {
      * @return La acción decidida por la IA.
      */
     public AIAction decideAction(Level level) {
+        return decideAction(level, AIScheduler.DEFAULT_TICK_BUDGET_NANOS);
+    }
+
+    /**
+     * Decide la acción de este tick con un presupuesto de tiempo. La IA actúa
+     * cada {@code thinkDelay} ticks y espera en los demás; los perfiles
+     * heurísticos deciden de una vez, mientras que PLANNER aprovecha también
+     * los ticks de espera para seguir buscando.
+     * 
+     * @param level       El nivel actual del juego.
+     * @param budgetNanos Tiempo de CPU de este tick, en nanosegundos.
+     * @return La acción decidida por la IA.
+     */
+    AIAction decideAction(Level level, long budgetNanos) {
         thinkCounter++;
         if (thinkCounter < thinkDelay) {
-            return new AIAction(AIActionType.WAIT, null);
+            if (profile == AIProfile.PLANNER) {
+                getPlanner(level).ponder(level, this, thinkDelay, budgetNanos);
+            }
+            return AIAction.WAIT;
         }
         thinkCounter = 0;
 
@@ -62,6 +93,8 @@ public class AIPlayer extends Player {
                 return decideFearfulAction(level);
             case EXPERT:
                 return decideExpertAction(level);
+            case PLANNER:
+                return decidePlannerAction(level, budgetNanos);
             default:
                 return decideHungryAction(level);
         }
@@ -82,17 +115,24 @@ public class AIPlayer extends Player {
             Direction exploreDir = getRandomValidDirection(level);
             setDirection(exploreDir);
             lastDecision = exploreDir;
-            return new AIAction(AIActionType.MOVE, exploreDir);
+            return AIAction.of(AIActionType.MOVE, exploreDir);
         }
 
         Position fruitPos = closestFruit.getPosition();
+        int cell = level.cellOf(position);
+
+        // Seguir el camino más corto (rompiendo hielo si hace falta)
+        AIAction pathAction = followPath(level, cell, fruitPos, false);
+        if (pathAction != null) {
+            return pathAction;
+        }
 
         // Calcular diferencias
         int dx = fruitPos.getX() - position.getX();
         int dy = fruitPos.getY() - position.getY();
 
         // Probar todas las direcciones que nos acercan
-        Direction[] tryDirections = new Direction[4];
+        Direction[] tryDirections = candidateDirections;
         int index = 0;
 
         // Agregar direcciones que reducen la distancia
@@ -111,42 +151,42 @@ public class AIPlayer extends Player {
             if (dir == null)
                 continue;
 
-            Position nextPos = position.add(dir);
+            int next = level.neighbor(cell, dir);
 
             // Si hay hielo, destruirlo
-            if (level.isIceBlock(nextPos)) {
+            if (level.isIceBlock(next)) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.DESTROY_ICE, dir);
+                return AIAction.of(AIActionType.DESTROY_ICE, dir);
             }
 
             // Si puede moverse, hacerlo
-            if (level.canMoveTo(nextPos)) {
+            if (level.canMoveTo(next)) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.MOVE, dir);
+                return AIAction.of(AIActionType.MOVE, dir);
             }
         }
 
         // Si ninguna dirección hacia la fruta funciona, buscar ruta alternativa
-        for (Direction dir : Direction.values()) {
-            Position nextPos = position.add(dir);
+        for (Direction dir : DIRECTIONS) {
+            int next = level.neighbor(cell, dir);
 
-            if (level.isIceBlock(nextPos)) {
+            if (level.isIceBlock(next)) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.DESTROY_ICE, dir);
+                return AIAction.of(AIActionType.DESTROY_ICE, dir);
             }
 
-            if (level.canMoveTo(nextPos)) {
+            if (level.canMoveTo(next)) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.MOVE, dir);
+                return AIAction.of(AIActionType.MOVE, dir);
             }
         }
 
         // Última opción: mantener dirección anterior
-        return new AIAction(AIActionType.MOVE, lastDecision);
+        return AIAction.of(AIActionType.MOVE, lastDecision);
     }
 
     /**
@@ -156,12 +196,14 @@ public class AIPlayer extends Player {
      * @return La acción decidida.
      */
     private AIAction decideFearfulAction(Level level) {
-        List<Position> dangers = findNearbyDangers(level);
+        DangerMap dangers = level.getDangerMap();
+        int cell = level.cellOf(position);
+        int dangerCell = dangers.nearestDanger(cell);
 
         // Si hay peligro cercano, huir
-        if (!dangers.isEmpty()) {
-            Position closestDanger = getClosestPosition(dangers);
-            int dangerDistance = manhattanDistance(position, closestDanger);
+        if (dangerCell >= 0) {
+            Position closestDanger = level.positionOf(dangerCell);
+            int dangerDistance = dangers.nearestDistance(cell);
 
             if (dangerDistance <= 4) {
                 // Calcular dirección de escape (alejarse del peligro)
@@ -169,7 +211,7 @@ public class AIPlayer extends Player {
                 int dy = position.getY() - closestDanger.getY();
 
                 // Probar direcciones que alejan del peligro
-                Direction[] escapeDirections = new Direction[4];
+                Direction[] escapeDirections = candidateDirections;
                 int index = 0;
 
                 if (dx > 0)
@@ -187,32 +229,32 @@ public class AIPlayer extends Player {
                     if (dir == null)
                         continue;
 
-                    Position nextPos = position.add(dir);
+                    int next = level.neighbor(cell, dir);
 
-                    if (level.isIceBlock(nextPos)) {
+                    if (level.isIceBlock(next)) {
                         setDirection(dir);
                         lastDecision = dir;
-                        return new AIAction(AIActionType.DESTROY_ICE, dir);
+                        return AIAction.of(AIActionType.DESTROY_ICE, dir);
                     }
 
-                    if (level.canMoveTo(nextPos)) {
+                    if (level.canMoveTo(next)) {
                         setDirection(dir);
                         lastDecision = dir;
-                        return new AIAction(AIActionType.MOVE, dir);
+                        return AIAction.of(AIActionType.MOVE, dir);
                     }
                 }
 
                 // Si no puede escapar directamente, moverse en cualquier dirección que no
                 // acerque
-                for (Direction dir : Direction.values()) {
-                    Position nextPos = position.add(dir);
-                    if (level.canMoveTo(nextPos)) {
-                        int newDist = manhattanDistance(nextPos, closestDanger);
+                for (Direction dir : DIRECTIONS) {
+                    int next = level.neighbor(cell, dir);
+                    if (level.canMoveTo(next)) {
+                        int newDist = manhattanDistance(level, next, closestDanger);
                         // Aceptar movimientos que mantienen o aumentan distancia
                         if (newDist >= dangerDistance - 1) {
                             setDirection(dir);
                             lastDecision = dir;
-                            return new AIAction(AIActionType.MOVE, dir);
+                            return AIAction.of(AIActionType.MOVE, dir);
                         }
                     }
                 }
@@ -223,10 +265,15 @@ public class AIPlayer extends Player {
         Fruit safeFruit = findClosestSafeFruit(level);
         if (safeFruit != null && !safeFruit.isCollected()) {
             Position fruitPos = safeFruit.getPosition();
+            AIAction pathAction = followPath(level, cell, fruitPos, false);
+            if (pathAction != null) {
+                return pathAction;
+            }
+
             int dx = fruitPos.getX() - position.getX();
             int dy = fruitPos.getY() - position.getY();
 
-            Direction[] tryDirections = new Direction[4];
+            Direction[] tryDirections = candidateDirections;
             int index = 0;
 
             if (dx > 0)
@@ -243,18 +290,18 @@ public class AIPlayer extends Player {
                 if (dir == null)
                     continue;
 
-                Position nextPos = position.add(dir);
+                int next = level.neighbor(cell, dir);
 
-                if (level.isIceBlock(nextPos)) {
+                if (level.isIceBlock(next)) {
                     setDirection(dir);
                     lastDecision = dir;
-                    return new AIAction(AIActionType.DESTROY_ICE, dir);
+                    return AIAction.of(AIActionType.DESTROY_ICE, dir);
                 }
 
-                if (level.canMoveTo(nextPos)) {
+                if (level.canMoveTo(next)) {
                     setDirection(dir);
                     lastDecision = dir;
-                    return new AIAction(AIActionType.MOVE, dir);
+                    return AIAction.of(AIActionType.MOVE, dir);
                 }
             }
         }
@@ -263,7 +310,7 @@ public class AIPlayer extends Player {
         Direction safeDir = getSafeRandomDirection(level);
         setDirection(safeDir);
         lastDecision = safeDir;
-        return new AIAction(AIActionType.MOVE, safeDir);
+        return AIAction.of(AIActionType.MOVE, safeDir);
     }
 
     /**
@@ -274,16 +321,14 @@ public class AIPlayer extends Player {
      * @return La acción decidida.
      */
     private AIAction decideExpertAction(Level level) {
-        List<Position> dangers = findNearbyDangers(level);
-
-        // Si hay peligro muy cercano (distancia <= 2), escapar
-        if (!dangers.isEmpty()) {
-            Position closestDanger = getClosestPosition(dangers);
-            int dangerDistance = manhattanDistance(position, closestDanger);
+        DangerMap dangers = level.getDangerMap();
+        int cell = level.cellOf(position);
+        predictThreats(level);
 
-            if (dangerDistance <= 2) {
-                return decideFearfulAction(level);
-            }
+        // Si hay peligro muy cercano (distancia <= 2) o un enemigo viene hacia aquí, escapar
+        int dangerDistance = dangers.nearestDistance(cell);
+        if ((dangerDistance >= 0 && dangerDistance <= 2) || isThreatened(cell)) {
+            return decideFearfulAction(level);
         }
 
         // Buscar la mejor fruta (considera valor y distancia)
@@ -294,15 +339,22 @@ public class AIPlayer extends Player {
             Direction safeDir = getSafeRandomDirection(level);
             setDirection(safeDir);
             lastDecision = safeDir;
-            return new AIAction(AIActionType.MOVE, safeDir);
+            return AIAction.of(AIActionType.MOVE, safeDir);
         }
 
         Position fruitPos = bestFruit.getPosition();
+
+        // Seguir el camino más corto si el siguiente paso es seguro
+        AIAction pathAction = followPath(level, cell, fruitPos, true);
+        if (pathAction != null) {
+            return pathAction;
+        }
+
         int dx = fruitPos.getX() - position.getX();
         int dy = fruitPos.getY() - position.getY();
 
         // Probar direcciones que acercan a la fruta
-        Direction[] tryDirections = new Direction[4];
+        Direction[] tryDirections = candidateDirections;
         int index = 0;
 
         if (dx > 0)
@@ -320,74 +372,132 @@ public class AIPlayer extends Player {
             if (dir == null)
                 continue;
 
-            Position nextPos = position.add(dir);
+            int next = level.neighbor(cell, dir);
+            if (next < 0)
+                continue;
 
             // Verificar si es seguro
-            boolean isSafe = true;
-            for (Position danger : dangers) {
-                if (manhattanDistance(nextPos, danger) <= 1) {
-                    isSafe = false;
-                    break;
-                }
-            }
-
-            if (!isSafe)
+            if (!dangers.isSafe(next) || isThreatened(next))
                 continue;
 
             // Si hay hielo y es seguro, destruirlo
-            if (level.isIceBlock(nextPos)) {
+            if (level.isIceBlock(next)) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.DESTROY_ICE, dir);
+                return AIAction.of(AIActionType.DESTROY_ICE, dir);
             }
 
             // Si puede moverse y es seguro, hacerlo
-            if (level.canMoveTo(nextPos)) {
+            if (level.canMoveTo(next)) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.MOVE, dir);
+                return AIAction.of(AIActionType.MOVE, dir);
             }
         }
 
         // Si ninguna dirección hacia la fruta es segura, buscar cualquier movimiento
         // seguro
-        for (Direction dir : Direction.values()) {
-            Position nextPos = position.add(dir);
+        for (Direction dir : DIRECTIONS) {
+            int next = level.neighbor(cell, dir);
 
-            if (!level.canMoveTo(nextPos))
+            if (!level.canMoveTo(next))
                 continue;
 
             // Verificar seguridad
-            boolean isSafe = true;
-            for (Position danger : dangers) {
-                if (manhattanDistance(nextPos, danger) <= 1) {
-                    isSafe = false;
-                    break;
-                }
-            }
-
-            if (isSafe) {
+            if (dangers.isSafe(next) && !isThreatened(next)) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.MOVE, dir);
+                return AIAction.of(AIActionType.MOVE, dir);
             }
         }
 
         // Última opción: moverse a cualquier lugar válido (situación desesperada)
-        for (Direction dir : Direction.values()) {
-            Position nextPos = position.add(dir);
-            if (level.canMoveTo(nextPos)) {
+        for (Direction dir : DIRECTIONS) {
+            if (level.canMoveTo(level.neighbor(cell, dir))) {
                 setDirection(dir);
                 lastDecision = dir;
-                return new AIAction(AIActionType.MOVE, dir);
+                return AIAction.of(AIActionType.MOVE, dir);
             }
         }
 
-        return new AIAction(AIActionType.MOVE, lastDecision);
+        return AIAction.of(AIActionType.MOVE, lastDecision);
     }
 
     // ==================== MÉTODOS AUXILIARES ====================
 
+    /**
+     * Estrategia PLANNER: simula jugadas con {@link MonteCarloPlanner} y elige
+     * la dirección que mejor resultó. Si delante hay hielo, lo rompe.
+     * 
+     * @param level       El nivel actual.
+     * @param budgetNanos Tiempo de búsqueda en este tick.
+     * @return La acción decidida.
+     */
+    private AIAction decidePlannerAction(Level level, long budgetNanos) {
+        Direction dir = getPlanner(level).decide(level, this, thinkDelay, budgetNanos);
+        if (dir == null) {
+            // Rodeado de peligros: moverse al azar como los demás perfiles
+            dir = getSafeRandomDirection(level);
+        }
+        lastDecision = dir;
+        if (level.isIceBlock(level.neighbor(level.cellOf(position), dir))) {
+            return AIAction.of(AIActionType.DESTROY_ICE, dir);
+        }
+        return AIAction.of(AIActionType.MOVE, dir);
+    }
+
+    /**
+     * Cambia el planificador del perfil PLANNER, por ejemplo por uno con un
+     * número fijo de simulaciones para obtener partidas reproducibles.
+     * 
+     * @param planner El planificador.
+     */
+    void setPlanner(MonteCarloPlanner planner) {
+        this.planner = planner;
+    }
+
+    /**
+     * Cambia la cantidad de árboles entre los que el perfil PLANNER reparte su
+     * presupuesto por decisión. Con más de uno la decisión llega antes si hay
+     * núcleos libres, sin gastar más tiempo de CPU.
+     * 
+     * @param workers Cantidad de árboles, al menos 1.
+     */
+    public void setPlannerWorkers(int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("El planificador necesita al menos un árbol");
+        }
+        if (workers != plannerWorkers) {
+            plannerWorkers = workers;
+            planner = null;
+        }
+    }
+
+    public int getPlannerWorkers() {
+        return plannerWorkers;
+    }
+
+    // Con un reloj de ticks (simulaciones, torneos, repeticiones) la partida
+    // no puede depender de la velocidad de la máquina
+    private MonteCarloPlanner getPlanner(Level level) {
+        if (planner == null) {
+            planner = level.getClock() instanceof TickClock
+                    ? MonteCarloPlanner.fixed(MonteCarloPlanner.TICK_CLOCK_ITERATIONS, plannerWorkers)
+                    : MonteCarloPlanner.timed(plannerWorkers);
+        }
+        return planner;
+    }
+
+    /**
+     * Indica si la IA decide una acción en el próximo tick, en lugar de
+     * esperar.
+     * 
+     * @return true si el próximo tick es de decisión.
+     */
+    boolean isDecisionDue() {
+        return thinkCounter + 1 >= thinkDelay;
+    }
+
     /**
      * Encuentra la fruta más cercana al jugador.
      * 
@@ -400,7 +510,7 @@ public class AIPlayer extends Player {
 
         for (Fruit fruit : level.getFruits()) {
             if (!fruit.isCollected()) {
-                int dist = manhattanDistance(position, fruit.getPosition());
+                int dist = travelDistance(level, fruit.getPosition());
                 if (dist < minDist) {
                     minDist = dist;
                     closest = fruit;
@@ -411,6 +521,55 @@ public class AIPlayer extends Player {
         return closest;
     }
 
+    /**
+     * Calcula la distancia real (por el camino más corto, contando el hielo que
+     * hay que romper) hasta una posición.
+     * 
+     * @param level  El nivel actual.
+     * @param target La posición objetivo.
+     * @return La distancia, o Pathfinder.UNREACHABLE si no hay camino.
+     */
+    private int travelDistance(Level level, Position target) {
+        return level.getPathfinder().distance(position, target, ICE_BREAK_COST);
+    }
+
+    /**
+     * Intenta dar el primer paso del camino más corto hacia un objetivo.
+     * Si el paso tiene hielo, lo rompe; si no, se mueve.
+     * 
+     * @param level        El nivel actual.
+     * @param cell         La celda actual del jugador.
+     * @param target       La posición objetivo.
+     * @param avoidDangers Si el siguiente paso debe ser seguro según el mapa de
+     *                     peligros del nivel.
+     * @return La acción a realizar, o null si no hay un paso válido.
+     */
+    private AIAction followPath(Level level, int cell, Position target, boolean avoidDangers) {
+        Direction dir = level.getPathfinder().nextStep(cell, level.cellOf(target), ICE_BREAK_COST);
+        if (dir == null) {
+            return null;
+        }
+
+        int next = level.neighbor(cell, dir);
+        if (avoidDangers && (!level.getDangerMap().isSafe(next) || isThreatened(next))) {
+            return null;
+        }
+
+        if (level.isIceBlock(next)) {
+            setDirection(dir);
+            lastDecision = dir;
+            return AIAction.of(AIActionType.DESTROY_ICE, dir);
+        }
+
+        if (level.canMoveTo(next)) {
+            setDirection(dir);
+            lastDecision = dir;
+            return AIAction.of(AIActionType.MOVE, dir);
+        }
+
+        return null;
+    }
+
     /**
      * Encuentra la fruta más cercana que se encuentra en una posición segura.
      * 
@@ -423,7 +582,7 @@ public class AIPlayer extends Player {
 
         for (Fruit fruit : level.getFruits()) {
             if (!fruit.isCollected() && isSafePosition(level, fruit.getPosition())) {
-                int dist = manhattanDistance(position, fruit.getPosition());
+                int dist = travelDistance(level, fruit.getPosition());
                 if (dist < minDist) {
                     minDist = dist;
                     closest = fruit;
@@ -447,7 +606,9 @@ public class AIPlayer extends Player {
 
         for (Fruit fruit : level.getFruits()) {
             if (!fruit.isCollected()) {
-                int dist = manhattanDistance(position, fruit.getPosition());
+                int dist = travelDistance(level, fruit.getPosition());
+                if (dist == Pathfinder.UNREACHABLE)
+                    continue;
                 int value = fruit.getPoints();
                 int risk = evaluatePathRisk(level, fruit.getPosition());
 
@@ -464,60 +625,50 @@ public class AIPlayer extends Player {
     }
 
     /**
-     * Encuentra todos los peligros cercanos (enemigos, fogatas, cactus) dentro de
-     * un radio.
+     * Marca las celdas por las que pasarán los enemigos, y sus vecinas, hasta
+     * que la IA pueda cambiar de rumbo: la jugada decidida ahora dura hasta la
+     * próxima decisión y la corrección llega en la siguiente.
      * 
      * @param level El nivel actual.
-     * @return Lista de posiciones peligrosas.
      */
-    private List<Position> findNearbyDangers(Level level) {
-        List<Position> dangers = new ArrayList<>();
-        int dangerRadius = 3;
-
-        for (Enemy enemy : level.getEnemies()) {
-            if (enemy.isAlive()) {
-                int dist = manhattanDistance(position, enemy.getPosition());
-                if (dist <= dangerRadius) {
-                    dangers.add(enemy.getPosition());
-                }
-            }
-        }
-
-        for (Campfire fire : level.getCampfires()) {
-            if (fire.isLit()) {
-                int dist = manhattanDistance(position, fire.getPosition());
-                if (dist <= dangerRadius) {
-                    dangers.add(fire.getPosition());
-                }
+    private void predictThreats(Level level) {
+        int cells = level.getWidth() * level.getHeight();
+        if (predictedThreats == null || predictedThreats.length != cells) {
+            predictedThreats = new int[cells];
+        }
+        threatStamp++;
+
+        // Los enemigos persiguen al jugador principal del nivel
+        Player chased = level.getPlayer();
+        Position target = chased != null && chased.isAlive() ? chased.getPosition() : null;
+        List<Enemy> enemies = level.getEnemies();
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy == null || !enemy.isAlive()) {
+                continue;
             }
-        }
-
-        for (Fruit fruit : level.getFruits()) {
-            if (fruit instanceof Cactus && ((Cactus) fruit).hasThorns()) {
-                int dist = manhattanDistance(position, fruit.getPosition());
-                if (dist <= dangerRadius) {
-                    dangers.add(fruit.getPosition());
+            for (int predicted : enemy.predictTrajectory(level, target, 2 * thinkDelay)) {
+                predictedThreats[predicted] = threatStamp;
+                for (Direction dir : DIRECTIONS) {
+                    int next = level.neighbor(predicted, dir);
+                    if (next >= 0) {
+                        predictedThreats[next] = threatStamp;
+                    }
                 }
             }
         }
-
-        return dangers;
     }
 
     /**
-     * Verifica si el jugador está en peligro inmediato (adyacente a un peligro).
+     * Indica si un enemigo pasará por una celda o a su lado antes de que la IA
+     * pueda reaccionar. Solo lo calcula el perfil EXPERT.
      * 
-     * @param level   El nivel actual.
-     * @param dangers Lista de posiciones peligrosas.
-     * @return true si está en peligro inmediato, false en caso contrario.
+     * @param cell La celda.
+     * @return true si la celda está amenazada.
      */
-    private boolean isInImmediateDanger(Level level, List<Position> dangers) {
-        for (Position danger : dangers) {
-            if (manhattanDistance(position, danger) <= 1) {
-                return true;
-            }
-        }
-        return false;
+    private boolean isThreatened(int cell) {
+        return profile == AIProfile.EXPERT && predictedThreats != null && cell >= 0
+                && predictedThreats[cell] == threatStamp;
     }
 
     /**
@@ -529,10 +680,8 @@ public class AIPlayer extends Player {
      * @return true si es segura, false en caso contrario.
      */
     private boolean isSafePosition(Level level, Position pos) {
-        for (Enemy enemy : level.getEnemies()) {
-            if (enemy.isAlive() && manhattanDistance(pos, enemy.getPosition()) <= 2) {
-                return false;
-            }
+        if (level.getDangerMap().hasEnemyWithin(level.cellOf(pos), 2)) {
+            return false;
         }
 
         if (level.isDeadlyCampfire(pos)) {
@@ -550,160 +699,8 @@ public class AIPlayer extends Player {
      * @return Un valor numérico representando el riesgo.
      */
     private int evaluatePathRisk(Level level, Position target) {
-        int risk = 0;
-
-        for (Enemy enemy : level.getEnemies()) {
-            if (enemy.isAlive()) {
-                Position enemyPos = enemy.getPosition();
-                if (isInPath(enemyPos, position, target)) {
-                    risk += 2;
-                }
-            }
-        }
-
-        return risk;
-    }
-
-    /**
-     * Verifica si un punto está dentro del rectángulo formado por dos posiciones.
-     * 
-     * @param point El punto a verificar.
-     * @param start Posición inicial.
-     * @param end   Posición final.
-     * @return true si está en el camino, false en caso contrario.
-     */
-    private boolean isInPath(Position point, Position start, Position end) {
-        int minX = Math.min(start.getX(), end.getX());
-        int maxX = Math.max(start.getX(), end.getX());
-        int minY = Math.min(start.getY(), end.getY());
-        int maxY = Math.max(start.getY(), end.getY());
-
-        return point.getX() >= minX && point.getX() <= maxX &&
-                point.getY() >= minY && point.getY() <= maxY;
-    }
-
-    /**
-     * Determina si se debe crear hielo defensivo ante peligros cercanos.
-     * 
-     * @param level   El nivel actual.
-     * @param dangers Lista de peligros.
-     * @return true si se debe crear hielo, false en caso contrario.
-     */
-    private boolean shouldCreateDefensiveIce(Level level, List<Position> dangers) {
-        for (Position danger : dangers) {
-            if (manhattanDistance(position, danger) == 2) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Obtiene la dirección hacia donde crear hielo defensivo.
-     * 
-     * @param dangers Lista de peligros.
-     * @return La dirección hacia el peligro más cercano.
-     */
-    private Direction getDefensiveIceDirection(List<Position> dangers) {
-        Position closest = getClosestPosition(dangers);
-        return getDirectionTowards(closest);
-    }
-
-    /**
-     * Calcula la mejor dirección estratégica evaluando múltiples factores.
-     * 
-     * @param level   El nivel actual.
-     * @param dangers Lista de peligros.
-     * @return La mejor dirección calculada.
-     */
-    private Direction getStrategicDirection(Level level, List<Position> dangers) {
-        Direction best = Direction.RIGHT;
-        double bestScore = -1000;
-
-        for (Direction dir : Direction.values()) {
-            Position next = position.add(dir);
-            if (level.canMoveTo(next)) {
-                double score = evaluatePositionScore(level, next, dangers);
-                if (score > bestScore) {
-                    bestScore = score;
-                    best = dir;
-                }
-            }
-        }
-
-        return best;
-    }
-
-    /**
-     * Evalúa una posición y le asigna una puntuación basada en seguridad y cercanía
-     * a frutas.
-     * 
-     * @param level   El nivel actual.
-     * @param pos     La posición a evaluar.
-     * @param dangers Lista de peligros.
-     * @return La puntuación de la posición.
-     */
-    private double evaluatePositionScore(Level level, Position pos, List<Position> dangers) {
-        double score = 0;
-
-        for (Position danger : dangers) {
-            int dist = manhattanDistance(pos, danger);
-            score -= 10.0 / (dist + 1);
-        }
-
-        for (Fruit fruit : level.getFruits()) {
-            if (!fruit.isCollected()) {
-                int dist = manhattanDistance(pos, fruit.getPosition());
-                score += fruit.getPoints() / (double) (dist + 1);
-            }
-        }
-
-        return score;
-    }
-
-    /**
-     * Obtiene la dirección que acerca más al objetivo.
-     * 
-     * @param target La posición objetivo.
-     * @return La dirección hacia el objetivo.
-     */
-    private Direction getDirectionTowards(Position target) {
-        int dx = target.getX() - position.getX();
-        int dy = target.getY() - position.getY();
-
-        // Priorizar el eje con mayor distancia
-        if (Math.abs(dx) > Math.abs(dy)) {
-            return dx > 0 ? Direction.RIGHT : Direction.LEFT;
-        } else if (Math.abs(dy) > Math.abs(dx)) {
-            return dy > 0 ? Direction.DOWN : Direction.UP;
-        } else {
-            // Si las distancias son iguales, elegir basado en el signo
-            if (dx != 0) {
-                return dx > 0 ? Direction.RIGHT : Direction.LEFT;
-            } else if (dy != 0) {
-                return dy > 0 ? Direction.DOWN : Direction.UP;
-            } else {
-                // Estamos en el objetivo, mantener última dirección
-                return lastDecision != null ? lastDecision : Direction.RIGHT;
-            }
-        }
-    }
-
-    /**
-     * Obtiene la dirección que aleja más de un peligro.
-     * 
-     * @param danger La posición del peligro.
-     * @return La dirección de escape.
-     */
-    private Direction getDirectionAwayFrom(Position danger) {
-        int dx = position.getX() - danger.getX();
-        int dy = position.getY() - danger.getY();
-
-        if (Math.abs(dx) > Math.abs(dy)) {
-            return dx > 0 ? Direction.RIGHT : Direction.LEFT;
-        } else {
-            return dy > 0 ? Direction.DOWN : Direction.UP;
-        }
+        // Cada enemigo dentro del rectángulo entre el jugador y el objetivo suma 2
+        return 2 * level.getDangerMap().enemiesBetween(level.cellOf(position), level.cellOf(target));
     }
 
     /**
@@ -756,20 +753,21 @@ public class AIPlayer extends Player {
      * @return Una dirección válida.
      */
     private Direction getRandomValidDirection(Level level) {
-        List<Direction> valid = new ArrayList<>();
+        Direction[] valid = candidateDirections;
+        int count = 0;
+        int cell = level.cellOf(position);
 
-        for (Direction dir : Direction.values()) {
-            Position next = position.add(dir);
-            if (level.canMoveTo(next)) {
-                valid.add(dir);
+        for (Direction dir : DIRECTIONS) {
+            if (level.canMoveTo(level.neighbor(cell, dir))) {
+                valid[count++] = dir;
             }
         }
 
-        if (valid.isEmpty()) {
+        if (count == 0) {
             return Direction.RIGHT;
         }
 
-        return valid.get((int) (Math.random() * valid.size()));
+        return valid[level.getRandom().nextInt(count)];
     }
 
     /**
@@ -779,80 +777,69 @@ public class AIPlayer extends Player {
      * @return Una dirección segura.
      */
     private Direction getSafeRandomDirection(Level level) {
-        List<Direction> safe = new ArrayList<>();
-        List<Position> dangers = findNearbyDangers(level);
+        Direction[] safe = candidateDirections;
+        int count = 0;
+        DangerMap dangers = level.getDangerMap();
+        int cell = level.cellOf(position);
 
-        for (Direction dir : Direction.values()) {
-            Position next = position.add(dir);
-            if (level.canMoveTo(next) && isSafeFromDangers(next, dangers)) {
-                safe.add(dir);
+        for (Direction dir : DIRECTIONS) {
+            int next = level.neighbor(cell, dir);
+            if (level.canMoveTo(next) && dangers.isSafe(next)) {
+                safe[count++] = dir;
             }
         }
 
-        if (safe.isEmpty()) {
+        if (count == 0) {
             return getRandomValidDirection(level);
         }
 
-        return safe.get((int) (Math.random() * safe.size()));
+        return safe[level.getRandom().nextInt(count)];
     }
 
     /**
-     * Verifica si una posición es segura respecto a una lista de peligros.
+     * Calcula la distancia Manhattan entre dos posiciones.
      * 
-     * @param pos     La posición a verificar.
-     * @param dangers Lista de peligros.
-     * @return true si es segura, false si hay peligro adyacente.
+     * @param a Posición A.
+     * @param b Posición B.
+     * @return La distancia Manhattan.
      */
-    private boolean isSafeFromDangers(Position pos, List<Position> dangers) {
-        for (Position danger : dangers) {
-            if (manhattanDistance(pos, danger) <= 1) {
-                return false;
-            }
-        }
-        return true;
+    private int manhattanDistance(Position a, Position b) {
+        return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
     }
 
     /**
-     * Encuentra la posición más cercana de una lista.
+     * Calcula la distancia Manhattan entre una celda y una posición.
      * 
-     * @param positions Lista de posiciones.
-     * @return La posición más cercana.
+     * @param level El nivel actual.
+     * @param cell  La celda (debe estar dentro del tablero).
+     * @param b     La posición.
+     * @return La distancia Manhattan.
      */
-    private Position getClosestPosition(List<Position> positions) {
-        Position closest = null;
-        int minDist = Integer.MAX_VALUE;
+    private int manhattanDistance(Level level, int cell, Position b) {
+        return Math.abs(level.cellX(cell) - b.getX()) + Math.abs(level.cellY(cell) - b.getY());
+    }
 
-        for (Position pos : positions) {
-            int dist = manhattanDistance(position, pos);
-            if (dist < minDist) {
-                minDist = dist;
-                closest = pos;
-            }
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.varint(thinkDelay);
+        out.varint(thinkCounter);
+        out.direction(lastDecision);
+        out.bool(targetFruit != null);
+        if (targetFruit != null) {
+            out.varint(targetFruit.getX());
+            out.varint(targetFruit.getY());
         }
-
-        return closest;
     }
 
-    /**
-     * Calcula la distancia Manhattan entre dos posiciones.
-     * 
-     * @param a Posición A.
-     * @param b Posición B.
-     * @return La distancia Manhattan.
-     */
-    private int manhattanDistance(Position a, Position b) {
-        return Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        thinkDelay = SaveCodec.varint(in);
+        thinkCounter = SaveCodec.varint(in);
+        lastDecision = SaveCodec.direction(in);
+        targetFruit = SaveCodec.bool(in) ? new Position(SaveCodec.varint(in), SaveCodec.varint(in)) : null;
+        // La búsqueda en curso no se guarda: se descarta el árbol conservado
+        planner = null;
     }
-}
-
-// ==================== CLASES AUXILIARES ====================
-
-/**
- * Tipos de acciones que puede realizar la IA
- */
-enum AIActionType {
-    MOVE,
-    CREATE_ICE,
-    DESTROY_ICE,
-    WAIT
 }
\ No newline at end of file
@@ -11,7 +11,10 @@ public enum AIProfile {
     FEARFUL("Fearful", "Evita enemigos y peligros"),
     
     /** Balancea recolección y supervivencia de manera óptima */
-    EXPERT("Expert", "Estrategia experta balanceada");
+    EXPERT("Expert", "Estrategia experta balanceada"),
+
+    /** Simula jugadas posibles y elige la que mejor resulta (MCTS) */
+    PLANNER("Planner", "Planifica simulando jugadas");
 
     private final String name;
     private final String description;
@@ -0,0 +1,113 @@
+package domain;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Reparte el tiempo de CPU de la IA de una partida. En cada tick le da a cada
+ * IA el mismo presupuesto en nanosegundos: los perfiles heurísticos deciden
+ * de una vez en su tick de decisión, y los planificadores lo usan para
+ * seguir buscando también en los ticks de espera.
+ * <p>
+ * El tiempo de cada decisión, sumando todos los ticks que llevó, se registra
+ * en un histograma por perfil compartido por todas las partidas del proceso,
+ * para vigilar el coste de la IA cuando muchas partidas comparten máquina.
+ */
+public class AIScheduler {
+    /**
+     * Presupuesto por defecto de cada IA por tick: 0,4 ms, o 2 ms por
+     * decisión. Se cambia con la propiedad {@code badicecream.aiTickBudgetNanos}.
+     */
+    public static final long DEFAULT_TICK_BUDGET_NANOS = Long.getLong("badicecream.aiTickBudgetNanos", 400_000L);
+
+    private static final Map<AIProfile, LatencyHistogram> LATENCIES;
+
+    static {
+        Map<AIProfile, LatencyHistogram> latencies = new EnumMap<>(AIProfile.class);
+        for (AIProfile profile : AIProfile.values()) {
+            latencies.put(profile, new LatencyHistogram());
+        }
+        LATENCIES = Collections.unmodifiableMap(latencies);
+    }
+
+    private volatile long tickBudgetNanos;
+    // Tiempo acumulado de la decisión en curso de cada IA
+    private final AIPlayer[] players = new AIPlayer[2];
+    private final long[] pendingNanos = new long[2];
+
+    public AIScheduler() {
+        this(DEFAULT_TICK_BUDGET_NANOS);
+    }
+
+    /**
+     * Constructor de la clase AIScheduler.
+     *
+     * @param tickBudgetNanos Presupuesto de cada IA por tick, en nanosegundos.
+     */
+    public AIScheduler(long tickBudgetNanos) {
+        setTickBudgetNanos(tickBudgetNanos);
+    }
+
+    /**
+     * Obtiene la acción de una IA en este tick, dentro del presupuesto.
+     *
+     * @param playerNumber El número de la IA en la partida, 1 o 2.
+     * @param ai           La IA.
+     * @param level        El nivel.
+     * @return La acción de la IA.
+     */
+    AIAction next(int playerNumber, AIPlayer ai, Level level) {
+        int slot = playerNumber - 1;
+        if (players[slot] != ai) {
+            players[slot] = ai;
+            pendingNanos[slot] = 0;
+        }
+        boolean deciding = ai.isDecisionDue();
+        long start = System.nanoTime();
+        AIAction action = ai.decideAction(level, tickBudgetNanos);
+        pendingNanos[slot] += System.nanoTime() - start;
+        if (deciding) {
+            LATENCIES.get(ai.getProfile()).record(pendingNanos[slot]);
+            pendingNanos[slot] = 0;
+        }
+        return action;
+    }
+
+    public long getTickBudgetNanos() {
+        return tickBudgetNanos;
+    }
+
+    /**
+     * Cambia el presupuesto de cada IA por tick. Se puede llamar desde
+     * cualquier hilo; vale a partir del tick siguiente.
+     *
+     * @param tickBudgetNanos El presupuesto en nanosegundos.
+     */
+    public void setTickBudgetNanos(long tickBudgetNanos) {
+        if (tickBudgetNanos < 0) {
+            throw new IllegalArgumentException("El presupuesto no puede ser negativo: " + tickBudgetNanos);
+        }
+        this.tickBudgetNanos = tickBudgetNanos;
+    }
+
+    /**
+     * Obtiene el histograma de tiempos de decisión de un perfil, con las
+     * decisiones de todas las partidas del proceso.
+     *
+     * @param profile El perfil.
+     * @return El histograma, en nanosegundos.
+     */
+    public static LatencyHistogram getLatency(AIProfile profile) {
+        return LATENCIES.get(profile);
+    }
+
+    /**
+     * Borra los tiempos de decisión de todos los perfiles.
+     */
+    public static void resetLatencies() {
+        for (LatencyHistogram histogram : LATENCIES.values()) {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.CRC32;
+
+/**
+ * Autoguardado periódico para sesiones largas sin supervisión. Cada
+ * {@code interval} ticks guarda un punto de control en un anillo de
+ * {@code ringSize} archivos; el punto n va al archivo n % ringSize.
+ * <p>
+ * Para escribir poco, la mayoría de los puntos guardan solo los tramos de
+ * bytes que cambiaron respecto al anterior. Cada ringSize - 1 puntos se guarda
+ * una partida completa, de modo que la cadena de diferencias del penúltimo
+ * punto sigue entera aunque el último se esté escribiendo.
+ * <p>
+ * Formato de cada archivo (big endian):
+ * <pre>
+ * encabezado: int MAGIC, u8 versión, u8 tipo, long secuencia, int largo,
+ *             int CRC32 del contenido
+ * completo:   el archivo de {@link SaveCodec}
+ * diferencia: varint largo resultante,
+ *             (varint salto, varint largo, bytes) por tramo distinto
+ * </pre>
+ */
+public class AutosaveManager {
+    private static final int MAGIC = 0x4249434B; // "BICK"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 22;
+    private static final int FULL = 0;
+    private static final int DELTA = 1;
+    // Iguales seguidos que hacen falta para cortar un tramo distinto
+    private static final int MERGE_GAP = 4;
+
+    private final File directory;
+    private final int interval;
+    private final int ringSize;
+
+    private long sequence = -1;
+    private byte[] previous;
+    private long lastTick = -1;
+    // Si una escritura falla, el siguiente punto no puede depender de ella
+    private volatile boolean forceFull;
+    private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+    /**
+     * Constructor de la clase AutosaveManager.
+     *
+     * @param directory     Directorio de los puntos de control.
+     * @param intervalTicks Ticks entre dos puntos de control.
+     * @param ringSize      Cantidad de archivos del anillo, al menos 2.
+     */
+    public AutosaveManager(File directory, int intervalTicks, int ringSize) {
+        if (intervalTicks < 1) {
+            throw new IllegalArgumentException("El intervalo debe ser positivo: " + intervalTicks);
+        }
+        if (ringSize < 2) {
+            throw new IllegalArgumentException("El anillo necesita al menos 2 archivos: " + ringSize);
+        }
+        this.directory = directory;
+        this.interval = intervalTicks;
+        this.ringSize = ringSize;
+    }
+
+    /**
+     * Guarda un punto de control si toca en este tick. Debe llamarse desde el
+     * hilo de la simulación, después de cada tick.
+     *
+     * @param game El juego simulado.
+     */
+    public void afterTick(Game game) {
+        long tick = game.getTickCount();
+        if (tick == lastTick || tick % interval != 0) {
+            return;
+        }
+        lastTick = tick;
+        checkpoint(game);
+    }
+
+    /**
+     * Guarda un punto de control ahora. El estado se codifica en el hilo que
+     * llama y el archivo se escribe en segundo plano.
+     *
+     * @param game El juego.
+     * @return Se completa al quedar el archivo en disco.
+     */
+    public CompletableFuture<Void> checkpoint(Game game) {
+        byte[] save = SaveCodec.encode(game);
+        long next = sequence + 1;
+        boolean full = previous == null || forceFull || next % (ringSize - 1) == 0;
+        forceFull = false;
+        byte[] data = frame(full ? FULL : DELTA, next, full ? save : delta(previous, save));
+        sequence = next;
+        previous = save;
+
+        pending = GameSaveManager.writeAsync(slot(next), data).whenComplete((ignored, error) -> {
+            if (error != null) {
+                forceFull = true;
+                BadIceCreamLog.log("No se pudo escribir el punto de control " + next);
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * Obtiene la escritura del último punto de control. Como se escriben en
+     * orden, al completarse ya están en disco todos los anteriores.
+     *
+     * @return La escritura pendiente.
+     */
+    public CompletableFuture<Void> flush() {
+        return pending;
+    }
+
+    /**
+     * Carga el punto de control válido más reciente. Se descartan los archivos
+     * con la suma de control dañada o incompletos y los puntos cuya cadena de
+     * diferencias no está entera. Los siguientes puntos continúan desde el
+     * cargado.
+     *
+     * @param clock Reloj del juego cargado.
+     * @return El juego cargado.
+     * @throws BadIceCreamException Si no hay ningún punto de control válido.
+     */
+    public Game resumeLatest(GameClock clock) throws BadIceCreamException {
+        Map<Long, Checkpoint> checkpoints = new HashMap<>();
+        for (int i = 0; i < ringSize; i++) {
+            Checkpoint checkpoint = read(directory.toPath().resolve(fileName(i)));
+            if (checkpoint != null) {
+                checkpoints.put(checkpoint.sequence, checkpoint);
+            }
+        }
+
+        List<Long> sequences = new ArrayList<>(checkpoints.keySet());
+        sequences.sort((a, b) -> Long.compare(b, a));
+        for (long candidate : sequences) {
+            byte[] save = rebuild(candidate, checkpoints);
+            if (save == null) {
+                BadIceCreamLog.log("Punto de control " + candidate + " sin cadena completa, se descarta");
+                continue;
+            }
+            try {
+                Game game = SaveCodec.decode(save, clock);
+                sequence = candidate;
+                previous = save;
+                lastTick = game.getTickCount();
+                BadIceCreamLog.log("Partida retomada desde el punto de control " + candidate);
+                return game;
+            } catch (BadIceCreamException e) {
+                BadIceCreamLog.log("Punto de control " + candidate + " inválido: " + e.getMessage());
+            }
+        }
+        throw new BadIceCreamException("No hay puntos de control válidos en: " + directory.getAbsolutePath());
+    }
+
+    private Path slot(long sequence) {
+        return directory.toPath().resolve(fileName((int) (sequence % ringSize)));
+    }
+
+    private static String fileName(int slot) {
+        return "autosave-" + slot + ".sav";
+    }
+
+    // ==================== ARCHIVOS ====================
+
+    private static byte[] frame(int kind, long sequence, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        out.putInt(MAGIC);
+        out.put((byte) VERSION);
+        out.put((byte) kind);
+        out.putLong(sequence);
+        out.putInt(body.length);
+        out.putInt((int) crc.getValue());
+        out.put(body);
+        return out.array();
+    }
+
+    /**
+     * Lee un punto de control, o null si falta o está dañado.
+     */
+    private static Checkpoint read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        byte[] data;
+        try {
+            data = Files.readAllBytes(file);
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            return null;
+        }
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length < HEADER_SIZE || in.getInt() != MAGIC || in.get() != VERSION) {
+            BadIceCreamLog.log("Punto de control no reconocido: " + file);
+            return null;
+        }
+        int kind = in.get();
+        long sequence = in.getLong();
+        int length = in.getInt();
+        int checksum = in.getInt();
+        if ((kind != FULL && kind != DELTA) || length != data.length - HEADER_SIZE) {
+            BadIceCreamLog.log("Punto de control incompleto: " + file);
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, HEADER_SIZE, length);
+        if ((int) crc.getValue() != checksum) {
+            BadIceCreamLog.log("Suma de control dañada en el punto de control: " + file);
+            return null;
+        }
+        return new Checkpoint(kind, sequence, in.slice());
+    }
+
+    /**
+     * Reconstruye la partida completa de un punto siguiendo sus diferencias
+     * hasta el último punto completo. Devuelve null si falta algún eslabón.
+     */
+    private static byte[] rebuild(long sequence, Map<Long, Checkpoint> checkpoints) {
+        List<Checkpoint> chain = new ArrayList<>();
+        Checkpoint current = checkpoints.get(sequence);
+        while (current != null && current.kind == DELTA) {
+            chain.add(current);
+            current = checkpoints.get(current.sequence - 1);
+        }
+        if (current == null) {
+            return null;
+        }
+        byte[] save = bytes(current.body);
+        try {
+            for (int i = chain.size() - 1; i >= 0; i--) {
+                save = applyDelta(save, chain.get(i).body.duplicate());
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+        return save;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return data;
+    }
+
+    // ==================== DIFERENCIAS ====================
+
+    /**
+     * Codifica los tramos de {@code next} que difieren de {@code base}.
+     */
+    static byte[] delta(byte[] base, byte[] next) {
+        SaveCodec.Output out = new SaveCodec.Output(64);
+        out.varint(next.length);
+        int covered = 0;
+        int i = 0;
+        while (i < next.length) {
+            if (same(base, next, i)) {
+                i++;
+                continue;
+            }
+            // El tramo se extiende mientras no haya MERGE_GAP bytes iguales seguidos
+            int start = i;
+            int end = i + 1;
+            for (int j = end; j < next.length && j - end < MERGE_GAP; j++) {
+                if (!same(base, next, j)) {
+                    end = j + 1;
+                }
+            }
+            out.varint(start - covered);
+            out.varint(end - start);
+            out.write(next, start, end - start);
+            covered = end;
+            i = end;
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean same(byte[] base, byte[] next, int i) {
+        return i < base.length && base[i] == next[i];
+    }
+
+    /**
+     * Aplica una diferencia escrita con {@link #delta} sobre su base.
+     */
+    static byte[] applyDelta(byte[] base, ByteBuffer in) {
+        byte[] result = new byte[SaveCodec.varint(in)];
+        System.arraycopy(base, 0, result, 0, Math.min(base.length, result.length));
+        int position = 0;
+        while (in.hasRemaining()) {
+            position += SaveCodec.varint(in);
+            int length = SaveCodec.varint(in);
+            in.get(result, position, length);
+            position += length;
+        }
+        return result;
+    }
+
+    private static final class Checkpoint {
+        final int kind;
+        final long sequence;
+        final ByteBuffer body;
+
+        Checkpoint(int kind, long sequence, ByteBuffer body) {
+            this.kind = kind;
+            this.sequence = sequence;
+            this.body = body;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package domain;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 /**
  * Representa un cactus en el juego.
  * Es una fruta especial que alterna entre tener púas (peligroso) y no tenerlas (recolectable).
@@ -8,7 +9,7 @@ import java.io.Serializable;
 public class Cactus extends Fruit implements Serializable {
     private static final long serialVersionUID = 1L; 
     private boolean hasThorns; // Tiene púas actualmente
-    private long lastStateChange; // Última vez que cambió de estado
+    private long lastStateChange; // Última vez que cambió de estado (-1 si aún no empezó a contar)
     private static final long STATE_CHANGE_INTERVAL = 30000; // 30 segundos en milisegundos
     
     /**
@@ -19,7 +20,7 @@ public class Cactus extends Fruit implements Serializable {
     public Cactus(Position position) {
         super(position, FruitType.CACTUS);
         this.hasThorns = false; // Comienza sin púas
-        this.lastStateChange = System.currentTimeMillis();
+        this.lastStateChange = -1; // El temporizador arranca en el primer update, con el reloj del nivel
     }
 
     /**
@@ -32,13 +33,17 @@ public class Cactus extends Fruit implements Serializable {
     public void update(Level level) {
         if (collected) return;
         
-        long currentTime = System.currentTimeMillis();
+        long currentTime = level.getClock().currentTimeMillis();
+        if (lastStateChange < 0) {
+            lastStateChange = currentTime;
+        }
         long elapsed = currentTime - lastStateChange;
         
         // Cambiar estado cada 30 segundos
         if (elapsed >= STATE_CHANGE_INTERVAL) {
             hasThorns = !hasThorns;
             lastStateChange = currentTime;
+            markDirty();
         }
         
         // Si tiene púas y el jugador está en la misma posición, matarlo
@@ -65,7 +70,10 @@ public class Cactus extends Fruit implements Serializable {
      * @return Milisegundos hasta el próximo cambio.
      */
     public long getTimeUntilStateChange() {
-        long elapsed = System.currentTimeMillis() - lastStateChange;
+        if (lastStateChange < 0) {
+            return STATE_CHANGE_INTERVAL;
+        }
+        long elapsed = currentTimeMillis() - lastStateChange;
         return Math.max(0, STATE_CHANGE_INTERVAL - elapsed);
     }
     
@@ -95,4 +103,19 @@ public class Cactus extends Fruit implements Serializable {
             super.collect();
         }
     }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.bool(hasThorns);
+        out.timer(lastStateChange, currentTimeMillis());
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        hasThorns = SaveCodec.bool(in);
+        lastStateChange = SaveCodec.timer(in, currentTimeMillis());
+        markDirty();
+    }
 }
\ No newline at end of file
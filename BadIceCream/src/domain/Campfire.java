@@ -1,18 +1,20 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Fogata - Mata al jugador pero no a los enemigos
  * Se apaga y prende automáticamente cada cierto tiempo
  */
 public class Campfire extends GameObject {
     private boolean lit; // Encendida o apagada
-    private long lastStateChange; // Última vez que cambió de estado
+    private long lastStateChange; // Última vez que cambió de estado (-1 si aún no empezó a contar)
     private static final long STATE_CHANGE_INTERVAL = 5000; // 5 segundos encendida, 5 segundos apagada
     
     public Campfire(Position position) {
         super(position);
         this.lit = true; // Comienza encendida
-        this.lastStateChange = System.currentTimeMillis();
+        this.lastStateChange = -1; // El temporizador arranca en el primer update, con el reloj del nivel
     }
     
     public boolean isLit() {
@@ -21,19 +23,24 @@ public class Campfire extends GameObject {
     
     public void extinguish() {
         this.lit = false;
-        this.lastStateChange = System.currentTimeMillis();
+        this.lastStateChange = currentTimeMillis();
+        markDirty();
     }
     
     public void relight() {
         this.lit = true;
-        this.lastStateChange = System.currentTimeMillis();
+        this.lastStateChange = currentTimeMillis();
+        markDirty();
     }
     
     /**
      * Actualiza el estado de la fogata - alterna entre encendida y apagada
      */
     public void update() {
-        long currentTime = System.currentTimeMillis();
+        long currentTime = currentTimeMillis();
+        if (lastStateChange < 0) {
+            lastStateChange = currentTime;
+        }
         long elapsed = currentTime - lastStateChange;
         
         // Cambiar estado cada 5 segundos
@@ -70,4 +77,19 @@ public class Campfire extends GameObject {
     public String getType() {
         return "Campfire";
     }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.bool(lit);
+        out.timer(lastStateChange, currentTimeMillis());
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        lit = SaveCodec.bool(in);
+        lastStateChange = SaveCodec.timer(in, currentTimeMillis());
+        markDirty();
+    }
 }
\ No newline at end of file
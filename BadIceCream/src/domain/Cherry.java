@@ -1,5 +1,7 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Representa una fruta de tipo Cereza.
  * Es una fruta móvil que otorga puntos.
@@ -7,6 +9,7 @@ package domain;
 public class Cherry extends Fruit {
     private int moveCounter;
     private static final int MOVE_DELAY = 15;
+    private static final Direction[] DIRECTIONS = Direction.values();
     private Direction currentDirection;
     
     /**
@@ -17,7 +20,7 @@ public class Cherry extends Fruit {
     public Cherry(Position position) {
         super(position, FruitType.CHERRY);
         this.moveCounter = 0;
-        this.currentDirection = getRandomDirection();
+        this.currentDirection = null; // Se elige en el primer update con el azar del nivel
     }
 
     /**
@@ -30,42 +33,51 @@ public class Cherry extends Fruit {
     public void update(Level level) {
         if (collected) return;
         
+        if (currentDirection == null) {
+            currentDirection = getRandomDirection(level);
+        }
+
         moveCounter++;
         if (moveCounter >= MOVE_DELAY) {
             moveCounter = 0;
             
             // Intentar moverse en la dirección actual
-            Position newPos = position.add(currentDirection);
+            int next = level.neighbor(level.cellOf(position), currentDirection);
             
-            if (canMoveTo(newPos, level)) {
-                position = newPos;
+            if (canMoveTo(next, level)) {
+                setPosition(level.positionOf(next));
             } else {
                 // Cambiar de dirección si está bloqueada
-                currentDirection = getRandomDirection();
+                currentDirection = getRandomDirection(level);
             }
         }
     }
     
-    private Direction getRandomDirection() {
-        Direction[] directions = Direction.values();
-        return directions[(int)(Math.random() * directions.length)];
+    private Direction getRandomDirection(Level level) {
+        return DIRECTIONS[level.getRandom().nextInt(DIRECTIONS.length)];
     }
     
-    private boolean canMoveTo(Position pos, Level level) {
-        if (pos.getX() < 1 || pos.getX() >= level.getWidth() - 1 ||
-            pos.getY() < 1 || pos.getY() >= level.getHeight() - 1) {
+    private boolean canMoveTo(int cell, Level level) {
+        if (cell < 0) {
+            return false;
+        }
+        
+        int x = level.cellX(cell);
+        int y = level.cellY(cell);
+        if (x < 1 || x >= level.getWidth() - 1 ||
+            y < 1 || y >= level.getHeight() - 1) {
             return false;
         }
         
-        if (level.isWall(pos) || level.isIceBlock(pos)) {
+        if (level.isWall(cell) || level.isIceBlock(cell)) {
             return false;
         }
         
-        if (level.getFruitAt(pos) != null) {
+        if (level.getFruitAt(cell) != null) {
             return false;
         }
         
-        if (level.hasEnemyAt(pos)) {
+        if (level.hasEnemyAt(cell)) {
             return false;
         }
         
@@ -76,4 +88,18 @@ public class Cherry extends Fruit {
     public String getSymbol() {
         return "Ch";
     }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.varint(moveCounter);
+        out.direction(currentDirection);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        moveCounter = SaveCodec.varint(in);
+        currentDirection = SaveCodec.direction(in);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,303 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mapa de peligro de un nivel, compartido por todos los jugadores de la IA.
+ * Para cada celda guarda cuántos peligros hay a cada distancia (Manhattan)
+ * hasta {@link #RADIUS}, así que las consultas de la IA son O(1) en lugar de
+ * recorrer enemigos, fogatas y cactus en cada decisión.
+ * <p>
+ * Son peligros los enemigos vivos, las fogatas encendidas y los cactus con
+ * púas. El anillo de distancia 1 alrededor de un enemigo cubre todas las
+ * celdas a las que puede pasar en su próximo paso, que es la predicción que
+ * usa la IA; {@link Enemy#getNextPosition} no sirve para esto porque cambia el
+ * estado del enemigo y consume el azar del nivel.
+ * <p>
+ * El mapa se actualiza de forma incremental y a lo sumo una vez por cambio
+ * del tablero: se comparan las celdas de cada peligro con las de la última
+ * actualización y solo se vuelven a marcar las que cambiaron.
+ */
+public class DangerMap {
+    /** Distancia máxima a la que se cuentan los peligros */
+    public static final int RADIUS = 3;
+    /** Distancia máxima a la que se cuentan los enemigos por separado */
+    public static final int ENEMY_RADIUS = 2;
+
+    private static final int BINS = RADIUS + 1;
+    private static final int ENEMY_BINS = ENEMY_RADIUS + 1;
+
+    private final Level level;
+    private final int width;
+    private final int height;
+
+    // Peligros a cada distancia: [celda * BINS + distancia]
+    private final int[] dangers;
+    // Enemigos a cada distancia: [celda * ENEMY_BINS + distancia]
+    private final int[] enemies;
+    // Suma acumulada de enemigos por rectángulo: [(y + 1) * (width + 1) + x + 1]
+    private final int[] enemyPrefix;
+    private boolean prefixStale = true;
+
+    // Celda marcada por cada peligro (enemigos, fogatas, frutas), o -1
+    private int[] sourceCells = new int[0];
+    private int enemyCount = -1;
+    private int campfireCount = -1;
+    private int fruitCount = -1;
+    private int seenVersion = -1;
+
+    /**
+     * Constructor de la clase DangerMap.
+     *
+     * @param level El nivel del que se calculan los peligros.
+     */
+    public DangerMap(Level level) {
+        this.level = level;
+        this.width = level.getWidth();
+        this.height = level.getHeight();
+        this.dangers = new int[width * height * BINS];
+        this.enemies = new int[width * height * ENEMY_BINS];
+        this.enemyPrefix = new int[(width + 1) * (height + 1)];
+    }
+
+    /**
+     * Pone el mapa al día con el estado del nivel. No hace nada si el tablero
+     * no cambió desde la última vez.
+     */
+    void refresh() {
+        int version = level.getOccupancyGrid().getChangeVersion();
+        if (version == seenVersion) {
+            return;
+        }
+        seenVersion = version;
+
+        List<Enemy> enemyList = level.getEnemies();
+        List<Campfire> campfireList = level.getCampfires();
+        List<Fruit> fruitList = level.getFruits();
+        if (enemyList.size() != enemyCount || campfireList.size() != campfireCount
+                || fruitList.size() != fruitCount) {
+            rebuild(enemyList, campfireList, fruitList);
+            return;
+        }
+
+        int index = 0;
+        for (int i = 0; i < enemyList.size(); i++) {
+            Enemy enemy = enemyList.get(i);
+            update(index++, enemy != null && enemy.isAlive() ? cellOf(enemy) : -1, true);
+        }
+        for (int i = 0; i < campfireList.size(); i++) {
+            update(index++, campfireCell(campfireList.get(i)), false);
+        }
+        for (int i = 0; i < fruitList.size(); i++) {
+            update(index++, cactusCell(fruitList.get(i)), false);
+        }
+    }
+
+    private void rebuild(List<Enemy> enemyList, List<Campfire> campfireList, List<Fruit> fruitList) {
+        Arrays.fill(dangers, 0);
+        Arrays.fill(enemies, 0);
+        enemyCount = enemyList.size();
+        campfireCount = campfireList.size();
+        fruitCount = fruitList.size();
+        int total = enemyCount + campfireCount + fruitCount;
+        if (sourceCells.length < total) {
+            sourceCells = new int[total];
+        }
+        Arrays.fill(sourceCells, -1);
+
+        int index = 0;
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy enemy = enemyList.get(i);
+            update(index++, enemy != null && enemy.isAlive() ? cellOf(enemy) : -1, true);
+        }
+        for (int i = 0; i < campfireCount; i++) {
+            update(index++, campfireCell(campfireList.get(i)), false);
+        }
+        for (int i = 0; i < fruitCount; i++) {
+            update(index++, cactusCell(fruitList.get(i)), false);
+        }
+        prefixStale = true;
+    }
+
+    private int cellOf(GameObject obj) {
+        return level.cellOf(obj.getPosition());
+    }
+
+    private int campfireCell(Campfire fire) {
+        return fire != null && fire.isLit() ? cellOf(fire) : -1;
+    }
+
+    private int cactusCell(Fruit fruit) {
+        if (fruit instanceof Cactus && !fruit.isCollected() && ((Cactus) fruit).hasThorns()) {
+            return cellOf(fruit);
+        }
+        return -1;
+    }
+
+    private void update(int index, int cell, boolean enemy) {
+        int old = sourceCells[index];
+        if (old == cell) {
+            return;
+        }
+        if (old >= 0) {
+            stamp(old, -1, enemy);
+        }
+        if (cell >= 0) {
+            stamp(cell, 1, enemy);
+        }
+        sourceCells[index] = cell;
+        if (enemy) {
+            prefixStale = true;
+        }
+    }
+
+    // Suma o resta un peligro en el rombo de radio RADIUS alrededor de la celda
+    private void stamp(int cell, int delta, boolean enemy) {
+        int cx = cell % width;
+        int cy = cell / width;
+        for (int dy = -RADIUS; dy <= RADIUS; dy++) {
+            int y = cy + dy;
+            if (y < 0 || y >= height) {
+                continue;
+            }
+            int span = RADIUS - Math.abs(dy);
+            for (int dx = -span; dx <= span; dx++) {
+                int x = cx + dx;
+                if (x < 0 || x >= width) {
+                    continue;
+                }
+                int target = y * width + x;
+                int distance = Math.abs(dx) + Math.abs(dy);
+                dangers[target * BINS + distance] += delta;
+                if (enemy && distance <= ENEMY_RADIUS) {
+                    enemies[target * ENEMY_BINS + distance] += delta;
+                }
+            }
+        }
+    }
+
+    // ==================== CONSULTAS ====================
+
+    /**
+     * Indica si una celda es segura: no hay peligros en ella ni al lado.
+     *
+     * @param cell La celda.
+     * @return true si es segura; las celdas fuera del tablero no lo son.
+     */
+    public boolean isSafe(int cell) {
+        return cell >= 0 && dangers[cell * BINS] + dangers[cell * BINS + 1] == 0;
+    }
+
+    /**
+     * Cantidad de peligros a una distancia exacta de una celda.
+     *
+     * @param cell     La celda.
+     * @param distance La distancia, hasta {@link #RADIUS}.
+     * @return Los peligros a esa distancia.
+     */
+    public int countAt(int cell, int distance) {
+        return cell < 0 ? 0 : dangers[cell * BINS + distance];
+    }
+
+    /**
+     * Distancia al peligro más cercano a una celda.
+     *
+     * @param cell La celda.
+     * @return La distancia, o -1 si no hay peligros a {@link #RADIUS} o menos.
+     */
+    public int nearestDistance(int cell) {
+        if (cell < 0) {
+            return -1;
+        }
+        for (int d = 0; d < BINS; d++) {
+            if (dangers[cell * BINS + d] > 0) {
+                return d;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Busca la celda del peligro más cercano a una celda. Entre varios a la
+     * misma distancia se elige el primero recorriendo el rombo de arriba
+     * abajo y de izquierda a derecha.
+     *
+     * @param cell La celda.
+     * @return La celda del peligro, o -1 si no hay ninguno a {@link #RADIUS} o
+     *         menos.
+     */
+    public int nearestDanger(int cell) {
+        int distance = nearestDistance(cell);
+        if (distance < 0) {
+            return -1;
+        }
+        int cx = cell % width;
+        int cy = cell / width;
+        for (int dy = -distance; dy <= distance; dy++) {
+            int y = cy + dy;
+            int span = distance - Math.abs(dy);
+            for (int dx = -span; dx <= span; dx += Math.max(1, 2 * span)) {
+                int x = cx + dx;
+                if (y >= 0 && y < height && x >= 0 && x < width && dangers[(y * width + x) * BINS] > 0) {
+                    return y * width + x;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Indica si hay algún enemigo vivo a una distancia dada de una celda o más
+     * cerca.
+     *
+     * @param cell     La celda.
+     * @param distance La distancia, hasta {@link #ENEMY_RADIUS}.
+     * @return true si hay un enemigo en ese radio.
+     */
+    public boolean hasEnemyWithin(int cell, int distance) {
+        if (cell < 0) {
+            return false;
+        }
+        for (int d = 0; d <= distance; d++) {
+            if (enemies[cell * ENEMY_BINS + d] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cuenta los enemigos vivos dentro del rectángulo que forman dos celdas,
+     * bordes incluidos, con una suma acumulada que se recalcula solo cuando
+     * algún enemigo se movió.
+     *
+     * @param from Una esquina.
+     * @param to   La esquina opuesta.
+     * @return Los enemigos dentro del rectángulo.
+     */
+    public int enemiesBetween(int from, int to) {
+        if (prefixStale) {
+            rebuildPrefix();
+        }
+        int x0 = Math.min(from % width, to % width);
+        int x1 = Math.max(from % width, to % width) + 1;
+        int y0 = Math.min(from / width, to / width);
+        int y1 = Math.max(from / width, to / width) + 1;
+        int stride = width + 1;
+        return enemyPrefix[y1 * stride + x1] - enemyPrefix[y0 * stride + x1]
+                - enemyPrefix[y1 * stride + x0] + enemyPrefix[y0 * stride + x0];
+    }
+
+    private void rebuildPrefix() {
+        int stride = width + 1;
+        for (int y = 0; y < height; y++) {
+            int row = 0;
+            for (int x = 0; x < width; x++) {
+                row += enemies[(y * width + x) * ENEMY_BINS];
+                enemyPrefix[(y + 1) * stride + x + 1] = enemyPrefix[y * stride + x + 1] + row;
+            }
+        }
+        prefixStale = false;
+    }
+}
@@ -7,6 +7,8 @@ package domain;
  */
 public abstract class Enemy extends Unit implements EnemyBehavior {
     protected EnemyType enemyType;
+    // Estado de movimiento; las predicciones trabajan sobre copias
+    protected final EnemyMotion motion = new EnemyMotion();
 
     /**
      * Constructor de la clase Enemy.
@@ -69,4 +71,119 @@ public abstract class Enemy extends Unit implements EnemyBehavior {
      * @param player El jugador.
      */
     public abstract void updateBehavior(Level level, Player player);
+
+    /**
+     * Ticks entre dos pasos del enemigo. La IA lo usa para estimar cuánto
+     * avanza mientras decide.
+     * 
+     * @return Los ticks por paso.
+     */
+    int getMoveDelay() {
+        return 10;
+    }
+
+    /**
+     * Coste de ruptura con que el enemigo pide al {@link Pathfinder} el
+     * camino hacia el jugador. La IA lo usa para simular la persecución.
+     * 
+     * @return El coste, o {@link Pathfinder#ICE_IMPASSABLE} si el hielo lo
+     *         detiene.
+     */
+    int getChaseIceCost() {
+        return Pathfinder.ICE_IMPASSABLE;
+    }
+
+    /**
+     * Avanza un tick el movimiento de un enemigo de este tipo sobre el estado
+     * dado, sin tocar al enemigo ni al nivel. Los bloques de hielo que rompe
+     * quedan en {@code motion.clearedCell}. Por defecto el enemigo no se mueve.
+     * 
+     * @param motion El estado a avanzar.
+     * @param level  El nivel.
+     * @param target La posición del jugador perseguido, o null si no hay.
+     */
+    void advance(EnemyMotion motion, Level level, Position target) {
+    }
+
+    /**
+     * Mueve al enemigo un tick con sus reglas de movimiento y aplica al nivel
+     * el hielo que haya roto.
+     * 
+     * @param level  El nivel actual.
+     * @param player El jugador perseguido.
+     */
+    protected void step(Level level, Player player) {
+        int cell = level.cellOf(position);
+        motion.cell = cell;
+        motion.random = level.getRandom();
+        advance(motion, level, player != null && player.isAlive() ? player.getPosition() : null);
+
+        if (motion.clearedCell >= 0) {
+            IceBlock block = level.getIceBlockAt(motion.clearedCell);
+            if (block != null) {
+                block.destroy();
+            }
+            motion.clearedCell = -1;
+        }
+        if (motion.cell != cell) {
+            move(level.positionOf(motion.cell));
+        }
+    }
+
+    /**
+     * Obtiene una copia del estado de movimiento actual del enemigo.
+     * 
+     * @param level El nivel.
+     * @return La copia, para predecir desde ella o desde una variante.
+     */
+    public EnemyMotion getMotion(Level level) {
+        EnemyMotion copy = motion.copy();
+        copy.cell = level.cellOf(position);
+        return copy;
+    }
+
+    @Override
+    public int[] predictTrajectory(Level level, Position target, int ticks) {
+        return predictTrajectory(level, getMotion(level), target, ticks);
+    }
+
+    /**
+     * Predice las celdas del enemigo en los próximos ticks partiendo de un
+     * estado hipotético, sin modificar al enemigo ni al nivel. El resto del
+     * nivel, los demás enemigos incluidos, se supone quieto.
+     * 
+     * @param level  El nivel.
+     * @param from   El estado de partida, que tampoco se modifica.
+     * @param target La posición del jugador perseguido, o null si no hay.
+     * @param ticks  La cantidad de ticks.
+     * @return La celda del enemigo tras cada tick.
+     */
+    public int[] predictTrajectory(Level level, EnemyMotion from, Position target, int ticks) {
+        EnemyMotion m = from.copy();
+        int[] cells = new int[Math.max(0, ticks)];
+        for (int i = 0; i < cells.length; i++) {
+            advance(m, level, target);
+            cells[i] = m.cell;
+        }
+        return cells;
+    }
+
+    /**
+     * Indica si hay hielo en una celda para un estado de movimiento, contando
+     * como libre el bloque que ese estado ya rompió.
+     */
+    protected static boolean isIce(Level level, EnemyMotion motion, int cell) {
+        return cell != motion.clearedCell && level.isIceBlock(cell);
+    }
+
+    /**
+     * Indica si una celda está libre de muros y hielo para un estado de
+     * movimiento, contando como libre el bloque que ese estado ya rompió.
+     */
+    protected static boolean isOpen(Level level, EnemyMotion motion, int cell) {
+        if (cell >= 0 && cell == motion.clearedCell) {
+            return !level.isWall(cell);
+        }
+        return level.canMoveTo(cell);
+    }
 }
\ No newline at end of file
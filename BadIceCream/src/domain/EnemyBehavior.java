@@ -13,6 +13,17 @@ public interface EnemyBehavior {
      */
     Position getNextPosition(Level level, Player player);
 
+    /**
+     * Predice las celdas del enemigo en los próximos ticks, teniendo en cuenta
+     * sus contadores de movimiento, sin modificar al enemigo ni al nivel.
+     * 
+     * @param level  El nivel actual.
+     * @param target La posición del jugador perseguido, o null si no hay.
+     * @param ticks  La cantidad de ticks.
+     * @return La celda del enemigo tras cada tick.
+     */
+    int[] predictTrajectory(Level level, Position target, int ticks);
+
     /**
      * Indica si el enemigo puede perseguir al jugador.
      * 
@@ -0,0 +1,74 @@
+package domain;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * Estado de movimiento de un enemigo: su celda, sus contadores y su
+ * dirección. El enemigo avanza el suyo en cada tick; las predicciones avanzan
+ * copias sin tocar al enemigo ni al nivel.
+ * <p>
+ * Cada tipo de enemigo usa solo los campos que necesita.
+ */
+public final class EnemyMotion implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    int cell = -1;
+    Direction direction;
+    int moveCounter;
+    int blockedCounter;
+    boolean charging;
+    boolean breakingIce;
+    int breakCounter;
+    // Bloque de hielo que el enemigo rompió y que la predicción da por libre
+    int clearedCell = -1;
+    // Azar para elegir dirección: el del nivel al moverse de verdad, una copia al predecir
+    transient Random random;
+
+    EnemyMotion() {
+    }
+
+    /**
+     * Crea una copia del estado.
+     *
+     * @return La copia.
+     */
+    public EnemyMotion copy() {
+        EnemyMotion copy = new EnemyMotion();
+        copy.cell = cell;
+        copy.direction = direction;
+        copy.moveCounter = moveCounter;
+        copy.blockedCounter = blockedCounter;
+        copy.charging = charging;
+        copy.breakingIce = breakingIce;
+        copy.breakCounter = breakCounter;
+        copy.clearedCell = clearedCell;
+        return copy;
+    }
+
+    public int getCell() {
+        return cell;
+    }
+
+    /**
+     * Coloca al enemigo en otra celda, para predecir desde un estado
+     * hipotético.
+     *
+     * @param cell La celda.
+     */
+    public void setCell(int cell) {
+        this.cell = cell;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isCharging() {
+        return charging;
+    }
+
+    public boolean isBreakingIce() {
+        return breakingIce;
+    }
+}
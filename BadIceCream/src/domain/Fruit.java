@@ -37,7 +37,16 @@ public abstract class Fruit extends GameObject implements Collectable {
      */
     @Override
     public void collect() {
+        if (collected) {
+            return;
+        }
+        detachFromGrid();
         this.collected = true;
+        attachToGrid();
+        Level owner = getOwner();
+        if (owner != null) {
+            owner.onFruitCollected(this);
+        }
     }
 
     /**
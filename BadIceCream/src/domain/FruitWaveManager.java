@@ -12,6 +12,10 @@ public class FruitWaveManager {
     private FruitType currentFruitType;
     private List<Position> fruitPositions;
     private boolean waveCompleted;
+    // Frutas sin recoger de la oleada en curso, mantenido por el nivel
+    private int remainingFruits;
+    private boolean tracking;
+    private final List<WaveListener> listeners = new ArrayList<>();
     
     public FruitWaveManager(int totalWaves) {
         this.currentWave = 0;
@@ -20,6 +24,89 @@ public class FruitWaveManager {
         this.fruitPositions = new ArrayList<>();
     }
     
+    /**
+     * Agrega un listener de cambios de oleada.
+     */
+    public void addWaveListener(WaveListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeWaveListener(WaveListener listener) {
+        listeners.remove(listener);
+    }
+    
+    /**
+     * Comienza a llevar la cuenta de frutas pendientes. Lo llama el nivel al
+     * asociarse con este gestor, con las frutas sin recoger que ya tiene.
+     */
+    void track(int uncollectedFruits) {
+        this.tracking = true;
+        this.remainingFruits = uncollectedFruits;
+    }
+    
+    /**
+     * Una fruta sin recoger entró al nivel.
+     */
+    void fruitAdded() {
+        remainingFruits++;
+    }
+    
+    /**
+     * Una fruta sin recoger fue quitada del nivel sin ser recolectada.
+     */
+    void fruitRemoved() {
+        if (remainingFruits > 0) {
+            remainingFruits--;
+        }
+    }
+    
+    /**
+     * Una fruta fue recolectada. Si era la última de la oleada, se emite el
+     * evento de oleada completada.
+     */
+    void fruitCollected() {
+        if (remainingFruits > 0 && --remainingFruits == 0 && !waveCompleted) {
+            waveCompleted = true;
+            for (WaveListener listener : new ArrayList<>(listeners)) {
+                listener.onWaveCompleted(currentWave);
+            }
+        }
+    }
+    
+    /**
+     * Obtiene las frutas que faltan por recoger en la oleada en curso.
+     */
+    public int getRemainingFruits() {
+        return remainingFruits;
+    }
+    
+    /**
+     * Verifica si la oleada actual está completa. Con un nivel asociado se
+     * responde con el contador, sin recorrer frutas.
+     */
+    public boolean isCurrentWaveCompleted() {
+        return tracking ? remainingFruits == 0 : waveCompleted;
+    }
+    
+    /**
+     * Indica si ya se emitió el evento de oleada completada de la oleada en
+     * curso.
+     */
+    boolean isCompletionReported() {
+        return waveCompleted;
+    }
+    
+    /**
+     * Restaura el progreso de una partida guardada, sin emitir eventos. Las
+     * frutas del nivel ya deben estar cargadas.
+     */
+    void restore(int wave, FruitType fruitType, boolean completionReported, int uncollectedFruits) {
+        this.currentWave = wave;
+        this.currentFruitType = fruitType;
+        this.waveCompleted = completionReported;
+        track(uncollectedFruits);
+    }
+    
     /**
      * Inicia una nueva oleada con un tipo de fruta específico
      */
@@ -28,6 +115,9 @@ public class FruitWaveManager {
         this.currentFruitType = fruitType;
         this.fruitPositions = new ArrayList<>(positions);
         this.waveCompleted = false;
+        for (WaveListener listener : new ArrayList<>(listeners)) {
+            listener.onWaveStarted(waveNumber, fruitType);
+        }
     }
     
     /**
@@ -64,7 +154,8 @@ public class FruitWaveManager {
     }
     
     /**
-     * Verifica si todas las frutas de la oleada actual fueron recolectadas
+     * Verifica si todas las frutas de la lista fueron recolectadas. Recorre la
+     * lista; el nivel usa {@link #isCurrentWaveCompleted()}.
      */
     public boolean isWaveCompleted(List<Fruit> levelFruits) {
         if (levelFruits == null || levelFruits.isEmpty()) {
@@ -112,6 +203,6 @@ public class FruitWaveManager {
     
     public boolean isAllWavesCompleted() {
         // CORRECCIÓN: La oleada actual debe haber completado Y no debe haber más oleadas
-        return currentWave >= totalWaves && waveCompleted;
+        return currentWave >= totalWaves && isCurrentWaveCompleted();
     }
 }
\ No newline at end of file
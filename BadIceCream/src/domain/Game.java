@@ -1,36 +1,112 @@
 package domain;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.DoubleConsumer;
+import java.util.function.Function;
 
 public class Game {
-    private static Level level;
-    private static Player player;
-    private static Player player2; // Para PvsP y PvsM
-    private static AIPlayer aiPlayer1; // Para MvsM
-    private static AIPlayer aiPlayer2; // Para MvsM
-    private static GameMode gameMode;
-    private static AIProfile aiProfile1;
-    private static AIProfile aiProfile2;
-    private static GameState state;
-    private static int timeRemaining;
-    private static final int MAX_TIME = 180;
-    private static int updateCounter;
-    private static final int UPDATES_PER_SECOND = 10;
-
-    private static List<GameListener> listeners = new ArrayList<>();
+    private Level level;
+    private Player player;
+    private Player player2; // Para PvsP y PvsM
+    private AIPlayer aiPlayer1; // Para MvsM
+    private AIPlayer aiPlayer2; // Para MvsM
+    private GameMode gameMode;
+    private AIProfile aiProfile1;
+    private AIProfile aiProfile2;
+    // Se lee desde el hilo de eventos (HUD, controles) y el de la simulación
+    private volatile GameState state;
+    private int timeRemaining;
+    public static final int MAX_TIME = 180;
+    private int updateCounter;
+    public static final int UPDATES_PER_SECOND = 10;
+    private GameClock clock = GameClock.SYSTEM;
+    private LevelPack levelPack;
+
+    // Se notifica desde el hilo de la simulación y se modifica desde el de eventos
+    private List<GameListener> listeners = new CopyOnWriteArrayList<>();
+    // Entradas de los jugadores, encoladas desde cualquier hilo y ejecutadas al inicio de cada tick
+    private final Queue<InputCommand> inputQueue = new ConcurrentLinkedQueue<>();
+    // Pausar, reanudar y reiniciar, ejecutadas entre ticks también con la partida detenida
+    private final Queue<InputCommand> controlQueue = new ConcurrentLinkedQueue<>();
+    // Lecturas del estado pedidas desde otros hilos (guardado), ejecutadas entre ticks
+    private final Queue<Runnable> tickTasks = new ConcurrentLinkedQueue<>();
+    private ReplayListener replayListener;
+    // Reparte el tiempo de pensar de las IA y mide cuánto tardan
+    private final AIScheduler aiScheduler = new AIScheduler();
+
+    // Última instantánea publicada para lectores de otros hilos (tablero, HUD)
+    private volatile WorldSnapshot snapshot;
+    private long tickCount;
+    private Level staticCellsLevel;
+    private byte[] staticCells;
 
     /**
      * Constructor de la clase Game.
      * Inicializa el estado del juego, el tiempo restante y los listeners.
      */
     public Game() {
-        Game.state = GameState.MENU;
-        Game.timeRemaining = MAX_TIME;
-        Game.updateCounter = 0;
-        Game.gameMode = GameMode.PLAYER;
-        Game.listeners = new ArrayList<>();
+        this.state = GameState.MENU;
+        this.timeRemaining = MAX_TIME;
+        this.updateCounter = 0;
+        this.gameMode = GameMode.PLAYER;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.clock = GameClock.SYSTEM;
+    }
+
+    /**
+     * Establece el reloj que usarán los niveles creados por este juego.
+     * Por defecto es el reloj del sistema; la simulación sin interfaz usa un
+     * reloj de ticks.
+     * 
+     * @param clock El reloj a usar.
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock != null ? clock : GameClock.SYSTEM;
+        if (level != null) {
+            level.setClock(this.clock);
+        }
+    }
+
+    /**
+     * Obtiene el reloj del juego.
+     * 
+     * @return El reloj actual.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Establece el paquete de niveles. Los niveles que contiene reemplazan a
+     * los incorporados con el mismo número.
+     * 
+     * @param levelPack El paquete, o null para usar solo los incorporados.
+     */
+    public void setLevelPack(LevelPack levelPack) {
+        this.levelPack = levelPack;
+    }
+
+    public LevelPack getLevelPack() {
+        return levelPack;
+    }
+
+    /**
+     * Crea un nivel, del paquete si lo contiene y si no de los incorporados.
+     */
+    private Level createLevel(int levelNumber) {
+        if (levelPack != null && levelPack.contains(levelNumber)) {
+            try {
+                return levelPack.createLevel(levelNumber);
+            } catch (BadIceCreamException e) {
+                BadIceCreamLog.log(e);
+            }
+        }
+        return new Level(levelNumber);
     }
 
     /**
@@ -42,10 +118,50 @@ public class Game {
         listeners.add(listener);
     }
 
+    /**
+     * Quita un listener, por ejemplo el tablero de una partida que ya no se
+     * muestra. Los que reaccionan a los ticks, como el repintado por
+     * regiones, consumen estado compartido del nivel y no deben quedar
+     * registrados.
+     * 
+     * @param listener El listener a quitar.
+     */
+    public void removeListener(GameListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Obtiene la última instantánea publicada del mundo. Es segura de leer
+     * desde cualquier hilo; solo la publica el lado de la simulación (al
+     * empezar, abrir o importar una partida y en cada tick).
+     * 
+     * @return La instantánea, o null si todavía no se ha publicado ninguna.
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Captura el estado actual y lo publica como nueva instantánea. La capa
+     * estática solo se recalcula cuando cambia el nivel.
+     */
+    void publishSnapshot() {
+        if (level == null) {
+            snapshot = null;
+            return;
+        }
+        if (staticCellsLevel != level) {
+            staticCells = WorldSnapshot.captureStaticCells(level);
+            staticCellsLevel = level;
+        }
+        snapshot = WorldSnapshot.capture(this, tickCount, staticCells);
+    }
+
     /**
      * Notifica a todos los listeners que el juego ha sido actualizado.
      */
-    private static void notifyGameUpdated() {
+    private void notifyGameUpdated() {
+        publishSnapshot();
         for (GameListener listener : listeners) {
             listener.onGameUpdated();
         }
@@ -54,7 +170,8 @@ public class Game {
     /**
      * Notifica a todos los listeners que el juego ha terminado (Game Over).
      */
-    private static void notifyGameOver() {
+    private void notifyGameOver() {
+        publishSnapshot();
         for (GameListener listener : listeners) {
             listener.onGameOver();
         }
@@ -63,7 +180,8 @@ public class Game {
     /**
      * Notifica a todos los listeners que el juego ha sido ganado (Victoria).
      */
-    private static void notifyVictory() {
+    private void notifyVictory() {
+        publishSnapshot();
         for (GameListener listener : listeners) {
             listener.onVictory();
         }
@@ -76,16 +194,37 @@ public class Game {
      * @param flavor      El sabor del helado del jugador.
      */
     public void startGame(int levelNumber, IceCreamFlavour flavor) {
-        Game.gameMode = GameMode.PLAYER;
-        Game.level = new Level(levelNumber);
-        Game.player = new Player(new Position(1, 1), flavor);
-        Game.level.setPlayer(player);
-        Game.player2 = null;
-        Game.aiPlayer1 = null;
-        Game.aiPlayer2 = null;
-        Game.state = GameState.PLAYING;
-        Game.timeRemaining = MAX_TIME;
-        Game.updateCounter = 0;
+        startGame(createLevel(levelNumber), flavor);
+    }
+
+    /**
+     * Inicia el juego en modo de un solo jugador con un nivel de datos, por
+     * ejemplo uno importado desde un archivo de texto.
+     * 
+     * @param data   Los datos del nivel.
+     * @param flavor El sabor del helado del jugador.
+     */
+    public void startGame(LevelData data, IceCreamFlavour flavor) {
+        startGame(new Level(data), flavor);
+    }
+
+    private void startGame(Level newLevel, IceCreamFlavour flavor) {
+        detachReplayListener();
+        this.inputQueue.clear();
+        this.controlQueue.clear();
+        this.gameMode = GameMode.PLAYER;
+        this.level = newLevel;
+        this.level.setClock(clock);
+        this.player = new Player(level.getSpawn(0), flavor);
+        this.level.setPlayer(player);
+        this.player2 = null;
+        this.aiPlayer1 = null;
+        this.aiPlayer2 = null;
+        this.state = GameState.PLAYING;
+        this.timeRemaining = MAX_TIME;
+        this.updateCounter = 0;
+        this.tickCount = 0;
+        publishSnapshot();
     }
 
     /**
@@ -100,13 +239,37 @@ public class Game {
      */
     public void startGame(int levelNumber, IceCreamFlavour flavor, GameMode mode,
             AIProfile profile1, AIProfile profile2) {
-        Game.gameMode = mode;
-        Game.level = new Level(levelNumber);
-        Game.timeRemaining = MAX_TIME;
-        Game.updateCounter = 0;
-        Game.state = GameState.PLAYING;
-        Game.aiProfile1 = profile1;
-        Game.aiProfile2 = profile2;
+        startGame(createLevel(levelNumber), flavor, mode, profile1, profile2);
+    }
+
+    /**
+     * Inicia el juego con una modalidad específica sobre un nivel de datos,
+     * por ejemplo el de una partida guardada sobre un nivel importado.
+     * 
+     * @param data     Los datos del nivel.
+     * @param flavor   El sabor del helado del jugador principal.
+     * @param mode     El modo de juego.
+     * @param profile1 El perfil de la primera IA (si aplica).
+     * @param profile2 El perfil de la segunda IA (si aplica).
+     */
+    public void startGame(LevelData data, IceCreamFlavour flavor, GameMode mode,
+            AIProfile profile1, AIProfile profile2) {
+        startGame(new Level(data), flavor, mode, profile1, profile2);
+    }
+
+    private void startGame(Level newLevel, IceCreamFlavour flavor, GameMode mode,
+            AIProfile profile1, AIProfile profile2) {
+        detachReplayListener();
+        this.inputQueue.clear();
+        this.controlQueue.clear();
+        this.gameMode = mode;
+        this.level = newLevel;
+        this.level.setClock(clock);
+        this.timeRemaining = MAX_TIME;
+        this.updateCounter = 0;
+        this.state = GameState.PLAYING;
+        this.aiProfile1 = profile1;
+        this.aiProfile2 = profile2;
 
         switch (mode) {
             case PLAYER:
@@ -122,50 +285,52 @@ public class Game {
                 initMachineVsMachineMode(profile1, profile2);
                 break;
         }
+        this.tickCount = 0;
+        publishSnapshot();
     }
 
     private void initPlayerMode(IceCreamFlavour flavor) {
-        Game.player = new Player(new Position(1, 1), flavor);
-        Game.level.setPlayer(player);
-        Game.player2 = null;
-        Game.aiPlayer1 = null;
-        Game.aiPlayer2 = null;
+        this.player = new Player(level.getSpawn(0), flavor);
+        this.level.setPlayer(player);
+        this.player2 = null;
+        this.aiPlayer1 = null;
+        this.aiPlayer2 = null;
     }
 
     private void initPlayerVsPlayerMode(IceCreamFlavour flavor) {
-        Game.player = new Player(new Position(1, 1), flavor);
+        this.player = new Player(level.getSpawn(0), flavor);
         IceCreamFlavour flavor2 = (flavor == IceCreamFlavour.VANILLA) ? IceCreamFlavour.STRAWBERRY
                 : IceCreamFlavour.VANILLA;
-        Game.player2 = new Player(new Position(13, 9), flavor2);
-        Game.level.setPlayer(player);
-        Game.level.setPlayer2(player2);
-        Game.aiPlayer1 = null;
-        Game.aiPlayer2 = null;
+        this.player2 = new Player(level.getSpawn(1), flavor2);
+        this.level.setPlayer(player);
+        this.level.setPlayer2(player2);
+        this.aiPlayer1 = null;
+        this.aiPlayer2 = null;
     }
 
     private void initPlayerVsMachineMode(IceCreamFlavour flavor, AIProfile aiProfile) {
-        Game.aiProfile1 = aiProfile != null ? aiProfile : AIProfile.EXPERT;
-        Game.player = new Player(new Position(1, 1), flavor);
+        this.aiProfile1 = aiProfile != null ? aiProfile : AIProfile.EXPERT;
+        this.player = new Player(level.getSpawn(0), flavor);
         IceCreamFlavour aiFlavor = (flavor == IceCreamFlavour.VANILLA) ? IceCreamFlavour.CHOCOLATE
                 : IceCreamFlavour.VANILLA;
-        Game.aiPlayer1 = new AIPlayer(new Position(13, 9), aiFlavor, Game.aiProfile1);
-        Game.player2 = aiPlayer1; // Para compatibilidad
-        Game.level.setPlayer(player);
-        Game.level.setPlayer2(aiPlayer1);
-        Game.aiPlayer2 = null;
+        this.aiPlayer1 = new AIPlayer(level.getSpawn(1), aiFlavor, this.aiProfile1);
+        this.player2 = aiPlayer1; // Para compatibilidad
+        this.level.setPlayer(player);
+        this.level.setPlayer2(aiPlayer1);
+        this.aiPlayer2 = null;
     }
 
     private void initMachineVsMachineMode(AIProfile profile1, AIProfile profile2) {
-        Game.aiProfile1 = profile1 != null ? profile1 : AIProfile.EXPERT;
-        Game.aiProfile2 = profile2 != null ? profile2 : AIProfile.HUNGRY;
+        this.aiProfile1 = profile1 != null ? profile1 : AIProfile.EXPERT;
+        this.aiProfile2 = profile2 != null ? profile2 : AIProfile.HUNGRY;
 
-        Game.aiPlayer1 = new AIPlayer(new Position(1, 1), IceCreamFlavour.VANILLA, Game.aiProfile1);
-        Game.aiPlayer2 = new AIPlayer(new Position(13, 9), IceCreamFlavour.CHOCOLATE, Game.aiProfile2);
+        this.aiPlayer1 = new AIPlayer(level.getSpawn(0), IceCreamFlavour.VANILLA, this.aiProfile1);
+        this.aiPlayer2 = new AIPlayer(level.getSpawn(1), IceCreamFlavour.CHOCOLATE, this.aiProfile2);
 
-        Game.player = aiPlayer1; // Para compatibilidad con el sistema actual
-        Game.player2 = aiPlayer2;
-        Game.level.setPlayer(aiPlayer1);
-        Game.level.setPlayer2(aiPlayer2);
+        this.player = aiPlayer1; // Para compatibilidad con el sistema actual
+        this.player2 = aiPlayer2;
+        this.level.setPlayer(aiPlayer1);
+        this.level.setPlayer2(aiPlayer2);
     }
 
     /**
@@ -205,20 +370,20 @@ public class Game {
 
     private void movePlayerInternal(Player p, Direction direction) {
         p.setDirection(direction);
-        Position newPos = p.getPosition().add(direction);
+        int cell = level.neighbor(level.cellOf(p.getPosition()), direction);
 
-        if (level.canMoveTo(newPos)) {
-            p.move(newPos);
+        if (level.canMoveTo(cell)) {
+            p.move(level.positionOf(cell));
 
             // Verificar fogata INMEDIATAMENTE después de moverse
-            if (level.isDeadlyCampfire(newPos)) {
+            if (level.isDeadlyCampfire(cell)) {
                 p.die();
                 checkGameOver();
                 notifyGameUpdated();
                 return;
             }
 
-            Fruit fruit = level.getFruitAt(newPos);
+            Fruit fruit = level.getFruitAt(cell);
             if (fruit != null && !fruit.isCollected()) {
                 fruit.collect();
                 p.addScore(fruit.getPoints());
@@ -268,13 +433,121 @@ public class Game {
         }
     }
 
+    /**
+     * Encola una entrada. Puede llamarse desde cualquier hilo; las de los
+     * jugadores se ejecutan al inicio del siguiente tick y las de control al
+     * terminar el tick en curso, o en la siguiente llamada a {@link #update}
+     * si la partida está detenida. Así solo el hilo de la simulación modifica
+     * el nivel y el estado.
+     * 
+     * @param command La orden a encolar.
+     */
+    public void submitInput(InputCommand command) {
+        if (command.isControl()) {
+            controlQueue.offer(command);
+        } else {
+            inputQueue.offer(command);
+        }
+    }
+
+    /**
+     * Ejecuta una lectura del estado entre dos ticks, en el hilo de la
+     * simulación, para que vea un mundo consistente. Si la partida no está en
+     * curso nadie modifica el nivel y la lectura se hace en el hilo que llama.
+     * 
+     * @param task La lectura.
+     * @return El resultado, que se completa al terminar la lectura.
+     */
+    <T> CompletableFuture<T> betweenTicks(Function<Game, T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        tickTasks.offer(() -> {
+            try {
+                result.complete(task.apply(this));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (state != GameState.PLAYING) {
+            runTickTasks();
+        }
+        return result;
+    }
+
+    private void runTickTasks() {
+        Runnable task;
+        while ((task = tickTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void drainInput() {
+        InputCommand command;
+        while ((command = inputQueue.poll()) != null) {
+            if (replayListener != null) {
+                replayListener.onInput(command);
+            }
+            command.apply(this);
+        }
+    }
+
+    // Las órdenes de control no se graban: la repetición solo ve los ticks jugados
+    private void drainControls() {
+        InputCommand command;
+        while ((command = controlQueue.poll()) != null) {
+            command.apply(this);
+        }
+    }
+
+    /**
+     * Registra quien observa cada tick para grabar o verificar repeticiones.
+     * 
+     * @param listener El observador, o null para quitarlo.
+     */
+    public void setReplayListener(ReplayListener listener) {
+        this.replayListener = listener;
+    }
+
+    // Lo grabado describe la partida anterior: el observador no sigue en la nueva
+    private void detachReplayListener() {
+        ReplayListener listener = replayListener;
+        replayListener = null;
+        if (listener != null) {
+            listener.onRestart();
+        }
+    }
+
     /**
      * Actualiza el estado del juego. Se llama periódicamente desde el bucle del
-     * juego.
+     * juego, también con la partida en pausa o terminada: en ese caso no
+     * avanza, pero atiende las órdenes de control y las lecturas pendientes.
      */
-    public static void update() {
+    public void update() {
+        runTickTasks();
+        if (state != GameState.PLAYING) {
+            // Al reanudar o reiniciar, el primer tick llega en la siguiente llamada
+            drainControls();
+            runTickTasks();
+            return;
+        }
+
+        tick();
+        if (replayListener != null) {
+            replayListener.onTickEnd();
+        }
+        // Después de que el grabador vio el tick completo
+        drainControls();
+        // Si la partida terminó o se pausó ya no habrá otro tick que atienda lecturas
+        if (state != GameState.PLAYING) {
+            runTickTasks();
+        }
+    }
+
+    private void tick() {
+        // Aplicar primero las entradas recibidas desde el tick anterior
+        drainInput();
         if (state != GameState.PLAYING)
             return;
+        tickCount++;
 
         // Actualizar IA
         updateAI();
@@ -291,30 +564,36 @@ public class Game {
         notifyGameUpdated();
     }
 
-    private static void updateAI() {
+    private void updateAI() {
         if (aiPlayer1 != null && aiPlayer1.isAlive()) {
-            AIAction action = aiPlayer1.decideAction(level);
+            AIAction action = aiScheduler.next(1, aiPlayer1, level);
+            if (replayListener != null) {
+                replayListener.onAIAction(1, action);
+            }
             executeAIAction(aiPlayer1, action);
         }
 
         if (aiPlayer2 != null && aiPlayer2.isAlive()) {
-            AIAction action = aiPlayer2.decideAction(level);
+            AIAction action = aiScheduler.next(2, aiPlayer2, level);
+            if (replayListener != null) {
+                replayListener.onAIAction(2, action);
+            }
             executeAIAction(aiPlayer2, action);
         }
     }
 
-    private static void executeAIAction(AIPlayer aiPlayer, AIAction action) {
+    private void executeAIAction(AIPlayer aiPlayer, AIAction action) {
         switch (action.getType()) {
             case MOVE:
                 Direction dir = action.getDirection();
                 aiPlayer.setDirection(dir);
-                Position newPos = aiPlayer.getPosition().add(dir);
+                int cell = level.neighbor(level.cellOf(aiPlayer.getPosition()), dir);
 
-                if (level.canMoveTo(newPos)) {
-                    aiPlayer.move(newPos);
+                if (level.canMoveTo(cell)) {
+                    aiPlayer.move(level.positionOf(cell));
 
                     // Verificar fogata
-                    if (level.isDeadlyCampfire(newPos)) {
+                    if (level.isDeadlyCampfire(cell)) {
                         aiPlayer.die();
                         checkGameOver();
                         notifyGameUpdated();
@@ -322,7 +601,7 @@ public class Game {
                     }
 
                     // Recoger fruta
-                    Fruit fruit = level.getFruitAt(newPos);
+                    Fruit fruit = level.getFruitAt(cell);
                     if (fruit != null && !fruit.isCollected()) {
                         fruit.collect();
                         aiPlayer.addScore(fruit.getPoints());
@@ -348,14 +627,14 @@ public class Game {
         }
     }
 
-    private static void checkCollisions() {
+    private void checkCollisions() {
         checkPlayerCollisions(player);
         if (player2 != null) {
             checkPlayerCollisions(player2);
         }
     }
 
-    private static void checkPlayerCollisions(Player p) {
+    private void checkPlayerCollisions(Player p) {
         if (p == null || !p.isAlive() || state != GameState.PLAYING) {
             return;
         }
@@ -371,21 +650,14 @@ public class Game {
         }
 
         // Verificar colisión con enemigos
-        if (level.getEnemies() != null) {
-            for (Enemy enemy : level.getEnemies()) {
-                if (enemy != null && enemy.isAlive() &&
-                        enemy.getPosition() != null &&
-                        enemy.getPosition().equals(playerPos)) {
-                    p.die();
-                    checkGameOver();
-                    notifyGameUpdated();
-                    return;
-                }
-            }
+        if (level.hasEnemyAt(playerPos)) {
+            p.die();
+            checkGameOver();
+            notifyGameUpdated();
         }
     }
 
-    private static void checkGameOver() {
+    private void checkGameOver() {
         if (gameMode == GameMode.PLAYER) {
             // En modo single player, termina cuando el jugador muere
             if (player != null && !player.isAlive()) {
@@ -407,14 +679,14 @@ public class Game {
         }
     }
 
-    private static void checkVictory() {
+    private void checkVictory() {
         if (level != null && level.allFruitsCollected()) {
             state = GameState.VICTORY;
             notifyVictory();
         }
     }
 
-    private static void updateTime() {
+    private void updateTime() {
         timeRemaining--;
         if (timeRemaining <= 0) {
             state = GameState.GAME_OVER;
@@ -422,20 +694,52 @@ public class Game {
         }
     }
 
+    /**
+     * Pausa la partida. Solo debe llamarse desde el hilo de la simulación o
+     * sin un bucle en marcha; los demás hilos encolan
+     * {@link InputCommand#pause()}.
+     */
     public void pause() {
         if (state == GameState.PLAYING) {
             state = GameState.PAUSED;
+            // Las teclas pulsadas antes de pausar no se aplican al reanudar
+            inputQueue.clear();
+            publishState();
+            // Los guardados pedidos para el próximo tick no esperan a que se reanude
+            runTickTasks();
         }
     }
 
+    /**
+     * Reanuda la partida. Solo debe llamarse desde el hilo de la simulación o
+     * sin un bucle en marcha; los demás hilos encolan
+     * {@link InputCommand#resume()}.
+     */
     public void resume() {
         if (state == GameState.PAUSED) {
             state = GameState.PLAYING;
+            publishState();
         }
     }
 
+    private void publishState() {
+        WorldSnapshot current = snapshot;
+        if (current != null) {
+            snapshot = current.withState(state);
+        }
+    }
+
+    /**
+     * Reinicia la partida desde el principio del nivel. Solo debe llamarse
+     * desde el hilo de la simulación o sin un bucle en marcha; los demás
+     * hilos encolan {@link InputCommand#reset()}.
+     */
     public void reset() {
-        if (gameMode.isMultiplayer()) {
+        // Un nivel importado o de paquete se rehace con sus datos; el número solo identifica a los incorporados
+        LevelData data = level.getLevelData();
+        if (data != null) {
+            startGame(new Level(data), player.getFlavor(), gameMode, aiProfile1, aiProfile2);
+        } else if (gameMode.isMultiplayer()) {
             startGame(level.levelNumber, player.getFlavor(), gameMode, aiProfile1, aiProfile2);
         } else {
             startGame(level.levelNumber, player.getFlavor());
@@ -451,6 +755,10 @@ public class Game {
         return level;
     }
 
+    public AIScheduler getAIScheduler() {
+        return aiScheduler;
+    }
+
     public Player getPlayer() {
         return player;
     }
@@ -475,6 +783,26 @@ public class Game {
         return aiPlayer2;
     }
 
+    int getUpdateCounter() {
+        return updateCounter;
+    }
+
+    long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Restaura el estado y los contadores de una partida guardada. Es el
+     * último paso de la carga, así que publica la instantánea ya restaurada.
+     */
+    void restoreProgress(GameState state, int timeRemaining, int updateCounter, long tickCount) {
+        this.state = state;
+        this.timeRemaining = timeRemaining;
+        this.updateCounter = updateCounter;
+        this.tickCount = tickCount;
+        publishSnapshot();
+    }
+
     // Métodos de guardado/cargado
     public void save(File file) throws BadIceCreamException {
         GameSaveManager.save(this, file);
@@ -491,4 +819,21 @@ public class Game {
     public static Game importLevel(File file) throws BadIceCreamException {
         return GameSaveManager.importLevel(file);
     }
+
+    // Versiones asíncronas: no bloquean ni al hilo que llama ni a la simulación
+    public CompletableFuture<Void> saveAsync(File file, DoubleConsumer progress) {
+        return GameSaveManager.saveAsync(this, file, progress);
+    }
+
+    public static CompletableFuture<Game> openAsync(File file) {
+        return GameSaveManager.openAsync(file);
+    }
+
+    public CompletableFuture<Void> exportAsync(File file, DoubleConsumer progress) {
+        return GameSaveManager.exportAsync(this, file, progress);
+    }
+
+    public static CompletableFuture<Game> importLevelAsync(File file) {
+        return GameSaveManager.importLevelAsync(file);
+    }
 }
\ No newline at end of file
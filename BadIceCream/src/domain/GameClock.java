@@ -0,0 +1,17 @@
+package domain;
+
+/**
+ * Reloj que usan los objetos temporizados del juego (fogatas, cactus).
+ * Permite que la simulación avance con el tiempo real o con ticks lógicos.
+ */
+public interface GameClock {
+    /** Reloj de pared del sistema (juego interactivo) */
+    GameClock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * Obtiene el tiempo actual del reloj.
+     *
+     * @return El tiempo actual en milisegundos.
+     */
+    long currentTimeMillis();
+}
@@ -27,34 +27,28 @@ public class GameController implements KeyListener {
         switch (keyCode) {
             // Solo WASD para movimiento del jugador 1
             case KeyEvent.VK_W:
-                game.movePlayer(Direction.UP);
+                game.submitInput(InputCommand.move(1, Direction.UP));
                 break;
             case KeyEvent.VK_S:
-                game.movePlayer(Direction.DOWN);
+                game.submitInput(InputCommand.move(1, Direction.DOWN));
                 break;
             case KeyEvent.VK_A:
-                game.movePlayer(Direction.LEFT);
+                game.submitInput(InputCommand.move(1, Direction.LEFT));
                 break;
             case KeyEvent.VK_D:
-                game.movePlayer(Direction.RIGHT);
+                game.submitInput(InputCommand.move(1, Direction.RIGHT));
                 break;
             case KeyEvent.VK_SPACE:
-                Player player = game.getPlayer();
-                if (player != null) {
-                    Position targetPos = player.getPosition().add(player.getDirection());
-                    if (game.getLevel().isIceBlock(targetPos)) {
-                        game.destroyIceBlock();
-                    } else {
-                        game.createIceBlock();
-                    }
-                }
+                // Crear o destruir se decide al ejecutar la orden, en el tick
+                game.submitInput(InputCommand.iceAction(1));
                 break;
             case KeyEvent.VK_P:
             case KeyEvent.VK_ESCAPE:
+                // La pausa se aplica entre ticks, en el hilo de la simulación
                 if (game.getState() == GameState.PLAYING) {
-                    game.pause();
+                    game.submitInput(InputCommand.pause());
                 } else if (game.getState() == GameState.PAUSED) {
-                    game.resume();
+                    game.submitInput(InputCommand.resume());
                 }
                 break;
         }
@@ -33,29 +33,21 @@ public class GameController2 implements KeyListener {
         switch (keyCode) {
             // Solo flechas para movimiento del jugador 2
             case KeyEvent.VK_UP:
-                game.movePlayer2(Direction.UP);
+                game.submitInput(InputCommand.move(2, Direction.UP));
                 break;
             case KeyEvent.VK_DOWN:
-                game.movePlayer2(Direction.DOWN);
+                game.submitInput(InputCommand.move(2, Direction.DOWN));
                 break;
             case KeyEvent.VK_LEFT:
-                game.movePlayer2(Direction.LEFT);
+                game.submitInput(InputCommand.move(2, Direction.LEFT));
                 break;
             case KeyEvent.VK_RIGHT:
-                game.movePlayer2(Direction.RIGHT);
+                game.submitInput(InputCommand.move(2, Direction.RIGHT));
                 break;
             // Enter o NumPad0 para crear/destruir hielo
             case KeyEvent.VK_ENTER:
             case KeyEvent.VK_NUMPAD0:
-                Player player2 = game.getPlayer2();
-                if (player2 != null) {
-                    Position targetPos = player2.getPosition().add(player2.getDirection());
-                    if (game.getLevel().isIceBlock(targetPos)) {
-                        game.destroyIceBlockPlayer2();
-                    } else {
-                        game.createIceBlockPlayer2();
-                    }
-                }
+                game.submitInput(InputCommand.iceAction(2));
                 break;
         }
     }
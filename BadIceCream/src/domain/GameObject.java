@@ -1,6 +1,7 @@
 package domain;
 
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 /**
  * Clase abstracta que representa todas las entidades del juego.
@@ -11,6 +12,8 @@ public abstract class GameObject implements Serializable {
     protected Position position;
     /** Identificador único del objeto */
     protected String id;
+    /** Nivel cuyo índice de ocupación contiene a este objeto (si lo hay) */
+    private transient Level owner;
 
     /**
      * Constructor de la clase GameObject.
@@ -37,7 +40,67 @@ public abstract class GameObject implements Serializable {
      * @param position La nueva posición a establecer.
      */
     public void setPosition(Position position) {
+        detachFromGrid();
         this.position = position;
+        attachToGrid();
+    }
+
+    /**
+     * Establece el nivel que indexa a este objeto.
+     * 
+     * @param owner El nivel propietario, o null si el objeto sale del nivel.
+     */
+    void setOwner(Level owner) {
+        this.owner = owner;
+    }
+
+    /**
+     * Obtiene el nivel que indexa a este objeto.
+     * 
+     * @return El nivel propietario, o null si no pertenece a ninguno.
+     */
+    Level getOwner() {
+        return owner;
+    }
+
+    /**
+     * Obtiene el tiempo actual según el reloj del nivel propietario, o el del
+     * sistema si el objeto no pertenece a ningún nivel.
+     * 
+     * @return El tiempo actual en milisegundos.
+     */
+    protected long currentTimeMillis() {
+        return owner != null ? owner.getClock().currentTimeMillis() : GameClock.SYSTEM.currentTimeMillis();
+    }
+
+    /**
+     * Quita el objeto del índice de ocupación de su nivel. Debe llamarse antes
+     * de cambiar la posición o el estado del objeto.
+     */
+    protected void detachFromGrid() {
+        if (owner != null) {
+            owner.getOccupancyGrid().remove(this);
+        }
+    }
+
+    /**
+     * Vuelve a registrar el objeto en el índice de ocupación de su nivel tras un
+     * cambio de posición o de estado.
+     */
+    protected void attachToGrid() {
+        if (owner != null) {
+            owner.getOccupancyGrid().add(this);
+        }
+    }
+
+    /**
+     * Marca la celda del objeto como modificada cuando cambia su aspecto sin
+     * moverse (por ejemplo, una fogata que se apaga).
+     */
+    protected void markDirty() {
+        if (owner != null) {
+            owner.markDirty(owner.cellOf(position));
+        }
     }
 
     /**
@@ -70,4 +133,22 @@ public abstract class GameObject implements Serializable {
      * @return El tipo de objeto como cadena.
      */
     public abstract String getType();
+
+    /**
+     * Escribe el estado propio del objeto en una partida guardada. Las
+     * subclases con estado escriben primero el de su superclase.
+     * 
+     * @param out El destino.
+     */
+    void writeState(SaveCodec.Output out) {
+    }
+
+    /**
+     * Restaura el estado escrito por {@link #writeState}. Se llama con el
+     * objeto ya agregado al nivel.
+     * 
+     * @param in El origen.
+     */
+    void readState(ByteBuffer in) {
+    }
 }
\ No newline at end of file
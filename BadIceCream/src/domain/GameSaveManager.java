@@ -1,14 +1,37 @@
 package domain;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleConsumer;
 
 /**
  * Gestor de guardado y carga de partidas del juego.
- * Maneja la serialización y deserialización del estado del juego.
+ * Las partidas se guardan con el formato binario de {@link SaveCodec}.
+ * <p>
+ * Los archivos se escriben en un temporal que reemplaza al destino con un
+ * movimiento atómico, así que una caída a mitad de escritura deja intacta la
+ * versión anterior. Las variantes asíncronas leen el estado entre dos ticks y
+ * hacen la entrada/salida en un hilo propio.
  */
 public class GameSaveManager {
+    // Un solo hilo: las escrituras a un mismo archivo se aplican en orden
+    private static final ExecutorService IO_EXECUTOR = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "BadIceCream-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final int WRITE_CHUNK = 64 * 1024;
     
     private GameSaveManager() {
         // Constructor privado para clase de utilidad
@@ -30,9 +53,39 @@ public class GameSaveManager {
             throw new BadIceCreamException("No hay partida activa para guardar");
         }
 
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-            GameData data = new GameData(game);
-            oos.writeObject(data);
+        writeSave(file, SaveCodec.encode(game), null);
+    }
+
+    /**
+     * Guarda la partida sin bloquear. El estado se codifica entre dos ticks
+     * en el hilo de la simulación y el archivo se escribe en segundo plano.
+     * 
+     * @param game     El juego a guardar.
+     * @param file     El archivo donde se guardará.
+     * @param progress Recibe la fracción escrita, de 0 a 1, desde el hilo de
+     *                 escritura. Puede ser null.
+     * @return Se completa al quedar el archivo en disco, o con una
+     *         {@link BadIceCreamException} si falla.
+     */
+    public static CompletableFuture<Void> saveAsync(Game game, File file, DoubleConsumer progress) {
+        if (game == null) {
+            return CompletableFuture.failedFuture(new BadIceCreamException("No hay juego para guardar"));
+        }
+        if (game.getState() == GameState.MENU) {
+            return CompletableFuture.failedFuture(new BadIceCreamException("No hay partida activa para guardar"));
+        }
+        return game.betweenTicks(SaveCodec::encode).thenAcceptAsync(data -> {
+            try {
+                writeSave(file, data, progress);
+            } catch (BadIceCreamException e) {
+                throw new CompletionException(e);
+            }
+        }, IO_EXECUTOR);
+    }
+
+    private static void writeSave(File file, byte[] data, DoubleConsumer progress) throws BadIceCreamException {
+        try {
+            writeAtomically(file.toPath(), data, progress);
             BadIceCreamLog.log("Partida guardada exitosamente en: " + file.getAbsolutePath());
         } catch (IOException e) {
             BadIceCreamLog.log(e);
@@ -40,6 +93,23 @@ public class GameSaveManager {
         }
     }
 
+    /**
+     * Carga un juego sin bloquear: lee y decodifica el archivo en segundo
+     * plano.
+     * 
+     * @param file El archivo a cargar.
+     * @return El juego cargado, o una {@link BadIceCreamException} si falla.
+     */
+    public static CompletableFuture<Game> openAsync(File file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return open(file);
+            } catch (BadIceCreamException e) {
+                throw new CompletionException(e);
+            }
+        }, IO_EXECUTOR);
+    }
+
     /**
      * Carga un juego desde un archivo binario.
      * 
@@ -48,21 +118,56 @@ public class GameSaveManager {
      * @throws BadIceCreamException Si ocurre un error al cargar.
      */
     public static Game open(File file) throws BadIceCreamException {
+        return open(file, GameClock.SYSTEM);
+    }
+
+    /**
+     * Carga un juego desde un archivo binario con un reloj dado. Con un
+     * {@link TickClock} la partida continúa desde el tick en que se guardó.
+     * 
+     * @param file  El archivo a cargar.
+     * @param clock El reloj del juego cargado.
+     * @return El juego cargado.
+     * @throws BadIceCreamException Si ocurre un error al cargar.
+     */
+    public static Game open(File file, GameClock clock) throws BadIceCreamException {
         if (!file.exists()) {
             throw new BadIceCreamException("El archivo no existe: " + file.getAbsolutePath());
         }
 
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-            GameData data = (GameData) ois.readObject();
-            Game game = data.toGame();
+        try {
+            Game game = SaveCodec.decode(Files.readAllBytes(file.toPath()), clock);
             BadIceCreamLog.log("Partida cargada exitosamente desde: " + file.getAbsolutePath());
             return game;
-        } catch (IOException | ClassNotFoundException e) {
+        } catch (IOException e) {
             BadIceCreamLog.log(e);
             throw new BadIceCreamException("Error al cargar la partida: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Codifica una partida en memoria, con el mismo formato que los archivos
+     * guardados, sin escribir en disco ni en el registro.
+     * 
+     * @param game El juego a codificar.
+     * @return Los bytes de la partida guardada.
+     */
+    public static byte[] encode(Game game) {
+        return SaveCodec.encode(game);
+    }
+
+    /**
+     * Decodifica en memoria una partida codificada con {@link #encode}.
+     * 
+     * @param data  Los bytes de la partida guardada.
+     * @param clock El reloj del juego restaurado.
+     * @return El juego restaurado.
+     * @throws BadIceCreamException Si los datos no son una partida válida.
+     */
+    public static Game decode(byte[] data, GameClock clock) throws BadIceCreamException {
+        return SaveCodec.decode(data, clock);
+    }
+
     /**
      * Exporta el nivel actual a un archivo de texto legible.
      * 
@@ -74,8 +179,48 @@ public class GameSaveManager {
         if (game == null || game.getLevel() == null) {
             throw new BadIceCreamException("No hay nivel para exportar");
         }
+        writeExport(file, exportText(game), null);
+    }
+
+    /**
+     * Exporta el nivel sin bloquear. El texto se genera entre dos ticks y se
+     * escribe en segundo plano.
+     * 
+     * @param game     El juego a exportar.
+     * @param file     El archivo donde se exportará.
+     * @param progress Recibe la fracción escrita, de 0 a 1. Puede ser null.
+     * @return Se completa al quedar el archivo en disco, o con una
+     *         {@link BadIceCreamException} si falla.
+     */
+    public static CompletableFuture<Void> exportAsync(Game game, File file, DoubleConsumer progress) {
+        if (game == null || game.getLevel() == null) {
+            return CompletableFuture.failedFuture(new BadIceCreamException("No hay nivel para exportar"));
+        }
+        return game.betweenTicks(GameSaveManager::exportText).thenAcceptAsync(text -> {
+            try {
+                writeExport(file, text, progress);
+            } catch (BadIceCreamException e) {
+                throw new CompletionException(e);
+            }
+        }, IO_EXECUTOR);
+    }
+
+    private static void writeExport(File file, String text, DoubleConsumer progress) throws BadIceCreamException {
+        try {
+            writeAtomically(file.toPath(), text.getBytes(StandardCharsets.UTF_8), progress);
+            BadIceCreamLog.log("Nivel exportado exitosamente a: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al exportar el nivel: " + e.getMessage(), e);
+        }
+    }
 
-        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+    /**
+     * Genera el texto de exportación del nivel actual.
+     */
+    private static String exportText(Game game) {
+        StringWriter text = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(text)) {
             Level level = game.getLevel();
             Player player = game.getPlayer();
 
@@ -153,12 +298,8 @@ public class GameSaveManager {
                 }
                 writer.println();
             }
-
-            BadIceCreamLog.log("Nivel exportado exitosamente a: " + file.getAbsolutePath());
-        } catch (IOException e) {
-            BadIceCreamLog.log(e);
-            throw new BadIceCreamException("Error al exportar el nivel: " + e.getMessage(), e);
         }
+        return text.toString();
     }
 
     /**
@@ -225,8 +366,8 @@ public class GameSaveManager {
                 }
             }
 
-            // Crear el juego con la configuración importada
-            game.startGame(1, flavor);
+            // Crear el juego con el mapa y la configuración importados
+            game.startGame(LevelData.read(file), flavor);
             Player player = game.getPlayer();
             if (player != null) {
                 player.setPosition(playerPos);
@@ -245,6 +386,79 @@ public class GameSaveManager {
         }
     }
 
+    /**
+     * Importa un nivel sin bloquear: lee el archivo en segundo plano.
+     * 
+     * @param file El archivo a importar.
+     * @return El juego con el nivel importado, o una
+     *         {@link BadIceCreamException} si falla.
+     */
+    public static CompletableFuture<Game> importLevelAsync(File file) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return importLevel(file);
+            } catch (BadIceCreamException e) {
+                throw new CompletionException(e);
+            }
+        }, IO_EXECUTOR);
+    }
+
+    /**
+     * Escribe un archivo de forma atómica en el hilo de entrada/salida.
+     * 
+     * @param target El archivo de destino.
+     * @param data   El contenido completo.
+     * @return Se completa al quedar el archivo en disco, o con una
+     *         {@link BadIceCreamException} si falla.
+     */
+    static CompletableFuture<Void> writeAsync(Path target, byte[] data) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                writeAtomically(target, data, null);
+            } catch (IOException e) {
+                BadIceCreamLog.log(e);
+                throw new CompletionException(
+                        new BadIceCreamException("Error al escribir " + target + ": " + e.getMessage(), e));
+            }
+        }, IO_EXECUTOR);
+    }
+
+    /**
+     * Escribe un archivo de forma atómica: primero en un temporal del mismo
+     * directorio, forzado a disco, y luego lo mueve sobre el destino.
+     * 
+     * @param target   El archivo de destino.
+     * @param data     El contenido completo.
+     * @param progress Recibe la fracción escrita. Puede ser null.
+     * @throws IOException Si falla la escritura; el destino no se modifica.
+     */
+    static void writeAtomically(Path target, byte[] data, DoubleConsumer progress) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                int written = 0;
+                while (written < data.length) {
+                    written += channel.write(ByteBuffer.wrap(data, written, Math.min(WRITE_CHUNK, data.length - written)));
+                    if (progress != null) {
+                        progress.accept(written / (double) data.length);
+                    }
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (progress != null && data.length == 0) {
+                progress.accept(1.0);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
     /**
      * Obtiene el símbolo de una celda para exportación.
      */
@@ -284,258 +498,4 @@ public class GameSaveManager {
         
         return '.';
     }
-
-    /**
-     * Clase interna para serializar el estado del juego.
-     */
-    private static class GameData implements Serializable {
-        private static final long serialVersionUID = 1L;
-
-        private int levelNumber;
-        private IceCreamFlavour playerFlavor;
-        private Position playerPosition;
-        private Direction playerDirection;
-        private int playerScore;
-        private boolean playerAlive;
-        private GameState gameState;
-        private int timeRemaining;
-
-        // Listas serializables
-        private List<SerializableWall> walls;
-        private List<SerializableIceBlock> iceBlocks;
-        private List<SerializableFruit> fruits;
-        private List<SerializableEnemy> enemies;
-        private List<SerializableCampfire> campfires;
-        private List<SerializableHotTile> hotTiles;
-
-        public GameData(Game game) {
-            Level level = game.getLevel();
-            Player player = game.getPlayer();
-
-            this.levelNumber = level.levelNumber;
-            this.playerFlavor = player.getFlavor();
-            this.playerPosition = player.getPosition();
-            this.playerDirection = player.getDirection();
-            this.playerScore = player.getScore();
-            this.playerAlive = player.isAlive();
-            this.gameState = game.getState();
-            this.timeRemaining = game.getTimeRemaining();
-
-            // Convertir objetos a formas serializables
-            this.walls = new ArrayList<>();
-            for (Wall wall : level.getWalls()) {
-                walls.add(new SerializableWall(wall.getPosition()));
-            }
-
-            this.iceBlocks = new ArrayList<>();
-            for (IceBlock block : level.getIceBlocks()) {
-                iceBlocks.add(new SerializableIceBlock(block.getPosition(), block.isDestroyed()));
-            }
-
-            this.fruits = new ArrayList<>();
-            for (Fruit fruit : level.getFruits()) {
-                SerializableFruit sf = new SerializableFruit(
-                    fruit.getFruitType(),
-                    fruit.getPosition(),
-                    fruit.isCollected()
-                );
-                
-                // Guardar datos específicos de Cactus
-                if (fruit instanceof Cactus) {
-                    Cactus cactus = (Cactus) fruit;
-                    sf.hasThorns = cactus.hasThorns();
-                    sf.lastStateChange = System.currentTimeMillis() - cactus.getTimeUntilStateChange();
-                }
-                
-                fruits.add(sf);
-            }
-
-            this.enemies = new ArrayList<>();
-            for (Enemy enemy : level.getEnemies()) {
-                enemies.add(new SerializableEnemy(
-                    enemy.getClass().getSimpleName(),
-                    enemy.getEnemyType(),
-                    enemy.getPosition(),
-                    enemy.getDirection(),
-                    enemy.isAlive()
-                ));
-            }
-
-            this.campfires = new ArrayList<>();
-            for (Campfire fire : level.getCampfires()) {
-                campfires.add(new SerializableCampfire(fire.getPosition(), fire.isLit()));
-            }
-
-            this.hotTiles = new ArrayList<>();
-            for (HotTile tile : level.getHotTiles()) {
-                hotTiles.add(new SerializableHotTile(tile.getPosition()));
-            }
-        }
-
-        public Game toGame() {
-            Game game = new Game();
-            game.startGame(levelNumber, playerFlavor);
-
-            Level level = game.getLevel();
-            Player player = game.getPlayer();
-
-            // Restaurar jugador
-            player.setPosition(playerPosition);
-            player.setDirection(playerDirection);
-            player.addScore(playerScore - player.getScore());
-            if (!playerAlive) {
-                player.die();
-            }
-
-            // Restaurar bloques de hielo
-            level.getIceBlocks().clear();
-            for (SerializableIceBlock sib : iceBlocks) {
-                IceBlock block = new IceBlock(sib.position);
-                if (sib.destroyed) {
-                    block.destroy();
-                }
-                level.getIceBlocks().add(block);
-            }
-
-            // Restaurar frutas
-            level.getFruits().clear();
-            for (SerializableFruit sf : fruits) {
-                Fruit fruit = createFruit(sf.type, sf.position);
-                if (fruit != null) {
-                    if (sf.collected) {
-                        fruit.collect();
-                    }
-                    
-                    // Restaurar datos específicos de Cactus
-                    if (fruit instanceof Cactus && sf.hasThorns != null) {
-                        Cactus cactus = (Cactus) fruit;
-                        cactus.setHasThorns(sf.hasThorns);
-                        if (sf.lastStateChange != null) {
-                            cactus.setLastStateChange(sf.lastStateChange);
-                        }
-                    }
-                    
-                    level.getFruits().add(fruit);
-                }
-            }
-
-            // Restaurar enemigos
-            level.getEnemies().clear();
-            for (SerializableEnemy se : enemies) {
-                Enemy enemy = createEnemy(se.className, se.position);
-                if (enemy != null) {
-                    enemy.setDirection(se.direction);
-                    if (!se.alive) {
-                        enemy.die();
-                    }
-                    level.getEnemies().add(enemy);
-                }
-            }
-
-            // Restaurar fogatas
-            level.getCampfires().clear();
-            for (SerializableCampfire sc : campfires) {
-                Campfire fire = new Campfire(sc.position);
-                if (!sc.lit) {
-                    fire.extinguish();
-                }
-                level.getCampfires().add(fire);
-            }
-
-            // Restaurar baldosas calientes
-            level.getHotTiles().clear();
-            for (SerializableHotTile st : hotTiles) {
-                level.getHotTiles().add(new HotTile(st.position));
-            }
-
-            return game;
-        }
-
-        private Fruit createFruit(FruitType type, Position position) {
-            switch (type) {
-                case GRAPE: return new Grape(position);
-                case BANANA: return new Banana(position);
-                case PINEAPPLE: return new Pineapple(position);
-                case CHERRY: return new Cherry(position);
-                case CACTUS: return new Cactus(position);
-                default: return null;
-            }
-        }
-
-        private Enemy createEnemy(String className, Position position) {
-            switch (className) {
-                case "Troll": return new Troll(position);
-                case "Pot": return new Pot(position);
-                case "OrangeSquid": return new OrangeSquid(position);
-                case "Narwhal": return new Narwhal(position);
-                default: return null;
-            }
-        }
-    }
-
-    // Clases serializables internas
-    private static class SerializableWall implements Serializable {
-        private static final long serialVersionUID = 1L;
-        Position position;
-        SerializableWall(Position position) { this.position = position; }
-    }
-
-    private static class SerializableIceBlock implements Serializable {
-        private static final long serialVersionUID = 1L;
-        Position position;
-        boolean destroyed;
-        SerializableIceBlock(Position position, boolean destroyed) {
-            this.position = position;
-            this.destroyed = destroyed;
-        }
-    }
-
-    private static class SerializableFruit implements Serializable {
-        private static final long serialVersionUID = 1L;
-        FruitType type;
-        Position position;
-        boolean collected;
-        Boolean hasThorns; // Para Cactus
-        Long lastStateChange; // Para Cactus
-        
-        SerializableFruit(FruitType type, Position position, boolean collected) {
-            this.type = type;
-            this.position = position;
-            this.collected = collected;
-        }
-    }
-
-    private static class SerializableEnemy implements Serializable {
-        private static final long serialVersionUID = 1L;
-        String className;
-        EnemyType enemyType;
-        Position position;
-        Direction direction;
-        boolean alive;
-        
-        SerializableEnemy(String className, EnemyType enemyType, Position position, 
-                         Direction direction, boolean alive) {
-            this.className = className;
-            this.enemyType = enemyType;
-            this.position = position;
-            this.direction = direction;
-            this.alive = alive;
-        }
-    }
-
-    private static class SerializableCampfire implements Serializable {
-        private static final long serialVersionUID = 1L;
-        Position position;
-        boolean lit;
-        SerializableCampfire(Position position, boolean lit) {
-            this.position = position;
-            this.lit = lit;
-        }
-    }
-
-    private static class SerializableHotTile implements Serializable {
-        private static final long serialVersionUID = 1L;
-        Position position;
-        SerializableHotTile(Position position) { this.position = position; }
-    }
 }
\ No newline at end of file
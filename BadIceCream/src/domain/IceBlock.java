@@ -34,7 +34,9 @@ public class IceBlock extends GameObject implements Destructible {
      */
     @Override
     public void destroy() {
+        detachFromGrid();
         this.destroyed = true;
+        attachToGrid();
     }
 
     /**
@@ -42,7 +44,9 @@ public class IceBlock extends GameObject implements Destructible {
      */
     @Override
     public void repair() {
+        detachFromGrid();
         this.destroyed = false;
+        attachToGrid();
     }
 
     @Override
@@ -0,0 +1,184 @@
+package domain;
+
+/**
+ * Orden de entrada de un jugador humano (moverse o usar hielo) o de control
+ * de la partida (pausar, reanudar o reiniciar).
+ * Los controladores de teclado las encolan desde el hilo de eventos y el
+ * juego las ejecuta en el hilo de la simulación: las de los jugadores al
+ * inicio de cada tick y las de control entre dos ticks.
+ * Las órdenes no tienen estado mutable, así que se reutilizan las mismas
+ * instancias y encolar no reserva memoria.
+ */
+public final class InputCommand {
+
+    /**
+     * Tipos de orden.
+     */
+    public enum Type {
+        MOVE,
+        ICE,
+        PAUSE,
+        RESUME,
+        RESET
+    }
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final InputCommand[][] MOVES = new InputCommand[2][DIRECTIONS.length];
+    private static final InputCommand[] ICE_ACTIONS = new InputCommand[2];
+    private static final InputCommand PAUSE = new InputCommand(Type.PAUSE, 0, null);
+    private static final InputCommand RESUME = new InputCommand(Type.RESUME, 0, null);
+    private static final InputCommand RESET = new InputCommand(Type.RESET, 0, null);
+
+    static {
+        for (int player = 0; player < 2; player++) {
+            for (Direction direction : DIRECTIONS) {
+                MOVES[player][direction.ordinal()] = new InputCommand(Type.MOVE, player + 1, direction);
+            }
+            ICE_ACTIONS[player] = new InputCommand(Type.ICE, player + 1, null);
+        }
+    }
+
+    private final Type type;
+    private final int playerNumber;
+    private final Direction direction;
+
+    private InputCommand(Type type, int playerNumber, Direction direction) {
+        this.type = type;
+        this.playerNumber = playerNumber;
+        this.direction = direction;
+    }
+
+    /**
+     * Orden de movimiento.
+     *
+     * @param playerNumber Jugador (1 o 2).
+     * @param direction    Dirección del movimiento.
+     * @return La orden.
+     */
+    public static InputCommand move(int playerNumber, Direction direction) {
+        return MOVES[checkPlayer(playerNumber) - 1][direction.ordinal()];
+    }
+
+    /**
+     * Orden de hielo: destruye la fila de hielo si hay un bloque delante del
+     * jugador, o crea una nueva si no lo hay.
+     *
+     * @param playerNumber Jugador (1 o 2).
+     * @return La orden.
+     */
+    public static InputCommand iceAction(int playerNumber) {
+        return ICE_ACTIONS[checkPlayer(playerNumber) - 1];
+    }
+
+    /**
+     * Orden de pausar la partida si está en curso.
+     *
+     * @return La orden.
+     */
+    public static InputCommand pause() {
+        return PAUSE;
+    }
+
+    /**
+     * Orden de reanudar la partida si está en pausa.
+     *
+     * @return La orden.
+     */
+    public static InputCommand resume() {
+        return RESUME;
+    }
+
+    /**
+     * Orden de reiniciar la partida desde el principio del nivel.
+     *
+     * @return La orden.
+     */
+    public static InputCommand reset() {
+        return RESET;
+    }
+
+    private static int checkPlayer(int playerNumber) {
+        if (playerNumber != 1 && playerNumber != 2) {
+            throw new IllegalArgumentException("Jugador inválido: " + playerNumber);
+        }
+        return playerNumber;
+    }
+
+    /**
+     * Ejecuta la orden sobre el juego. Solo debe llamarse desde el hilo de la
+     * simulación.
+     *
+     * @param game El juego.
+     */
+    void apply(Game game) {
+        switch (type) {
+            case PAUSE:
+                game.pause();
+                return;
+            case RESUME:
+                game.resume();
+                return;
+            case RESET:
+                game.reset();
+                return;
+            default:
+                break;
+        }
+        boolean first = playerNumber == 1;
+        if (type == Type.MOVE) {
+            if (first) {
+                game.movePlayer(direction);
+            } else {
+                game.movePlayer2(direction);
+            }
+            return;
+        }
+
+        Player player = first ? game.getPlayer() : game.getPlayer2();
+        Level level = game.getLevel();
+        if (player == null || level == null) {
+            return;
+        }
+        int targetCell = level.neighbor(level.cellOf(player.getPosition()), player.getDirection());
+        if (level.isIceBlock(targetCell)) {
+            if (first) {
+                game.destroyIceBlock();
+            } else {
+                game.destroyIceBlockPlayer2();
+            }
+        } else {
+            if (first) {
+                game.createIceBlock();
+            } else {
+                game.createIceBlockPlayer2();
+            }
+        }
+    }
+
+    /**
+     * Indica si la orden controla la partida en lugar de mover a un jugador.
+     * Estas órdenes no se graban en las repeticiones.
+     *
+     * @return true para pausar, reanudar y reiniciar.
+     */
+    public boolean isControl() {
+        return playerNumber == 0;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Jugador de la orden.
+     *
+     * @return 1 o 2, o 0 en las órdenes de control.
+     */
+    public int getPlayerNumber() {
+        return playerNumber;
+    }
+
+    public Direction getDirection() {
+        return direction;
+    }
+}
@@ -1,7 +1,11 @@
 package domain;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 public class Level {
     int levelNumber;
@@ -16,38 +20,115 @@ public class Level {
     private Player player;
     private Player player2; // Para modo PvsP
     private FruitWaveManager waveManager;
+    private int compactedFruits;
+    // Datos del paquete de niveles, o null para los niveles incorporados
+    private LevelData data;
+    // Apariciones de los niveles incorporados, en esquinas opuestas del tablero
+    static final int[][] DEFAULT_SPAWNS = { { 1, 1 }, { 13, 9 } };
+    private final Position[] spawns = {
+            new Position(DEFAULT_SPAWNS[0][0], DEFAULT_SPAWNS[0][1]),
+            new Position(DEFAULT_SPAWNS[1][0], DEFAULT_SPAWNS[1][1]) };
+    private OccupancyGrid grid;
+    private Pathfinder pathfinder;
+    private DangerMap dangerMap;
+    private GameClock clock = GameClock.SYSTEM;
+    private LevelRandom random = new LevelRandom();
 
     public Level(int levelNumber) {
-        this.levelNumber = levelNumber;
-        this.width = 15;
-        this.height = 11;
-        this.walls = new ArrayList<>();
-        this.iceBlocks = new ArrayList<>();
-        this.fruits = new ArrayList<>();
-        this.enemies = new ArrayList<>();
-        this.campfires = new ArrayList<>();
-        this.hotTiles = new ArrayList<>();
+        this(levelNumber, 15, 11);
         initializeLevel();
     }
 
+    /**
+     * Crea un nivel a partir de datos de un paquete o de un archivo de texto.
+     * Las oleadas siguientes se cargan de la misma tabla.
+     * 
+     * @param data Los datos del nivel.
+     */
+    public Level(LevelData data) {
+        this(data.getLevelNumber(), data.getWidth(), data.getHeight());
+        this.data = data;
+        data.applyTo(this);
+    }
+
+    private Level(int levelNumber, int width, int height) {
+        this.levelNumber = levelNumber;
+        this.width = width;
+        this.height = height;
+        this.grid = new OccupancyGrid(this, width, height);
+        this.walls = new IndexedList<>();
+        this.iceBlocks = new IndexedList<>();
+        this.fruits = new FruitList();
+        this.enemies = new IndexedList<>();
+        this.campfires = new IndexedList<>();
+        this.hotTiles = new IndexedList<>();
+    }
+
     private void initializeLevel() {
         LevelFactory.createLevel(this, levelNumber);
     }
 
     public void setWaveManager(FruitWaveManager waveManager) {
         this.waveManager = waveManager;
+        if (waveManager != null) {
+            int uncollected = 0;
+            for (Fruit fruit : fruits) {
+                if (fruit != null && !fruit.isCollected()) {
+                    uncollected++;
+                }
+            }
+            waveManager.track(uncollected);
+        }
+    }
+
+    /**
+     * Llamado por una fruta del nivel al ser recolectada.
+     */
+    void onFruitCollected(Fruit fruit) {
+        if (waveManager != null) {
+            waveManager.fruitCollected();
+        }
+    }
+
+    /**
+     * Quita de la lista de frutas las ya recolectadas, para que no crezca de
+     * oleada en oleada. Se cuentan aparte para el total del HUD.
+     */
+    private void compactCollectedFruits() {
+        int before = fruits.size();
+        fruits.removeIf(fruit -> fruit == null || fruit.isCollected());
+        compactedFruits += before - fruits.size();
+    }
+
+    /**
+     * Obtiene cuántas frutas recolectadas se quitaron de la lista al cambiar
+     * de oleada.
+     * 
+     * @return La cantidad de frutas compactadas.
+     */
+    public int getCompactedFruitCount() {
+        return compactedFruits;
+    }
+
+    void setCompactedFruitCount(int compactedFruits) {
+        this.compactedFruits = compactedFruits;
     }
 
     /**
-     * Verifica si se completó la oleada actual y carga la siguiente
+     * Verifica si se completó la oleada actual y carga la siguiente. El
+     * gestor de oleadas lleva la cuenta de frutas pendientes, así que la
+     * verificación no recorre la lista.
      */
     public void checkWaveCompletion() {
-        if (waveManager != null && waveManager.isWaveCompleted(fruits)) {
+        if (waveManager != null && waveManager.isCurrentWaveCompleted()) {
             if (waveManager.hasNextWave()) {
+                compactCollectedFruits();
                 waveManager.nextWave();
 
                 // Cargar oleadas según el nivel
-                if (levelNumber == 1 && waveManager.getCurrentWave() == 2) {
+                if (data != null) {
+                    data.startWave(this, waveManager.getCurrentWave());
+                } else if (levelNumber == 1 && waveManager.getCurrentWave() == 2) {
                     loadLevel1Wave2();
                 } else if (levelNumber == 2) {
                     if (waveManager.getCurrentWave() == 2) {
@@ -128,30 +209,87 @@ public class Level {
         fruits.addAll(waveManager.generateWaveFruits());
     }
 
+    // ==================== COORDENADAS DE CELDA ====================
+    // Una celda se identifica con el entero y * width + x (-1 fuera del tablero).
+    // Las sobrecargas con int evitan crear objetos Position en los bucles de cada tick.
+
+    /**
+     * Obtiene la celda de una posición.
+     * 
+     * @param position La posición.
+     * @return La celda, o -1 si es nula o está fuera del tablero.
+     */
+    public int cellOf(Position position) {
+        return grid.cellOf(position);
+    }
+
+    /**
+     * Obtiene la celda de unas coordenadas.
+     * 
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return La celda, o -1 si está fuera del tablero.
+     */
+    public int cellOf(int x, int y) {
+        return grid.cellOf(x, y);
+    }
+
+    public int cellX(int cell) {
+        return cell % width;
+    }
+
+    public int cellY(int cell) {
+        return cell / width;
+    }
+
+    /**
+     * Obtiene la celda vecina en una dirección.
+     * 
+     * @param cell      La celda de origen.
+     * @param direction La dirección del desplazamiento.
+     * @return La celda vecina, o -1 si queda fuera del tablero.
+     */
+    public int neighbor(int cell, Direction direction) {
+        return grid.neighbor(cell, direction);
+    }
+
+    /**
+     * Obtiene la posición canónica de una celda. La instancia es compartida por
+     * todo el nivel y no debe modificarse.
+     * 
+     * @param cell La celda.
+     * @return La posición, o null si la celda es -1.
+     */
+    public Position positionOf(int cell) {
+        return grid.positionOf(cell);
+    }
+
     public boolean canMoveTo(Position position) {
-        if (position == null)
-            return false;
-        if (position.getX() < 0 || position.getX() >= width ||
-                position.getY() < 0 || position.getY() >= height) {
+        return canMoveTo(grid.cellOf(position));
+    }
+
+    public boolean canMoveTo(int cell) {
+        if (cell < 0)
             return false;
-        }
-        if (isWall(position))
+        if (grid.hasWall(cell))
             return false;
-        if (isIceBlock(position))
+        if (grid.getIceBlock(cell) != null)
             return false;
         return true;
     }
 
     public boolean canPlaceIceBlock(Position position) {
-        if (!canMoveTo(position))
+        return canPlaceIceBlock(grid.cellOf(position));
+    }
+
+    public boolean canPlaceIceBlock(int cell) {
+        if (!canMoveTo(cell))
             return false;
 
-        if (isCampfire(position)) {
-            Campfire fire = getCampfireAt(position);
-            if (fire != null && fire.isLit()) {
-                fire.extinguish();
-                return false;
-            }
+        Campfire fire = grid.getCampfire(cell);
+        if (fire != null && fire.isLit()) {
+            fire.extinguish();
+            return false;
         }
 
         return true;
@@ -167,77 +305,114 @@ public class Level {
     }
 
     public boolean isWall(Position position) {
-        if (position == null || walls == null)
-            return false;
-        return walls.stream().anyMatch(wall -> wall != null && wall.getPosition().equals(position));
+        return isWall(grid.cellOf(position));
+    }
+
+    public boolean isWall(int cell) {
+        return cell >= 0 && grid.hasWall(cell);
     }
 
     public boolean isIceBlock(Position position) {
-        if (position == null || iceBlocks == null)
-            return false;
-        return iceBlocks.stream()
-                .anyMatch(block -> block != null && !block.isDestroyed() && block.getPosition().equals(position));
+        return isIceBlock(grid.cellOf(position));
+    }
+
+    public boolean isIceBlock(int cell) {
+        return cell >= 0 && grid.getIceBlock(cell) != null;
     }
 
     public boolean isCampfire(Position position) {
-        if (position == null || campfires == null)
-            return false;
-        return campfires.stream().anyMatch(fire -> fire != null && fire.getPosition().equals(position));
+        return isCampfire(grid.cellOf(position));
+    }
+
+    public boolean isCampfire(int cell) {
+        return cell >= 0 && grid.getCampfire(cell) != null;
     }
 
     public boolean isHotTile(Position position) {
-        if (position == null || hotTiles == null)
-            return false;
-        return hotTiles.stream().anyMatch(tile -> tile != null && tile.getPosition().equals(position));
+        return isHotTile(grid.cellOf(position));
+    }
+
+    public boolean isHotTile(int cell) {
+        return cell >= 0 && grid.hasHotTile(cell);
     }
 
     public boolean isDeadlyCampfire(Position position) {
-        Campfire fire = getCampfireAt(position);
+        return isDeadlyCampfire(grid.cellOf(position));
+    }
+
+    public boolean isDeadlyCampfire(int cell) {
+        Campfire fire = getCampfireAt(cell);
         return fire != null && fire.isDeadly();
     }
 
     public IceBlock getIceBlockAt(Position position) {
-        if (position == null || iceBlocks == null)
-            return null;
-        return iceBlocks.stream()
-                .filter(block -> block != null && !block.isDestroyed() && block.getPosition().equals(position))
-                .findFirst()
-                .orElse(null);
+        return getIceBlockAt(grid.cellOf(position));
+    }
+
+    public IceBlock getIceBlockAt(int cell) {
+        return cell >= 0 ? grid.getIceBlock(cell) : null;
     }
 
     public Fruit getFruitAt(Position position) {
-        if (position == null || fruits == null)
-            return null;
-        return fruits.stream()
-                .filter(fruit -> fruit != null && !fruit.isCollected() && fruit.getPosition().equals(position))
-                .findFirst()
-                .orElse(null);
+        return getFruitAt(grid.cellOf(position));
+    }
+
+    public Fruit getFruitAt(int cell) {
+        return cell >= 0 ? grid.getFruit(cell) : null;
+    }
+
+    /**
+     * Obtiene un enemigo vivo en una celda.
+     * 
+     * @param cell La celda.
+     * @return Un enemigo en la celda, o null si no hay ninguno.
+     */
+    public Enemy getEnemyAt(int cell) {
+        return cell >= 0 ? grid.getEnemy(cell) : null;
     }
 
     public Campfire getCampfireAt(Position position) {
-        if (position == null || campfires == null)
-            return null;
-        return campfires.stream()
-                .filter(fire -> fire != null && fire.getPosition().equals(position))
-                .findFirst()
-                .orElse(null);
+        return getCampfireAt(grid.cellOf(position));
+    }
+
+    public Campfire getCampfireAt(int cell) {
+        return cell >= 0 ? grid.getCampfire(cell) : null;
     }
 
     public boolean hasEnemyAt(Position position) {
-        if (position == null || enemies == null)
+        return hasEnemyAt(grid.cellOf(position));
+    }
+
+    public boolean hasEnemyAt(int cell) {
+        return cell >= 0 && grid.getEnemyCount(cell) > 0;
+    }
+
+    /**
+     * Verifica si hay un enemigo vivo en la posición distinto del indicado.
+     * Usado por los enemigos para evitar chocar entre ellos.
+     * 
+     * @param position La posición a verificar.
+     * @param self     El enemigo que consulta (se excluye del conteo).
+     * @return true si otro enemigo vivo ocupa la posición.
+     */
+    public boolean hasOtherEnemyAt(Position position, Enemy self) {
+        return hasOtherEnemyAt(grid.cellOf(position), self);
+    }
+
+    public boolean hasOtherEnemyAt(int cell, Enemy self) {
+        if (cell < 0) {
             return false;
-        return enemies.stream()
-                .anyMatch(enemy -> enemy != null && enemy.isAlive() && enemy.getPosition().equals(position));
+        }
+        int count = grid.getEnemyCount(cell);
+        if (self != null && self.getOwner() == this && self.isAlive() && grid.cellOf(self.getPosition()) == cell) {
+            count--;
+        }
+        return count > 0;
     }
 
     public boolean allFruitsCollected() {
         if (waveManager != null) {
-            boolean currentWaveComplete = waveManager.isWaveCompleted(fruits);
-
-            if (currentWaveComplete && waveManager.hasNextWave()) {
-                return false;
-            }
-
+            // Solo hay victoria con la última oleada completa
             return waveManager.isAllWavesCompleted();
         }
 
@@ -247,20 +422,25 @@ public class Level {
     }
 
     public void update() {
-        if (campfires != null) {
-            campfires.forEach(Campfire::update);
+        // Bucles indexados: evitan crear streams e iteradores en cada tick
+        for (int i = 0; i < campfires.size(); i++) {
+            campfires.get(i).update();
         }
 
-        if (fruits != null) {
-            fruits.stream()
-                    .filter(f -> f != null && !f.isCollected())
-                    .forEach(f -> f.update(this));
+        for (int i = 0; i < fruits.size(); i++) {
+            Fruit f = fruits.get(i);
+            if (f != null && !f.isCollected()) {
+                f.update(this);
+            }
         }
 
-        if (enemies != null && player != null) {
-            enemies.stream()
-                    .filter(e -> e != null && e.isAlive())
-                    .forEach(e -> e.updateBehavior(this, player));
+        if (player != null) {
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy e = enemies.get(i);
+                if (e != null && e.isAlive()) {
+                    e.updateBehavior(this, player);
+                }
+            }
         }
 
         checkWaveCompletion();
@@ -304,7 +484,9 @@ public class Level {
     }
 
     public void setPlayer(Player player) {
+        Player old = this.player;
         this.player = player;
+        replacePlayer(old, player);
     }
 
     public Player getPlayer2() {
@@ -312,10 +494,328 @@ public class Level {
     }
 
     public void setPlayer2(Player player2) {
+        Player old = this.player2;
         this.player2 = player2;
+        replacePlayer(old, player2);
+    }
+
+    /**
+     * Cambia el nivel propietario de los jugadores para que sus movimientos
+     * marquen las celdas modificadas.
+     */
+    private void replacePlayer(Player oldPlayer, Player newPlayer) {
+        if (oldPlayer == newPlayer) {
+            return;
+        }
+        if (oldPlayer != null && oldPlayer != player && oldPlayer != player2 && oldPlayer.getOwner() == this) {
+            grid.remove(oldPlayer);
+            oldPlayer.setOwner(null);
+        }
+        if (newPlayer != null) {
+            newPlayer.setOwner(this);
+            grid.add(newPlayer);
+        }
+    }
+
+    /**
+     * Obtiene la posición de aparición de un jugador.
+     * 
+     * @param index 0 para el jugador principal, 1 para el segundo.
+     * @return Una copia de la posición.
+     */
+    public Position getSpawn(int index) {
+        return spawns[index].clone();
+    }
+
+    void setSpawn(int index, Position position) {
+        spawns[index] = position.clone();
+    }
+
+    /**
+     * Obtiene los datos del paquete de niveles con los que se creó el nivel.
+     * 
+     * @return Los datos, o null si es un nivel incorporado.
+     */
+    public LevelData getLevelData() {
+        return data;
     }
 
     public FruitWaveManager getWaveManager() {
         return waveManager;
     }
+
+    /**
+     * Obtiene el índice de ocupación del tablero.
+     * 
+     * @return El índice de ocupación del nivel.
+     */
+    public OccupancyGrid getOccupancyGrid() {
+        return grid;
+    }
+
+    /**
+     * Obtiene el reloj con el que avanzan los objetos temporizados del nivel.
+     * 
+     * @return El reloj del nivel.
+     */
+    public GameClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Establece el reloj del nivel (por ejemplo, un reloj de ticks para la
+     * simulación sin interfaz).
+     * 
+     * @param clock El nuevo reloj.
+     */
+    public void setClock(GameClock clock) {
+        this.clock = clock != null ? clock : GameClock.SYSTEM;
+    }
+
+    /**
+     * Obtiene la fuente de azar del nivel (frutas móviles, narvales y
+     * exploración de la IA).
+     * 
+     * @return El generador aleatorio del nivel.
+     */
+    public Random getRandom() {
+        return random;
+    }
+
+    /**
+     * Fija la semilla del azar del nivel para que la partida sea reproducible.
+     * 
+     * @param seed La semilla.
+     */
+    public void setRandomSeed(long seed) {
+        this.random = new LevelRandom(seed);
+    }
+
+    /**
+     * Crea una copia del azar del nivel en su estado actual, para simular
+     * sin consumir el original.
+     * 
+     * @return La copia.
+     */
+    Random forkRandom() {
+        LevelRandom fork = new LevelRandom();
+        fork.setState(random.getState());
+        return fork;
+    }
+
+    long getRandomState() {
+        return random.getState();
+    }
+
+    void setRandomState(long state) {
+        random.setState(state);
+    }
+
+    /**
+     * Marca una celda como modificada para que la interfaz la repinte.
+     * 
+     * @param cell La celda (se ignora si es -1).
+     */
+    public void markDirty(int cell) {
+        grid.markDirty(cell);
+    }
+
+    /**
+     * Copia en el arreglo dado las celdas modificadas desde la última llamada
+     * (movimientos, hielo creado o destruido, fogatas, frutas recolectadas) y
+     * las desmarca.
+     * 
+     * @param out Arreglo de destino, de tamaño ancho * alto como mínimo.
+     * @return La cantidad de celdas copiadas.
+     */
+    public int drainDirtyCells(int[] out) {
+        return grid.drainDirtyCells(out);
+    }
+
+    /**
+     * Obtiene la versión de la topología del nivel (muros y hielo).
+     * 
+     * @return La versión actual de la topología.
+     */
+    public int getTopologyVersion() {
+        return grid.getTopologyVersion();
+    }
+
+    /**
+     * Obtiene el servicio de búsqueda de caminos del nivel.
+     * 
+     * @return El pathfinder del nivel.
+     */
+    public Pathfinder getPathfinder() {
+        if (pathfinder == null) {
+            pathfinder = new Pathfinder(this);
+        }
+        return pathfinder;
+    }
+
+    /**
+     * Obtiene el mapa de peligros del nivel, al día con el estado actual. Lo
+     * comparten todos los jugadores de la IA.
+     * 
+     * @return El mapa de peligros del nivel.
+     */
+    public DangerMap getDangerMap() {
+        if (dangerMap == null) {
+            dangerMap = new DangerMap(this);
+        }
+        dangerMap.refresh();
+        return dangerMap;
+    }
+
+    /**
+     * Lista de entidades del nivel que mantiene sincronizado el índice de
+     * ocupación ante cualquier alta o baja, incluidas las hechas directamente
+     * sobre la lista devuelta por los getters.
+     */
+    private class IndexedList<T extends GameObject> extends ArrayList<T> {
+        private static final long serialVersionUID = 1L;
+
+        void attach(T obj) {
+            if (obj != null) {
+                obj.setOwner(Level.this);
+                grid.add(obj);
+            }
+        }
+
+        void detach(T obj) {
+            if (obj != null && obj.getOwner() == Level.this) {
+                grid.remove(obj);
+                obj.setOwner(null);
+            }
+        }
+
+        @Override
+        public boolean add(T obj) {
+            super.add(obj);
+            attach(obj);
+            return true;
+        }
+
+        @Override
+        public void add(int index, T obj) {
+            super.add(index, obj);
+            attach(obj);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends T> objects) {
+            boolean changed = super.addAll(objects);
+            for (T obj : objects) {
+                attach(obj);
+            }
+            return changed;
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends T> objects) {
+            boolean changed = super.addAll(index, objects);
+            for (T obj : objects) {
+                attach(obj);
+            }
+            return changed;
+        }
+
+        @Override
+        public T set(int index, T obj) {
+            T old = super.set(index, obj);
+            detach(old);
+            attach(obj);
+            return old;
+        }
+
+        @Override
+        public T remove(int index) {
+            T old = super.remove(index);
+            detach(old);
+            return old;
+        }
+
+        @Override
+        public boolean remove(Object obj) {
+            int index = indexOf(obj);
+            if (index < 0) {
+                return false;
+            }
+            remove(index);
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            for (T obj : this) {
+                detach(obj);
+            }
+            super.clear();
+        }
+
+        @Override
+        protected void removeRange(int fromIndex, int toIndex) {
+            for (int i = fromIndex; i < toIndex; i++) {
+                detach(get(i));
+            }
+            super.removeRange(fromIndex, toIndex);
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super T> filter) {
+            return super.removeIf(obj -> {
+                if (filter.test(obj)) {
+                    detach(obj);
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> objects) {
+            return removeIf(objects::contains);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> objects) {
+            return removeIf(obj -> !objects.contains(obj));
+        }
+
+        @Override
+        public void replaceAll(UnaryOperator<T> operator) {
+            for (T obj : this) {
+                detach(obj);
+            }
+            super.replaceAll(operator);
+            for (T obj : this) {
+                attach(obj);
+            }
+        }
+    }
+
+    /**
+     * Lista de frutas que además mantiene el contador de frutas pendientes
+     * del gestor de oleadas.
+     */
+    private class FruitList extends IndexedList<Fruit> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        void attach(Fruit fruit) {
+            super.attach(fruit);
+            if (fruit != null && waveManager != null && !fruit.isCollected()) {
+                waveManager.fruitAdded();
+            }
+        }
+
+        @Override
+        void detach(Fruit fruit) {
+            boolean counted = fruit != null && fruit.getOwner() == Level.this && !fruit.isCollected();
+            super.detach(fruit);
+            if (counted && waveManager != null) {
+                waveManager.fruitRemoved();
+            }
+        }
+    }
 }
\ No newline at end of file
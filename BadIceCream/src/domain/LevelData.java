@@ -0,0 +1,665 @@
+package domain;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Descripción inmutable de un nivel: capas del tablero, puntos de aparición
+ * de jugadores y enemigos, y la tabla de oleadas de frutas. Es lo que guarda
+ * un {@link LevelPack} y lo que se escribe en el formato de texto de autoría.
+ * <p>
+ * Las celdas se identifican con y * ancho + x, igual que en {@link Level}.
+ * <p>
+ * Formato de texto (compatible con la exportación de
+ * {@link GameSaveManager#export}):
+ * <pre>
+ * [LEVEL]
+ * number=4
+ * [MAP]          # muro, I hielo, * fogata, o fogata apagada, H baldosa caliente
+ * [SPAWNS]       x,y (jugador 1 y jugador 2)
+ * [ENEMIES]      Clase,x,y
+ * [FRUITS]       TIPO,x,y[,recolectada]   (oleada 1)
+ * [WAVES]        oleada,TIPO,x,y
+ * [CAMPFIRES]    x,y[,encendida]
+ * [HOTTILES]     x,y
+ * </pre>
+ * Las secciones [PLAYER] y [GAME] de la exportación se aceptan: la posición
+ * del jugador se usa como aparición si no hay [SPAWNS]. Las apariciones que
+ * falten se toman de las del nivel incorporado si están libres, o de la
+ * primera celda libre desde la esquina que le toca a cada jugador.
+ */
+public final class LevelData {
+    // Marcas de la capa de celdas
+    public static final byte WALL = 1;
+    public static final byte ICE = 2;
+    public static final byte HOT_TILE = 4;
+    public static final byte CAMPFIRE = 8;
+    public static final byte CAMPFIRE_OUT = 16;
+
+    public static final int MAX_SIZE = 255;
+    public static final int MAX_SPAWNS = 2;
+
+    // Clases de enemigo por código, con los mismos nombres que la exportación
+    private static final String[] ENEMY_CLASSES = { "Troll", "Pot", "OrangeSquid", "Narwhal" };
+    private static final FruitType[] FRUIT_TYPES = FruitType.values();
+
+    private final int levelNumber;
+    private final int width;
+    private final int height;
+    private final byte[] cells;
+    private final int[] spawnCells;
+    // Apariciones de los dos jugadores, con las que faltan ya completadas
+    private final int[] playerSpawnCells;
+    private final byte[] enemyKinds;
+    private final int[] enemyCells;
+    private final FruitType[] waveTypes;
+    private final int[][] waveCells;
+
+    /**
+     * Constructor de la clase LevelData. Los arreglos pasan a ser del objeto.
+     */
+    LevelData(int levelNumber, int width, int height, byte[] cells, int[] spawnCells, byte[] enemyKinds,
+            int[] enemyCells, FruitType[] waveTypes, int[][] waveCells) throws BadIceCreamException {
+        if (width < 1 || width > MAX_SIZE || height < 1 || height > MAX_SIZE) {
+            throw new BadIceCreamException("Dimensiones de nivel inválidas: " + width + "x" + height);
+        }
+        if (cells.length != width * height) {
+            throw new BadIceCreamException("La capa de celdas no coincide con las dimensiones del nivel");
+        }
+        if (spawnCells.length > MAX_SPAWNS) {
+            throw new BadIceCreamException("Un nivel admite como máximo " + MAX_SPAWNS + " apariciones");
+        }
+        this.levelNumber = levelNumber;
+        this.width = width;
+        this.height = height;
+        this.cells = cells;
+        this.spawnCells = spawnCells;
+        this.enemyKinds = enemyKinds;
+        this.enemyCells = enemyCells;
+        this.waveTypes = waveTypes;
+        this.waveCells = waveCells;
+
+        checkCells(spawnCells);
+        checkCells(enemyCells);
+        this.playerSpawnCells = completeSpawns();
+        for (int[] wave : waveCells) {
+            checkCells(wave);
+        }
+        for (byte kind : enemyKinds) {
+            if (kind < 0 || kind >= ENEMY_CLASSES.length) {
+                throw new BadIceCreamException("Tipo de enemigo inválido: " + kind);
+            }
+        }
+    }
+
+    /**
+     * Completa las apariciones que no vienen en los datos, para que el
+     * segundo jugador no aparezca fuera de un tablero pequeño.
+     */
+    private int[] completeSpawns() throws BadIceCreamException {
+        int[] spawns = new int[MAX_SPAWNS];
+        for (int i = 0; i < MAX_SPAWNS; i++) {
+            spawns[i] = i < spawnCells.length ? spawnCells[i] : freeSpawnCell(i, spawns);
+        }
+        return spawns;
+    }
+
+    private int freeSpawnCell(int index, int[] taken) throws BadIceCreamException {
+        int x = Level.DEFAULT_SPAWNS[index][0];
+        int y = Level.DEFAULT_SPAWNS[index][1];
+        if (x < width && y < height && isFreeSpawn(y * width + x, index, taken)) {
+            return y * width + x;
+        }
+        // El primer jugador busca desde la esquina superior izquierda y el segundo desde la opuesta
+        for (int i = 0; i < cells.length; i++) {
+            int cell = index == 0 ? i : cells.length - 1 - i;
+            if (isFreeSpawn(cell, index, taken)) {
+                return cell;
+            }
+        }
+        throw new BadIceCreamException("El nivel no tiene una celda libre para el jugador " + (index + 1));
+    }
+
+    private boolean isFreeSpawn(int cell, int index, int[] taken) {
+        if (cells[cell] != 0) {
+            return false;
+        }
+        for (int i = 0; i < index; i++) {
+            if (taken[i] == cell) {
+                return false;
+            }
+        }
+        for (int enemy : enemyCells) {
+            if (enemy == cell) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkCells(int[] list) throws BadIceCreamException {
+        for (int cell : list) {
+            if (cell < 0 || cell >= cells.length) {
+                throw new BadIceCreamException("Celda fuera del nivel: " + cell);
+            }
+        }
+    }
+
+    // ==================== CONSULTAS ====================
+
+    public int getLevelNumber() {
+        return levelNumber;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Marcas de una celda.
+     *
+     * @param cell La celda.
+     * @return Combinación de WALL, ICE, HOT_TILE, CAMPFIRE y CAMPFIRE_OUT.
+     */
+    public byte getCell(int cell) {
+        return cells[cell];
+    }
+
+    public int getSpawnCount() {
+        return spawnCells.length;
+    }
+
+    public int getSpawnCell(int index) {
+        return spawnCells[index];
+    }
+
+    public int getEnemyCount() {
+        return enemyCells.length;
+    }
+
+    public int getEnemyCell(int index) {
+        return enemyCells[index];
+    }
+
+    /**
+     * Clase de un enemigo.
+     *
+     * @param index Índice del enemigo.
+     * @return El nombre simple de la clase (Troll, Pot, OrangeSquid, Narwhal).
+     */
+    public String getEnemyClass(int index) {
+        return ENEMY_CLASSES[enemyKinds[index]];
+    }
+
+    byte getEnemyKind(int index) {
+        return enemyKinds[index];
+    }
+
+    public int getWaveCount() {
+        return waveTypes.length;
+    }
+
+    /**
+     * Tipo de fruta de una oleada.
+     *
+     * @param wave Número de oleada, desde 1.
+     * @return El tipo de fruta.
+     */
+    public FruitType getWaveFruitType(int wave) {
+        return waveTypes[wave - 1];
+    }
+
+    /**
+     * Cantidad de frutas de una oleada.
+     *
+     * @param wave Número de oleada, desde 1.
+     * @return La cantidad de frutas.
+     */
+    public int getWaveSize(int wave) {
+        return waveCells[wave - 1].length;
+    }
+
+    /**
+     * Celda de una fruta de una oleada.
+     *
+     * @param wave  Número de oleada, desde 1.
+     * @param index Índice de la fruta.
+     * @return La celda.
+     */
+    public int getWaveCell(int wave, int index) {
+        return waveCells[wave - 1][index];
+    }
+
+    // ==================== CONSTRUCCIÓN DEL NIVEL ====================
+
+    /**
+     * Crea los objetos del nivel: muros, hielo, fogatas, baldosas calientes,
+     * enemigos y la primera oleada.
+     *
+     * @param level El nivel recién creado con las dimensiones de estos datos.
+     */
+    void applyTo(Level level) {
+        for (int cell = 0; cell < cells.length; cell++) {
+            byte flags = cells[cell];
+            if (flags == 0) {
+                continue;
+            }
+            // Las posiciones de la grilla son compartidas: cada objeto recibe su copia
+            Position position = level.positionOf(cell);
+            if ((flags & WALL) != 0) {
+                level.getWalls().add(new Wall(position.clone()));
+            }
+            if ((flags & ICE) != 0) {
+                level.getIceBlocks().add(new IceBlock(position.clone()));
+            }
+            if ((flags & CAMPFIRE) != 0) {
+                Campfire fire = new Campfire(position.clone());
+                level.getCampfires().add(fire);
+                if ((flags & CAMPFIRE_OUT) != 0) {
+                    fire.extinguish();
+                }
+            }
+            if ((flags & HOT_TILE) != 0) {
+                level.getHotTiles().add(new HotTile(position.clone()));
+            }
+        }
+
+        for (int i = 0; i < playerSpawnCells.length; i++) {
+            level.setSpawn(i, level.positionOf(playerSpawnCells[i]));
+        }
+
+        for (int i = 0; i < enemyCells.length; i++) {
+            level.getEnemies().add(createEnemy(enemyKinds[i], level.positionOf(enemyCells[i]).clone()));
+        }
+
+        if (waveTypes.length > 0) {
+            level.setWaveManager(new FruitWaveManager(waveTypes.length));
+            startWave(level, 1);
+        }
+    }
+
+    /**
+     * Inicia una oleada en el nivel y agrega sus frutas.
+     *
+     * @param level El nivel.
+     * @param wave  Número de oleada, desde 1.
+     */
+    void startWave(Level level, int wave) {
+        FruitWaveManager manager = level.getWaveManager();
+        if (manager == null || wave < 1 || wave > waveTypes.length) {
+            return;
+        }
+        List<Position> positions = new ArrayList<>(waveCells[wave - 1].length);
+        for (int cell : waveCells[wave - 1]) {
+            positions.add(level.positionOf(cell).clone());
+        }
+        manager.startWave(wave, waveTypes[wave - 1], positions);
+        level.getFruits().addAll(manager.generateWaveFruits());
+    }
+
+    private static Enemy createEnemy(byte kind, Position position) {
+        switch (kind) {
+            case 1:
+                return new Pot(position);
+            case 2:
+                return new OrangeSquid(position);
+            case 3:
+                return new Narwhal(position);
+            default:
+                return new Troll(position);
+        }
+    }
+
+    // ==================== FORMATO DE TEXTO ====================
+
+    /**
+     * Lee un nivel en formato de texto desde un archivo.
+     *
+     * @param file El archivo.
+     * @return Los datos del nivel.
+     * @throws BadIceCreamException Si el archivo no existe o tiene errores.
+     */
+    public static LevelData read(File file) throws BadIceCreamException {
+        if (!file.exists()) {
+            throw new BadIceCreamException("El archivo no existe: " + file.getAbsolutePath());
+        }
+        try (Reader reader = new FileReader(file)) {
+            return parse(reader);
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al leer el nivel: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee un nivel en formato de texto.
+     *
+     * @param source El texto.
+     * @return Los datos del nivel.
+     * @throws BadIceCreamException Si el texto tiene errores.
+     */
+    public static LevelData parse(Reader source) throws BadIceCreamException {
+        BufferedReader reader = source instanceof BufferedReader ? (BufferedReader) source
+                : new BufferedReader(source);
+        int number = 0;
+        List<String> map = new ArrayList<>();
+        List<int[]> spawns = new ArrayList<>();
+        int[] playerPosition = null;
+        List<String> enemyClasses = new ArrayList<>();
+        List<int[]> enemyPositions = new ArrayList<>();
+        // Oleada -> tipo y posiciones, en orden de oleada
+        TreeMap<Integer, FruitType> waveTypes = new TreeMap<>();
+        Map<Integer, List<int[]>> wavePositions = new TreeMap<>();
+        List<int[]> campfires = new ArrayList<>();
+        List<int[]> hotTiles = new ArrayList<>();
+
+        String section = "";
+        int lineNumber = 0;
+        String line;
+        try {
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String text = line.trim();
+
+                // La exportación guarda el número de nivel como comentario
+                if (text.startsWith("# Level:")) {
+                    number = Integer.parseInt(text.substring(8).trim());
+                    continue;
+                }
+                if (text.isEmpty() || text.startsWith("#") && !section.equals("MAP")) {
+                    continue;
+                }
+                if (text.startsWith("[") && text.endsWith("]")) {
+                    section = text.substring(1, text.length() - 1);
+                    continue;
+                }
+
+                String[] parts = text.split(",");
+                switch (section) {
+                    case "LEVEL":
+                        if (text.startsWith("number=")) {
+                            number = Integer.parseInt(text.substring(7).trim());
+                        }
+                        break;
+                    case "PLAYER":
+                        if (text.startsWith("position=")) {
+                            String[] coords = text.substring(9).split(",");
+                            playerPosition = new int[] { parseInt(coords[0]), parseInt(coords[1]) };
+                        }
+                        break;
+                    case "MAP":
+                        map.add(text);
+                        break;
+                    case "SPAWNS":
+                        spawns.add(new int[] { parseInt(parts[0]), parseInt(parts[1]) });
+                        break;
+                    case "ENEMIES":
+                        // Los enemigos muertos de una exportación no se crean
+                        if (parts.length < 4 || Boolean.parseBoolean(parts[3].trim())) {
+                            enemyClasses.add(parts[0].trim());
+                            enemyPositions.add(new int[] { parseInt(parts[1]), parseInt(parts[2]) });
+                        }
+                        break;
+                    case "FRUITS":
+                        // Las frutas ya recolectadas de una exportación no se crean
+                        if (parts.length < 4 || !Boolean.parseBoolean(parts[3].trim())) {
+                            addWaveFruit(waveTypes, wavePositions, 1, parts[0], parts[1], parts[2]);
+                        }
+                        break;
+                    case "WAVES":
+                        addWaveFruit(waveTypes, wavePositions, parseInt(parts[0]), parts[1], parts[2], parts[3]);
+                        break;
+                    case "CAMPFIRES":
+                        boolean lit = parts.length < 3 || Boolean.parseBoolean(parts[2].trim());
+                        campfires.add(new int[] { parseInt(parts[0]), parseInt(parts[1]), lit ? 1 : 0 });
+                        break;
+                    case "HOTTILES":
+                        hotTiles.add(new int[] { parseInt(parts[0]), parseInt(parts[1]) });
+                        break;
+                    default:
+                        // [GAME] y secciones desconocidas no forman parte del nivel
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al leer el nivel: " + e.getMessage(), e);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadIceCreamException("Línea " + lineNumber + " inválida en el nivel: " + e.getMessage(), e);
+        }
+
+        if (map.isEmpty()) {
+            throw new BadIceCreamException("El nivel no tiene sección [MAP]");
+        }
+        int width = map.get(0).length();
+        int height = map.size();
+        if (width < 1 || width > MAX_SIZE || height > MAX_SIZE) {
+            throw new BadIceCreamException("Dimensiones de nivel inválidas: " + width + "x" + height);
+        }
+
+        byte[] cells = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            String row = map.get(y);
+            if (row.length() != width) {
+                throw new BadIceCreamException("La fila " + y + " del mapa no tiene " + width + " celdas");
+            }
+            for (int x = 0; x < width; x++) {
+                cells[y * width + x] = symbolFlags(row.charAt(x));
+            }
+        }
+        for (int[] fire : campfires) {
+            int cell = cellOf(fire, width, height);
+            cells[cell] |= CAMPFIRE;
+            if (fire[2] == 0) {
+                cells[cell] |= CAMPFIRE_OUT;
+            } else {
+                cells[cell] &= ~CAMPFIRE_OUT;
+            }
+        }
+        for (int[] tile : hotTiles) {
+            cells[cellOf(tile, width, height)] |= HOT_TILE;
+        }
+
+        if (spawns.isEmpty() && playerPosition != null) {
+            spawns.add(playerPosition);
+        }
+        int[] spawnCells = new int[spawns.size()];
+        for (int i = 0; i < spawnCells.length; i++) {
+            spawnCells[i] = cellOf(spawns.get(i), width, height);
+        }
+
+        byte[] enemyKinds = new byte[enemyClasses.size()];
+        int[] enemyCells = new int[enemyClasses.size()];
+        for (int i = 0; i < enemyKinds.length; i++) {
+            enemyKinds[i] = enemyKind(enemyClasses.get(i));
+            enemyCells[i] = cellOf(enemyPositions.get(i), width, height);
+        }
+
+        int waveCount = waveTypes.isEmpty() ? 0 : waveTypes.lastKey();
+        if (waveCount != waveTypes.size() || waveCount > MAX_SIZE) {
+            throw new BadIceCreamException("Las oleadas deben numerarse de 1 a " + waveTypes.size());
+        }
+        FruitType[] types = new FruitType[waveCount];
+        int[][] waveCells = new int[waveCount][];
+        for (Map.Entry<Integer, List<int[]>> entry : wavePositions.entrySet()) {
+            int wave = entry.getKey();
+            List<int[]> positions = entry.getValue();
+            types[wave - 1] = waveTypes.get(wave);
+            waveCells[wave - 1] = new int[positions.size()];
+            for (int i = 0; i < positions.size(); i++) {
+                waveCells[wave - 1][i] = cellOf(positions.get(i), width, height);
+            }
+        }
+
+        return new LevelData(number, width, height, cells, spawnCells, enemyKinds, enemyCells, types, waveCells);
+    }
+
+    private static void addWaveFruit(Map<Integer, FruitType> types, Map<Integer, List<int[]>> positions,
+            int wave, String type, String x, String y) throws BadIceCreamException {
+        if (wave < 1) {
+            throw new BadIceCreamException("Número de oleada inválido: " + wave);
+        }
+        FruitType fruitType = FruitType.valueOf(type.trim());
+        FruitType previous = types.putIfAbsent(wave, fruitType);
+        if (previous != null && previous != fruitType) {
+            throw new BadIceCreamException("La oleada " + wave + " mezcla " + previous + " y " + fruitType);
+        }
+        positions.computeIfAbsent(wave, k -> new ArrayList<>()).add(new int[] { parseInt(x), parseInt(y) });
+    }
+
+    private static int parseInt(String text) {
+        return Integer.parseInt(text.trim());
+    }
+
+    private static int cellOf(int[] position, int width, int height) throws BadIceCreamException {
+        int x = position[0];
+        int y = position[1];
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            throw new BadIceCreamException("Posición fuera del nivel: " + x + "," + y);
+        }
+        return y * width + x;
+    }
+
+    private static byte symbolFlags(char symbol) throws BadIceCreamException {
+        switch (symbol) {
+            case '#':
+                return WALL;
+            case 'I':
+                return ICE;
+            case '*':
+                return CAMPFIRE;
+            case 'o':
+                return CAMPFIRE | CAMPFIRE_OUT;
+            case 'H':
+                return HOT_TILE;
+            // Jugador, enemigo y fruta se leen de sus secciones
+            case '.':
+            case 'P':
+            case 'E':
+            case 'F':
+                return 0;
+            default:
+                throw new BadIceCreamException("Símbolo de mapa desconocido: '" + symbol + "'");
+        }
+    }
+
+    private static byte enemyKind(String className) throws BadIceCreamException {
+        for (int kind = 0; kind < ENEMY_CLASSES.length; kind++) {
+            if (ENEMY_CLASSES[kind].equals(className)) {
+                return (byte) kind;
+            }
+        }
+        throw new BadIceCreamException("Enemigo desconocido: " + className);
+    }
+
+    static FruitType fruitType(int ordinal) throws BadIceCreamException {
+        if (ordinal < 0 || ordinal >= FRUIT_TYPES.length) {
+            throw new BadIceCreamException("Tipo de fruta inválido: " + ordinal);
+        }
+        return FRUIT_TYPES[ordinal];
+    }
+
+    /**
+     * Escribe el nivel en formato de texto. Lo que el mapa no puede mostrar
+     * (una baldosa caliente bajo una fogata, por ejemplo) va en su sección.
+     *
+     * @param writer El destino.
+     */
+    public void write(PrintWriter writer) {
+        writer.println("# Bad Dopo-Cream Level");
+        writer.println("[LEVEL]");
+        writer.println("number=" + levelNumber);
+        writer.println();
+
+        writer.println("[MAP]");
+        List<Integer> hiddenCampfires = new ArrayList<>();
+        List<Integer> hiddenHotTiles = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            StringBuilder row = new StringBuilder(width);
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                char symbol = flagsSymbol(cells[cell]);
+                row.append(symbol);
+                if ((cells[cell] & CAMPFIRE) != 0 && symbol != '*' && symbol != 'o') {
+                    hiddenCampfires.add(cell);
+                }
+                if ((cells[cell] & HOT_TILE) != 0 && symbol != 'H') {
+                    hiddenHotTiles.add(cell);
+                }
+            }
+            writer.println(row);
+        }
+        writer.println();
+
+        if (spawnCells.length > 0) {
+            writer.println("[SPAWNS]");
+            for (int cell : spawnCells) {
+                writer.println(cell % width + "," + cell / width);
+            }
+            writer.println();
+        }
+
+        if (enemyCells.length > 0) {
+            writer.println("[ENEMIES]");
+            for (int i = 0; i < enemyCells.length; i++) {
+                writer.println(ENEMY_CLASSES[enemyKinds[i]] + "," + enemyCells[i] % width + "," + enemyCells[i] / width);
+            }
+            writer.println();
+        }
+
+        if (waveTypes.length > 0) {
+            writer.println("[WAVES]");
+            for (int wave = 0; wave < waveTypes.length; wave++) {
+                for (int cell : waveCells[wave]) {
+                    writer.println((wave + 1) + "," + waveTypes[wave].name() + "," + cell % width + "," + cell / width);
+                }
+            }
+            writer.println();
+        }
+
+        if (!hiddenCampfires.isEmpty()) {
+            writer.println("[CAMPFIRES]");
+            for (int cell : hiddenCampfires) {
+                writer.println(cell % width + "," + cell / width + "," + ((cells[cell] & CAMPFIRE_OUT) == 0));
+            }
+            writer.println();
+        }
+
+        if (!hiddenHotTiles.isEmpty()) {
+            writer.println("[HOTTILES]");
+            for (int cell : hiddenHotTiles) {
+                writer.println(cell % width + "," + cell / width);
+            }
+            writer.println();
+        }
+        writer.flush();
+    }
+
+    private static char flagsSymbol(byte flags) {
+        if ((flags & WALL) != 0) {
+            return '#';
+        }
+        if ((flags & ICE) != 0) {
+            return 'I';
+        }
+        if ((flags & CAMPFIRE) != 0) {
+            return (flags & CAMPFIRE_OUT) != 0 ? 'o' : '*';
+        }
+        if ((flags & HOT_TILE) != 0) {
+            return 'H';
+        }
+        return '.';
+    }
+}
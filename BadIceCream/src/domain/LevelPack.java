@@ -0,0 +1,318 @@
+package domain;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Paquete binario de niveles. El archivo se proyecta en memoria y solo se lee
+ * el índice al abrirlo; cada nivel se decodifica cuando se pide, buscando su
+ * desplazamiento en el índice, sin recorrer el resto del paquete.
+ * <p>
+ * Formato (big endian):
+ * <pre>
+ * encabezado: int MAGIC, short versión, short reservado, int cantidad
+ * índice:     cantidad x (int número de nivel, int desplazamiento, int largo),
+ *             ordenado por número de nivel
+ * nivel:      u8 ancho, u8 alto
+ *             u8 apariciones, u16 celda por aparición
+ *             u8 marcas por celda (ancho x alto)
+ *             u16 enemigos, (u8 clase, u16 celda) por enemigo
+ *             u8 oleadas, (u8 fruta, u16 frutas, u16 celda por fruta) por oleada
+ * </pre>
+ */
+public final class LevelPack {
+    private static final int MAGIC = 0x42494C50; // "BILP"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int INDEX_ENTRY_SIZE = 12;
+
+    private final ByteBuffer buffer;
+    private final int count;
+
+    private LevelPack(ByteBuffer buffer, int count) {
+        this.buffer = buffer;
+        this.count = count;
+    }
+
+    /**
+     * Abre un paquete de niveles. Solo valida el encabezado y el índice.
+     *
+     * @param file El archivo del paquete.
+     * @return El paquete.
+     * @throws BadIceCreamException Si el archivo no existe o no es un paquete
+     *                              válido.
+     */
+    public static LevelPack open(File file) throws BadIceCreamException {
+        if (!file.exists()) {
+            throw new BadIceCreamException("El archivo no existe: " + file.getAbsolutePath());
+        }
+        // La proyección sigue siendo válida después de cerrar el canal
+        MappedByteBuffer mapped;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al abrir el paquete de niveles: " + e.getMessage(), e);
+        }
+        return wrap(mapped);
+    }
+
+    /**
+     * Usa como paquete un buffer ya cargado.
+     *
+     * @param buffer El contenido del paquete.
+     * @return El paquete.
+     * @throws BadIceCreamException Si el contenido no es un paquete válido.
+     */
+    static LevelPack wrap(ByteBuffer buffer) throws BadIceCreamException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new BadIceCreamException("El archivo no es un paquete de niveles");
+        }
+        short version = buffer.getShort(4);
+        if (version != VERSION) {
+            throw new BadIceCreamException("Versión de paquete de niveles no soportada: " + version);
+        }
+        int count = buffer.getInt(8);
+        if (count < 0 || (long) HEADER_SIZE + (long) count * INDEX_ENTRY_SIZE > buffer.limit()) {
+            throw new BadIceCreamException("Índice del paquete de niveles dañado");
+        }
+        int previous = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int entry = HEADER_SIZE + i * INDEX_ENTRY_SIZE;
+            int number = buffer.getInt(entry);
+            long offset = buffer.getInt(entry + 4) & 0xFFFFFFFFL;
+            long length = buffer.getInt(entry + 8) & 0xFFFFFFFFL;
+            if ((i > 0 && number <= previous) || offset + length > buffer.limit()) {
+                throw new BadIceCreamException("Índice del paquete de niveles dañado");
+            }
+            previous = number;
+        }
+        return new LevelPack(buffer, count);
+    }
+
+    /**
+     * Cantidad de niveles del paquete.
+     *
+     * @return La cantidad.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Número del nivel en una posición del índice.
+     *
+     * @param index La posición, de 0 a size() - 1.
+     * @return El número de nivel.
+     */
+    public int getLevelNumber(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Índice de nivel inválido: " + index);
+        }
+        return buffer.getInt(HEADER_SIZE + index * INDEX_ENTRY_SIZE);
+    }
+
+    /**
+     * Indica si el paquete contiene un nivel.
+     *
+     * @param levelNumber El número de nivel.
+     * @return true si está en el índice.
+     */
+    public boolean contains(int levelNumber) {
+        return find(levelNumber) >= 0;
+    }
+
+    // Búsqueda binaria en el índice proyectado
+    private int find(int levelNumber) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int number = buffer.getInt(HEADER_SIZE + mid * INDEX_ENTRY_SIZE);
+            if (number < levelNumber) {
+                low = mid + 1;
+            } else if (number > levelNumber) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodifica un nivel del paquete.
+     *
+     * @param levelNumber El número de nivel.
+     * @return Los datos del nivel.
+     * @throws BadIceCreamException Si el nivel no está o sus datos están
+     *                              dañados.
+     */
+    public LevelData load(int levelNumber) throws BadIceCreamException {
+        int index = find(levelNumber);
+        if (index < 0) {
+            throw new BadIceCreamException("El paquete no contiene el nivel " + levelNumber);
+        }
+        int entry = HEADER_SIZE + index * INDEX_ENTRY_SIZE;
+        int offset = buffer.getInt(entry + 4);
+        int length = buffer.getInt(entry + 8);
+
+        // Vista propia para que varios hilos puedan leer a la vez
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset).limit(offset + length);
+        try {
+            return decode(levelNumber, record);
+        } catch (BufferUnderflowException e) {
+            throw new BadIceCreamException("Datos del nivel " + levelNumber + " dañados", e);
+        }
+    }
+
+    /**
+     * Crea un nivel jugable a partir del paquete.
+     *
+     * @param levelNumber El número de nivel.
+     * @return El nivel.
+     * @throws BadIceCreamException Si el nivel no está o sus datos están
+     *                              dañados.
+     */
+    public Level createLevel(int levelNumber) throws BadIceCreamException {
+        return new Level(load(levelNumber));
+    }
+
+    private static LevelData decode(int levelNumber, ByteBuffer in) throws BadIceCreamException {
+        int width = in.get() & 0xFF;
+        int height = in.get() & 0xFF;
+
+        int[] spawnCells = new int[in.get() & 0xFF];
+        for (int i = 0; i < spawnCells.length; i++) {
+            spawnCells[i] = in.getShort() & 0xFFFF;
+        }
+
+        byte[] cells = new byte[width * height];
+        in.get(cells);
+
+        int enemies = in.getShort() & 0xFFFF;
+        byte[] enemyKinds = new byte[enemies];
+        int[] enemyCells = new int[enemies];
+        for (int i = 0; i < enemies; i++) {
+            enemyKinds[i] = in.get();
+            enemyCells[i] = in.getShort() & 0xFFFF;
+        }
+
+        int waves = in.get() & 0xFF;
+        FruitType[] waveTypes = new FruitType[waves];
+        int[][] waveCells = new int[waves][];
+        for (int wave = 0; wave < waves; wave++) {
+            waveTypes[wave] = LevelData.fruitType(in.get() & 0xFF);
+            waveCells[wave] = new int[in.getShort() & 0xFFFF];
+            for (int i = 0; i < waveCells[wave].length; i++) {
+                waveCells[wave][i] = in.getShort() & 0xFFFF;
+            }
+        }
+
+        return new LevelData(levelNumber, width, height, cells, spawnCells, enemyKinds, enemyCells, waveTypes,
+                waveCells);
+    }
+
+    /**
+     * Escribe un paquete con los niveles dados.
+     *
+     * @param file   El archivo de destino.
+     * @param levels Los niveles; los números no pueden repetirse.
+     * @throws BadIceCreamException Si hay números repetidos o falla la
+     *                              escritura.
+     */
+    public static void write(File file, Collection<LevelData> levels) throws BadIceCreamException {
+        List<LevelData> sorted = new ArrayList<>(levels);
+        sorted.sort(Comparator.comparingInt(LevelData::getLevelNumber));
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getLevelNumber() == sorted.get(i - 1).getLevelNumber()) {
+                throw new BadIceCreamException("Nivel repetido en el paquete: " + sorted.get(i).getLevelNumber());
+            }
+        }
+
+        try {
+            List<byte[]> records = new ArrayList<>(sorted.size());
+            for (LevelData level : sorted) {
+                records.add(encode(level));
+            }
+
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeInt(sorted.size());
+
+                int offset = HEADER_SIZE + sorted.size() * INDEX_ENTRY_SIZE;
+                for (int i = 0; i < sorted.size(); i++) {
+                    out.writeInt(sorted.get(i).getLevelNumber());
+                    out.writeInt(offset);
+                    out.writeInt(records.get(i).length);
+                    offset += records.get(i).length;
+                }
+                for (byte[] record : records) {
+                    out.write(record);
+                }
+            }
+            BadIceCreamLog.log("Paquete de " + sorted.size() + " niveles escrito en: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al escribir el paquete de niveles: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] encode(LevelData level) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int cells = level.getWidth() * level.getHeight();
+
+        out.writeByte(level.getWidth());
+        out.writeByte(level.getHeight());
+
+        out.writeByte(level.getSpawnCount());
+        for (int i = 0; i < level.getSpawnCount(); i++) {
+            out.writeShort(level.getSpawnCell(i));
+        }
+
+        for (int cell = 0; cell < cells; cell++) {
+            out.writeByte(level.getCell(cell));
+        }
+
+        if (level.getEnemyCount() > 0xFFFF) {
+            throw new IOException("Demasiados enemigos en el nivel " + level.getLevelNumber());
+        }
+        out.writeShort(level.getEnemyCount());
+        for (int i = 0; i < level.getEnemyCount(); i++) {
+            out.writeByte(level.getEnemyKind(i));
+            out.writeShort(level.getEnemyCell(i));
+        }
+
+        out.writeByte(level.getWaveCount());
+        for (int wave = 1; wave <= level.getWaveCount(); wave++) {
+            if (level.getWaveSize(wave) > 0xFFFF) {
+                throw new IOException("Demasiadas frutas en la oleada " + wave + " del nivel " + level.getLevelNumber());
+            }
+            out.writeByte(level.getWaveFruitType(wave).ordinal());
+            out.writeShort(level.getWaveSize(wave));
+            for (int i = 0; i < level.getWaveSize(wave); i++) {
+                out.writeShort(level.getWaveCell(wave, i));
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
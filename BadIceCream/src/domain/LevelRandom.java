@@ -0,0 +1,45 @@
+package domain;
+
+import java.util.Random;
+
+/**
+ * Generador aleatorio del nivel. Produce exactamente la misma secuencia que
+ * {@link Random} con la misma semilla, pero deja leer y fijar su estado
+ * interno para que una partida guardada continúe igual al cargarla.
+ */
+class LevelRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    // Sin inicializador: el constructor de Random llama a setSeed antes
+    private long state;
+
+    LevelRandom() {
+        super();
+    }
+
+    LevelRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state & MASK;
+    }
+}
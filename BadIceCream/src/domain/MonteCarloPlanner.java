@@ -0,0 +1,405 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Planificador por búsqueda de árbol de Monte Carlo (MCTS) para el perfil
+ * {@link AIProfile#PLANNER}. Cada decisión simula jugadas sobre copias
+ * {@link PlannerState} del nivel hasta agotar el presupuesto de tiempo.
+ * <p>
+ * La búsqueda se puede repartir en varios árboles independientes, uno por
+ * tarea del {@link ForkJoinPool} común, y al final se suman las visitas de la
+ * raíz. El presupuesto se reparte entre los árboles: cada uno busca durante
+ * su parte del tiempo, o hace su parte de las simulaciones, así que el tiempo
+ * de CPU sigue siendo lo que asigna {@link AIScheduler} y con varios núcleos
+ * la decisión llega antes. Los árboles se indexan por la secuencia de acciones (no por el estado, que es
+ * aleatorio), así que tras decidir se conserva la rama de la acción elegida
+ * para la decisión siguiente.
+ * <p>
+ * La búsqueda es anytime: {@link #ponder} sigue buscando en los ticks en que
+ * la IA espera, con el presupuesto de tiempo de cada tick, y {@link #decide}
+ * elige con todo lo acumulado desde la decisión anterior.
+ * <p>
+ * Con presupuesto de tiempo las decisiones dependen de la velocidad de la
+ * máquina; para resultados reproducibles se usa {@link #fixed(int, int)}. Ese
+ * planificador, con cualquier cantidad de árboles, no conserva la rama entre decisiones y siembra su azar con el
+ * estado del nivel, así que cada decisión depende solo de la partida y una
+ * partida guardada sigue al reanudarse igual que la original.
+ */
+final class MonteCarloPlanner {
+    /** Presupuesto por defecto de cada decisión: 2 ms */
+    static final long DEFAULT_BUDGET_NANOS = 2_000_000L;
+    /** Decisiones simuladas hacia adelante */
+    static final int HORIZON = 12;
+    /** Simulaciones por decisión en las partidas con reloj de ticks */
+    static final int TICK_CLOCK_ITERATIONS = 200;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final double EXPLORATION = 0.7;
+    private static final int CLOCK_CHECK_MASK = 15;
+    private static final long SEED = 0x5EED_1CE_C4EAL;
+
+    private final long budgetNanos;
+    private final Worker[] workers;
+    private final PlannerState root = new PlannerState();
+    private final long[] visits = new long[PlannerState.ACTIONS];
+    private final double[] values = new double[PlannerState.ACTIONS];
+
+    private Level lastLevel;
+    private int lastAction = -1;
+    // La próxima búsqueda empieza una decisión nueva
+    private boolean decided = true;
+
+    /**
+     * Constructor de la clase MonteCarloPlanner.
+     *
+     * @param budgetNanos   Tiempo de búsqueda por defecto, o 0 para limitar
+     *                      solo las simulaciones e ignorar los presupuestos de
+     *                      tiempo.
+     * @param maxIterations Simulaciones por decisión como máximo, repartidas
+     *                      entre los árboles.
+     * @param workers       Cantidad de árboles que se buscan en paralelo. Cada
+     *                      uno recibe una parte del tiempo y de las
+     *                      simulaciones.
+     */
+    MonteCarloPlanner(long budgetNanos, int maxIterations, int workers) {
+        if (budgetNanos <= 0 && maxIterations == Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("El planificador necesita un límite de tiempo o de simulaciones");
+        }
+        this.budgetNanos = budgetNanos;
+        int count = Math.max(1, workers);
+        this.workers = new Worker[count];
+        for (int i = 0; i < count; i++) {
+            // Los primeros árboles se quedan con el resto de la división
+            int limit = maxIterations == Integer.MAX_VALUE ? Integer.MAX_VALUE
+                    : maxIterations / count + (i < maxIterations % count ? 1 : 0);
+            this.workers[i] = new Worker(new SplittableRandom(SEED + i), limit);
+        }
+    }
+
+    /**
+     * Crea el planificador por defecto: 2 ms por decisión en un solo árbol.
+     *
+     * @return El planificador.
+     */
+    static MonteCarloPlanner timed() {
+        return timed(1);
+    }
+
+    /**
+     * Crea un planificador con 2 ms de CPU por decisión repartidos entre
+     * varios árboles.
+     *
+     * @param workers Cantidad de árboles.
+     * @return El planificador.
+     */
+    static MonteCarloPlanner timed(int workers) {
+        return new MonteCarloPlanner(DEFAULT_BUDGET_NANOS, Integer.MAX_VALUE, workers);
+    }
+
+    /**
+     * Crea un planificador determinista: un solo árbol y una cantidad fija de
+     * simulaciones por decisión, sin límite de tiempo.
+     *
+     * @param iterations Simulaciones por decisión.
+     * @return El planificador.
+     */
+    static MonteCarloPlanner fixed(int iterations) {
+        return fixed(iterations, 1);
+    }
+
+    /**
+     * Crea un planificador determinista con una cantidad fija de simulaciones
+     * por decisión repartidas entre varios árboles. Cada árbol tiene su azar
+     * y su parte de las simulaciones, así que el resultado no depende del
+     * orden en que corren.
+     *
+     * @param iterations Simulaciones por decisión, sumando todos los árboles.
+     * @param workers    Cantidad de árboles.
+     * @return El planificador.
+     */
+    static MonteCarloPlanner fixed(int iterations, int workers) {
+        return new MonteCarloPlanner(0, iterations, workers);
+    }
+
+    /**
+     * Elige la dirección del próximo paso de un jugador con el presupuesto
+     * por defecto.
+     *
+     * @param level        El nivel.
+     * @param self         El jugador que planifica.
+     * @param ticksPerStep Ticks de juego entre dos decisiones.
+     * @return La dirección, o null si no hay ninguna jugada segura.
+     */
+    Direction decide(Level level, Player self, int ticksPerStep) {
+        return decide(level, self, ticksPerStep, budgetNanos);
+    }
+
+    /**
+     * Busca durante el tiempo dado y elige la dirección del próximo paso de
+     * un jugador, sumando lo buscado en los ticks anteriores.
+     *
+     * @param level        El nivel.
+     * @param self         El jugador que planifica.
+     * @param ticksPerStep Ticks de juego entre dos decisiones.
+     * @param budgetNanos  Tiempo de búsqueda en este tick.
+     * @return La dirección, o null si no hay ninguna jugada segura.
+     */
+    Direction decide(Level level, Player self, int ticksPerStep, long budgetNanos) {
+        int legal = search(level, self, ticksPerStep, budgetNanos);
+        decided = true;
+        if (legal == 0) {
+            lastAction = -1;
+            return null;
+        }
+
+        // Paralelización de raíz: se suman las visitas de todos los árboles
+        Arrays.fill(visits, 0);
+        Arrays.fill(values, 0);
+        for (Worker worker : workers) {
+            Node[] children = worker.tree.children;
+            for (int a = 0; a < PlannerState.ACTIONS; a++) {
+                if (children[a] != null) {
+                    visits[a] += children[a].visits;
+                    values[a] += children[a].total;
+                }
+            }
+        }
+        int best = -1;
+        for (int a = 0; a < PlannerState.ACTIONS; a++) {
+            if ((legal & 1 << a) == 0) {
+                continue;
+            }
+            if (best < 0 || visits[a] > visits[best]
+                    || (visits[a] == visits[best] && values[a] > values[best])) {
+                best = a;
+            }
+        }
+        lastAction = best;
+        return DIRECTIONS[best];
+    }
+
+    /**
+     * Sigue buscando hacia la próxima decisión durante el tiempo dado, sin
+     * elegir todavía. Los planificadores de simulaciones fijas no buscan entre
+     * decisiones, para que sus partidas sigan siendo reproducibles.
+     *
+     * @param level        El nivel.
+     * @param self         El jugador que planifica.
+     * @param ticksPerStep Ticks de juego entre dos decisiones.
+     * @param budgetNanos  Tiempo de búsqueda en este tick.
+     */
+    void ponder(Level level, Player self, int ticksPerStep, long budgetNanos) {
+        if (!isReproducible()) {
+            search(level, self, ticksPerStep, budgetNanos);
+        }
+    }
+
+    // Busca desde el estado actual y devuelve sus acciones posibles
+    private int search(Level level, Player self, int ticksPerStep, long budgetNanos) {
+        root.load(level, self, ticksPerStep);
+        int legal = root.legalActions();
+        if (legal == 0) {
+            return 0;
+        }
+
+        if (decided || level != lastLevel) {
+            // Se conserva la rama de la acción anterior si sigue la misma partida
+            boolean reuse = !isReproducible() && level == lastLevel && lastAction >= 0;
+            long seed = SEED ^ level.getRandomState() * 0x9E3779B97F4A7C15L ^ level.cellOf(self.getPosition());
+            for (int i = 0; i < workers.length; i++) {
+                Worker worker = workers[i];
+                worker.tree = reuse ? worker.tree.child(lastAction) : new Node(null);
+                worker.tree.parent = null;
+                worker.iterations = 0;
+                if (isReproducible()) {
+                    worker.random = new SplittableRandom(seed + i);
+                }
+            }
+            lastLevel = level;
+            decided = false;
+        }
+
+        // Sin límite de tiempo solo cuentan las simulaciones. Los árboles
+        // corren a la vez, así que cada uno recibe su parte del tiempo
+        long deadline = this.budgetNanos > 0 ? System.nanoTime() + Math.max(0, budgetNanos) / workers.length : 0;
+        for (Worker worker : workers) {
+            worker.deadline = deadline;
+            worker.reinitialize();
+        }
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        for (int i = 1; i < workers.length; i++) {
+            pool.execute(workers[i]);
+        }
+        workers[0].invoke();
+        for (int i = 1; i < workers.length; i++) {
+            workers[i].join();
+        }
+        return legal;
+    }
+
+    /**
+     * Cantidad de árboles que se buscan en paralelo, cada uno con su parte
+     * del presupuesto.
+     *
+     * @return Los árboles.
+     */
+    int getWorkers() {
+        return workers.length;
+    }
+
+    /**
+     * Indica si las decisiones dependen solo del estado de la partida, sin
+     * límite de tiempo.
+     *
+     * @return true para los planificadores de simulaciones fijas.
+     */
+    boolean isReproducible() {
+        return budgetNanos <= 0;
+    }
+
+    /**
+     * Cantidad de simulaciones hechas para la última decisión, o la que está
+     * en curso, sumando todos los árboles.
+     *
+     * @return Las simulaciones.
+     */
+    long getLastIterations() {
+        long total = 0;
+        for (Worker worker : workers) {
+            total += worker.iterations;
+        }
+        return total;
+    }
+
+    /**
+     * Nodo del árbol: estadísticas de una secuencia de acciones.
+     */
+    private static final class Node {
+        Node parent;
+        final Node[] children = new Node[PlannerState.ACTIONS];
+        int expanded;
+        int visits;
+        double total;
+
+        Node(Node parent) {
+            this.parent = parent;
+        }
+
+        Node child(int action) {
+            Node child = children[action];
+            return child != null ? child : new Node(null);
+        }
+
+        Node expand(int action) {
+            Node child = new Node(this);
+            children[action] = child;
+            expanded |= 1 << action;
+            return child;
+        }
+
+        // UCT entre las acciones posibles en el estado simulado
+        int select(int legal) {
+            double logVisits = Math.log(Math.max(1, visits));
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int a = 0; a < PlannerState.ACTIONS; a++) {
+                if ((legal & 1 << a) == 0) {
+                    continue;
+                }
+                Node child = children[a];
+                double score = child.total / child.visits
+                        + EXPLORATION * Math.sqrt(logVisits / child.visits);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = a;
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Búsqueda sobre un árbol. Cada tarea tiene su propio estado de trabajo y
+     * su propio azar, así que no comparte nada mutable con las demás.
+     */
+    private final class Worker extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        transient SplittableRandom random;
+        private final transient PlannerState scratch = new PlannerState();
+        transient Node tree;
+        private final int limit;
+        long deadline;
+        int iterations;
+
+        Worker(SplittableRandom random, int limit) {
+            this.random = random;
+            this.limit = limit;
+        }
+
+        @Override
+        protected void compute() {
+            // Las simulaciones se acumulan entre los ticks de una misma decisión
+            for (int done = 0; iterations < limit; done++) {
+                if (deadline != 0 && (done & CLOCK_CHECK_MASK) == 0 && System.nanoTime() >= deadline) {
+                    break;
+                }
+                iterate();
+                iterations++;
+            }
+        }
+
+        private void iterate() {
+            scratch.copyFrom(root);
+            Node node = tree;
+            int depth = 0;
+
+            // Selección y expansión
+            while (depth < HORIZON && !scratch.isDead()) {
+                int legal = scratch.legalActions();
+                if (legal == 0) {
+                    break;
+                }
+                int untried = legal & ~node.expanded;
+                if (untried != 0) {
+                    int action = randomBit(untried);
+                    node = node.expand(action);
+                    scratch.step(action, random);
+                    depth++;
+                    break;
+                }
+                int action = node.select(legal);
+                node = node.children[action];
+                scratch.step(action, random);
+                depth++;
+            }
+
+            // Simulación al azar hasta el horizonte
+            while (depth < HORIZON && !scratch.isDead() && scratch.getFruitCount() > 0) {
+                int legal = scratch.legalActions();
+                scratch.step(legal != 0 ? randomBit(legal) : -1, random);
+                depth++;
+            }
+
+            double value = scratch.evaluate();
+            for (Node n = node; n != null; n = n.parent) {
+                n.visits++;
+                n.total += value;
+            }
+        }
+
+        private int randomBit(int mask) {
+            int pick = random.nextInt(Integer.bitCount(mask));
+            for (int a = 0; a < PlannerState.ACTIONS; a++) {
+                if ((mask & 1 << a) != 0 && pick-- == 0) {
+                    return a;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -1,27 +1,29 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Narval - Patrulla y embiste al jugador cuando se alinea
  */
 public class Narwhal extends Enemy {
-    private Direction currentDirection;
-    private int moveCounter;
     private static final int MOVE_DELAY = 8;
-    private boolean charging; // Está embistiendo
     private int chargeSpeed;
     private static final int CHARGE_SPEED = 2; // Más rápido al embestir
+    private static final Direction[] DIRECTION_OPTIONS = { Direction.UP, Direction.DOWN, Direction.LEFT,
+            Direction.RIGHT };
 
     public Narwhal(Position position) {
         super(position, EnemyType.POT); // Usamos POT temporalmente
-        this.moveCounter = 0;
-        this.charging = false;
         this.chargeSpeed = 0;
-        this.currentDirection = determineRandomDirection();
+        // La dirección se elige al primer movimiento con el azar del nivel
     }
 
-    private Direction determineRandomDirection() {
-        Direction[] dirs = { Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT };
-        return dirs[(int) (Math.random() * 4)];
+    private Direction determineRandomDirection(Level level, EnemyMotion motion) {
+        if (motion.random == null) {
+            // Predicción: una copia para no consumir el azar del nivel
+            motion.random = level.forkRandom();
+        }
+        return DIRECTION_OPTIONS[motion.random.nextInt(DIRECTION_OPTIONS.length)];
     }
 
     @Override
@@ -30,85 +32,108 @@ public class Narwhal extends Enemy {
             return position;
         }
 
-        Position playerPos = player.getPosition();
+        motion.cell = level.cellOf(position);
+        motion.random = level.getRandom();
+        return level.positionOf(chargeCell(level, motion, player.getPosition()));
+    }
+
+    /**
+     * Elige la celda siguiente del narval, empezando una embestida si está
+     * alineado con el objetivo, y actualiza la dirección del estado dado.
+     *
+     * @param level  El nivel actual.
+     * @param motion El estado de movimiento del narval.
+     * @param target La posición del jugador.
+     * @return La celda siguiente, o la actual si no puede moverse.
+     */
+    private int chargeCell(Level level, EnemyMotion motion, Position target) {
+        int cell = motion.cell;
+        int x = level.cellX(cell);
+        int y = level.cellY(cell);
 
         // Verificar si el jugador está alineado horizontal o verticalmente
-        boolean alignedHorizontally = position.getY() == playerPos.getY();
-        boolean alignedVertically = position.getX() == playerPos.getX();
+        boolean alignedHorizontally = y == target.getY();
+        boolean alignedVertically = x == target.getX();
 
-        if (!charging && (alignedHorizontally || alignedVertically)) {
+        if (!motion.charging && (alignedHorizontally || alignedVertically)) {
             // ¡Iniciar embestida!
-            charging = true;
-            chargeSpeed = 0;
+            motion.charging = true;
 
             if (alignedHorizontally) {
-                currentDirection = (playerPos.getX() > position.getX()) ? Direction.RIGHT : Direction.LEFT;
+                motion.direction = (target.getX() > x) ? Direction.RIGHT : Direction.LEFT;
             } else {
-                currentDirection = (playerPos.getY() > position.getY()) ? Direction.DOWN : Direction.UP;
+                motion.direction = (target.getY() > y) ? Direction.DOWN : Direction.UP;
             }
         }
 
-        Position nextPos = position.add(currentDirection);
+        if (motion.direction == null) {
+            motion.direction = determineRandomDirection(level, motion);
+        }
+
+        int next = level.neighbor(cell, motion.direction);
 
         // Verificar si puede moverse
-        if (!isValidMovePosition(nextPos, level)) {
+        if (!isValidMoveCell(next, level, motion)) {
             // Si está cargando y choca, detener la carga
-            if (charging) {
-                charging = false;
+            if (motion.charging) {
+                motion.charging = false;
             }
             // Cambiar de dirección
-            changeDirection(level);
-            nextPos = position.add(currentDirection);
+            changeDirection(level, motion);
+            next = level.neighbor(cell, motion.direction);
 
-            if (!isValidMovePosition(nextPos, level)) {
-                return position;
+            if (!isValidMoveCell(next, level, motion)) {
+                return cell;
             }
         }
 
-        return nextPos;
+        return next;
     }
 
     private boolean isValidMovePosition(Position pos, Level level) {
-        if (pos.getX() < 1 || pos.getX() >= level.getWidth() - 1 ||
-                pos.getY() < 1 || pos.getY() >= level.getHeight() - 1) {
+        return isValidMoveCell(level.cellOf(pos), level, motion);
+    }
+
+    private boolean isValidMoveCell(int cell, Level level, EnemyMotion motion) {
+        if (cell < 0) {
+            return false;
+        }
+        int x = level.cellX(cell);
+        int y = level.cellY(cell);
+        if (x < 1 || x >= level.getWidth() - 1 ||
+                y < 1 || y >= level.getHeight() - 1) {
             return false;
         }
 
         // Check walls (always blocking)
-        if (level.isWall(pos)) {
+        if (level.isWall(cell)) {
             return false;
         }
 
         // Durante la carga, destruye hielo pero no se detiene
         // En movimiento normal, el hielo lo bloquea
-        if (!charging && level.isIceBlock(pos)) {
+        if (!motion.charging && isIce(level, motion, cell)) {
             return false;
         }
 
-        if (level.getEnemies() != null) {
-            for (Enemy enemy : level.getEnemies()) {
-                if (enemy != null && enemy != this &&
-                        enemy.isAlive() && enemy.getPosition().equals(pos)) {
-                    return false;
-                }
-            }
+        if (level.hasOtherEnemyAt(cell, this)) {
+            return false;
         }
 
         return true;
     }
 
-    private void changeDirection(Level level) {
-        Direction[] options = { Direction.UP, Direction.DOWN, Direction.LEFT, Direction.RIGHT };
-        for (Direction dir : options) {
-            if (dir != getOppositeDirection(currentDirection)) {
-                Position testPos = position.add(dir);
-                if (isValidMovePosition(testPos, level)) {
-                    currentDirection = dir;
+    private void changeDirection(Level level, EnemyMotion motion) {
+        int cell = motion.cell;
+        for (Direction dir : DIRECTION_OPTIONS) {
+            if (dir != getOppositeDirection(motion.direction)) {
+                if (isValidMoveCell(level.neighbor(cell, dir), level, motion)) {
+                    motion.direction = dir;
                     return;
                 }
             }
         }
-        currentDirection = getOppositeDirection(currentDirection);
+        motion.direction = getOppositeDirection(motion.direction);
     }
 
     private Direction getOppositeDirection(Direction dir) {
@@ -128,26 +153,28 @@ public class Narwhal extends Enemy {
 
     @Override
     public void updateBehavior(Level level, Player player) {
-        int delay = charging ? CHARGE_SPEED : MOVE_DELAY;
+        step(level, player);
+    }
+
+    @Override
+    void advance(EnemyMotion motion, Level level, Position target) {
+        int delay = motion.charging ? CHARGE_SPEED : MOVE_DELAY;
 
-        moveCounter++;
-        if (moveCounter >= delay) {
-            moveCounter = 0;
-            Position nextPos = getNextPosition(level, player);
+        motion.moveCounter++;
+        if (motion.moveCounter >= delay) {
+            motion.moveCounter = 0;
+            int next = target != null ? chargeCell(level, motion, target) : motion.cell;
 
             // Si está cargando y hay hielo, destruirlo
-            if (charging && level.isIceBlock(nextPos)) {
-                IceBlock block = level.getIceBlockAt(nextPos);
-                if (block != null) {
-                    block.destroy();
-                }
+            if (motion.charging && isIce(level, motion, next)) {
+                motion.clearedCell = next;
             }
 
-            if (!nextPos.equals(position) && isValidMovePosition(nextPos, level)) {
-                move(nextPos);
-            } else if (charging) {
+            if (next != motion.cell && isValidMoveCell(next, level, motion)) {
+                motion.cell = next;
+            } else if (motion.charging) {
                 // Si chocó durante la carga, detenerla
-                charging = false;
+                motion.charging = false;
             }
         }
     }
@@ -159,6 +186,29 @@ public class Narwhal extends Enemy {
 
     @Override
     public String getSymbol() {
-        return charging ? "N!" : "N";
+        return motion.charging ? "N!" : "N";
+    }
+
+    @Override
+    int getMoveDelay() {
+        return motion.charging ? CHARGE_SPEED : MOVE_DELAY;
+    }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.direction(motion.direction);
+        out.varint(motion.moveCounter);
+        out.bool(motion.charging);
+        out.varint(chargeSpeed);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        motion.direction = SaveCodec.direction(in);
+        motion.moveCounter = SaveCodec.varint(in);
+        motion.charging = SaveCodec.bool(in);
+        chargeSpeed = SaveCodec.varint(in);
     }
 }
\ No newline at end of file
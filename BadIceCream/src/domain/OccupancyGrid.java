@@ -0,0 +1,343 @@
+package domain;
+
+/**
+ * Índice de ocupación del tablero de un nivel.
+ * Mantiene, para cada celda, qué entidades la ocupan para que las consultas
+ * puntuales de {@link Level} sean O(1) en lugar de recorrer las listas.
+ * Las celdas se identifican por el índice {@code y * width + x}.
+ *
+ * El índice se actualiza de forma incremental: las listas del nivel avisan al
+ * agregar o quitar objetos, y los propios objetos avisan al moverse o cambiar
+ * de estado (hielo destruido, fruta recolectada, enemigo muerto).
+ * Cada aviso marca además la celda como modificada, para que la interfaz
+ * repinte solo las celdas que cambiaron.
+ */
+public class OccupancyGrid {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Level level;
+    private final int width;
+    private final int height;
+
+    // Contadores por celda (puede haber objetos duplicados en una celda)
+    private final int[] wallCount;
+    private final int[] hotTileCount;
+    private final int[] campfireCount;
+    private final int[] iceCount;
+    private final int[] fruitCount;
+    private final int[] enemyCount;
+
+    // Objeto representativo de cada celda para las consultas getXxxAt
+    private final Campfire[] campfireSlot;
+    private final IceBlock[] iceSlot;
+    private final Fruit[] fruitSlot;
+    private final Enemy[] enemySlot;
+
+    // Celdas que cambiaron desde la última vez que se consultaron (para repintar)
+    private final boolean[] dirty;
+    private final int[] dirtyCells;
+    private int dirtyCount;
+    // Se incrementa con cada aviso, aunque la celda ya estuviera marcada
+    private int changeVersion;
+
+    // Topología precalculada: vecino de cada celda por dirección y posición canónica
+    private final int[] neighbors;
+    private final Position[] positions;
+
+    // Se incrementa cada vez que cambian los muros o el hielo del tablero
+    private int topologyVersion;
+
+    /**
+     * Constructor de la clase OccupancyGrid.
+     *
+     * @param level  El nivel al que pertenece el índice.
+     * @param width  Ancho del tablero.
+     * @param height Alto del tablero.
+     */
+    public OccupancyGrid(Level level, int width, int height) {
+        this.level = level;
+        this.width = width;
+        this.height = height;
+        int size = width * height;
+        this.wallCount = new int[size];
+        this.hotTileCount = new int[size];
+        this.campfireCount = new int[size];
+        this.iceCount = new int[size];
+        this.fruitCount = new int[size];
+        this.enemyCount = new int[size];
+        this.campfireSlot = new Campfire[size];
+        this.iceSlot = new IceBlock[size];
+        this.fruitSlot = new Fruit[size];
+        this.enemySlot = new Enemy[size];
+        this.dirty = new boolean[size];
+        this.dirtyCells = new int[size];
+
+        this.neighbors = new int[size * DIRECTIONS.length];
+        this.positions = new Position[size];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int cell = y * width + x;
+                positions[cell] = new Position(x, y);
+                for (Direction dir : DIRECTIONS) {
+                    neighbors[cell * DIRECTIONS.length + dir.ordinal()] = cellOf(x + dir.getOffsetX(),
+                            y + dir.getOffsetY());
+                }
+            }
+        }
+    }
+
+    /**
+     * Obtiene el índice de celda de una posición.
+     *
+     * @param position La posición.
+     * @return El índice de la celda, o -1 si la posición es nula o está fuera del
+     *         tablero.
+     */
+    int cellOf(Position position) {
+        if (position == null) {
+            return -1;
+        }
+        return cellOf(position.getX(), position.getY());
+    }
+
+    /**
+     * Obtiene el índice de celda de unas coordenadas.
+     *
+     * @param x Coordenada X.
+     * @param y Coordenada Y.
+     * @return El índice de la celda, o -1 si está fuera del tablero.
+     */
+    int cellOf(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return -1;
+        }
+        return y * width + x;
+    }
+
+    /**
+     * Obtiene la celda vecina en una dirección.
+     *
+     * @param cell      La celda de origen (puede ser -1).
+     * @param direction La dirección.
+     * @return La celda vecina, o -1 si queda fuera del tablero.
+     */
+    int neighbor(int cell, Direction direction) {
+        if (cell < 0) {
+            return -1;
+        }
+        return neighbors[cell * DIRECTIONS.length + direction.ordinal()];
+    }
+
+    /**
+     * Obtiene la posición canónica (compartida) de una celda.
+     *
+     * @param cell La celda.
+     * @return La posición de la celda, o null si la celda es -1.
+     */
+    Position positionOf(int cell) {
+        return cell < 0 ? null : positions[cell];
+    }
+
+    /**
+     * Registra un objeto en la celda que ocupa, si está activo.
+     *
+     * @param obj El objeto a registrar.
+     */
+    void add(GameObject obj) {
+        int cell = cellOf(obj.getPosition());
+        if (cell < 0) {
+            return;
+        }
+        markDirty(cell);
+        if (!isActive(obj)) {
+            return;
+        }
+
+        if (obj instanceof Wall || obj instanceof IceBlock) {
+            topologyVersion++;
+        }
+
+        if (obj instanceof Wall) {
+            wallCount[cell]++;
+        } else if (obj instanceof HotTile) {
+            hotTileCount[cell]++;
+        } else if (obj instanceof Campfire) {
+            if (campfireCount[cell]++ == 0) {
+                campfireSlot[cell] = (Campfire) obj;
+            }
+        } else if (obj instanceof IceBlock) {
+            if (iceCount[cell]++ == 0) {
+                iceSlot[cell] = (IceBlock) obj;
+            }
+        } else if (obj instanceof Fruit) {
+            if (fruitCount[cell]++ == 0) {
+                fruitSlot[cell] = (Fruit) obj;
+            }
+        } else if (obj instanceof Enemy) {
+            if (enemyCount[cell]++ == 0) {
+                enemySlot[cell] = (Enemy) obj;
+            }
+        }
+    }
+
+    /**
+     * Quita un objeto de la celda que ocupa. Debe llamarse antes de cambiar su
+     * posición o su estado.
+     *
+     * @param obj El objeto a quitar.
+     */
+    void remove(GameObject obj) {
+        int cell = cellOf(obj.getPosition());
+        if (cell < 0) {
+            return;
+        }
+        markDirty(cell);
+        if (!isActive(obj)) {
+            return;
+        }
+
+        if (obj instanceof Wall || obj instanceof IceBlock) {
+            topologyVersion++;
+        }
+
+        if (obj instanceof Wall) {
+            wallCount[cell]--;
+        } else if (obj instanceof HotTile) {
+            hotTileCount[cell]--;
+        } else if (obj instanceof Campfire) {
+            if (--campfireCount[cell] == 0) {
+                campfireSlot[cell] = null;
+            } else if (campfireSlot[cell] == obj) {
+                campfireSlot[cell] = findReplacement(level.getCampfires(), obj, cell);
+            }
+        } else if (obj instanceof IceBlock) {
+            if (--iceCount[cell] == 0) {
+                iceSlot[cell] = null;
+            } else if (iceSlot[cell] == obj) {
+                iceSlot[cell] = findReplacement(level.getIceBlocks(), obj, cell);
+            }
+        } else if (obj instanceof Fruit) {
+            if (--fruitCount[cell] == 0) {
+                fruitSlot[cell] = null;
+            } else if (fruitSlot[cell] == obj) {
+                fruitSlot[cell] = findReplacement(level.getFruits(), obj, cell);
+            }
+        } else if (obj instanceof Enemy) {
+            if (--enemyCount[cell] == 0) {
+                enemySlot[cell] = null;
+            } else if (enemySlot[cell] == obj) {
+                enemySlot[cell] = findReplacement(level.getEnemies(), obj, cell);
+            }
+        }
+    }
+
+    /**
+     * Busca otro objeto activo en la misma celda cuando el representativo deja
+     * de ocuparla. Solo ocurre si varios objetos comparten celda.
+     */
+    private <T extends GameObject> T findReplacement(Iterable<T> objects, GameObject leaving, int cell) {
+        for (T candidate : objects) {
+            if (candidate != null && candidate != leaving && isActive(candidate)
+                    && cellOf(candidate.getPosition()) == cell) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Indica si un objeto debe ocupar su celda en el índice.
+     */
+    private boolean isActive(GameObject obj) {
+        if (obj instanceof IceBlock) {
+            return !((IceBlock) obj).isDestroyed();
+        }
+        if (obj instanceof Fruit) {
+            return !((Fruit) obj).isCollected();
+        }
+        if (obj instanceof Enemy) {
+            return ((Enemy) obj).isAlive();
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene la versión de la topología del tablero. Cambia cada vez que se
+     * agrega, quita, destruye o repara un muro o un bloque de hielo.
+     *
+     * @return La versión actual de la topología.
+     */
+    int getTopologyVersion() {
+        return topologyVersion;
+    }
+
+    /**
+     * Obtiene la versión de cambios del tablero. Cambia con cada movimiento,
+     * alta, baja o cambio de estado de cualquier objeto del nivel.
+     *
+     * @return La versión actual.
+     */
+    synchronized int getChangeVersion() {
+        return changeVersion;
+    }
+
+    // Consultas por celda (cell debe ser un índice válido)
+
+    boolean hasWall(int cell) {
+        return wallCount[cell] > 0;
+    }
+
+    boolean hasHotTile(int cell) {
+        return hotTileCount[cell] > 0;
+    }
+
+    Campfire getCampfire(int cell) {
+        return campfireSlot[cell];
+    }
+
+    IceBlock getIceBlock(int cell) {
+        return iceSlot[cell];
+    }
+
+    Fruit getFruit(int cell) {
+        return fruitSlot[cell];
+    }
+
+    int getEnemyCount(int cell) {
+        return enemyCount[cell];
+    }
+
+    Enemy getEnemy(int cell) {
+        return enemySlot[cell];
+    }
+
+    /**
+     * Marca una celda como modificada.
+     *
+     * @param cell La celda (se ignora si es -1).
+     */
+    synchronized void markDirty(int cell) {
+        changeVersion++;
+        if (cell >= 0 && !dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCells[dirtyCount++] = cell;
+        }
+    }
+
+    /**
+     * Copia las celdas modificadas en el arreglo dado y las desmarca.
+     *
+     * @param out Arreglo de destino (debe tener espacio para todas las celdas).
+     * @return La cantidad de celdas copiadas.
+     */
+    synchronized int drainDirtyCells(int[] out) {
+        int count = dirtyCount;
+        for (int i = 0; i < count; i++) {
+            int cell = dirtyCells[i];
+            out[i] = cell;
+            dirty[cell] = false;
+        }
+        dirtyCount = 0;
+        return count;
+    }
+}
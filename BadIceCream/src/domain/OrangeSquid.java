@@ -1,21 +1,19 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Calamar Naranja - Persigue al jugador y destruye bloques de hielo uno a la
- * vez
+ * vez. Elige el camino más rápido contando lo que tarda en romper cada bloque.
  */
 public class OrangeSquid extends Enemy {
-    private int moveCounter;
     private static final int MOVE_DELAY = 6;
-    private boolean breakingIce;
-    private int breakCounter;
     private static final int BREAK_DELAY = 15; // Tiempo para romper un bloque
+    // Pasos extra por bloque: el intento de paso que lo rompe y la espera de ruptura
+    private static final int ICE_STEP_COST = (MOVE_DELAY + BREAK_DELAY + MOVE_DELAY - 1) / MOVE_DELAY;
 
     public OrangeSquid(Position position) {
         super(position, EnemyType.ORANGE_SQUID);
-        this.moveCounter = 0;
-        this.breakingIce = false;
-        this.breakCounter = 0;
     }
 
     @Override
@@ -24,86 +22,94 @@ public class OrangeSquid extends Enemy {
             return position;
         }
 
-        Position playerPos = player.getPosition();
-        int currentX = position.getX();
-        int currentY = position.getY();
-        int targetX = playerPos.getX();
-        int targetY = playerPos.getY();
+        motion.cell = level.cellOf(position);
+        int next = chaseCell(level, motion, player.getPosition());
+        return next < 0 ? position : level.positionOf(next);
+    }
 
-        int deltaX = targetX - currentX;
-        int deltaY = targetY - currentY;
+    /**
+     * Elige la celda a la que avanza el calamar para acercarse a un objetivo,
+     * rompiendo el hielo si hace falta.
+     *
+     * @param level  El nivel actual.
+     * @param motion El estado de movimiento del calamar.
+     * @param target La posición del jugador al que persigue.
+     * @return La celda siguiente, o -1 si no puede avanzar.
+     */
+    private int chaseCell(Level level, EnemyMotion motion, Position target) {
+        int cell = motion.cell;
+        Direction step = level.getPathfinder().nextStep(cell, level.cellOf(target), getChaseIceCost());
+        if (step != null) {
+            int next = level.neighbor(cell, step);
+            if (canMoveOrBreak(next, level, motion)) {
+                return next;
+            }
+        }
 
-        Position nextPos = null;
+        // Sin camino o con el paso ocupado, acercarse en línea recta
+        int deltaX = target.getX() - level.cellX(cell);
+        int deltaY = target.getY() - level.cellY(cell);
+        int next = -1;
 
         // Intentar moverse en la dirección con mayor diferencia
         if (Math.abs(deltaX) > Math.abs(deltaY)) {
             if (deltaX > 0) {
-                nextPos = position.add(Direction.RIGHT);
+                next = level.neighbor(cell, Direction.RIGHT);
             } else if (deltaX < 0) {
-                nextPos = position.add(Direction.LEFT);
+                next = level.neighbor(cell, Direction.LEFT);
             }
 
             // Si no puede moverse en X, intentar en Y
-            if (nextPos == null || !canMoveOrBreak(nextPos, level)) {
+            if (!canMoveOrBreak(next, level, motion)) {
                 if (deltaY > 0) {
-                    nextPos = position.add(Direction.DOWN);
+                    next = level.neighbor(cell, Direction.DOWN);
                 } else if (deltaY < 0) {
-                    nextPos = position.add(Direction.UP);
+                    next = level.neighbor(cell, Direction.UP);
                 }
             }
         } else {
             if (deltaY > 0) {
-                nextPos = position.add(Direction.DOWN);
+                next = level.neighbor(cell, Direction.DOWN);
             } else if (deltaY < 0) {
-                nextPos = position.add(Direction.UP);
+                next = level.neighbor(cell, Direction.UP);
             }
 
             // Si no puede moverse en Y, intentar en X
-            if (nextPos == null || !canMoveOrBreak(nextPos, level)) {
+            if (!canMoveOrBreak(next, level, motion)) {
                 if (deltaX > 0) {
-                    nextPos = position.add(Direction.RIGHT);
+                    next = level.neighbor(cell, Direction.RIGHT);
                 } else if (deltaX < 0) {
-                    nextPos = position.add(Direction.LEFT);
+                    next = level.neighbor(cell, Direction.LEFT);
                 }
             }
         }
 
         // Si no hay movimiento válido, quedarse en la posición actual
-        if (nextPos == null || !canMoveOrBreak(nextPos, level)) {
-            return position;
-        }
-
-        return nextPos;
+        return canMoveOrBreak(next, level, motion) ? next : -1;
     }
 
     /**
-     * Verifica si el OrangeSquid puede moverse a una posición o romper un bloque de
+     * Verifica si el OrangeSquid puede moverse a una celda o romper un bloque de
      * hielo ahí
      */
-    private boolean canMoveOrBreak(Position pos, Level level) {
-        if (pos.getX() < 1 || pos.getX() >= level.getWidth() - 1 ||
-                pos.getY() < 1 || pos.getY() >= level.getHeight() - 1) {
+    private boolean canMoveOrBreak(int cell, Level level, EnemyMotion motion) {
+        if (!isInsidePlayArea(cell, level)) {
             return false;
         }
 
         // Si hay un muro, no puede pasar
-        if (level.isWall(pos)) {
+        if (level.isWall(cell)) {
             return false;
         }
 
         // Si hay hielo, puede romperlo (retorna true)
-        if (level.isIceBlock(pos)) {
+        if (isIce(level, motion, cell)) {
             return true;
         }
 
         // Verificar que no haya otro enemigo
-        if (level.getEnemies() != null) {
-            for (Enemy enemy : level.getEnemies()) {
-                if (enemy != null && enemy != this &&
-                        enemy.isAlive() && enemy.getPosition().equals(pos)) {
-                    return false;
-                }
-            }
+        if (level.hasOtherEnemyAt(cell, this)) {
+            return false;
         }
 
         return true;
@@ -113,61 +119,69 @@ public class OrangeSquid extends Enemy {
      * Verifica si una posición es válida para moverse (sin hielo)
      */
     private boolean isValidPosition(Position pos, Level level) {
-        if (pos.getX() < 1 || pos.getX() >= level.getWidth() - 1 ||
-                pos.getY() < 1 || pos.getY() >= level.getHeight() - 1) {
-            return false;
-        }
+        return isValidCell(level.cellOf(pos), level, motion);
+    }
 
-        if (!level.canMoveTo(pos)) {
+    private boolean isValidCell(int cell, Level level, EnemyMotion motion) {
+        if (!isInsidePlayArea(cell, level)) {
             return false;
         }
 
         // El calamar NO puede pasar por hielo (lo destruye primero)
-        if (level.isIceBlock(pos)) {
+        if (!isOpen(level, motion, cell)) {
             return false;
         }
 
-        if (level.getEnemies() != null) {
-            for (Enemy enemy : level.getEnemies()) {
-                if (enemy != null && enemy != this &&
-                        enemy.isAlive() && enemy.getPosition().equals(pos)) {
-                    return false;
-                }
-            }
+        if (level.hasOtherEnemyAt(cell, this)) {
+            return false;
         }
 
         return true;
     }
 
+    /**
+     * Verifica que la celda exista y no esté en el borde exterior del mapa
+     */
+    private boolean isInsidePlayArea(int cell, Level level) {
+        if (cell < 0) {
+            return false;
+        }
+        int x = level.cellX(cell);
+        int y = level.cellY(cell);
+        return x >= 1 && x < level.getWidth() - 1 && y >= 1 && y < level.getHeight() - 1;
+    }
+
     @Override
     public void updateBehavior(Level level, Player player) {
-        if (breakingIce) {
+        step(level, player);
+    }
+
+    @Override
+    void advance(EnemyMotion motion, Level level, Position target) {
+        if (motion.breakingIce) {
             // Está rompiendo un bloque de hielo
-            breakCounter++;
-            if (breakCounter >= BREAK_DELAY) {
-                breakingIce = false;
-                breakCounter = 0;
+            motion.breakCounter++;
+            if (motion.breakCounter >= BREAK_DELAY) {
+                motion.breakingIce = false;
+                motion.breakCounter = 0;
             }
             return; // No se mueve mientras rompe hielo
         }
 
-        moveCounter++;
-        if (moveCounter >= MOVE_DELAY) {
-            moveCounter = 0;
-            Position nextPos = getNextPosition(level, player);
+        motion.moveCounter++;
+        if (motion.moveCounter >= MOVE_DELAY) {
+            motion.moveCounter = 0;
+            int next = target != null ? chaseCell(level, motion, target) : -1;
 
             // Verificar si hay hielo en la siguiente posición
-            if (level.isIceBlock(nextPos)) {
+            if (next >= 0 && isIce(level, motion, next)) {
                 // Comenzar a romper el hielo
-                IceBlock block = level.getIceBlockAt(nextPos);
-                if (block != null) {
-                    block.destroy();
-                    breakingIce = true;
-                    breakCounter = 0;
-                }
-            } else if (!nextPos.equals(position) && isValidPosition(nextPos, level)) {
+                motion.clearedCell = next;
+                motion.breakingIce = true;
+                motion.breakCounter = 0;
+            } else if (next >= 0 && next != motion.cell && isValidCell(next, level, motion)) {
                 // Moverse a la siguiente posición si es válida
-                move(nextPos);
+                motion.cell = next;
             }
         }
     }
@@ -181,4 +195,30 @@ public class OrangeSquid extends Enemy {
     public String getSymbol() {
         return "S"; // S de Squid
     }
+
+    @Override
+    int getMoveDelay() {
+        return MOVE_DELAY;
+    }
+
+    @Override
+    int getChaseIceCost() {
+        return ICE_STEP_COST;
+    }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.varint(motion.moveCounter);
+        out.bool(motion.breakingIce);
+        out.varint(motion.breakCounter);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        motion.moveCounter = SaveCodec.varint(in);
+        motion.breakingIce = SaveCodec.bool(in);
+        motion.breakCounter = SaveCodec.varint(in);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,350 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Servicio de búsqueda de caminos sobre la cuadrícula de un nivel.
+ * Calcula campos de distancia (coste del camino más corto desde cada celda
+ * hasta una celda objetivo) y los guarda en caché mientras la topología del
+ * nivel (muros y bloques de hielo) no cambie. Junto a cada campo guarda la
+ * dirección del primer paso desde cada celda, así que todos los que persiguen
+ * el mismo objetivo comparten un solo cálculo y cada paso es una consulta.
+ * La caché guarda pocos campos en los tableros grandes (cada uno ocupa cinco
+ * bytes por celda) y descarta primero el que lleva más tiempo sin usarse:
+ * los objetivos que se mueven dejan atrás campos que no vuelven a pedirse.
+ *
+ * Entrar en una celda libre cuesta 1. Entrar en una celda con hielo cuesta
+ * 1 más el coste de ruptura indicado, o es imposible si el coste es
+ * {@link #ICE_IMPASSABLE}. Los muros y las celdas fuera del tablero nunca son
+ * transitables. Los enemigos no se consideran obstáculos porque se mueven en
+ * cada tick.
+ */
+public class Pathfinder {
+    /** Distancia de las celdas desde las que no se puede llegar al objetivo */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    /** Coste de ruptura que indica que el hielo no se puede atravesar */
+    public static final int ICE_IMPASSABLE = -1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    /** Celdas de todos los campos en caché, unos 5 MB */
+    private static final int CACHED_CELLS = 1 << 20;
+    /** Campos en caché como mínimo, aunque el tablero sea grande */
+    private static final int MIN_CACHED_FIELDS = 8;
+
+    private final Level level;
+    private final int size;
+
+    // Campos calculados: coste de ruptura -> campo por celda objetivo
+    private final Map<Integer, Field[]> fields;
+    private int cachedVersion;
+    private final int capacity;
+    private int cachedFields;
+    private long useCounter;
+
+    // Montículo binario reutilizable (distancia << 32 | celda)
+    private final long[] heap;
+    private int heapSize;
+    // Orden reutilizable de direcciones a probar en cada celda
+    private final int[] order = new int[4];
+
+    /**
+     * Constructor de la clase Pathfinder.
+     *
+     * @param level El nivel sobre el que se buscan caminos.
+     */
+    public Pathfinder(Level level) {
+        this.level = level;
+        this.size = level.getWidth() * level.getHeight();
+        this.fields = new HashMap<>();
+        this.cachedVersion = level.getTopologyVersion();
+        this.capacity = Math.max(MIN_CACHED_FIELDS, CACHED_CELLS / size);
+        this.heap = new long[size * DIRECTIONS.length + 1];
+    }
+
+    /**
+     * Obtiene el coste del camino más corto entre dos posiciones.
+     *
+     * @param from    Posición de origen.
+     * @param target  Posición objetivo.
+     * @param iceCost Coste extra por romper un bloque de hielo, o
+     *                {@link #ICE_IMPASSABLE}.
+     * @return El coste del camino, o {@link #UNREACHABLE} si no existe.
+     */
+    public int distance(Position from, Position target, int iceCost) {
+        return distance(level.cellOf(from), level.cellOf(target), iceCost);
+    }
+
+    /**
+     * Obtiene el coste del camino más corto entre dos celdas.
+     *
+     * @param fromCell   Celda de origen.
+     * @param targetCell Celda objetivo.
+     * @param iceCost    Coste extra por romper un bloque de hielo, o
+     *                   {@link #ICE_IMPASSABLE}.
+     * @return El coste del camino, o {@link #UNREACHABLE} si no existe.
+     */
+    public int distance(int fromCell, int targetCell, int iceCost) {
+        if (fromCell < 0 || targetCell < 0) {
+            return UNREACHABLE;
+        }
+        return getField(targetCell, iceCost).distance[fromCell];
+    }
+
+    /**
+     * Obtiene la dirección del primer paso de un camino más corto hacia el
+     * objetivo. Si el paso entra en una celda con hielo, quien lo siga debe
+     * romperlo antes de avanzar. Entre varios caminos igual de cortos se
+     * prefiere avanzar en el eje en que el objetivo está más lejos.
+     *
+     * @param fromCell   Celda de origen.
+     * @param targetCell Celda objetivo.
+     * @param iceCost    Coste extra por romper un bloque de hielo, o
+     *                   {@link #ICE_IMPASSABLE}.
+     * @return La dirección a seguir, o null si ya está en el objetivo o no hay
+     *         camino.
+     */
+    public Direction nextStep(int fromCell, int targetCell, int iceCost) {
+        if (fromCell < 0 || targetCell < 0 || fromCell == targetCell) {
+            return null;
+        }
+        byte step = getField(targetCell, iceCost).flow[fromCell];
+        return step < 0 ? null : DIRECTIONS[step];
+    }
+
+    /**
+     * Obtiene el campo de direcciones hacia una celda: el ordinal de la
+     * dirección del primer paso desde cada celda, o -1 si no hay camino. El
+     * arreglo es compartido y no cambia; al cambiar la topología se calcula
+     * otro.
+     *
+     * @param targetCell Celda objetivo.
+     * @param iceCost    Coste extra por romper un bloque de hielo, o
+     *                   {@link #ICE_IMPASSABLE}.
+     * @return Las direcciones por celda. No se debe modificar.
+     */
+    byte[] flowField(int targetCell, int iceCost) {
+        return getField(targetCell, iceCost).flow;
+    }
+
+    /**
+     * Cantidad de campos en caché.
+     *
+     * @return Los campos.
+     */
+    int getCachedFields() {
+        return cachedFields;
+    }
+
+    /**
+     * Cantidad máxima de campos en caché para el tamaño de este tablero.
+     *
+     * @return Los campos.
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Obtiene el campo de distancia hacia una celda, calculándolo si no está
+     * en caché o si la topología del nivel cambió.
+     */
+    private Field getField(int targetCell, int iceCost) {
+        int version = level.getTopologyVersion();
+        if (version != cachedVersion) {
+            fields.clear();
+            cachedFields = 0;
+            cachedVersion = version;
+        }
+
+        Field[] byTarget = fields.get(iceCost);
+        if (byTarget == null) {
+            byTarget = new Field[size];
+            fields.put(iceCost, byTarget);
+        }
+
+        Field field = byTarget[targetCell];
+        if (field == null) {
+            if (cachedFields == capacity) {
+                evictLeastRecentlyUsed();
+            }
+            field = computeField(targetCell, iceCost);
+            byTarget[targetCell] = field;
+            cachedFields++;
+        }
+        field.lastUse = ++useCounter;
+        return field;
+    }
+
+    /**
+     * Descarta el campo que lleva más tiempo sin consultarse. Recorrer los
+     * índices cuesta menos que el Dijkstra del campo que lo reemplaza.
+     */
+    private void evictLeastRecentlyUsed() {
+        Field[] oldestTargets = null;
+        int oldestCell = -1;
+        long oldestUse = Long.MAX_VALUE;
+        for (Field[] byTarget : fields.values()) {
+            for (int cell = 0; cell < byTarget.length; cell++) {
+                Field field = byTarget[cell];
+                if (field != null && field.lastUse < oldestUse) {
+                    oldestUse = field.lastUse;
+                    oldestTargets = byTarget;
+                    oldestCell = cell;
+                }
+            }
+        }
+        if (oldestTargets != null) {
+            oldestTargets[oldestCell] = null;
+            cachedFields--;
+        }
+    }
+
+    /**
+     * Calcula el campo de distancia hacia una celda con Dijkstra en sentido
+     * inverso: la distancia de una celda es la de su vecino más el coste de
+     * entrar en ese vecino. Después elige el primer paso de cada celda.
+     */
+    private Field computeField(int targetCell, int iceCost) {
+        int[] dist = new int[size];
+        Arrays.fill(dist, UNREACHABLE);
+        dist[targetCell] = 0;
+
+        heapSize = 0;
+        push(0, targetCell);
+        while (heapSize > 0) {
+            long top = pop();
+            int d = (int) (top >>> 32);
+            int cell = (int) top;
+            if (d != dist[cell]) {
+                continue;
+            }
+
+            int cost = enterCost(cell, iceCost);
+            if (cost == UNREACHABLE) {
+                continue;
+            }
+
+            for (Direction dir : DIRECTIONS) {
+                int prev = level.neighbor(cell, dir);
+                if (prev >= 0 && d + cost < dist[prev]) {
+                    dist[prev] = d + cost;
+                    push(d + cost, prev);
+                }
+            }
+        }
+        return new Field(dist, computeFlow(dist, targetCell, iceCost));
+    }
+
+    /**
+     * Elige para cada celda la dirección de un primer paso óptimo, probando
+     * primero las que acercan al objetivo en el eje más lejano.
+     */
+    private byte[] computeFlow(int[] dist, int targetCell, int iceCost) {
+        byte[] flow = new byte[size];
+        Arrays.fill(flow, (byte) -1);
+        int targetX = level.cellX(targetCell);
+        int targetY = level.cellY(targetCell);
+
+        for (int cell = 0; cell < size; cell++) {
+            if (cell == targetCell || dist[cell] == UNREACHABLE) {
+                continue;
+            }
+            int dx = targetX - level.cellX(cell);
+            int dy = targetY - level.cellY(cell);
+            int horizontal = (dx >= 0 ? Direction.RIGHT : Direction.LEFT).ordinal();
+            int vertical = (dy >= 0 ? Direction.DOWN : Direction.UP).ordinal();
+            // Las direcciones opuestas difieren en el último bit del ordinal
+            if (Math.abs(dx) > Math.abs(dy)) {
+                order[0] = horizontal;
+                order[1] = vertical;
+                order[2] = vertical ^ 1;
+                order[3] = horizontal ^ 1;
+            } else {
+                order[0] = vertical;
+                order[1] = horizontal;
+                order[2] = horizontal ^ 1;
+                order[3] = vertical ^ 1;
+            }
+
+            for (int step : order) {
+                int next = level.neighbor(cell, DIRECTIONS[step]);
+                if (next < 0 || dist[next] == UNREACHABLE) {
+                    continue;
+                }
+                int cost = enterCost(next, iceCost);
+                if (cost != UNREACHABLE && dist[next] + cost == dist[cell]) {
+                    flow[cell] = (byte) step;
+                    break;
+                }
+            }
+        }
+        return flow;
+    }
+
+    /**
+     * Coste de entrar en una celda.
+     */
+    private int enterCost(int cell, int iceCost) {
+        if (level.isWall(cell)) {
+            return UNREACHABLE;
+        }
+        if (level.isIceBlock(cell)) {
+            return iceCost < 0 ? UNREACHABLE : 1 + iceCost;
+        }
+        return 1;
+    }
+
+    /**
+     * Campo hacia una celda: el coste del camino y la dirección del primer
+     * paso desde cada celda, o -1 si no hay camino.
+     */
+    private static final class Field {
+        final int[] distance;
+        final byte[] flow;
+        // Consulta más reciente, para descartar el campo menos usado
+        long lastUse;
+
+        Field(int[] distance, byte[] flow) {
+            this.distance = distance;
+            this.flow = flow;
+        }
+    }
+
+    private void push(int distance, int cell) {
+        long entry = ((long) distance << 32) | cell;
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    private long pop() {
+        long top = heap[0];
+        long last = heap[--heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return top;
+    }
+}
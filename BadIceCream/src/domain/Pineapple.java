@@ -1,5 +1,7 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Representa una fruta de tipo Piña.
  * Es una fruta móvil que se mueve cuando el jugador se mueve.
@@ -8,6 +10,7 @@ public class Pineapple extends Fruit {
     private int moveCounter;
     private static final int MOVE_DELAY = 15;
     private static final double DIRECTION_CHANGE_PROBABILITY = 0.3;
+    private static final Direction[] DIRECTIONS = Direction.values();
     private Direction currentDirection;
 
     /**
@@ -18,7 +21,7 @@ public class Pineapple extends Fruit {
     public Pineapple(Position position) {
         super(position, FruitType.PINEAPPLE);
         this.moveCounter = 0;
-        this.currentDirection = getRandomDirection();
+        this.currentDirection = null; // Se elige en el primer update con el azar del nivel
     }
 
     /**
@@ -32,62 +35,72 @@ public class Pineapple extends Fruit {
         if (collected)
             return;
 
+        if (currentDirection == null) {
+            currentDirection = getRandomDirection(level);
+        }
+
         moveCounter++;
         if (moveCounter >= MOVE_DELAY) {
             moveCounter = 0;
 
             // Cambiar dirección aleatoriamente a veces
-            if (Math.random() < DIRECTION_CHANGE_PROBABILITY) {
-                currentDirection = getRandomDirection();
+            if (level.getRandom().nextDouble() < DIRECTION_CHANGE_PROBABILITY) {
+                currentDirection = getRandomDirection(level);
             }
 
             // Intentar moverse en la dirección actual
-            Position newPos = position.add(currentDirection);
+            int cell = level.cellOf(position);
+            int next = level.neighbor(cell, currentDirection);
 
-            if (canMoveTo(newPos, level)) {
-                position = newPos;
+            if (canMoveTo(next, level)) {
+                setPosition(level.positionOf(next));
             } else {
                 // Si está bloqueada, cambiar de dirección
-                currentDirection = getRandomDirection();
-                newPos = position.add(currentDirection);
-                if (canMoveTo(newPos, level)) {
-                    position = newPos;
+                currentDirection = getRandomDirection(level);
+                next = level.neighbor(cell, currentDirection);
+                if (canMoveTo(next, level)) {
+                    setPosition(level.positionOf(next));
                 }
             }
         }
     }
 
-    private Direction getRandomDirection() {
-        Direction[] directions = Direction.values();
-        return directions[(int) (Math.random() * directions.length)];
+    private Direction getRandomDirection(Level level) {
+        return DIRECTIONS[level.getRandom().nextInt(DIRECTIONS.length)];
     }
 
     /**
-     * Verifica si la piña puede moverse a una posición específica.
+     * Verifica si la piña puede moverse a una celda específica.
      * 
-     * @param pos   La posición destino.
+     * @param cell  La celda destino (-1 si está fuera del tablero).
      * @param level El nivel actual.
-     * @return true si la posición es válida y no está bloqueada.
+     * @return true si la celda es válida y no está bloqueada.
      */
-    private boolean canMoveTo(Position pos, Level level) {
+    private boolean canMoveTo(int cell, Level level) {
+        if (cell < 0) {
+            return false;
+        }
+
         // Verificar límites del nivel
-        if (pos.getX() < 1 || pos.getX() >= level.getWidth() - 1 ||
-                pos.getY() < 1 || pos.getY() >= level.getHeight() - 1) {
+        int x = level.cellX(cell);
+        int y = level.cellY(cell);
+        if (x < 1 || x >= level.getWidth() - 1 ||
+                y < 1 || y >= level.getHeight() - 1) {
             return false;
         }
 
         // Verificar colisiones con paredes y bloques de hielo
-        if (level.isWall(pos) || level.isIceBlock(pos)) {
+        if (level.isWall(cell) || level.isIceBlock(cell)) {
             return false;
         }
 
         // Verificar colisiones con otras frutas
-        if (level.getFruitAt(pos) != null) {
+        if (level.getFruitAt(cell) != null) {
             return false;
         }
 
         // Verificar colisiones con enemigos
-        if (level.hasEnemyAt(pos)) {
+        if (level.hasEnemyAt(cell)) {
             return false;
         }
 
@@ -98,4 +111,18 @@ public class Pineapple extends Fruit {
     public String getSymbol() {
         return "Pi"; // Símbolo único para Piña
     }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.varint(moveCounter);
+        out.direction(currentDirection);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        moveCounter = SaveCodec.varint(in);
+        currentDirection = SaveCodec.direction(in);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,378 @@
+package domain;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Copia compacta del nivel para que el planificador de la IA simule jugadas
+ * sin tocar la partida. Todo el estado está en arreglos planos, así que
+ * copiarla es un puñado de {@link System#arraycopy} sin crear objetos.
+ * <p>
+ * Un paso equivale a una decisión de la IA. Los enemigos se aproximan: los
+ * que persiguen siguen, como en el juego, el campo de direcciones del
+ * {@link Pathfinder} hacia la celda del jugador perseguido al cargar el
+ * estado; cuando quedan más cerca del jugador simulado de lo que este se
+ * alejó de esa celda, se le acercan en línea recta. Los demás siguen su
+ * rumbo. Todos avanzan una celda con la probabilidad que da su velocidad.
+ */
+final class PlannerState {
+    static final int ACTIONS = 4;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final byte WALL = 1;
+    private static final byte ICE = 2;
+    private static final byte FIRE = 4;
+    // Normaliza los puntos ganados en la valoración
+    private static final double POINTS_SCALE = 100.0;
+
+    private int width;
+    private int height;
+    // Vecinos por celda y dirección, o -1 fuera del tablero. Nunca cambia.
+    private int[] neighbors = new int[0];
+    private byte[] terrain = new byte[0];
+    // Pasos hasta la fruta más cercana al cargar el estado. Solo se lee.
+    private int[] fruitDistance = new int[0];
+    private int[] queue = new int[0];
+
+    private int[] fruitCells = new int[0];
+    private int[] fruitPoints = new int[0];
+    private int fruitCount;
+
+    private int[] enemyCells = new int[0];
+    private byte[] enemyHeadings = new byte[0];
+    private byte[] enemyDelays = new byte[0];
+    private boolean[] enemyChases = new boolean[0];
+    private boolean[] enemyBreaksIce = new boolean[0];
+    // Campo de direcciones hacia chaseCell de cada perseguidor, compartido con el Pathfinder. Solo se lee.
+    private byte[][] enemyFlows = new byte[0][];
+    private int enemyCount;
+
+    private int ticksPerStep;
+    private int player;
+    // Celda del jugador perseguido al cargar, destino de los campos de direcciones
+    private int chaseCell;
+    private boolean chasesPlayer;
+    private int gained;
+    private boolean dead;
+
+    /**
+     * Toma el estado actual del nivel desde el punto de vista de un jugador.
+     * Los arreglos se reutilizan mientras alcancen.
+     *
+     * @param level        El nivel.
+     * @param self         El jugador que planifica.
+     * @param ticksPerStep Ticks de juego entre dos decisiones.
+     */
+    void load(Level level, Player self, int ticksPerStep) {
+        int cells = level.getWidth() * level.getHeight();
+        if (level.getWidth() != width || level.getHeight() != height) {
+            width = level.getWidth();
+            height = level.getHeight();
+            neighbors = new int[cells * ACTIONS];
+            terrain = new byte[cells];
+            fruitDistance = new int[cells];
+            queue = new int[cells];
+            for (int cell = 0; cell < cells; cell++) {
+                for (int a = 0; a < ACTIONS; a++) {
+                    neighbors[cell * ACTIONS + a] = level.neighbor(cell, DIRECTIONS[a]);
+                }
+            }
+        }
+        for (int cell = 0; cell < cells; cell++) {
+            byte flags = 0;
+            if (level.isWall(cell)) {
+                flags |= WALL;
+            }
+            if (level.isIceBlock(cell)) {
+                flags |= ICE;
+            }
+            if (level.isDeadlyCampfire(cell)) {
+                flags |= FIRE;
+            }
+            terrain[cell] = flags;
+        }
+
+        var fruits = level.getFruits();
+        if (fruitCells.length < fruits.size()) {
+            fruitCells = new int[fruits.size()];
+            fruitPoints = new int[fruits.size()];
+        }
+        fruitCount = 0;
+        for (int i = 0; i < fruits.size(); i++) {
+            Fruit fruit = fruits.get(i);
+            // Un cactus con púas no se puede recoger por ahora
+            if (fruit.isCollected() || (fruit instanceof Cactus && ((Cactus) fruit).hasThorns())) {
+                continue;
+            }
+            fruitCells[fruitCount] = level.cellOf(fruit.getPosition());
+            fruitPoints[fruitCount++] = fruit.getPoints();
+        }
+
+        this.ticksPerStep = ticksPerStep;
+        player = level.cellOf(self.getPosition());
+        // Los enemigos persiguen al primer jugador del nivel
+        Player chased = level.getPlayer();
+        chasesPlayer = chased == null || chased == self;
+        chaseCell = chased != null ? level.cellOf(chased.getPosition()) : player;
+        gained = 0;
+        dead = !self.isAlive();
+
+        var enemies = level.getEnemies();
+        if (enemyCells.length < enemies.size()) {
+            enemyCells = new int[enemies.size()];
+            enemyHeadings = new byte[enemies.size()];
+            enemyDelays = new byte[enemies.size()];
+            enemyChases = new boolean[enemies.size()];
+            enemyBreaksIce = new boolean[enemies.size()];
+            enemyFlows = new byte[enemies.size()][];
+        }
+        enemyCount = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (!enemy.isAlive()) {
+                continue;
+            }
+            Direction heading = enemy.getDirection();
+            enemyCells[enemyCount] = level.cellOf(enemy.getPosition());
+            enemyHeadings[enemyCount] = (byte) (heading != null ? heading.ordinal() : 0);
+            enemyDelays[enemyCount] = (byte) Math.max(1, Math.min(Byte.MAX_VALUE, enemy.getMoveDelay()));
+            enemyChases[enemyCount] = enemy.canChasePlayer();
+            enemyBreaksIce[enemyCount] = enemy.canBreakBlocks();
+            // Los que persiguen al mismo jugador con el mismo coste comparten el campo
+            enemyFlows[enemyCount++] = enemy.canChasePlayer() && chaseCell >= 0
+                    ? level.getPathfinder().flowField(chaseCell, enemy.getChaseIceCost())
+                    : null;
+        }
+
+        computeFruitDistances();
+    }
+
+    // Recorrido en anchura desde todas las frutas; el hielo se puede romper
+    private void computeFruitDistances() {
+        Arrays.fill(fruitDistance, Integer.MAX_VALUE);
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < fruitCount; i++) {
+            fruitDistance[fruitCells[i]] = 0;
+            queue[tail++] = fruitCells[i];
+        }
+        while (head < tail) {
+            int cell = queue[head++];
+            for (int a = 0; a < ACTIONS; a++) {
+                int next = neighbors[cell * ACTIONS + a];
+                if (next >= 0 && (terrain[next] & (WALL | FIRE)) == 0 && fruitDistance[next] == Integer.MAX_VALUE) {
+                    fruitDistance[next] = fruitDistance[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Copia otro estado en este, reutilizando los arreglos.
+     *
+     * @param other El estado a copiar.
+     */
+    void copyFrom(PlannerState other) {
+        if (terrain.length != other.terrain.length) {
+            terrain = new byte[other.terrain.length];
+        }
+        if (fruitCells.length < other.fruitCount) {
+            fruitCells = new int[other.fruitCells.length];
+            fruitPoints = new int[other.fruitCells.length];
+        }
+        if (enemyCells.length < other.enemyCount) {
+            enemyCells = new int[other.enemyCells.length];
+            enemyHeadings = new byte[other.enemyCells.length];
+            enemyDelays = new byte[other.enemyCells.length];
+            enemyChases = new boolean[other.enemyCells.length];
+            enemyBreaksIce = new boolean[other.enemyCells.length];
+            enemyFlows = new byte[other.enemyCells.length][];
+        }
+        width = other.width;
+        height = other.height;
+        neighbors = other.neighbors;
+        fruitDistance = other.fruitDistance;
+        System.arraycopy(other.terrain, 0, terrain, 0, terrain.length);
+        fruitCount = other.fruitCount;
+        System.arraycopy(other.fruitCells, 0, fruitCells, 0, fruitCount);
+        System.arraycopy(other.fruitPoints, 0, fruitPoints, 0, fruitCount);
+        enemyCount = other.enemyCount;
+        System.arraycopy(other.enemyCells, 0, enemyCells, 0, enemyCount);
+        System.arraycopy(other.enemyHeadings, 0, enemyHeadings, 0, enemyCount);
+        System.arraycopy(other.enemyDelays, 0, enemyDelays, 0, enemyCount);
+        System.arraycopy(other.enemyChases, 0, enemyChases, 0, enemyCount);
+        System.arraycopy(other.enemyBreaksIce, 0, enemyBreaksIce, 0, enemyCount);
+        System.arraycopy(other.enemyFlows, 0, enemyFlows, 0, enemyCount);
+        ticksPerStep = other.ticksPerStep;
+        player = other.player;
+        chaseCell = other.chaseCell;
+        chasesPlayer = other.chasesPlayer;
+        gained = other.gained;
+        dead = other.dead;
+    }
+
+    /**
+     * Acciones que no llevan a un muro, al borde o a una fogata encendida.
+     *
+     * @return Máscara de bits indexada por el ordinal de la dirección.
+     */
+    int legalActions() {
+        if (dead) {
+            return 0;
+        }
+        int mask = 0;
+        for (int a = 0; a < ACTIONS; a++) {
+            int next = neighbors[player * ACTIONS + a];
+            if (next >= 0 && (terrain[next] & (WALL | FIRE)) == 0) {
+                mask |= 1 << a;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Avanza una decisión: el jugador se mueve hacia la dirección, o rompe el
+     * hielo que tenga delante, y luego se mueven los enemigos.
+     *
+     * @param action El ordinal de la dirección, o -1 para esperar.
+     * @param random Azar para los enemigos.
+     */
+    void step(int action, SplittableRandom random) {
+        if (dead) {
+            return;
+        }
+        if (action >= 0) {
+            int next = neighbors[player * ACTIONS + action];
+            if (next >= 0 && (terrain[next] & ICE) != 0) {
+                // Como en el juego, se rompe toda la fila de hielo
+                while (next >= 0 && (terrain[next] & ICE) != 0) {
+                    terrain[next] &= ~ICE;
+                    next = neighbors[next * ACTIONS + action];
+                }
+            } else if (next >= 0 && (terrain[next] & WALL) == 0) {
+                player = next;
+                if ((terrain[next] & FIRE) != 0) {
+                    dead = true;
+                    return;
+                }
+                collectAt(next);
+            }
+        }
+        if (hitsEnemy()) {
+            dead = true;
+            return;
+        }
+        moveEnemies(random);
+        dead = hitsEnemy();
+    }
+
+    private void collectAt(int cell) {
+        for (int i = 0; i < fruitCount; i++) {
+            if (fruitCells[i] == cell) {
+                gained += fruitPoints[i];
+                fruitCount--;
+                fruitCells[i] = fruitCells[fruitCount];
+                fruitPoints[i] = fruitPoints[fruitCount];
+                return;
+            }
+        }
+    }
+
+    private boolean hitsEnemy() {
+        for (int i = 0; i < enemyCount; i++) {
+            if (enemyCells[i] == player) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void moveEnemies(SplittableRandom random) {
+        int target = chasesPlayer ? player : chaseCell;
+        // Cuánto se alejó el objetivo de la celda hacia la que apuntan los campos
+        int drift = manhattan(target, chaseCell);
+        for (int i = 0; i < enemyCount; i++) {
+            // Un enemigo que da un paso cada d ticks avanza ticksPerStep / d celdas
+            if (random.nextInt(enemyDelays[i]) >= ticksPerStep) {
+                continue;
+            }
+            int cell = enemyCells[i];
+            int heading = enemyChases[i] ? chaseHeading(cell, target, drift, i) : enemyHeadings[i];
+            if (heading < 0) {
+                continue;
+            }
+            int next = neighbors[cell * ACTIONS + heading];
+            if (next < 0 || (terrain[next] & WALL) != 0) {
+                enemyHeadings[i] = (byte) random.nextInt(ACTIONS);
+            } else if ((terrain[next] & ICE) != 0) {
+                if (enemyBreaksIce[i]) {
+                    terrain[next] &= ~ICE;
+                } else if (!enemyChases[i]) {
+                    enemyHeadings[i] = (byte) random.nextInt(ACTIONS);
+                }
+            } else {
+                enemyCells[i] = next;
+                enemyHeadings[i] = (byte) heading;
+            }
+        }
+    }
+
+    // Paso del campo de direcciones mientras el enemigo esté más lejos que el
+    // error del campo; si no, o si no hay camino, la dirección que más acorta
+    // la distancia en línea recta, como hacen los enemigos sin camino
+    private int chaseHeading(int cell, int target, int drift, int enemy) {
+        byte[] flow = enemyFlows[enemy];
+        if (flow != null && manhattan(cell, target) > drift && flow[cell] >= 0) {
+            return flow[cell];
+        }
+        int dx = target % width - cell % width;
+        int dy = target / width - cell / width;
+        if (dx == 0 && dy == 0) {
+            return -1;
+        }
+        int horizontal = dx > 0 ? Direction.RIGHT.ordinal() : Direction.LEFT.ordinal();
+        int vertical = dy > 0 ? Direction.DOWN.ordinal() : Direction.UP.ordinal();
+        int first = Math.abs(dx) >= Math.abs(dy) ? horizontal : vertical;
+        int second = first == horizontal ? vertical : horizontal;
+        if (first == horizontal ? dy == 0 : dx == 0) {
+            return first;
+        }
+        int next = neighbors[cell * ACTIONS + first];
+        boolean blocked = next < 0 || (terrain[next] & WALL) != 0
+                || ((terrain[next] & ICE) != 0 && !enemyBreaksIce[enemy]);
+        return blocked ? second : first;
+    }
+
+    private int manhattan(int a, int b) {
+        return Math.abs(a % width - b % width) + Math.abs(a / width - b / width);
+    }
+
+    /**
+     * Valora el estado entre 0 y 1: muerto vale 0; vivo, más cuantos más
+     * puntos ganó y cuanto más cerca quedó de las frutas que había al cargar.
+     *
+     * @return La valoración.
+     */
+    double evaluate() {
+        if (dead) {
+            return 0.0;
+        }
+        double points = gained / (gained + POINTS_SCALE);
+        int distance = Math.min(fruitDistance[player], width + height);
+        double closeness = 1.0 - (double) distance / (width + height);
+        return 0.4 + 0.4 * points + 0.2 * closeness;
+    }
+
+    boolean isDead() {
+        return dead;
+    }
+
+    int getFruitCount() {
+        return fruitCount;
+    }
+
+    int getPlayerCell() {
+        return player;
+    }
+}
@@ -1,5 +1,7 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Representa al jugador (Helado) controlado por el usuario.
  * Puede moverse, crear y destruir bloques de hielo.
@@ -56,10 +58,10 @@ public class Player extends Unit implements IceInteractor {
      */
     @Override
     public void createIceBlock(Level level) {
-        Position currentPos = position.add(direction);
-        while (level.canPlaceIceBlock(currentPos) && !level.hasEnemyAt(currentPos)) {
-            level.addIceBlock(new IceBlock(currentPos));
-            currentPos = currentPos.add(direction);
+        int cell = level.neighbor(level.cellOf(position), direction);
+        while (level.canPlaceIceBlock(cell) && !level.hasEnemyAt(cell)) {
+            level.addIceBlock(new IceBlock(level.positionOf(cell)));
+            cell = level.neighbor(cell, direction);
         }
     }
 
@@ -70,15 +72,13 @@ public class Player extends Unit implements IceInteractor {
      */
     @Override
     public void destroyIceBlock(Level level) {
-        Position currentPos = position.add(direction);
+        int cell = level.neighbor(level.cellOf(position), direction);
 
         // Destruir en cadena (efecto dominó)
-        while (level.isIceBlock(currentPos)) {
-            IceBlock block = level.getIceBlockAt(currentPos);
-            if (block != null) {
-                block.destroy();
-            }
-            currentPos = currentPos.add(direction);
+        IceBlock block;
+        while ((block = level.getIceBlockAt(cell)) != null) {
+            block.destroy();
+            cell = level.neighbor(cell, direction);
         }
     }
 
@@ -116,4 +116,16 @@ public class Player extends Unit implements IceInteractor {
     public String getSymbol() {
         return "P";
     }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.varint(score);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        score = SaveCodec.varint(in);
+    }
 }
\ No newline at end of file
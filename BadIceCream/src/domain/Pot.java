@@ -1,12 +1,14 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Representa un enemigo de tipo "Pot" (Maceta) en el juego.
- * Este enemigo persigue al jugador intentando acercarse en el eje con mayor
- * distancia.
+ * Este enemigo persigue al jugador por el camino más corto que rodea muros y
+ * hielo, siguiendo el campo de direcciones del nivel que comparten todos los
+ * enemigos que persiguen al mismo jugador.
  */
 public class Pot extends Enemy {
-    private int moveCounter;
     private static final int MOVE_DELAY = 8;
 
     /**
@@ -16,13 +18,13 @@ public class Pot extends Enemy {
      */
     public Pot(Position position) {
         super(position, EnemyType.POT);
-        this.moveCounter = 0;
     }
 
     /**
      * Calcula la siguiente posición del enemigo basándose en la posición del
      * jugador.
-     * Intenta moverse en la dirección que reduce la mayor distancia (X o Y).
+     * Sigue el camino más corto; si no hay camino o el paso está ocupado,
+     * intenta moverse en la dirección que reduce la mayor distancia (X o Y).
      * 
      * @param level  El nivel actual del juego.
      * @param player El jugador al que persigue.
@@ -36,55 +38,66 @@ public class Pot extends Enemy {
             return position;
         }
 
-        Position playerPos = player.getPosition();
-        int currentX = position.getX();
-        int currentY = position.getY();
-        int targetX = playerPos.getX();
-        int targetY = playerPos.getY();
+        int next = chaseCell(level, level.cellOf(position), player.getPosition());
+        return next < 0 ? position : level.positionOf(next);
+    }
 
-        int deltaX = targetX - currentX;
-        int deltaY = targetY - currentY;
+    /**
+     * Elige la celda a la que pasa el enemigo desde una celda para acercarse a
+     * un objetivo.
+     * 
+     * @param level  El nivel actual del juego.
+     * @param cell   La celda del enemigo.
+     * @param target La posición del jugador al que persigue.
+     * @return La celda siguiente, o -1 si no puede moverse.
+     */
+    private int chaseCell(Level level, int cell, Position target) {
+        Direction step = level.getPathfinder().nextStep(cell, level.cellOf(target), getChaseIceCost());
+        if (step != null) {
+            int next = level.neighbor(cell, step);
+            if (isValidCell(next, level)) {
+                return next;
+            }
+        }
 
-        Position nextPos = null;
+        int deltaX = target.getX() - level.cellX(cell);
+        int deltaY = target.getY() - level.cellY(cell);
+        int next = -1;
 
         // Prioriza el movimiento en el eje con mayor distancia
         if (Math.abs(deltaX) > Math.abs(deltaY)) {
             if (deltaX > 0) {
-                nextPos = position.add(Direction.RIGHT);
+                next = level.neighbor(cell, Direction.RIGHT);
             } else if (deltaX < 0) {
-                nextPos = position.add(Direction.LEFT);
+                next = level.neighbor(cell, Direction.LEFT);
             }
 
             // Si no puede moverse en X, intenta en Y
-            if (nextPos == null || !isValidPosition(nextPos, level)) {
+            if (!isValidCell(next, level)) {
                 if (deltaY > 0) {
-                    nextPos = position.add(Direction.DOWN);
+                    next = level.neighbor(cell, Direction.DOWN);
                 } else if (deltaY < 0) {
-                    nextPos = position.add(Direction.UP);
+                    next = level.neighbor(cell, Direction.UP);
                 }
             }
         } else {
             if (deltaY > 0) {
-                nextPos = position.add(Direction.DOWN);
+                next = level.neighbor(cell, Direction.DOWN);
             } else if (deltaY < 0) {
-                nextPos = position.add(Direction.UP);
+                next = level.neighbor(cell, Direction.UP);
             }
 
             // Si no puede moverse en Y, intenta en X
-            if (nextPos == null || !isValidPosition(nextPos, level)) {
+            if (!isValidCell(next, level)) {
                 if (deltaX > 0) {
-                    nextPos = position.add(Direction.RIGHT);
+                    next = level.neighbor(cell, Direction.RIGHT);
                 } else if (deltaX < 0) {
-                    nextPos = position.add(Direction.LEFT);
+                    next = level.neighbor(cell, Direction.LEFT);
                 }
             }
         }
 
-        if (nextPos == null || !isValidPosition(nextPos, level)) {
-            return position;
-        }
-
-        return nextPos;
+        return isValidCell(next, level) ? next : -1;
     }
 
     /**
@@ -95,22 +108,37 @@ public class Pot extends Enemy {
      * @return true si la posición es válida, false en caso contrario.
      */
     private boolean isValidPosition(Position pos, Level level) {
+        return isValidCell(level.cellOf(pos), level);
+    }
+
+    /**
+     * Verifica si una celda es válida para que el enemigo se mueva.
+     * 
+     * @param cell  La celda a verificar (-1 si no hay celda).
+     * @param level El nivel actual.
+     * @return true si la celda es válida, false en caso contrario.
+     */
+    private boolean isValidCell(int cell, Level level) {
+        if (cell < 0) {
+            return false;
+        }
+
         // Verifica límites del mapa
-        if (pos.getX() < 1 || pos.getX() >= level.getWidth() - 1 ||
-                pos.getY() < 1 || pos.getY() >= level.getHeight() - 1) {
+        int x = level.cellX(cell);
+        int y = level.cellY(cell);
+        if (x < 1 || x >= level.getWidth() - 1 ||
+                y < 1 || y >= level.getHeight() - 1) {
             return false;
         }
 
-        // Verifica colisiones con el entorno
-        if (!level.canMoveTo(pos) || level.isIceBlock(pos)) {
+        // Verifica colisiones con el entorno (muros y hielo)
+        if (!level.canMoveTo(cell)) {
             return false;
         }
 
         // Verifica colisiones con otros enemigos
-        for (Enemy enemy : level.getEnemies()) {
-            if (enemy != this && enemy.isAlive() && enemy.getPosition().equals(pos)) {
-                return false;
-            }
+        if (level.hasOtherEnemyAt(cell, this)) {
+            return false;
         }
 
         return true;
@@ -125,13 +153,17 @@ public class Pot extends Enemy {
      */
     @Override
     public void updateBehavior(Level level, Player player) {
-        moveCounter++;
-        if (moveCounter >= MOVE_DELAY) {
-            moveCounter = 0;
-            Position nextPos = getNextPosition(level, player);
+        step(level, player);
+    }
 
-            if (!nextPos.equals(position) && isValidPosition(nextPos, level)) {
-                move(nextPos);
+    @Override
+    void advance(EnemyMotion motion, Level level, Position target) {
+        motion.moveCounter++;
+        if (motion.moveCounter >= MOVE_DELAY) {
+            motion.moveCounter = 0;
+            int next = target != null ? chaseCell(level, motion.cell, target) : -1;
+            if (next >= 0) {
+                motion.cell = next;
             }
         }
     }
@@ -152,4 +184,21 @@ public class Pot extends Enemy {
     public String getSymbol() {
         return "M";
     }
+
+    @Override
+    int getMoveDelay() {
+        return MOVE_DELAY;
+    }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.varint(motion.moveCounter);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        motion.moveCounter = SaveCodec.varint(in);
+    }
 }
\ No newline at end of file
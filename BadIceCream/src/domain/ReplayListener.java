@@ -0,0 +1,37 @@
+package domain;
+
+/**
+ * Interfaz para observar lo que ocurre en cada tick con el detalle necesario
+ * para repetir la partida: las órdenes de los jugadores en el orden en que se
+ * aplican y las acciones que decide la IA. Se llama desde el hilo de la
+ * simulación.
+ */
+public interface ReplayListener {
+    /**
+     * Se llama al aplicar una orden de un jugador, al inicio del tick.
+     *
+     * @param command La orden.
+     */
+    void onInput(InputCommand command);
+
+    /**
+     * Se llama cuando una IA decide su acción del tick, antes de ejecutarla.
+     *
+     * @param playerNumber Jugador de la IA (1 o 2).
+     * @param action       La acción decidida.
+     */
+    void onAIAction(int playerNumber, AIAction action);
+
+    /**
+     * Se llama al terminar cada tick, también cuando una orden termina la
+     * partida antes de mover al resto del mundo.
+     */
+    void onTickEnd();
+
+    /**
+     * Se llama cuando la partida vuelve a empezar sobre el mismo juego, por
+     * ejemplo al reiniciarla. El observador ya quedó quitado y no recibe nada
+     * de la partida nueva.
+     */
+    void onRestart();
+}
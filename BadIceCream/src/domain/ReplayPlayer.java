@@ -0,0 +1,340 @@
+package domain;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Repite una partida grabada con {@link ReplayRecorder}. Vuelve a simular la
+ * partida desde su estado inicial aplicando las órdenes grabadas en el mismo
+ * tick, sin interfaz y tan rápido como se quiera.
+ * <p>
+ * Los ticks se cuentan desde el inicio de la grabación. Para saltar hacia
+ * atrás se guarda el estado cada {@link #KEYFRAME_INTERVAL} ticks y se simula
+ * desde el más cercano. Si la IA decide algo distinto de lo grabado, la
+ * repetición se marca como desviada en ese tick.
+ */
+public class ReplayPlayer {
+    /** Ticks entre dos estados guardados para saltar hacia atrás */
+    public static final int KEYFRAME_INTERVAL = 50;
+
+    private final long millisPerTick;
+    private final int levelNumber;
+    private final long length;
+    // Eventos en orden: tick y código
+    private final long[] inputTicks;
+    private final int[] inputCodes;
+    private final long[] aiTicks;
+    private final int[] aiCodes;
+    private final TreeMap<Long, byte[]> keyframes = new TreeMap<>();
+
+    private Game game;
+    private long tick;
+    private int inputCursor;
+    private int aiCursor;
+    private long desyncTick = -1;
+
+    private ReplayPlayer(long millisPerTick, int levelNumber, byte[] initial, long length, long[] inputTicks,
+            int[] inputCodes, long[] aiTicks, int[] aiCodes) throws BadIceCreamException {
+        this.millisPerTick = millisPerTick;
+        this.levelNumber = levelNumber;
+        this.length = length;
+        this.inputTicks = inputTicks;
+        this.inputCodes = inputCodes;
+        this.aiTicks = aiTicks;
+        this.aiCodes = aiCodes;
+        keyframes.put(0L, initial);
+        restore(0L, initial);
+    }
+
+    /**
+     * Abre una repetición.
+     *
+     * @param file El archivo de la repetición.
+     * @return El reproductor, en el tick 0.
+     * @throws BadIceCreamException Si el archivo no existe o no es una
+     *                              repetición válida.
+     */
+    public static ReplayPlayer open(File file) throws BadIceCreamException {
+        if (!file.exists()) {
+            throw new BadIceCreamException("El archivo no existe: " + file.getAbsolutePath());
+        }
+        try {
+            return read(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al abrir la repetición: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lee una repetición. Si el registro quedó cortado, por ejemplo porque el
+     * programa se cayó mientras grababa, se repite hasta el último tick
+     * completo.
+     *
+     * @param data El contenido del registro.
+     * @return El reproductor, en el tick 0.
+     * @throws BadIceCreamException Si no es una repetición válida.
+     */
+    public static ReplayPlayer read(byte[] data) throws BadIceCreamException {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        byte[] initial;
+        long millisPerTick;
+        int levelNumber;
+        try {
+            if (in.getInt() != ReplayRecorder.MAGIC) {
+                throw new BadIceCreamException("El archivo no es una repetición");
+            }
+            int version = in.get() & 0xFF;
+            if (version != ReplayRecorder.VERSION) {
+                throw new BadIceCreamException("Versión de repetición no soportada: " + version);
+            }
+            millisPerTick = SaveCodec.varint(in);
+            levelNumber = SaveCodec.varint(in);
+            initial = new byte[SaveCodec.varint(in)];
+            in.get(initial);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new BadIceCreamException("Repetición incompleta", e);
+        }
+        if (millisPerTick <= 0) {
+            throw new BadIceCreamException("Repetición dañada: duración de tick inválida");
+        }
+
+        int capacity = Math.max(16, in.remaining() / 2);
+        long[] inputTicks = new long[capacity];
+        int[] inputCodes = new int[capacity];
+        long[] aiTicks = new long[capacity];
+        int[] aiCodes = new int[capacity];
+        int inputs = 0;
+        int actions = 0;
+        long eventTick = 0;
+        long length = -1;
+        while (in.hasRemaining()) {
+            int position = in.position();
+            long next;
+            int code;
+            try {
+                next = eventTick + SaveCodec.varint(in);
+                code = in.get() & 0xFF;
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                // Evento cortado al final del registro
+                in.position(position);
+                break;
+            }
+            eventTick = next;
+            if (code == ReplayRecorder.END) {
+                length = eventTick - 1;
+                break;
+            }
+            if ((code & ReplayRecorder.AI_FLAG) != 0) {
+                if (!ReplayRecorder.isValidAICode(code)) {
+                    throw new BadIceCreamException("Acción inválida en la repetición: " + code);
+                }
+                aiTicks[actions] = eventTick;
+                aiCodes[actions++] = code;
+            } else {
+                ReplayRecorder.decodeInput(code);
+                inputTicks[inputs] = eventTick;
+                inputCodes[inputs++] = code;
+            }
+        }
+        if (length < 0) {
+            // Sin marca de fin: el último tick con eventos pudo quedar a medias
+            length = Math.max(0, eventTick - 1);
+            while (inputs > 0 && inputTicks[inputs - 1] > length) {
+                inputs--;
+            }
+            while (actions > 0 && aiTicks[actions - 1] > length) {
+                actions--;
+            }
+        }
+        return new ReplayPlayer(millisPerTick, levelNumber, initial, length, Arrays.copyOf(inputTicks, inputs),
+                Arrays.copyOf(inputCodes, inputs), Arrays.copyOf(aiTicks, actions), Arrays.copyOf(aiCodes, actions));
+    }
+
+    private void restore(long keyframeTick, byte[] keyframe) throws BadIceCreamException {
+        Game restored = SaveCodec.decode(keyframe, new TickClock(millisPerTick));
+        restored.setReplayListener(new Verifier());
+        game = restored;
+        tick = keyframeTick;
+        inputCursor = firstAfter(inputTicks, inputTicks.length, keyframeTick);
+        aiCursor = firstAfter(aiTicks, aiTicks.length, keyframeTick);
+    }
+
+    // Primer índice con tick mayor que el dado
+    private static int firstAfter(long[] ticks, int count, long tick) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ticks[mid] <= tick) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Avanza la repetición un tick.
+     *
+     * @return true si queda repetición por delante.
+     */
+    public boolean step() {
+        if (isFinished()) {
+            return false;
+        }
+        tick++;
+        while (inputCursor < inputTicks.length && inputTicks[inputCursor] == tick) {
+            try {
+                game.submitInput(ReplayRecorder.decodeInput(inputCodes[inputCursor++]));
+            } catch (BadIceCreamException e) {
+                // Los códigos se validaron al leer el registro
+                throw new IllegalStateException(e);
+            }
+        }
+        ((TickClock) game.getClock()).advance();
+        game.update();
+        if (tick % KEYFRAME_INTERVAL == 0 && !keyframes.containsKey(tick)) {
+            keyframes.put(tick, SaveCodec.encode(game));
+        }
+        return !isFinished();
+    }
+
+    /**
+     * Avanza la repetición hasta el final o hasta un máximo de ticks, sin
+     * esperar entre ticks.
+     *
+     * @param maxTicks Máximo de ticks a avanzar.
+     * @return Los ticks avanzados.
+     */
+    public int run(int maxTicks) {
+        int executed = 0;
+        while (executed < maxTicks && !isFinished()) {
+            step();
+            executed++;
+        }
+        return executed;
+    }
+
+    /**
+     * Repite la partida completa tan rápido como se pueda.
+     *
+     * @return El estado final de la partida.
+     */
+    public GameState runToEnd() {
+        while (step()) {
+            // Nada que hacer entre ticks
+        }
+        return game.getState();
+    }
+
+    /**
+     * Salta a un tick de la repetición. Hacia atrás, o muy hacia adelante,
+     * se parte del estado guardado más cercano, así que {@link #getGame()}
+     * puede devolver otra instancia.
+     *
+     * @param target El tick, de 0 a {@link #getLength()}.
+     * @throws BadIceCreamException Si no se puede restaurar el estado.
+     */
+    public void seek(long target) throws BadIceCreamException {
+        target = Math.max(0, Math.min(target, length));
+        Map.Entry<Long, byte[]> keyframe = keyframes.floorEntry(target);
+        if (target < tick || keyframe.getKey() > tick) {
+            restore(keyframe.getKey(), keyframe.getValue());
+        }
+        while (tick < target && step()) {
+            // Simular hasta el tick pedido
+        }
+    }
+
+    /**
+     * Indica si la repetición llegó al final: se acabaron los ticks grabados o
+     * terminó la partida.
+     *
+     * @return true si no quedan ticks por repetir.
+     */
+    public boolean isFinished() {
+        return tick >= length || game.getState() != GameState.PLAYING;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Cantidad de ticks grabados.
+     *
+     * @return La duración de la repetición en ticks.
+     */
+    public long getLength() {
+        return length;
+    }
+
+    public int getLevelNumber() {
+        return levelNumber;
+    }
+
+    /**
+     * Primer tick en que la IA se apartó de lo grabado.
+     *
+     * @return El tick, o -1 si la repetición coincide con la original.
+     */
+    public long getDesyncTick() {
+        return desyncTick;
+    }
+
+    private void desync() {
+        if (desyncTick < 0) {
+            desyncTick = tick;
+            BadIceCreamLog.log("La repetición se desvió de la partida grabada en el tick " + tick);
+        }
+    }
+
+    /**
+     * Compara las acciones de la IA con las grabadas.
+     */
+    private final class Verifier implements ReplayListener {
+        @Override
+        public void onInput(InputCommand command) {
+            // Las órdenes salen del propio registro
+        }
+
+        @Override
+        public void onAIAction(int playerNumber, AIAction action) {
+            int code = ReplayRecorder.aiCode(playerNumber, action);
+            if (code < 0) {
+                return;
+            }
+            if (aiCursor < aiTicks.length && aiTicks[aiCursor] == tick && aiCodes[aiCursor] == code) {
+                aiCursor++;
+            } else {
+                desync();
+            }
+        }
+
+        @Override
+        public void onTickEnd() {
+            // Acciones grabadas que esta vez no ocurrieron
+            while (aiCursor < aiTicks.length && aiTicks[aiCursor] <= tick) {
+                aiCursor++;
+                desync();
+            }
+        }
+
+        @Override
+        public void onRestart() {
+            // Las órdenes de control no se graban: una repetición no se reinicia
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package domain;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Graba una partida para repetirla con {@link ReplayPlayer}. La simulación es
+ * determinista con un {@link TickClock}: basta guardar el estado inicial
+ * (nivel, azar y reloj incluidos) y las órdenes de los jugadores de cada tick.
+ * Las acciones de la IA también se graban, para detectar si la repetición se
+ * desvía de la original.
+ * <p>
+ * El registro solo crece por el final y se vuelca a disco cada segundo de
+ * juego; si el programa se cae, lo escrito hasta entonces se puede repetir.
+ * <p>
+ * Formato (big endian):
+ * <pre>
+ * encabezado: int MAGIC, u8 versión, varint milisegundos por tick,
+ *             varint número de nivel, varint largo, partida de {@link SaveCodec}
+ * eventos:    (varint ticks desde el evento anterior, u8 código) por evento
+ * código:     orden:    0, u1 jugador - 1, u2 tipo, u3 dirección + 1
+ *             acción:   1, u1 IA - 1, u2 tipo, u3 dirección + 1
+ *             fin:      0xFF, en el tick siguiente al último
+ * </pre>
+ * Las esperas de la IA no se graban.
+ */
+public class ReplayRecorder implements ReplayListener {
+    static final int MAGIC = 0x42495250; // "BIRP"
+    static final int VERSION = 1;
+    static final int AI_FLAG = 0x80;
+    static final int END = 0xFF;
+    private static final int FLUSH_TICKS = Game.UPDATES_PER_SECOND;
+
+    private static final AIActionType[] AI_TYPES = AIActionType.values();
+    private static final InputCommand.Type[] INPUT_TYPES = InputCommand.Type.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Game game;
+    private final OutputStream out;
+    private final SaveCodec.Output event = new SaveCodec.Output(16);
+    private long ticks;
+    private long lastEventTick;
+    private boolean finished;
+    private boolean restarted;
+
+    private ReplayRecorder(Game game, OutputStream out) {
+        this.game = game;
+        this.out = out;
+    }
+
+    /**
+     * Empieza a grabar una partida en un archivo.
+     *
+     * @param game La partida, en curso y con un {@link TickClock}.
+     * @param file El archivo de la repetición.
+     * @return El grabador, ya registrado en la partida.
+     * @throws BadIceCreamException Si la partida no se puede grabar o falla la
+     *                              escritura.
+     */
+    public static ReplayRecorder start(Game game, File file) throws BadIceCreamException {
+        try {
+            return start(game, new BufferedOutputStream(new FileOutputStream(file)));
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al crear la repetición: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Empieza a grabar una partida en un flujo.
+     *
+     * @param game La partida, en curso y con un {@link TickClock}.
+     * @param out  Destino del registro. Se cierra al terminar la grabación.
+     * @return El grabador, ya registrado en la partida.
+     * @throws BadIceCreamException Si la partida no se puede grabar o falla la
+     *                              escritura.
+     */
+    public static ReplayRecorder start(Game game, OutputStream out) throws BadIceCreamException {
+        if (game.getState() == GameState.MENU) {
+            throw new BadIceCreamException("No hay partida activa para grabar");
+        }
+        if (!(game.getClock() instanceof TickClock)) {
+            throw new BadIceCreamException("Solo se pueden grabar partidas con un reloj de ticks");
+        }
+        byte[] initial = SaveCodec.encode(game);
+        try {
+            DataOutputStream header = new DataOutputStream(out);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            SaveCodec.Output fields = new SaveCodec.Output(16);
+            fields.varint((int) ((TickClock) game.getClock()).getMillisPerTick());
+            fields.varint(game.getLevel().levelNumber);
+            fields.varint(initial.length);
+            fields.writeTo(header);
+            header.write(initial);
+            header.flush();
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al escribir la repetición: " + e.getMessage(), e);
+        }
+        ReplayRecorder recorder = new ReplayRecorder(game, out);
+        game.setReplayListener(recorder);
+        return recorder;
+    }
+
+    @Override
+    public synchronized void onInput(InputCommand command) {
+        write(inputCode(command));
+    }
+
+    @Override
+    public synchronized void onAIAction(int playerNumber, AIAction action) {
+        int code = aiCode(playerNumber, action);
+        if (code >= 0) {
+            write(code);
+        }
+    }
+
+    @Override
+    public synchronized void onTickEnd() {
+        ticks++;
+        if (game.getState() != GameState.PLAYING) {
+            close();
+        } else if (ticks % FLUSH_TICKS == 0) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+    }
+
+    /**
+     * Termina la grabación: lo que siga es otra partida, que necesita su
+     * propio estado inicial. Quien grababa puede empezar otra grabación.
+     */
+    @Override
+    public synchronized void onRestart() {
+        restarted = true;
+        close();
+    }
+
+    /**
+     * Termina la grabación: escribe la marca de fin y cierra el registro. Se
+     * llama sola cuando termina la partida y puede llamarse desde cualquier
+     * hilo para cortar la grabación de una partida abandonada.
+     */
+    public synchronized void close() {
+        if (finished) {
+            return;
+        }
+        write(END);
+        finished = true;
+        game.setReplayListener(null);
+        try {
+            out.close();
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+        }
+    }
+
+    /**
+     * Cantidad de ticks grabados.
+     *
+     * @return Los ticks.
+     */
+    public synchronized long getTicks() {
+        return ticks;
+    }
+
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Indica si la grabación terminó porque la partida se reinició.
+     *
+     * @return true si la partida volvió a empezar mientras se grababa.
+     */
+    public synchronized boolean isRestarted() {
+        return restarted;
+    }
+
+    private void write(int code) {
+        if (finished) {
+            return;
+        }
+        // El evento pertenece al tick en curso, que aún no terminó
+        long tick = ticks + 1;
+        event.reset();
+        event.varint((int) (tick - lastEventTick));
+        event.u8(code);
+        lastEventTick = tick;
+        try {
+            event.writeTo(out);
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    // Un fallo de disco no debe detener la partida: se deja de grabar
+    private void fail(IOException e) {
+        BadIceCreamLog.log(e);
+        finished = true;
+        game.setReplayListener(null);
+    }
+
+    // ==================== CÓDIGOS ====================
+
+    static int inputCode(InputCommand command) {
+        return (command.getPlayerNumber() - 1) << 5 | command.getType().ordinal() << 3
+                | directionCode(command.getDirection());
+    }
+
+    /**
+     * Código de una acción de la IA, o -1 si es una espera.
+     */
+    static int aiCode(int playerNumber, AIAction action) {
+        if (action.getType() == AIActionType.WAIT) {
+            return -1;
+        }
+        return AI_FLAG | (playerNumber - 1) << 5 | action.getType().ordinal() << 3
+                | directionCode(action.getDirection());
+    }
+
+    private static int directionCode(Direction direction) {
+        return direction == null ? 0 : direction.ordinal() + 1;
+    }
+
+    static InputCommand decodeInput(int code) throws BadIceCreamException {
+        int player = (code >> 5 & 1) + 1;
+        int type = code >> 3 & 3;
+        int direction = code & 7;
+        // Solo se graban las órdenes de los jugadores, no las de control
+        if (type > InputCommand.Type.ICE.ordinal() || direction > DIRECTIONS.length) {
+            throw new BadIceCreamException("Orden inválida en la repetición: " + code);
+        }
+        if (INPUT_TYPES[type] == InputCommand.Type.ICE) {
+            return InputCommand.iceAction(player);
+        }
+        if (direction == 0) {
+            throw new BadIceCreamException("Movimiento sin dirección en la repetición");
+        }
+        return InputCommand.move(player, DIRECTIONS[direction - 1]);
+    }
+
+    static boolean isValidAICode(int code) {
+        return (code >> 3 & 3) < AI_TYPES.length && (code & 7) <= DIRECTIONS.length;
+    }
+}
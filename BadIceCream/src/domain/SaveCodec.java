@@ -0,0 +1,605 @@
+package domain;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Codificación binaria de las partidas guardadas. Reemplaza la serialización
+ * de Java: no guarda descriptores de clase ni un objeto por muro, y no se
+ * rompe cuando cambian las clases del dominio.
+ * <p>
+ * Formato:
+ * <pre>
+ * encabezado: int MAGIC, u8 versión, u8 reservado, int largo del contenido,
+ *             int CRC32 del contenido
+ * contenido:  enteros como varint;
+ *             reloj, modalidad, contadores y estado del azar del nivel;
+ *             datos del nivel (capas, apariciones, enemigos y oleadas) si
+ *             viene de un paquete o de un archivo importado (desde la
+ *             versión 3);
+ *             jugadores (también la IA) con su celda y su estado;
+ *             muros, hielo, hielo roto, baldosas calientes y fogatas como
+ *             mapas de bits sobre las celdas del nivel;
+ *             progreso de las oleadas, frutas y enemigos con su estado
+ * </pre>
+ * Cada clase escribe su propio estado con {@link GameObject#writeState}, de
+ * modo que una partida cargada continúa exactamente como la guardada.
+ */
+final class SaveCodec {
+    static final int MAGIC = 0x42494353; // "BICS"
+    static final int VERSION = 3;
+    // Última versión sin los datos del nivel, que se sigue pudiendo abrir
+    private static final int VERSION_WITHOUT_LEVEL_DATA = 2;
+    static final int HEADER_SIZE = 14;
+
+    // Cabecera de un flujo de serialización de Java (partidas antiguas)
+    private static final short JAVA_SERIALIZATION = (short) 0xACED;
+
+    private static final FruitType[] FRUIT_TYPES = FruitType.values();
+    private static final Direction[] DIRECTIONS = Direction.values();
+    private static final IceCreamFlavour[] FLAVOURS = IceCreamFlavour.values();
+    private static final GameMode[] MODES = GameMode.values();
+    private static final GameState[] STATES = GameState.values();
+    private static final AIProfile[] PROFILES = AIProfile.values();
+    private static final String[] ENEMY_CLASSES = { "Troll", "Pot", "OrangeSquid", "Narwhal" };
+
+    private SaveCodec() {
+        // Clase de utilidad
+    }
+
+    // ==================== CODIFICACIÓN ====================
+
+    /**
+     * Codifica una partida con su encabezado.
+     *
+     * @param game La partida, con un nivel y un jugador.
+     * @return Los bytes del archivo.
+     */
+    static byte[] encode(Game game) {
+        Level level = game.getLevel();
+        int cells = level.getWidth() * level.getHeight();
+        Output out = new Output(256 + cells);
+
+        // Partida: reloj, nivel, modalidad y contadores
+        out.varlong(level.getClock().currentTimeMillis());
+        out.varint(level.levelNumber);
+        out.varint(level.getWidth());
+        out.varint(level.getHeight());
+        out.u8(game.getGameMode().ordinal());
+        out.u8(game.getState().ordinal());
+        out.varint(game.getTimeRemaining());
+        out.varint(game.getUpdateCounter());
+        out.varlong(game.getTickCount());
+        out.u8(profileCode(game.getPlayer()));
+        out.u8(profileCode(game.getPlayer2()));
+        out.varlong(level.getRandomState());
+
+        // Jugadores: el principal y, si lo hay, el segundo (humano o IA)
+        out.u8(game.getPlayer().getFlavor().ordinal());
+        // El nivel de datos se guarda entero: su número no basta para recrearlo
+        LevelData data = level.getLevelData();
+        out.bool(data != null);
+        if (data != null) {
+            writeLevelData(out, data);
+        }
+        writeUnit(out, level, game.getPlayer());
+        out.bool(game.getPlayer2() != null);
+        if (game.getPlayer2() != null) {
+            writeUnit(out, level, game.getPlayer2());
+        }
+
+        // Tablero
+        byte[] walls = new byte[bitsetSize(cells)];
+        for (Wall wall : level.getWalls()) {
+            set(walls, level.cellOf(wall.getPosition()));
+        }
+        byte[] ice = new byte[bitsetSize(cells)];
+        byte[] brokenIce = new byte[bitsetSize(cells)];
+        for (IceBlock block : level.getIceBlocks()) {
+            int cell = level.cellOf(block.getPosition());
+            set(ice, cell);
+            if (block.isDestroyed()) {
+                set(brokenIce, cell);
+            }
+        }
+        byte[] hotTiles = new byte[bitsetSize(cells)];
+        for (HotTile tile : level.getHotTiles()) {
+            set(hotTiles, level.cellOf(tile.getPosition()));
+        }
+        byte[] campfires = new byte[bitsetSize(cells)];
+        for (Campfire fire : level.getCampfires()) {
+            set(campfires, level.cellOf(fire.getPosition()));
+        }
+        out.bytes(walls);
+        out.bytes(ice);
+        out.bytes(brokenIce);
+        out.bytes(hotTiles);
+        out.bytes(campfires);
+        // Estado de las fogatas en el orden de sus celdas
+        for (int cell = 0; cell < cells; cell++) {
+            if (get(campfires, cell)) {
+                level.getCampfireAt(cell).writeState(out);
+            }
+        }
+
+        // Oleadas
+        FruitWaveManager waves = level.getWaveManager();
+        out.bool(waves != null);
+        if (waves != null) {
+            out.varint(waves.getCurrentWave());
+            out.varint(waves.getTotalWaves());
+            FruitType type = waves.getCurrentFruitType();
+            out.u8(type == null ? 0 : type.ordinal() + 1);
+            out.bool(waves.isCompletionReported());
+        }
+        out.varint(level.getCompactedFruitCount());
+
+        // Frutas y enemigos en el orden de sus listas, que es el de actualización
+        out.varint(level.getFruits().size());
+        for (Fruit fruit : level.getFruits()) {
+            out.u8(fruit.getFruitType().ordinal());
+            out.varint(level.cellOf(fruit.getPosition()));
+            out.bool(fruit.isCollected());
+            fruit.writeState(out);
+        }
+
+        out.varint(level.getEnemies().size());
+        for (Enemy enemy : level.getEnemies()) {
+            out.u8(enemyKind(enemy));
+            writeUnit(out, level, enemy);
+        }
+
+        return withHeader(out);
+    }
+
+    private static void writeLevelData(Output out, LevelData data) {
+        int cells = data.getWidth() * data.getHeight();
+        for (int cell = 0; cell < cells; cell++) {
+            out.u8(data.getCell(cell));
+        }
+        out.varint(data.getSpawnCount());
+        for (int i = 0; i < data.getSpawnCount(); i++) {
+            out.varint(data.getSpawnCell(i));
+        }
+        out.varint(data.getEnemyCount());
+        for (int i = 0; i < data.getEnemyCount(); i++) {
+            out.u8(data.getEnemyKind(i));
+            out.varint(data.getEnemyCell(i));
+        }
+        out.varint(data.getWaveCount());
+        for (int wave = 1; wave <= data.getWaveCount(); wave++) {
+            out.u8(data.getWaveFruitType(wave).ordinal());
+            out.varint(data.getWaveSize(wave));
+            for (int i = 0; i < data.getWaveSize(wave); i++) {
+                out.varint(data.getWaveCell(wave, i));
+            }
+        }
+    }
+
+    private static void writeUnit(Output out, Level level, Unit unit) {
+        out.varint(level.cellOf(unit.getPosition()));
+        unit.writeState(out);
+    }
+
+    private static int profileCode(Player player) {
+        return player instanceof AIPlayer ? ((AIPlayer) player).getProfile().ordinal() + 1 : 0;
+    }
+
+    private static byte[] withHeader(Output payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.buffer(), 0, payload.size());
+        ByteBuffer file = ByteBuffer.allocate(HEADER_SIZE + payload.size());
+        file.putInt(MAGIC);
+        file.put((byte) VERSION);
+        file.put((byte) 0);
+        file.putInt(payload.size());
+        file.putInt((int) crc.getValue());
+        file.put(payload.buffer(), 0, payload.size());
+        return file.array();
+    }
+
+    private static int enemyKind(Enemy enemy) {
+        String name = enemy.getClass().getSimpleName();
+        for (int kind = 0; kind < ENEMY_CLASSES.length; kind++) {
+            if (ENEMY_CLASSES[kind].equals(name)) {
+                return kind;
+            }
+        }
+        return 0;
+    }
+
+    // ==================== DECODIFICACIÓN ====================
+
+    /**
+     * Decodifica una partida. Verifica el encabezado y la suma de control
+     * antes de leer el contenido.
+     *
+     * @param data  Los bytes del archivo.
+     * @param clock Reloj de la partida restaurada. Si es un reloj de ticks, se
+     *              adelanta al instante en que se guardó la partida.
+     * @return La partida restaurada.
+     * @throws BadIceCreamException Si los datos no son una partida válida.
+     */
+    static Game decode(byte[] data, GameClock clock) throws BadIceCreamException {
+        ByteBuffer in = payload(data);
+        int version = data[4] & 0xFF;
+        try {
+            return restore(in, version, clock != null ? clock : GameClock.SYSTEM);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new BadIceCreamException("La partida guardada está dañada", e);
+        }
+    }
+
+    /**
+     * Valida el encabezado y devuelve el contenido.
+     */
+    private static ByteBuffer payload(byte[] data) throws BadIceCreamException {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        if (data.length >= 2 && in.getShort(0) == JAVA_SERIALIZATION) {
+            throw new BadIceCreamException("La partida usa el formato antiguo de serialización y no se puede abrir");
+        }
+        if (data.length < HEADER_SIZE || in.getInt() != MAGIC) {
+            throw new BadIceCreamException("El archivo no es una partida guardada");
+        }
+        int version = in.get() & 0xFF;
+        if (version != VERSION && version != VERSION_WITHOUT_LEVEL_DATA) {
+            throw new BadIceCreamException("Versión de partida no soportada: " + version);
+        }
+        in.get();
+        int length = in.getInt();
+        int checksum = in.getInt();
+        if (length < 0 || length != data.length - HEADER_SIZE) {
+            throw new BadIceCreamException("La partida guardada está incompleta");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, HEADER_SIZE, length);
+        if ((int) crc.getValue() != checksum) {
+            throw new BadIceCreamException("La suma de control de la partida no coincide");
+        }
+        return in.slice();
+    }
+
+    private static Game restore(ByteBuffer in, int version, GameClock clock) throws BadIceCreamException {
+        long savedTime = varlong(in);
+        int levelNumber = varint(in);
+        int width = varint(in);
+        int height = varint(in);
+        GameMode mode = MODES[in.get()];
+        GameState state = STATES[in.get()];
+        int timeRemaining = varint(in);
+        int updateCounter = varint(in);
+        long tickCount = varlong(in);
+        AIProfile profile1 = profile(in.get());
+        AIProfile profile2 = profile(in.get());
+        long randomState = varlong(in);
+        IceCreamFlavour flavour = FLAVOURS[in.get()];
+        LevelData levelData = version > VERSION_WITHOUT_LEVEL_DATA && bool(in)
+                ? readLevelData(in, levelNumber, width, height)
+                : null;
+
+        // Un reloj de ticks continúa desde el instante guardado
+        if (clock instanceof TickClock) {
+            TickClock ticks = (TickClock) clock;
+            ticks.setTicks(savedTime / ticks.getMillisPerTick());
+        }
+
+        // La modalidad recrea los jugadores con sus sabores y perfiles
+        Game game = new Game();
+        game.setClock(clock);
+        // En la modalidad contra la máquina startGame recibe el perfil de la IA como primero
+        AIProfile first = mode == GameMode.PLAYER_VS_MACHINE ? profile2 : profile1;
+        AIProfile second = mode == GameMode.PLAYER_VS_MACHINE ? null : profile2;
+        if (levelData != null) {
+            game.startGame(levelData, flavour, mode, first, second);
+        } else {
+            game.startGame(levelNumber, flavour, mode, first, second);
+        }
+        Level level = game.getLevel();
+        if (level.getWidth() != width || level.getHeight() != height) {
+            throw new BadIceCreamException("La partida guardada no coincide con el nivel " + levelNumber);
+        }
+        int cells = width * height;
+
+        readUnit(in, level, game.getPlayer());
+        if (bool(in)) {
+            if (game.getPlayer2() == null) {
+                throw new BadIceCreamException("La partida guardada no coincide con la modalidad " + mode);
+            }
+            readUnit(in, level, game.getPlayer2());
+        }
+
+        byte[] walls = bitset(in, cells);
+        byte[] ice = bitset(in, cells);
+        byte[] brokenIce = bitset(in, cells);
+        byte[] hotTiles = bitset(in, cells);
+        byte[] campfires = bitset(in, cells);
+
+        level.getWalls().clear();
+        level.getIceBlocks().clear();
+        level.getHotTiles().clear();
+        level.getCampfires().clear();
+        for (int cell = 0; cell < cells; cell++) {
+            if (get(walls, cell)) {
+                level.getWalls().add(new Wall(position(level, cell)));
+            }
+            if (get(ice, cell)) {
+                IceBlock block = new IceBlock(position(level, cell));
+                if (get(brokenIce, cell)) {
+                    block.destroy();
+                }
+                level.getIceBlocks().add(block);
+            }
+            if (get(hotTiles, cell)) {
+                level.getHotTiles().add(new HotTile(position(level, cell)));
+            }
+            if (get(campfires, cell)) {
+                Campfire fire = new Campfire(position(level, cell));
+                level.getCampfires().add(fire);
+                fire.readState(in);
+            }
+        }
+
+        boolean hasWaves = bool(in);
+        int wave = 0;
+        FruitType waveType = null;
+        boolean completionReported = false;
+        if (hasWaves) {
+            wave = varint(in);
+            int totalWaves = varint(in);
+            int type = in.get();
+            waveType = type == 0 ? null : FRUIT_TYPES[type - 1];
+            completionReported = bool(in);
+            if (level.getWaveManager() == null || level.getWaveManager().getTotalWaves() != totalWaves) {
+                throw new BadIceCreamException("La partida guardada no coincide con las oleadas del nivel");
+            }
+        }
+        int compactedFruits = varint(in);
+
+        level.getFruits().clear();
+        int fruits = varint(in);
+        int uncollected = 0;
+        for (int i = 0; i < fruits; i++) {
+            FruitType type = FRUIT_TYPES[in.get()];
+            Fruit fruit = createFruit(type, position(level, varint(in)));
+            // Se recolecta fuera del nivel, sin avisar a las oleadas
+            if (bool(in)) {
+                fruit.collect();
+            } else {
+                uncollected++;
+            }
+            level.getFruits().add(fruit);
+            fruit.readState(in);
+        }
+
+        level.getEnemies().clear();
+        int enemies = varint(in);
+        for (int i = 0; i < enemies; i++) {
+            Enemy enemy = createEnemy(in.get(), position(level, varint(in)));
+            level.getEnemies().add(enemy);
+            enemy.readState(in);
+        }
+
+        if (hasWaves) {
+            level.getWaveManager().restore(wave, waveType, completionReported, uncollected);
+        }
+        level.setCompactedFruitCount(compactedFruits);
+        level.setRandomState(randomState);
+        game.restoreProgress(state, timeRemaining, updateCounter, tickCount);
+        return game;
+    }
+
+    private static LevelData readLevelData(ByteBuffer in, int levelNumber, int width, int height)
+            throws BadIceCreamException {
+        if (width > LevelData.MAX_SIZE || height > LevelData.MAX_SIZE) {
+            throw new BadIceCreamException("Dimensiones de nivel inválidas en la partida guardada: " + width + "x" + height);
+        }
+        byte[] cells = new byte[width * height];
+        in.get(cells);
+        int[] spawnCells = new int[varint(in)];
+        for (int i = 0; i < spawnCells.length; i++) {
+            spawnCells[i] = varint(in);
+        }
+        int enemies = varint(in);
+        byte[] enemyKinds = new byte[enemies];
+        int[] enemyCells = new int[enemies];
+        for (int i = 0; i < enemies; i++) {
+            enemyKinds[i] = in.get();
+            enemyCells[i] = varint(in);
+        }
+        int waves = varint(in);
+        FruitType[] waveTypes = new FruitType[waves];
+        int[][] waveCells = new int[waves][];
+        for (int wave = 0; wave < waves; wave++) {
+            waveTypes[wave] = FRUIT_TYPES[in.get()];
+            waveCells[wave] = new int[varint(in)];
+            for (int i = 0; i < waveCells[wave].length; i++) {
+                waveCells[wave][i] = varint(in);
+            }
+        }
+        // El constructor valida las dimensiones y las celdas
+        return new LevelData(levelNumber, width, height, cells, spawnCells, enemyKinds, enemyCells, waveTypes,
+                waveCells);
+    }
+
+    private static void readUnit(ByteBuffer in, Level level, Unit unit) throws BadIceCreamException {
+        unit.setPosition(position(level, varint(in)));
+        unit.readState(in);
+    }
+
+    private static AIProfile profile(int code) {
+        return code == 0 ? null : PROFILES[code - 1];
+    }
+
+    private static Position position(Level level, int cell) throws BadIceCreamException {
+        if (cell < 0 || cell >= level.getWidth() * level.getHeight()) {
+            throw new BadIceCreamException("Celda fuera del nivel en la partida guardada: " + cell);
+        }
+        return new Position(level.cellX(cell), level.cellY(cell));
+    }
+
+    private static Fruit createFruit(FruitType type, Position position) {
+        switch (type) {
+            case BANANA:
+                return new Banana(position);
+            case PINEAPPLE:
+                return new Pineapple(position);
+            case CHERRY:
+                return new Cherry(position);
+            case CACTUS:
+                return new Cactus(position);
+            default:
+                return new Grape(position);
+        }
+    }
+
+    private static Enemy createEnemy(int kind, Position position) throws BadIceCreamException {
+        switch (kind) {
+            case 0:
+                return new Troll(position);
+            case 1:
+                return new Pot(position);
+            case 2:
+                return new OrangeSquid(position);
+            case 3:
+                return new Narwhal(position);
+            default:
+                throw new BadIceCreamException("Tipo de enemigo inválido en la partida guardada: " + kind);
+        }
+    }
+
+    // ==================== PRIMITIVAS ====================
+
+    static int bitsetSize(int cells) {
+        return (cells + 7) >>> 3;
+    }
+
+    static void set(byte[] bits, int cell) {
+        if (cell >= 0) {
+            bits[cell >>> 3] |= 1 << (cell & 7);
+        }
+    }
+
+    static boolean get(byte[] bits, int cell) {
+        return (bits[cell >>> 3] & (1 << (cell & 7))) != 0;
+    }
+
+    private static byte[] bitset(ByteBuffer in, int cells) {
+        byte[] bits = new byte[bitsetSize(cells)];
+        in.get(bits);
+        return bits;
+    }
+
+    /**
+     * Lee un entero sin signo codificado en grupos de 7 bits.
+     */
+    static int varint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("varint demasiado largo");
+    }
+
+    /**
+     * Lee un entero largo sin signo codificado en grupos de 7 bits.
+     */
+    static long varlong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IndexOutOfBoundsException("varint demasiado largo");
+    }
+
+    static boolean bool(ByteBuffer in) {
+        return in.get() != 0;
+    }
+
+    /**
+     * Lee una dirección que puede ser null.
+     */
+    static Direction direction(ByteBuffer in) {
+        int code = in.get();
+        return code == 0 ? null : DIRECTIONS[code - 1];
+    }
+
+    /**
+     * Lee un temporizador escrito con {@link Output#timer}.
+     *
+     * @param in  El origen.
+     * @param now El instante actual del reloj del nivel.
+     * @return El instante del último cambio, o -1 si no había empezado.
+     */
+    static long timer(ByteBuffer in, long now) {
+        long elapsed = varlong(in);
+        return elapsed == 0 ? -1 : now - (elapsed - 1);
+    }
+
+    /**
+     * Buffer de salida con varints. Evita DataOutputStream para no copiar el
+     * contenido al calcular la suma de control.
+     */
+    static final class Output extends ByteArrayOutputStream {
+
+        Output(int size) {
+            super(size);
+        }
+
+        void u8(int value) {
+            write(value);
+        }
+
+        void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void bool(boolean value) {
+            write(value ? 1 : 0);
+        }
+
+        void direction(Direction direction) {
+            write(direction == null ? 0 : direction.ordinal() + 1);
+        }
+
+        /**
+         * Escribe un temporizador como el tiempo transcurrido desde su último
+         * cambio, para que no dependa del reloj con que se cargue.
+         *
+         * @param lastChange Instante del último cambio, o negativo si no empezó.
+         * @param now        Instante actual del reloj del nivel.
+         */
+        void timer(long lastChange, long now) {
+            varlong(lastChange < 0 ? 0 : now - lastChange + 1);
+        }
+
+        void bytes(byte[] data) {
+            write(data, 0, data.length);
+        }
+
+        byte[] buffer() {
+            return buf;
+        }
+    }
+}
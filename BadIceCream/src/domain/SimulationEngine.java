@@ -0,0 +1,177 @@
+package domain;
+
+import java.io.File;
+
+/**
+ * Motor de simulación sin interfaz gráfica.
+ * Avanza un {@link Game} por ticks lógicos de duración fija usando un
+ * {@link TickClock}, de modo que las fogatas, los cactus, las oleadas y el
+ * tiempo de la partida dependen solo del número de ticks y no del reloj de
+ * pared. Permite ejecutar partidas MACHINE_VS_MACHINE tan rápido como lo
+ * permita la CPU, sin Swing ni temporizadores.
+ */
+public class SimulationEngine {
+    /** Duración lógica de un tick, igual a la del bucle interactivo */
+    public static final long MILLIS_PER_TICK = 1000 / Game.UPDATES_PER_SECOND;
+    /** Ticks que dura como máximo una partida (se acaba el tiempo) */
+    public static final int MAX_MATCH_TICKS = Game.MAX_TIME * Game.UPDATES_PER_SECOND;
+
+    private final Game game;
+    private final TickClock clock;
+    private AutosaveManager autosave;
+
+    /**
+     * Constructor de la clase SimulationEngine con un juego nuevo.
+     */
+    public SimulationEngine() {
+        this(new Game());
+    }
+
+    /**
+     * Constructor de la clase SimulationEngine.
+     *
+     * @param game El juego a simular.
+     */
+    public SimulationEngine(Game game) {
+        this(game, new TickClock(MILLIS_PER_TICK));
+        game.setClock(clock);
+    }
+
+    private SimulationEngine(Game game, TickClock clock) {
+        this.game = game;
+        this.clock = clock;
+    }
+
+    /**
+     * Continúa una partida guardada. El reloj arranca en el tick en que se
+     * guardó, así que la simulación sigue igual que la original.
+     *
+     * @param file La partida guardada.
+     * @return El motor con la partida cargada.
+     * @throws BadIceCreamException Si la partida no se puede cargar.
+     */
+    public static SimulationEngine resume(File file) throws BadIceCreamException {
+        TickClock clock = new TickClock(MILLIS_PER_TICK);
+        return new SimulationEngine(GameSaveManager.open(file, clock), clock);
+    }
+
+    /**
+     * Continúa desde el punto de control válido más reciente de un
+     * autoguardado, que sigue guardando puntos durante la simulación.
+     *
+     * @param autosave El autoguardado de la partida interrumpida.
+     * @return El motor con la partida cargada.
+     * @throws BadIceCreamException Si no hay ningún punto de control válido.
+     */
+    public static SimulationEngine resumeLatest(AutosaveManager autosave) throws BadIceCreamException {
+        TickClock clock = new TickClock(MILLIS_PER_TICK);
+        SimulationEngine engine = new SimulationEngine(autosave.resumeLatest(clock), clock);
+        engine.setAutosave(autosave);
+        return engine;
+    }
+
+    /**
+     * Activa el autoguardado periódico de la simulación.
+     *
+     * @param autosave El autoguardado, o null para desactivarlo.
+     */
+    public void setAutosave(AutosaveManager autosave) {
+        this.autosave = autosave;
+    }
+
+    /**
+     * Inicia una partida entre dos IA.
+     *
+     * @param levelNumber El número del nivel.
+     * @param profile1    El perfil de la primera IA.
+     * @param profile2    El perfil de la segunda IA.
+     */
+    public void startMachineVsMachine(int levelNumber, AIProfile profile1, AIProfile profile2) {
+        game.startGame(levelNumber, IceCreamFlavour.VANILLA, GameMode.MACHINE_VS_MACHINE, profile1, profile2);
+    }
+
+    /**
+     * Inicia una partida reproducible entre dos IA: con la misma semilla, la
+     * partida se desarrolla exactamente igual.
+     *
+     * @param levelNumber El número del nivel.
+     * @param profile1    El perfil de la primera IA.
+     * @param profile2    El perfil de la segunda IA.
+     * @param seed        La semilla del azar del nivel.
+     */
+    public void startMachineVsMachine(int levelNumber, AIProfile profile1, AIProfile profile2, long seed) {
+        startMachineVsMachine(levelNumber, profile1, profile2);
+        game.getLevel().setRandomSeed(seed);
+    }
+
+    /**
+     * Avanza la simulación un tick.
+     *
+     * @return true si la partida sigue en curso después del tick.
+     */
+    public boolean step() {
+        if (game.getState() != GameState.PLAYING) {
+            return false;
+        }
+        clock.advance();
+        game.update();
+        if (autosave != null) {
+            autosave.afterTick(game);
+        }
+        return game.getState() == GameState.PLAYING;
+    }
+
+    /**
+     * Avanza la simulación hasta que la partida termine o se alcance el límite
+     * de ticks.
+     *
+     * @param maxTicks Máximo de ticks a ejecutar.
+     * @return La cantidad de ticks ejecutados.
+     */
+    public int run(int maxTicks) {
+        int executed = 0;
+        while (executed < maxTicks && game.getState() == GameState.PLAYING) {
+            step();
+            executed++;
+        }
+        return executed;
+    }
+
+    /**
+     * Ejecuta la partida hasta el final. Siempre termina, porque el tiempo de
+     * la partida se agota tras {@link #MAX_MATCH_TICKS} ticks.
+     *
+     * @return El estado final de la partida.
+     */
+    public GameState runToCompletion() {
+        run(MAX_MATCH_TICKS);
+        return game.getState();
+    }
+
+    /**
+     * Obtiene el número de ticks simulados.
+     *
+     * @return Los ticks transcurridos.
+     */
+    public long getTick() {
+        return clock.getTicks();
+    }
+
+    /**
+     * Obtiene el reloj lógico de la simulación.
+     *
+     * @return El reloj de ticks.
+     */
+    public TickClock getClock() {
+        return clock;
+    }
+
+    /**
+     * Obtiene el juego simulado.
+     *
+     * @return El juego.
+     */
+    public Game getGame() {
+        return game;
+    }
+}
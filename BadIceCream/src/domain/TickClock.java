@@ -0,0 +1,61 @@
+package domain;
+
+/**
+ * Reloj lógico que solo avanza cuando la simulación ejecuta un tick.
+ * Cada tick equivale a una cantidad fija de milisegundos de juego, de modo que
+ * la simulación puede correr más rápido que el tiempo real.
+ */
+public class TickClock implements GameClock {
+    private final long millisPerTick;
+    private long ticks;
+
+    /**
+     * Constructor de la clase TickClock.
+     *
+     * @param millisPerTick Milisegundos de juego que dura cada tick.
+     */
+    public TickClock(long millisPerTick) {
+        this.millisPerTick = millisPerTick;
+        this.ticks = 0;
+    }
+
+    /**
+     * Avanza el reloj un tick.
+     */
+    public void advance() {
+        ticks++;
+    }
+
+    /**
+     * Obtiene la cantidad de ticks transcurridos.
+     *
+     * @return Los ticks transcurridos.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Fija la cantidad de ticks transcurridos, al continuar una partida
+     * guardada.
+     *
+     * @param ticks Los ticks transcurridos.
+     */
+    void setTicks(long ticks) {
+        this.ticks = ticks;
+    }
+
+    /**
+     * Obtiene la duración de un tick.
+     *
+     * @return Milisegundos por tick.
+     */
+    public long getMillisPerTick() {
+        return millisPerTick;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return ticks * millisPerTick;
+    }
+}
@@ -0,0 +1,239 @@
+package domain;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resultados agregados de un torneo de IA por par de perfiles.
+ * Puede exportarse como CSV o JSON.
+ */
+public class TournamentReport {
+    private final List<TournamentRunner.MatchResult> results;
+    private final Map<String, PairingStats> pairings;
+
+    /**
+     * Constructor de la clase TournamentReport.
+     *
+     * @param results Resultados de las partidas, en el orden en que se
+     *                programaron.
+     */
+    public TournamentReport(List<TournamentRunner.MatchResult> results) {
+        this.results = Collections.unmodifiableList(new ArrayList<>(results));
+        this.pairings = new LinkedHashMap<>();
+        for (TournamentRunner.MatchResult result : results) {
+            String key = result.getProfile1() + "_VS_" + result.getProfile2();
+            PairingStats stats = pairings.get(key);
+            if (stats == null) {
+                stats = new PairingStats(result.getProfile1(), result.getProfile2());
+                pairings.put(key, stats);
+            }
+            stats.add(result);
+        }
+    }
+
+    /**
+     * Obtiene los resultados individuales de las partidas.
+     *
+     * @return Lista inmodificable de resultados.
+     */
+    public List<TournamentRunner.MatchResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Obtiene las estadísticas agregadas por par de perfiles.
+     *
+     * @return Lista de estadísticas, en orden de aparición.
+     */
+    public List<PairingStats> getPairings() {
+        return new ArrayList<>(pairings.values());
+    }
+
+    /**
+     * Obtiene las estadísticas de un par de perfiles.
+     *
+     * @param profile1 Perfil de la primera IA.
+     * @param profile2 Perfil de la segunda IA.
+     * @return Las estadísticas, o null si ese par no jugó.
+     */
+    public PairingStats getPairing(AIProfile profile1, AIProfile profile2) {
+        return pairings.get(profile1 + "_VS_" + profile2);
+    }
+
+    public int getMatchCount() {
+        return results.size();
+    }
+
+    /**
+     * Escribe el reporte agregado en formato CSV.
+     *
+     * @param file El archivo de destino.
+     * @throws BadIceCreamException Si ocurre un error al escribir.
+     */
+    public void writeCsv(File file) throws BadIceCreamException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("profile1,profile2,matches,wins1,wins2,draws,winRate1,winRate2,"
+                    + "avgScore1,avgScore2,avgSurvivalSeconds1,avgSurvivalSeconds2,ticksPerSecond");
+            for (PairingStats stats : pairings.values()) {
+                writer.println(String.format(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.4f,%.4f,%.2f,%.2f,%.2f,%.2f,%.1f",
+                        stats.getProfile1(), stats.getProfile2(), stats.getMatches(),
+                        stats.getWins1(), stats.getWins2(), stats.getDraws(),
+                        stats.getWinRate1(), stats.getWinRate2(),
+                        stats.getAverageScore1(), stats.getAverageScore2(),
+                        stats.getAverageSurvivalSeconds1(), stats.getAverageSurvivalSeconds2(),
+                        stats.getTicksPerSecond()));
+            }
+            BadIceCreamLog.log("Reporte de torneo CSV escrito en: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al escribir el reporte CSV: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Escribe el reporte agregado en formato JSON.
+     *
+     * @param file El archivo de destino.
+     * @throws BadIceCreamException Si ocurre un error al escribir.
+     */
+    public void writeJson(File file) throws BadIceCreamException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println("{");
+            writer.println("  \"matches\": " + results.size() + ",");
+            writer.println("  \"pairings\": [");
+            int i = 0;
+            for (PairingStats stats : pairings.values()) {
+                writer.print(String.format(Locale.ROOT,
+                        "    {\"profile1\": \"%s\", \"profile2\": \"%s\", \"matches\": %d, "
+                                + "\"wins1\": %d, \"wins2\": %d, \"draws\": %d, "
+                                + "\"winRate1\": %.4f, \"winRate2\": %.4f, "
+                                + "\"avgScore1\": %.2f, \"avgScore2\": %.2f, "
+                                + "\"avgSurvivalSeconds1\": %.2f, \"avgSurvivalSeconds2\": %.2f, "
+                                + "\"ticksPerSecond\": %.1f}",
+                        stats.getProfile1(), stats.getProfile2(), stats.getMatches(),
+                        stats.getWins1(), stats.getWins2(), stats.getDraws(),
+                        stats.getWinRate1(), stats.getWinRate2(),
+                        stats.getAverageScore1(), stats.getAverageScore2(),
+                        stats.getAverageSurvivalSeconds1(), stats.getAverageSurvivalSeconds2(),
+                        stats.getTicksPerSecond()));
+                writer.println(++i < pairings.size() ? "," : "");
+            }
+            writer.println("  ]");
+            writer.println("}");
+            BadIceCreamLog.log("Reporte de torneo JSON escrito en: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error al escribir el reporte JSON: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Estadísticas acumuladas de un par de perfiles.
+     */
+    public static class PairingStats {
+        private final AIProfile profile1;
+        private final AIProfile profile2;
+        private int matches;
+        private int wins1;
+        private int wins2;
+        private int draws;
+        private long totalScore1;
+        private long totalScore2;
+        private long totalSurvivalTicks1;
+        private long totalSurvivalTicks2;
+        private long totalTicks;
+        private long totalNanos;
+
+        PairingStats(AIProfile profile1, AIProfile profile2) {
+            this.profile1 = profile1;
+            this.profile2 = profile2;
+        }
+
+        void add(TournamentRunner.MatchResult result) {
+            matches++;
+            switch (result.getWinner()) {
+                case 1:
+                    wins1++;
+                    break;
+                case 2:
+                    wins2++;
+                    break;
+                default:
+                    draws++;
+                    break;
+            }
+            totalScore1 += result.getScore1();
+            totalScore2 += result.getScore2();
+            totalSurvivalTicks1 += result.getSurvivalTicks1();
+            totalSurvivalTicks2 += result.getSurvivalTicks2();
+            totalTicks += result.getTicks();
+            totalNanos += result.getElapsedNanos();
+        }
+
+        public AIProfile getProfile1() {
+            return profile1;
+        }
+
+        public AIProfile getProfile2() {
+            return profile2;
+        }
+
+        public int getMatches() {
+            return matches;
+        }
+
+        public int getWins1() {
+            return wins1;
+        }
+
+        public int getWins2() {
+            return wins2;
+        }
+
+        public int getDraws() {
+            return draws;
+        }
+
+        public double getWinRate1() {
+            return matches == 0 ? 0 : wins1 / (double) matches;
+        }
+
+        public double getWinRate2() {
+            return matches == 0 ? 0 : wins2 / (double) matches;
+        }
+
+        public double getAverageScore1() {
+            return matches == 0 ? 0 : totalScore1 / (double) matches;
+        }
+
+        public double getAverageScore2() {
+            return matches == 0 ? 0 : totalScore2 / (double) matches;
+        }
+
+        public double getAverageSurvivalSeconds1() {
+            return matches == 0 ? 0 : totalSurvivalTicks1 / (double) matches / Game.UPDATES_PER_SECOND;
+        }
+
+        public double getAverageSurvivalSeconds2() {
+            return matches == 0 ? 0 : totalSurvivalTicks2 / (double) matches / Game.UPDATES_PER_SECOND;
+        }
+
+        /**
+         * Velocidad de simulación de este par (ticks por segundo de CPU de cada
+         * partida, sin contar el paralelismo).
+         *
+         * @return Ticks simulados por segundo.
+         */
+        public double getTicksPerSecond() {
+            return totalNanos == 0 ? 0 : totalTicks * 1_000_000_000.0 / totalNanos;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package domain;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Torneo de partidas MACHINE_VS_MACHINE entre perfiles de IA.
+ * Enfrenta cada par de perfiles en cada nivel una cantidad fija de veces,
+ * reparte las partidas en un pool fork-join y usa semillas derivadas de una
+ * semilla base, de modo que el mismo torneo produce siempre los mismos
+ * resultados.
+ */
+public class TournamentRunner {
+    // Constante de mezcla para derivar semillas distintas por partida
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    private final int[] levels;
+    private final AIProfile[] profiles;
+    private final int matchesPerPairing;
+    private final long baseSeed;
+    private final int parallelism;
+    private final int plannerWorkers;
+
+    /**
+     * Constructor de la clase TournamentRunner.
+     *
+     * @param levels            Niveles en los que se juega.
+     * @param profiles          Perfiles que participan (se enfrentan todos los
+     *                          pares ordenados).
+     * @param matchesPerPairing Partidas por par de perfiles y nivel.
+     * @param baseSeed          Semilla base del torneo.
+     * @param parallelism       Hilos del pool.
+     */
+    public TournamentRunner(int[] levels, AIProfile[] profiles, int matchesPerPairing, long baseSeed,
+            int parallelism) {
+        this(levels, profiles, matchesPerPairing, baseSeed, parallelism, 1);
+    }
+
+    /**
+     * Constructor de la clase TournamentRunner con búsqueda en paralelo para
+     * el perfil PLANNER.
+     *
+     * @param levels            Niveles en los que se juega.
+     * @param profiles          Perfiles que participan (se enfrentan todos los
+     *                          pares ordenados).
+     * @param matchesPerPairing Partidas por par de perfiles y nivel.
+     * @param baseSeed          Semilla base del torneo.
+     * @param parallelism       Hilos del pool.
+     * @param plannerWorkers    Árboles entre los que cada IA PLANNER reparte
+     *                          sus simulaciones.
+     */
+    public TournamentRunner(int[] levels, AIProfile[] profiles, int matchesPerPairing, long baseSeed,
+            int parallelism, int plannerWorkers) {
+        this.levels = levels.clone();
+        this.profiles = profiles.clone();
+        this.matchesPerPairing = matchesPerPairing;
+        this.baseSeed = baseSeed;
+        this.parallelism = Math.max(1, parallelism);
+        this.plannerWorkers = Math.max(1, plannerWorkers);
+    }
+
+    /**
+     * Ejecuta todas las partidas del torneo.
+     *
+     * @return El reporte con los resultados agregados.
+     * @throws BadIceCreamException Si alguna partida falla o se interrumpe.
+     */
+    public TournamentReport run() throws BadIceCreamException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            List<Future<MatchResult>> futures = new ArrayList<>();
+            long matchIndex = 0;
+            for (int level : levels) {
+                for (AIProfile profile1 : profiles) {
+                    for (AIProfile profile2 : profiles) {
+                        for (int i = 0; i < matchesPerPairing; i++) {
+                            long seed = baseSeed + (matchIndex++) * SEED_STEP;
+                            futures.add(pool.submit(() -> playMatch(level, profile1, profile2, seed, plannerWorkers)));
+                        }
+                    }
+                }
+            }
+
+            List<MatchResult> results = new ArrayList<>(futures.size());
+            for (Future<MatchResult> future : futures) {
+                results.add(future.get());
+            }
+            return new TournamentReport(results);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BadIceCreamException("Torneo interrumpido", e);
+        } catch (ExecutionException e) {
+            BadIceCreamLog.log(e);
+            throw new BadIceCreamException("Error en una partida del torneo: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Juega una partida completa sin interfaz.
+     *
+     * @param levelNumber El nivel.
+     * @param profile1    Perfil de la primera IA.
+     * @param profile2    Perfil de la segunda IA.
+     * @param seed        Semilla del azar de la partida.
+     * @return El resultado de la partida.
+     */
+    public static MatchResult playMatch(int levelNumber, AIProfile profile1, AIProfile profile2, long seed) {
+        return playMatch(levelNumber, profile1, profile2, seed, 1);
+    }
+
+    /**
+     * Juega una partida completa sin interfaz, repartiendo la búsqueda del
+     * perfil PLANNER entre varios árboles. El resultado no depende de esa
+     * cantidad de hilos, solo de la de árboles.
+     *
+     * @param levelNumber    El nivel.
+     * @param profile1       Perfil de la primera IA.
+     * @param profile2       Perfil de la segunda IA.
+     * @param seed           Semilla del azar de la partida.
+     * @param plannerWorkers Árboles de búsqueda de cada IA PLANNER.
+     * @return El resultado de la partida.
+     */
+    public static MatchResult playMatch(int levelNumber, AIProfile profile1, AIProfile profile2, long seed,
+            int plannerWorkers) {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(levelNumber, profile1, profile2, seed);
+        Game game = engine.getGame();
+        AIPlayer ai1 = game.getAIPlayer1();
+        AIPlayer ai2 = game.getAIPlayer2();
+        ai1.setPlannerWorkers(plannerWorkers);
+        ai2.setPlannerWorkers(plannerWorkers);
+
+        long survival1 = -1;
+        long survival2 = -1;
+        long start = System.nanoTime();
+        while (engine.getTick() < SimulationEngine.MAX_MATCH_TICKS && engine.step()) {
+            if (survival1 < 0 && !ai1.isAlive()) {
+                survival1 = engine.getTick();
+            }
+            if (survival2 < 0 && !ai2.isAlive()) {
+                survival2 = engine.getTick();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // Quien no murió antes sobrevivió hasta el final de la partida
+        long ticks = engine.getTick();
+        if (survival1 < 0) {
+            survival1 = ticks;
+        }
+        if (survival2 < 0) {
+            survival2 = ticks;
+        }
+
+        return new MatchResult(levelNumber, profile1, profile2, seed, game.getState(),
+                ai1.getScore(), ai2.getScore(), survival1, survival2, ticks, elapsed);
+    }
+
+    /**
+     * Punto de entrada para ejecutar un torneo desde la línea de comandos.
+     * Argumentos opcionales: partidas por par, semilla, hilos, archivo CSV,
+     * archivo JSON, árboles del perfil PLANNER.
+     *
+     * @param args Argumentos de la línea de comandos.
+     */
+    public static void main(String[] args) {
+        int matches = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        File csv = new File(args.length > 3 ? args[3] : "tournament.csv");
+        File json = new File(args.length > 4 ? args[4] : "tournament.json");
+        int plannerWorkers = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+
+        TournamentRunner runner = new TournamentRunner(new int[] { 1, 2, 3 }, AIProfile.values(), matches, seed,
+                threads, plannerWorkers);
+        try {
+            TournamentReport report = runner.run();
+            report.writeCsv(csv);
+            report.writeJson(json);
+            System.out.println(report.getMatchCount() + " partidas jugadas. Reportes: " + csv.getAbsolutePath()
+                    + ", " + json.getAbsolutePath());
+            for (AIProfile profile : AIProfile.values()) {
+                LatencyHistogram latency = AIScheduler.getLatency(profile);
+                System.out.printf("%-8s decisiones: %d, p50: %d us, p99: %d us%n", profile.getName(),
+                        latency.getCount(), latency.getP50() / 1000, latency.getP99() / 1000);
+            }
+        } catch (BadIceCreamException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Resultado de una partida del torneo.
+     */
+    public static class MatchResult {
+        private final int levelNumber;
+        private final AIProfile profile1;
+        private final AIProfile profile2;
+        private final long seed;
+        private final GameState finalState;
+        private final int score1;
+        private final int score2;
+        private final long survivalTicks1;
+        private final long survivalTicks2;
+        private final long ticks;
+        private final long elapsedNanos;
+
+        MatchResult(int levelNumber, AIProfile profile1, AIProfile profile2, long seed, GameState finalState,
+                int score1, int score2, long survivalTicks1, long survivalTicks2, long ticks, long elapsedNanos) {
+            this.levelNumber = levelNumber;
+            this.profile1 = profile1;
+            this.profile2 = profile2;
+            this.seed = seed;
+            this.finalState = finalState;
+            this.score1 = score1;
+            this.score2 = score2;
+            this.survivalTicks1 = survivalTicks1;
+            this.survivalTicks2 = survivalTicks2;
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Obtiene el ganador de la partida por puntaje.
+         *
+         * @return 1 o 2 según la IA ganadora, 0 si hay empate.
+         */
+        public int getWinner() {
+            if (score1 > score2) {
+                return 1;
+            }
+            if (score2 > score1) {
+                return 2;
+            }
+            return 0;
+        }
+
+        public int getLevelNumber() {
+            return levelNumber;
+        }
+
+        public AIProfile getProfile1() {
+            return profile1;
+        }
+
+        public AIProfile getProfile2() {
+            return profile2;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        public GameState getFinalState() {
+            return finalState;
+        }
+
+        public int getScore1() {
+            return score1;
+        }
+
+        public int getScore2() {
+            return score2;
+        }
+
+        public long getSurvivalTicks1() {
+            return survivalTicks1;
+        }
+
+        public long getSurvivalTicks2() {
+            return survivalTicks2;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
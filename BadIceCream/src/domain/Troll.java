@@ -1,15 +1,14 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Representa un enemigo de tipo "Troll".
  * Este enemigo patrulla los bordes del nivel y cambia de dirección al encontrar
  * esquinas u obstáculos.
  */
 public class Troll extends Enemy {
-    private Direction currentDirection;
-    private int moveCounter;
     private static final int MOVE_DELAY = 10; // Movimiento más lento
-    private int blockedCounter; // Contador para cuando está bloqueado
 
     /**
      * Constructor de la clase Troll.
@@ -18,10 +17,8 @@ public class Troll extends Enemy {
      */
     public Troll(Position position) {
         super(position, EnemyType.TROLL);
-        this.moveCounter = 0;
-        this.blockedCounter = 0;
         // Determinar dirección inicial basada en la posición en el borde
-        this.currentDirection = determineInitialDirection(position);
+        motion.direction = determineInitialDirection(position);
     }
 
     /**
@@ -71,36 +68,51 @@ public class Troll extends Enemy {
      */
     @Override
     public Position getNextPosition(Level level, Player player) {
-        Position nextPos = position.add(currentDirection);
+        motion.cell = level.cellOf(position);
+        int next = patrolCell(level, motion);
+        return next >= 0 ? level.positionOf(next) : position;
+    }
+
+    /**
+     * Elige la celda siguiente de la patrulla y actualiza la dirección y el
+     * contador de bloqueo del estado dado.
+     * 
+     * @param level  El nivel actual.
+     * @param motion El estado de movimiento del troll.
+     * @return La celda siguiente, que puede ser la actual o no ser válida.
+     */
+    private int patrolCell(Level level, EnemyMotion motion) {
+        int cell = motion.cell;
+        int next = level.neighbor(cell, motion.direction);
 
         // Verificar si la siguiente posición es válida
-        if (!isValidBorderPosition(nextPos, level)) {
+        if (!isValidBorderCell(next, level)) {
             // Si está bloqueado por hielo, esperar
-            if (level.isIceBlock(nextPos)) {
-                blockedCounter++;
+            if (level.isIceBlock(next)) {
+                motion.blockedCounter++;
                 // Si ha estado bloqueado por mucho tiempo, intentar retroceder
-                if (blockedCounter > 5) {
-                    currentDirection = getOppositeDirection(currentDirection);
-                    blockedCounter = 0;
+                if (motion.blockedCounter > 5) {
+                    motion.direction = getOppositeDirection(motion.direction);
+                    motion.blockedCounter = 0;
                 }
-                return position; // Quedarse en la posición actual
+                return cell; // Quedarse en la posición actual
             }
 
             // Cambiar dirección en la esquina o cuando encuentra obstáculo
-            changeDirectionAtCorner();
-            nextPos = position.add(currentDirection);
+            changeDirectionAtCorner(level, motion);
+            next = level.neighbor(cell, motion.direction);
 
             // Si aún no es válida, intentar otra dirección
-            if (!isValidBorderPosition(nextPos, level)) {
-                changeDirectionAtCorner();
-                nextPos = position.add(currentDirection);
+            if (!isValidBorderCell(next, level)) {
+                changeDirectionAtCorner(level, motion);
+                next = level.neighbor(cell, motion.direction);
             }
         } else {
             // Si se puede mover, resetear el contador de bloqueo
-            blockedCounter = 0;
+            motion.blockedCounter = 0;
         }
 
-        return nextPos;
+        return next;
     }
 
     /**
@@ -112,34 +124,45 @@ public class Troll extends Enemy {
      * @return true si la posición es válida.
      */
     private boolean isValidBorderPosition(Position pos, Level level) {
+        return isValidBorderCell(level.cellOf(pos), level);
+    }
+
+    /**
+     * Verifica si una celda es válida para el troll (debe estar en el borde y
+     * libre de obstáculos).
+     * 
+     * @param cell  La celda a verificar (-1 si no hay celda).
+     * @param level El nivel actual.
+     * @return true si la celda es válida.
+     */
+    private boolean isValidBorderCell(int cell, Level level) {
+        if (cell < 0) {
+            return false;
+        }
+
         // Verificar que está dentro de los límites
-        if (pos.getX() < 1 || pos.getX() > 13 || pos.getY() < 1 || pos.getY() > 9) {
+        int x = level.cellX(cell);
+        int y = level.cellY(cell);
+        if (x < 1 || x > 13 || y < 1 || y > 9) {
             return false;
         }
 
         // Verificar que está en el borde (perímetro del área jugable)
-        boolean isOnBorder = pos.getX() == 1 || pos.getX() == 13 ||
-                pos.getY() == 1 || pos.getY() == 9;
+        boolean isOnBorder = x == 1 || x == 13 ||
+                y == 1 || y == 9;
 
         if (!isOnBorder) {
             return false;
         }
 
-        // Verificar que no hay paredes u obstáculos (incluyendo bloques de hielo)
-        if (!level.canMoveTo(pos)) {
-            return false;
-        }
-
-        // Verificar que no hay bloques de hielo
-        if (level.isIceBlock(pos)) {
+        // Verificar que no hay paredes ni bloques de hielo
+        if (!level.canMoveTo(cell)) {
             return false;
         }
 
         // Verificar que no hay otro enemigo en esa posición
-        for (Enemy enemy : level.getEnemies()) {
-            if (enemy != this && enemy.isAlive() && enemy.getPosition().equals(pos)) {
-                return false;
-            }
+        if (level.hasOtherEnemyAt(cell, this)) {
+            return false;
         }
 
         return true;
@@ -168,10 +191,14 @@ public class Troll extends Enemy {
 
     /**
      * Cambia la dirección del troll cuando llega a una esquina o borde.
+     * 
+     * @param level  El nivel actual.
+     * @param motion El estado de movimiento del troll.
      */
-    private void changeDirectionAtCorner() {
-        int x = position.getX();
-        int y = position.getY();
+    private void changeDirectionAtCorner(Level level, EnemyMotion motion) {
+        int x = level.cellX(motion.cell);
+        int y = level.cellY(motion.cell);
+        Direction currentDirection = motion.direction;
 
         // Esquinas
         if (x == 1 && y == 1) {
@@ -209,18 +236,24 @@ public class Troll extends Enemy {
                 currentDirection = Direction.UP;
             }
         }
+        motion.direction = currentDirection;
     }
 
     @Override
     public void updateBehavior(Level level, Player player) {
-        moveCounter++;
-        if (moveCounter >= MOVE_DELAY) {
-            moveCounter = 0;
-            Position nextPos = getNextPosition(level, player);
+        step(level, player);
+    }
+
+    @Override
+    void advance(EnemyMotion motion, Level level, Position target) {
+        motion.moveCounter++;
+        if (motion.moveCounter >= MOVE_DELAY) {
+            motion.moveCounter = 0;
+            int next = patrolCell(level, motion);
 
             // Solo moverse si la posición es diferente a la actual y es válida
-            if (!nextPos.equals(position) && isValidBorderPosition(nextPos, level)) {
-                move(nextPos);
+            if (next != motion.cell && isValidBorderCell(next, level)) {
+                motion.cell = next;
             }
         }
     }
@@ -234,4 +267,25 @@ public class Troll extends Enemy {
     public String getSymbol() {
         return "T";
     }
+
+    @Override
+    int getMoveDelay() {
+        return MOVE_DELAY;
+    }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        super.writeState(out);
+        out.direction(motion.direction);
+        out.varint(motion.moveCounter);
+        out.varint(motion.blockedCounter);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        super.readState(in);
+        motion.direction = SaveCodec.direction(in);
+        motion.moveCounter = SaveCodec.varint(in);
+        motion.blockedCounter = SaveCodec.varint(in);
+    }
 }
\ No newline at end of file
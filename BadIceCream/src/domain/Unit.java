@@ -1,5 +1,7 @@
 package domain;
 
+import java.nio.ByteBuffer;
+
 /**
  * Clase abstracta que representa una unidad en el juego.
  * Las unidades son entidades que tienen vida, velocidad y pueden moverse (como
@@ -30,7 +32,7 @@ public abstract class Unit extends GameObject implements Movable, Alive {
     @Override
     public void move(Position newPosition) {
         if (alive) {
-            this.position = newPosition;
+            setPosition(newPosition);
         }
     }
 
@@ -69,7 +71,9 @@ public abstract class Unit extends GameObject implements Movable, Alive {
      */
     @Override
     public void die() {
+        detachFromGrid();
         this.alive = false;
+        attachToGrid();
     }
 
     /**
@@ -77,7 +81,9 @@ public abstract class Unit extends GameObject implements Movable, Alive {
      */
     @Override
     public void revive() {
+        detachFromGrid();
         this.alive = true;
+        attachToGrid();
     }
 
     /**
@@ -102,4 +108,26 @@ public abstract class Unit extends GameObject implements Movable, Alive {
     public String getType() {
         return "Unit";
     }
+
+    @Override
+    void writeState(SaveCodec.Output out) {
+        out.direction(direction);
+        out.bool(alive);
+        out.varint(speed);
+    }
+
+    @Override
+    void readState(ByteBuffer in) {
+        direction = SaveCodec.direction(in);
+        boolean savedAlive = SaveCodec.bool(in);
+        speed = SaveCodec.varint(in);
+        // Morir y revivir mantienen al día el índice de ocupación
+        if (savedAlive != alive) {
+            if (savedAlive) {
+                revive();
+            } else {
+                die();
+            }
+        }
+    }
 }
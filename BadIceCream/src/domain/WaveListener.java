@@ -0,0 +1,23 @@
+package domain;
+
+/**
+ * Interfaz para escuchar los cambios de oleada de frutas de un nivel.
+ * Los eventos los emite FruitWaveManager en el momento en que ocurren, sin
+ * recorrer la lista de frutas.
+ */
+public interface WaveListener {
+    /**
+     * Se llama cuando comienza una oleada.
+     *
+     * @param wave      Número de la oleada.
+     * @param fruitType Tipo de fruta de la oleada.
+     */
+    void onWaveStarted(int wave, FruitType fruitType);
+
+    /**
+     * Se llama cuando se recoge la última fruta de la oleada en curso.
+     *
+     * @param wave Número de la oleada completada.
+     */
+    void onWaveCompleted(int wave);
+}
@@ -0,0 +1,370 @@
+package domain;
+
+import java.util.List;
+
+/**
+ * Vista inmutable del mundo al final de un tick. El juego publica una nueva
+ * instantánea en cada tick a través de una única referencia volátil, de modo
+ * que el tablero y el HUD leen un estado consistente desde otros hilos sin
+ * bloqueos y sin copiar listas del nivel.
+ * <p>
+ * Todo se guarda en arreglos primitivos indexados por celda empaquetada
+ * (y * ancho + x) o por índice de unidad. La capa estática (muros y baldosas
+ * calientes) se comparte entre todas las instantáneas del mismo nivel.
+ */
+public final class WorldSnapshot {
+    // Capa estática
+    public static final byte FLOOR = 0;
+    public static final byte WALL = 1;
+    public static final byte HOT_TILE = 2;
+
+    // Capa dinámica del suelo
+    public static final byte EMPTY = 0;
+    public static final byte ICE = 1;
+    public static final byte CAMPFIRE_LIT = 2;
+    public static final byte CAMPFIRE_OUT = 3;
+
+    // Frutas: 0 sin fruta, si no FruitType.ordinal() + 1, con la marca de púas
+    public static final byte NO_FRUIT = 0;
+    public static final byte FRUIT_THORNS = 0x40;
+    private static final byte FRUIT_TYPE_MASK = 0x3F;
+
+    // Enemigos
+    public static final byte TROLL = 0;
+    public static final byte POT = 1;
+    public static final byte ORANGE_SQUID = 2;
+    public static final byte NARWHAL = 3;
+
+    private static final FruitType[] FRUIT_TYPES = FruitType.values();
+
+    private final long tick;
+    private final GameState state;
+    private final GameMode mode;
+    private final int levelNumber;
+    private final int width;
+    private final int height;
+    private final int timeRemaining;
+    private final int fruitsCollected;
+    private final int fruitsTotal;
+
+    private final byte[] staticCells;
+    private final byte[] groundCells;
+    private final byte[] fruitCells;
+
+    private final int[] enemyCells;
+    private final byte[] enemyKinds;
+
+    // Dos posiciones de jugador: 0 es el jugador principal y 1 el segundo
+    private final int[] playerCells;
+    private final boolean[] playerAlive;
+    private final int[] playerScores;
+    private final IceCreamFlavour[] playerFlavours;
+    private final AIProfile[] playerProfiles;
+
+    private WorldSnapshot(long tick, GameState state, GameMode mode, int levelNumber, int width, int height,
+            int timeRemaining, int fruitsCollected, int fruitsTotal, byte[] staticCells, byte[] groundCells,
+            byte[] fruitCells, int[] enemyCells, byte[] enemyKinds, int[] playerCells, boolean[] playerAlive,
+            int[] playerScores, IceCreamFlavour[] playerFlavours, AIProfile[] playerProfiles) {
+        this.tick = tick;
+        this.state = state;
+        this.mode = mode;
+        this.levelNumber = levelNumber;
+        this.width = width;
+        this.height = height;
+        this.timeRemaining = timeRemaining;
+        this.fruitsCollected = fruitsCollected;
+        this.fruitsTotal = fruitsTotal;
+        this.staticCells = staticCells;
+        this.groundCells = groundCells;
+        this.fruitCells = fruitCells;
+        this.enemyCells = enemyCells;
+        this.enemyKinds = enemyKinds;
+        this.playerCells = playerCells;
+        this.playerAlive = playerAlive;
+        this.playerScores = playerScores;
+        this.playerFlavours = playerFlavours;
+        this.playerProfiles = playerProfiles;
+    }
+
+    /**
+     * Genera la capa estática de un nivel. Se calcula una vez por nivel.
+     *
+     * @param level El nivel.
+     * @return Un arreglo con FLOOR, WALL o HOT_TILE por celda.
+     */
+    static byte[] captureStaticCells(Level level) {
+        byte[] cells = new byte[level.getWidth() * level.getHeight()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (level.isWall(cell)) {
+                cells[cell] = WALL;
+            } else if (level.isHotTile(cell)) {
+                cells[cell] = HOT_TILE;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Captura el estado actual de un juego.
+     *
+     * @param game        El juego.
+     * @param tick        Número de tick.
+     * @param staticCells Capa estática del nivel actual.
+     * @return La instantánea, o null si no hay nivel.
+     */
+    static WorldSnapshot capture(Game game, long tick, byte[] staticCells) {
+        Level level = game.getLevel();
+        if (level == null) {
+            return null;
+        }
+        int width = level.getWidth();
+        int height = level.getHeight();
+        int cells = width * height;
+
+        byte[] groundCells = new byte[cells];
+        byte[] fruitCells = new byte[cells];
+        for (int cell = 0; cell < cells; cell++) {
+            if (level.isIceBlock(cell)) {
+                groundCells[cell] = ICE;
+            } else if (level.isCampfire(cell)) {
+                Campfire fire = level.getCampfireAt(cell);
+                groundCells[cell] = (fire != null && fire.isLit()) ? CAMPFIRE_LIT : CAMPFIRE_OUT;
+            }
+
+            Fruit fruit = level.getFruitAt(cell);
+            if (fruit != null && !fruit.isCollected()) {
+                byte code = (byte) (fruit.getFruitType().ordinal() + 1);
+                if (fruit instanceof Cactus && ((Cactus) fruit).hasThorns()) {
+                    code |= FRUIT_THORNS;
+                }
+                fruitCells[cell] = code;
+            }
+        }
+
+        // Las frutas de oleadas pasadas ya no están en la lista del nivel
+        List<Fruit> fruits = level.getFruits();
+        int compacted = level.getCompactedFruitCount();
+        int collected = compacted;
+        for (Fruit fruit : fruits) {
+            if (fruit.isCollected()) {
+                collected++;
+            }
+        }
+
+        List<Enemy> enemies = level.getEnemies();
+        int alive = 0;
+        for (Enemy enemy : enemies) {
+            if (enemy.isAlive()) {
+                alive++;
+            }
+        }
+        int[] enemyCells = new int[alive];
+        byte[] enemyKinds = new byte[alive];
+        int index = 0;
+        for (Enemy enemy : enemies) {
+            if (enemy.isAlive()) {
+                enemyCells[index] = level.cellOf(enemy.getPosition());
+                enemyKinds[index] = enemyKind(enemy);
+                index++;
+            }
+        }
+
+        int[] playerCells = { -1, -1 };
+        boolean[] playerAlive = new boolean[2];
+        int[] playerScores = new int[2];
+        IceCreamFlavour[] playerFlavours = new IceCreamFlavour[2];
+        AIProfile[] playerProfiles = new AIProfile[2];
+        Player[] players = { game.getPlayer(), game.getPlayer2() };
+        for (int i = 0; i < players.length; i++) {
+            Player player = players[i];
+            if (player != null) {
+                playerCells[i] = level.cellOf(player.getPosition());
+                playerAlive[i] = player.isAlive();
+                playerScores[i] = player.getScore();
+                playerFlavours[i] = player.getFlavor();
+                playerProfiles[i] = player instanceof AIPlayer ? ((AIPlayer) player).getProfile() : null;
+            }
+        }
+
+        return new WorldSnapshot(tick, game.getState(), game.getGameMode(), level.levelNumber, width, height,
+                game.getTimeRemaining(), collected, compacted + fruits.size(), staticCells, groundCells, fruitCells,
+                enemyCells, enemyKinds, playerCells, playerAlive, playerScores, playerFlavours, playerProfiles);
+    }
+
+    private static byte enemyKind(Enemy enemy) {
+        if (enemy instanceof Narwhal) {
+            return NARWHAL;
+        }
+        switch (enemy.getEnemyType()) {
+            case POT:
+                return POT;
+            case ORANGE_SQUID:
+                return ORANGE_SQUID;
+            default:
+                return TROLL;
+        }
+    }
+
+    /**
+     * Copia de esta instantánea con otro estado de juego (pausa, reanudar).
+     * Comparte todos los arreglos.
+     *
+     * @param newState El nuevo estado.
+     * @return La nueva instantánea.
+     */
+    WorldSnapshot withState(GameState newState) {
+        return new WorldSnapshot(tick, newState, mode, levelNumber, width, height, timeRemaining,
+                fruitsCollected, fruitsTotal, staticCells, groundCells, fruitCells, enemyCells, enemyKinds,
+                playerCells, playerAlive, playerScores, playerFlavours, playerProfiles);
+    }
+
+    /**
+     * Indica si otra instantánea pertenece al mismo nivel (misma capa
+     * estática).
+     *
+     * @param other La otra instantánea.
+     * @return true si ambas comparten la capa estática.
+     */
+    public boolean sameLayout(WorldSnapshot other) {
+        return other != null && other.staticCells == staticCells;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public GameState getState() {
+        return state;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public int getLevelNumber() {
+        return levelNumber;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTimeRemaining() {
+        return timeRemaining;
+    }
+
+    public int getFruitsCollected() {
+        return fruitsCollected;
+    }
+
+    public int getFruitsTotal() {
+        return fruitsTotal;
+    }
+
+    public int cellX(int cell) {
+        return cell % width;
+    }
+
+    public int cellY(int cell) {
+        return cell / width;
+    }
+
+    /**
+     * Capa estática de una celda.
+     *
+     * @param cell La celda.
+     * @return FLOOR, WALL o HOT_TILE.
+     */
+    public byte getStaticCell(int cell) {
+        return staticCells[cell];
+    }
+
+    /**
+     * Capa dinámica del suelo de una celda.
+     *
+     * @param cell La celda.
+     * @return EMPTY, ICE, CAMPFIRE_LIT o CAMPFIRE_OUT.
+     */
+    public byte getGroundCell(int cell) {
+        return groundCells[cell];
+    }
+
+    /**
+     * Tipo de la fruta sin recoger en una celda.
+     *
+     * @param cell La celda.
+     * @return El tipo, o null si no hay fruta.
+     */
+    public FruitType getFruitType(int cell) {
+        int code = fruitCells[cell] & FRUIT_TYPE_MASK;
+        return code == NO_FRUIT ? null : FRUIT_TYPES[code - 1];
+    }
+
+    /**
+     * Indica si la fruta de una celda es un cactus con púas.
+     *
+     * @param cell La celda.
+     * @return true si tiene púas.
+     */
+    public boolean hasThorns(int cell) {
+        return (fruitCells[cell] & FRUIT_THORNS) != 0;
+    }
+
+    public int getEnemyCount() {
+        return enemyCells.length;
+    }
+
+    public int getEnemyCell(int index) {
+        return enemyCells[index];
+    }
+
+    /**
+     * Clase de un enemigo.
+     *
+     * @param index Índice del enemigo.
+     * @return TROLL, POT, ORANGE_SQUID o NARWHAL.
+     */
+    public byte getEnemyKind(int index) {
+        return enemyKinds[index];
+    }
+
+    /**
+     * Indica si hay un jugador en una posición.
+     *
+     * @param index 0 para el jugador principal, 1 para el segundo.
+     * @return true si existe.
+     */
+    public boolean hasPlayer(int index) {
+        return playerCells[index] >= 0;
+    }
+
+    public int getPlayerCell(int index) {
+        return playerCells[index];
+    }
+
+    public boolean isPlayerAlive(int index) {
+        return playerAlive[index];
+    }
+
+    public int getPlayerScore(int index) {
+        return playerScores[index];
+    }
+
+    public IceCreamFlavour getPlayerFlavour(int index) {
+        return playerFlavours[index];
+    }
+
+    /**
+     * Perfil de IA de un jugador.
+     *
+     * @param index 0 para el jugador principal, 1 para el segundo.
+     * @return El perfil, o null si el jugador es humano.
+     */
+    public AIProfile getPlayerProfile(int index) {
+        return playerProfiles[index];
+    }
+}
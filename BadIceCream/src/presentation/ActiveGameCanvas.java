@@ -0,0 +1,226 @@
+package presentation;
+
+import domain.*;
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lienzo con renderizado activo. Un único hilo avanza la simulación con un
+ * paso fijo de {@link Game#UPDATES_PER_SECOND} ticks por segundo y, entre
+ * ticks, dibuja tantos cuadros como pueda sobre un BufferStrategy,
+ * interpolando la posición de las unidades. Muestra los cuadros por segundo
+ * y el tiempo del último tick.
+ * <p>
+ * Es la alternativa al bucle con Timer y GameListener de GameFrame, que sigue
+ * disponible.
+ * <p>
+ * Sin límite de cuadros el hilo descansa {@link #UNCAPPED_PAUSE_NANOS} entre
+ * cuadros para no ocupar un núcleo entero.
+ */
+public class ActiveGameCanvas extends Canvas implements Runnable {
+    private static final long serialVersionUID = 1L;
+    private static final long NANOS_PER_TICK = 1_000_000_000L / Game.UPDATES_PER_SECOND;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    /** Límite de cuadros por segundo por defecto de la ventana de juego. */
+    public static final int DEFAULT_MAX_FPS = 120;
+    /** Pausa entre cuadros cuando no hay límite: como mucho unos 2000 cuadros por segundo. */
+    static final long UNCAPPED_PAUSE_NANOS = 500_000L;
+    private static final Font STATS_FONT = new Font("Monospaced", Font.BOLD, 12);
+    private static final Color STATS_BACKGROUND = new Color(0, 0, 0, 150);
+
+    private final Game game;
+    private final Runnable beforeTick;
+    private final Runnable afterTick;
+    private final int maxFps;
+    private final BoardRenderer renderer;
+    private final BoardRenderer.Interpolation interpolation = new BoardRenderer.Interpolation();
+
+    private volatile boolean running;
+    private Thread loopThread;
+
+    // Estadísticas que se muestran en pantalla
+    private int fps;
+    private double tickMillis;
+    // Texto del recuadro de estadísticas, que solo se rehace cuando cambian
+    private String stats;
+    private int statsFps = -1;
+    private long statsTickHundredths = -1;
+
+    /**
+     * Constructor de la clase ActiveGameCanvas.
+     *
+     * @param game      La partida.
+     * @param afterTick Acción que se ejecuta en el hilo del bucle después de
+     *                  cada tick (HUD, detección de fin de partida).
+     * @param maxFps    Límite de cuadros por segundo, o 0 para no limitar.
+     */
+    public ActiveGameCanvas(Game game, Runnable afterTick, int maxFps) {
+        this(game, () -> { }, afterTick, maxFps);
+    }
+
+    /**
+     * Constructor de la clase ActiveGameCanvas.
+     *
+     * @param game       La partida.
+     * @param beforeTick Acción que se ejecuta en el hilo del bucle antes de
+     *                   cada tick (avanzar un reloj de ticks).
+     * @param afterTick  Acción que se ejecuta en el hilo del bucle después de
+     *                   cada tick (HUD, detección de fin de partida).
+     * @param maxFps     Límite de cuadros por segundo, o 0 para no limitar.
+     */
+    public ActiveGameCanvas(Game game, Runnable beforeTick, Runnable afterTick, int maxFps) {
+        this.game = game;
+        this.beforeTick = beforeTick;
+        this.afterTick = afterTick;
+        this.maxFps = maxFps;
+        this.renderer = new BoardRenderer(game);
+        setBackground(new Color(200, 230, 255));
+        setIgnoreRepaint(true);
+        // Las teclas las recibe el frame, como en el modo con panel
+        setFocusable(false);
+    }
+
+    /**
+     * Arranca el hilo del bucle. El lienzo debe estar ya visible en la
+     * ventana para poder crear el BufferStrategy.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        createBufferStrategy(2);
+        running = true;
+        loopThread = new Thread(this, "BadIceCream-render");
+        loopThread.setDaemon(true);
+        loopThread.start();
+    }
+
+    /**
+     * Detiene el bucle y espera a que termine el cuadro en curso.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (loopThread != null && loopThread != Thread.currentThread()) {
+            try {
+                loopThread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        loopThread = null;
+    }
+
+    @Override
+    public void run() {
+        long previous = System.nanoTime();
+        long lag = 0;
+        long fpsWindowStart = previous;
+        int frames = 0;
+
+        while (running) {
+            long now = System.nanoTime();
+            lag += now - previous;
+            previous = now;
+
+            // Paso fijo: se recuperan los ticks atrasados antes de dibujar
+            while (lag >= NANOS_PER_TICK && running) {
+                if (game.getState() == GameState.PLAYING) {
+                    interpolation.capture(game);
+                    long tickStart = System.nanoTime();
+                    beforeTick.run();
+                    game.update();
+                    tickMillis = (System.nanoTime() - tickStart) / 1_000_000.0;
+                } else {
+                    // Detenida no avanza, pero atiende reanudar, reiniciar y guardados pendientes
+                    game.update();
+                }
+                afterTick.run();
+                lag -= NANOS_PER_TICK;
+            }
+
+            interpolation.setAlpha(game.getState() == GameState.PLAYING ? lag / (double) NANOS_PER_TICK : 1.0);
+            render();
+
+            frames++;
+            if (now - fpsWindowStart >= NANOS_PER_SECOND) {
+                fps = frames;
+                frames = 0;
+                fpsWindowStart = now;
+            }
+
+            waitForNextFrame(now);
+        }
+    }
+
+    private void render() {
+        BufferStrategy strategy = getBufferStrategy();
+        if (strategy == null) {
+            return;
+        }
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g2d.setColor(getBackground());
+                    g2d.fillRect(0, 0, getWidth(), getHeight());
+                    renderer.paint(g2d, getWidth(), getHeight(), interpolation);
+                    drawStats(g2d);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private void drawStats(Graphics2D g2d) {
+        // Se compara lo que se muestra, con dos decimales
+        long tickHundredths = Math.round(tickMillis * 100);
+        if (fps != statsFps || tickHundredths != statsTickHundredths) {
+            statsFps = fps;
+            statsTickHundredths = tickHundredths;
+            stats = String.format("FPS: %d | Tick: %.2f ms", fps, tickMillis);
+        }
+        g2d.setFont(STATS_FONT);
+        g2d.setColor(STATS_BACKGROUND);
+        g2d.fillRect(4, 4, g2d.getFontMetrics().stringWidth(stats) + 8, 18);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(stats, 8, 17);
+    }
+
+    private void waitForNextFrame(long frameStart) {
+        if (maxFps <= 0) {
+            LockSupport.parkNanos(UNCAPPED_PAUSE_NANOS);
+            return;
+        }
+        long remaining = NANOS_PER_SECOND / maxFps - (System.nanoTime() - frameStart);
+        if (remaining > 0) {
+            try {
+                Thread.sleep(remaining / 1_000_000L, (int) (remaining % 1_000_000L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+        }
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    public double getTickMillis() {
+        return tickMillis;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (game.getLevel() != null) {
+            int width = game.getLevel().getWidth() * BoardRenderer.CELL_SIZE;
+            int height = game.getLevel().getHeight() * BoardRenderer.CELL_SIZE;
+            return new Dimension(width + 100, height + 100);
+        }
+        return new Dimension(800, 600);
+    }
+}
@@ -0,0 +1,446 @@
+package presentation;
+
+import domain.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import presentation.SpriteAtlas.Sprite;
+
+/**
+ * Dibuja el tablero de una partida sobre cualquier Graphics2D. Lo usan tanto
+ * el panel de Swing (repintado pasivo por celdas) como el lienzo de
+ * renderizado activo, que además interpola la posición de las unidades entre
+ * ticks.
+ */
+public class BoardRenderer {
+    public static final int CELL_SIZE = 40;
+
+    private final Game game;
+    // Sprites cargados una vez y ya escalados al tamaño de celda
+    private final SpriteAtlas atlas;
+
+    // Capa estática (muros, baldosas calientes y nieve) del nivel pintado
+    private BufferedImage backgroundLayer;
+    private WorldSnapshot backgroundWorld;
+
+    /**
+     * Constructor de la clase BoardRenderer.
+     *
+     * @param game La partida a dibujar.
+     */
+    public BoardRenderer(Game game) {
+        this.game = game;
+        this.atlas = SpriteAtlas.forCellSize(CELL_SIZE);
+    }
+
+    /**
+     * Desplazamiento horizontal del tablero para centrarlo en un área.
+     *
+     * @param level El nivel.
+     * @param width Ancho del área de dibujo.
+     * @return La coordenada X de la primera columna.
+     */
+    public static int offsetX(Level level, int width) {
+        return (width - level.getWidth() * CELL_SIZE) / 2;
+    }
+
+    /**
+     * Desplazamiento vertical del tablero para centrarlo en un área.
+     *
+     * @param level  El nivel.
+     * @param height Alto del área de dibujo.
+     * @return La coordenada Y de la primera fila.
+     */
+    public static int offsetY(Level level, int height) {
+        return (height - level.getHeight() * CELL_SIZE) / 2;
+    }
+
+    /**
+     * Dibuja el tablero centrado en un área a partir de la última instantánea
+     * publicada por el juego, sin leer el nivel mientras la simulación lo
+     * modifica. Solo se recorren las celdas que tocan el clip del Graphics2D.
+     *
+     * @param g2d           Destino del dibujo.
+     * @param width         Ancho del área.
+     * @param height        Alto del área.
+     * @param interpolation Instantánea anterior de las unidades, o null para
+     *                      dibujar cada unidad en su celda actual.
+     */
+    public void paint(Graphics2D g2d, int width, int height, Interpolation interpolation) {
+        WorldSnapshot world = game.getSnapshot();
+        if (world == null) {
+            return;
+        }
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int columns = world.getWidth();
+        int rows = world.getHeight();
+        int offsetX = (width - columns * CELL_SIZE) / 2;
+        int offsetY = (height - rows * CELL_SIZE) / 2;
+
+        // La capa estática se copia entera; el clip limita lo que se dibuja
+        g2d.drawImage(getBackgroundLayer(world), offsetX, offsetY, null);
+
+        // Dibujar solo las celdas que tocan la región a repintar
+        int minX = 0, maxX = columns - 1, minY = 0, maxY = rows - 1;
+        Rectangle clip = g2d.getClipBounds();
+        if (clip != null) {
+            minX = Math.max(0, Math.floorDiv(clip.x - offsetX, CELL_SIZE));
+            maxX = Math.min(columns - 1, Math.floorDiv(clip.x + clip.width - 1 - offsetX, CELL_SIZE));
+            minY = Math.max(0, Math.floorDiv(clip.y - offsetY, CELL_SIZE));
+            maxY = Math.min(rows - 1, Math.floorDiv(clip.y + clip.height - 1 - offsetY, CELL_SIZE));
+        }
+
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                int cell = y * columns + x;
+                drawCell(g2d, world, cell, offsetX + x * CELL_SIZE, offsetY + y * CELL_SIZE);
+            }
+        }
+
+        drawUnits(g2d, world, offsetX, offsetY, interpolation);
+        drawStateOverlay(g2d, world, width, height);
+    }
+
+    /**
+     * Obtiene la capa estática del nivel. Los muros, las baldosas calientes y
+     * la nieve no cambian durante un nivel, así que solo se vuelve a generar
+     * cuando el juego pasa a otro nivel (creado por LevelFactory o cargado).
+     *
+     * @param world La instantánea actual.
+     * @return La imagen del fondo estático del tablero.
+     */
+    private BufferedImage getBackgroundLayer(WorldSnapshot world) {
+        if (backgroundLayer == null || !world.sameLayout(backgroundWorld)) {
+            backgroundLayer = renderBackgroundLayer(world);
+            backgroundWorld = world;
+        }
+        return backgroundLayer;
+    }
+
+    private BufferedImage renderBackgroundLayer(WorldSnapshot world) {
+        BufferedImage layer = atlas.createImage(world.getWidth() * CELL_SIZE, world.getHeight() * CELL_SIZE,
+                Transparency.OPAQUE);
+        Graphics2D g2d = layer.createGraphics();
+        for (int cell = 0; cell < world.getWidth() * world.getHeight(); cell++) {
+            int x = world.cellX(cell) * CELL_SIZE;
+            int y = world.cellY(cell) * CELL_SIZE;
+            Image image;
+            switch (world.getStaticCell(cell)) {
+                case WorldSnapshot.WALL:
+                    image = atlas.get(Sprite.WALL);
+                    break;
+                case WorldSnapshot.HOT_TILE:
+                    image = atlas.get(Sprite.HOT_TILE);
+                    break;
+                default:
+                    image = atlas.get(Sprite.SNOW);
+                    break;
+            }
+            if (image != null) {
+                g2d.drawImage(image, x, y, null);
+            } else {
+                g2d.setColor(new Color(240, 248, 255));
+                g2d.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+            }
+        }
+        g2d.dispose();
+        return layer;
+    }
+
+    private void drawCell(Graphics2D g2d, WorldSnapshot world, int cell, int x, int y) {
+        // Capa dinámica del suelo: hielo y estado de las fogatas
+        Image image = null;
+        switch (world.getGroundCell(cell)) {
+            case WorldSnapshot.ICE:
+                image = atlas.get(Sprite.ICE);
+                break;
+            case WorldSnapshot.CAMPFIRE_LIT:
+                image = atlas.get(Sprite.CAMPFIRE);
+                break;
+            case WorldSnapshot.CAMPFIRE_OUT:
+                image = atlas.get(Sprite.CAMPFIRE_OUT);
+                break;
+            default:
+                break;
+        }
+        if (image != null) {
+            g2d.drawImage(image, x, y, null);
+        }
+        drawFruit(g2d, world, cell, x, y);
+    }
+
+    /**
+     * Dibuja enemigos y jugadores. Con interpolación, cada unidad se dibuja
+     * entre su celda anterior y la actual según la fracción de tick
+     * transcurrida.
+     */
+    private void drawUnits(Graphics2D g2d, WorldSnapshot world, int offsetX, int offsetY,
+            Interpolation interpolation) {
+        WorldSnapshot previous = interpolation == null ? null : interpolation.previousFor(world);
+        double alpha = interpolation == null ? 1.0 : interpolation.getAlpha();
+
+        for (int i = 0; i < world.getEnemyCount(); i++) {
+            int cell = world.getEnemyCell(i);
+            int before = previous != null && previous.getEnemyCount() == world.getEnemyCount()
+                    ? previous.getEnemyCell(i) : cell;
+            Point point = locate(world, before, cell, alpha, offsetX, offsetY);
+            drawEnemy(g2d, world.getEnemyKind(i), point.x, point.y);
+        }
+
+        for (int i = 0; i < 2; i++) {
+            if (!world.hasPlayer(i)) {
+                continue;
+            }
+            int cell = world.getPlayerCell(i);
+            int before = previous != null && previous.hasPlayer(i) ? previous.getPlayerCell(i) : cell;
+            Point point = locate(world, before, cell, alpha, offsetX, offsetY);
+            drawPlayer(g2d, world.getPlayerFlavour(i), world.isPlayerAlive(i), point.x, point.y);
+        }
+
+        // Si ambos jugadores están en la misma posición, dibujar indicador
+        if (world.hasPlayer(0) && world.hasPlayer(1) && world.getPlayerCell(0) == world.getPlayerCell(1)) {
+            int cell = world.getPlayerCell(0);
+            g2d.setColor(new Color(255, 255, 0, 100));
+            g2d.fillRect(offsetX + world.cellX(cell) * CELL_SIZE, offsetY + world.cellY(cell) * CELL_SIZE,
+                    CELL_SIZE, CELL_SIZE);
+        }
+    }
+
+    /**
+     * Calcula la esquina superior izquierda donde se dibuja una unidad. Solo
+     * se interpolan los pasos a una celda vecina; los saltos mayores
+     * (reaparición, cambio de nivel) se dibujan directamente en destino.
+     */
+    private static Point locate(WorldSnapshot world, int before, int cell, double alpha, int offsetX,
+            int offsetY) {
+        double x = world.cellX(cell);
+        double y = world.cellY(cell);
+        if (before >= 0 && before != cell) {
+            int beforeX = world.cellX(before);
+            int beforeY = world.cellY(before);
+            if (Math.abs(beforeX - x) + Math.abs(beforeY - y) == 1) {
+                x = beforeX + (x - beforeX) * alpha;
+                y = beforeY + (y - beforeY) * alpha;
+            }
+        }
+        return new Point(offsetX + (int) Math.round(x * CELL_SIZE), offsetY + (int) Math.round(y * CELL_SIZE));
+    }
+
+    private void drawPlayer(Graphics2D g2d, IceCreamFlavour flavour, boolean alive, int x, int y) {
+        Sprite sprite = null;
+        switch (flavour) {
+            case CHOCOLATE:
+                sprite = Sprite.CHOCOLATE;
+                break;
+            case STRAWBERRY:
+                sprite = Sprite.STRAWBERRY;
+                break;
+            case VANILLA:
+                sprite = Sprite.VANILLA;
+                break;
+        }
+
+        // Si el jugador está muerto, se usa la variante semitransparente
+        Image playerImage = sprite == null ? null : alive ? atlas.get(sprite) : atlas.getFaded(sprite);
+        if (playerImage != null) {
+            g2d.drawImage(playerImage, x, y, null);
+        } else {
+            g2d.setColor(alive ? Color.CYAN : Color.GRAY);
+            g2d.fillOval(x + 5, y + 5, CELL_SIZE - 10, CELL_SIZE - 10);
+        }
+    }
+
+    private void drawEnemy(Graphics2D g2d, byte kind, int x, int y) {
+        Image enemyImage = getEnemyImage(kind);
+        if (enemyImage != null) {
+            g2d.drawImage(enemyImage, x, y, null);
+        } else {
+            g2d.setColor(Color.RED);
+            g2d.fillOval(x + 5, y + 5, CELL_SIZE - 10, CELL_SIZE - 10);
+        }
+    }
+
+    private Image getEnemyImage(byte kind) {
+        switch (kind) {
+            case WorldSnapshot.NARWHAL:
+                return atlas.get(Sprite.NARWHAL);
+            case WorldSnapshot.ORANGE_SQUID:
+                return atlas.get(Sprite.SQUID);
+            case WorldSnapshot.POT:
+                return atlas.get(Sprite.POT);
+            case WorldSnapshot.TROLL:
+                return atlas.get(Sprite.TROLL);
+            default:
+                return null;
+        }
+    }
+
+    private void drawFruit(Graphics2D g2d, WorldSnapshot world, int cell, int x, int y) {
+        FruitType type = world.getFruitType(cell);
+        if (type != null) {
+            boolean thorns = world.hasThorns(cell);
+            Sprite sprite = getFruitSprite(type, thorns);
+            Image fruitImage = atlas.get(sprite);
+            if (fruitImage != null) {
+                int inset = sprite.getInset();
+                if (type.isMovable()) {
+                    long time = System.currentTimeMillis();
+                    int offset = (int) (Math.sin(time / 200.0) * 2);
+                    g2d.drawImage(fruitImage, x + inset + offset, y + inset + offset, null);
+                } else {
+                    g2d.drawImage(fruitImage, x + inset, y + inset, null);
+                }
+                if (thorns) {
+                    drawThornsIndicator(g2d, x, y);
+                }
+            } else {
+                g2d.setColor(Color.GREEN);
+                g2d.fillOval(x + 10, y + 10, CELL_SIZE - 20, CELL_SIZE - 20);
+            }
+        }
+    }
+
+    private Sprite getFruitSprite(FruitType type, boolean thorns) {
+        switch (type) {
+            case GRAPE:
+                return Sprite.GRAPE;
+            case BANANA:
+                return Sprite.BANANA;
+            case CHERRY:
+                return Sprite.CHERRY;
+            case PINEAPPLE:
+                return Sprite.PINEAPPLE;
+            case CACTUS:
+                return thorns ? Sprite.CACTUS_THORNS : Sprite.CACTUS;
+            default:
+                return Sprite.BANANA;
+        }
+    }
+
+    private void drawThornsIndicator(Graphics2D g2d, int x, int y) {
+        g2d.setColor(new Color(255, 0, 0, 100));
+        g2d.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+        long time = System.currentTimeMillis();
+        if ((time / 500) % 2 == 0) {
+            g2d.setColor(Color.RED);
+            g2d.drawRect(x + 1, y + 1, CELL_SIZE - 3, CELL_SIZE - 3);
+        }
+    }
+
+    private void drawStateOverlay(Graphics2D g2d, WorldSnapshot world, int width, int height) {
+        GameState state = world.getState();
+        String message = null;
+        String subMessage = null;
+        Color bgColor = null;
+
+        switch (state) {
+            case PAUSED:
+                message = "PAUSADO";
+                bgColor = new Color(0, 0, 0, 180);
+                break;
+            case GAME_OVER:
+                message = "GAME OVER";
+                bgColor = new Color(139, 0, 0, 200);
+                subMessage = getGameOverMessage(world);
+                break;
+            case VICTORY:
+                message = "¡VICTORIA!";
+                bgColor = new Color(0, 128, 0, 200);
+                subMessage = getVictoryMessage(world);
+                break;
+            default:
+                return;
+        }
+
+        if (message != null) {
+            g2d.setColor(bgColor);
+            g2d.fillRect(0, 0, width, height);
+
+            g2d.setColor(Color.WHITE);
+            g2d.setFont(new Font("Arial", Font.BOLD, 48));
+            FontMetrics fm = g2d.getFontMetrics();
+            int msgWidth = fm.stringWidth(message);
+            g2d.drawString(message, (width - msgWidth) / 2, height / 2);
+
+            if (subMessage != null) {
+                g2d.setFont(new Font("Arial", Font.PLAIN, 24));
+                fm = g2d.getFontMetrics();
+                int subWidth = fm.stringWidth(subMessage);
+                g2d.drawString(subMessage, (width - subWidth) / 2, height / 2 + 50);
+            }
+
+            String returnMsg = "Volviendo al menú...";
+            g2d.setFont(new Font("Arial", Font.ITALIC, 18));
+            fm = g2d.getFontMetrics();
+            int returnWidth = fm.stringWidth(returnMsg);
+            g2d.drawString(returnMsg, (width - returnWidth) / 2, height / 2 + 90);
+        }
+    }
+
+    private String getGameOverMessage(WorldSnapshot world) {
+        if (world.getMode().isMultiplayer() && world.hasPlayer(0) && world.hasPlayer(1)) {
+            return String.format("P1: %d | P2: %d", world.getPlayerScore(0), world.getPlayerScore(1));
+        } else if (world.hasPlayer(0)) {
+            return "Puntos: " + world.getPlayerScore(0);
+        }
+        return "";
+    }
+
+    private String getVictoryMessage(WorldSnapshot world) {
+        if (world.getMode().isMultiplayer() && world.hasPlayer(0) && world.hasPlayer(1)) {
+            int score1 = world.getPlayerScore(0);
+            int score2 = world.getPlayerScore(1);
+            if (score1 > score2) {
+                return String.format("Ganador: P1 (%d pts)", score1);
+            } else if (score2 > score1) {
+                return String.format("Ganador: P2 (%d pts)", score2);
+            } else {
+                return String.format("¡EMPATE! (%d pts)", score1);
+            }
+        } else if (world.hasPlayer(0)) {
+            return "Puntos: " + world.getPlayerScore(0);
+        }
+        return "";
+    }
+
+    /**
+     * Instantánea anterior al último tick y fracción del tick siguiente ya
+     * transcurrida. Con ellas las unidades se dibujan entre dos celdas en
+     * lugar de saltar de una a otra.
+     */
+    public static class Interpolation {
+        private WorldSnapshot previous;
+        private double alpha = 1.0;
+
+        /**
+         * Guarda la instantánea actual del juego como punto de partida. Se
+         * llama justo antes de cada tick de simulación.
+         *
+         * @param game La partida.
+         */
+        public void capture(Game game) {
+            previous = game.getSnapshot();
+        }
+
+        /**
+         * Establece la fracción del tick en curso.
+         *
+         * @param alpha Valor entre 0 (posición anterior) y 1 (posición actual).
+         */
+        public void setAlpha(double alpha) {
+            this.alpha = Math.max(0.0, Math.min(1.0, alpha));
+        }
+
+        public double getAlpha() {
+            return alpha;
+        }
+
+        /**
+         * Obtiene la instantánea anterior si corresponde al mismo nivel que la
+         * actual.
+         */
+        WorldSnapshot previousFor(WorldSnapshot world) {
+            return world.sameLayout(previous) ? previous : null;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import java.awt.event.KeyListener;
 import java.io.File;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CompletionException;
 
 public class GameFrame extends JFrame {
     private static final long serialVersionUID = 1L;
@@ -18,13 +19,31 @@ public class GameFrame extends JFrame {
     private JPanel gamePanel;
     private HUDPanel hudPanel;
     private GameBoardPanel boardPanel;
+    private ActiveGameCanvas activeCanvas;
     
     private Timer gameTimer;
     private Timer secondTimer;
     private boolean gameEnded;
+    // Renderizado activo (Canvas + BufferStrategy) en lugar del Timer con GameListener
+    private boolean activeRendering = Boolean.getBoolean("badicecream.activeRendering");
+    // Paquete de niveles opcional (-Dbadicecream.levelPack=ruta)
+    private LevelPack levelPack;
+    // Grabación de las partidas nuevas (-Dbadicecream.replayDir=directorio)
+    private final String replayDir = System.getProperty("badicecream.replayDir");
+    private TickClock replayClock;
+    private ReplayRecorder recorder;
 
     public GameFrame() {
         game = new Game();
+        String packPath = System.getProperty("badicecream.levelPack");
+        if (packPath != null) {
+            try {
+                levelPack = LevelPack.open(new File(packPath));
+                game.setLevelPack(levelPack);
+            } catch (BadIceCreamException e) {
+                BadIceCreamLog.log(e);
+            }
+        }
         controller = new GameController(game);
         controller2 = new GameController2(game);
         
@@ -49,6 +68,7 @@ public class GameFrame extends JFrame {
         JMenuItem saveItem = new JMenuItem("Guardar");
         JMenuItem importItem = new JMenuItem("Importar");
         JMenuItem exportItem = new JMenuItem("Exportar");
+        JMenuItem replayItem = new JMenuItem("Ver repetición");
         JMenuItem exitItem = new JMenuItem("Salir");
         
         fileMenu.add(newItem);
@@ -57,18 +77,29 @@ public class GameFrame extends JFrame {
         fileMenu.addSeparator();
         fileMenu.add(importItem);
         fileMenu.add(exportItem);
+        fileMenu.add(replayItem);
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
         
+        JMenu optionsMenu = new JMenu("Opciones");
+        JCheckBoxMenuItem activeRenderingItem = new JCheckBoxMenuItem("Renderizado activo", activeRendering);
+        optionsMenu.add(activeRenderingItem);
+        
         menuBar.add(fileMenu);
+        menuBar.add(optionsMenu);
         setJMenuBar(menuBar);
         
+        // El lienzo es pesado: los menús deben serlo también para verse encima
+        JPopupMenu.setDefaultLightWeightPopupEnabled(false);
+        
         newItem.addActionListener(e -> optionNew());
         openItem.addActionListener(e -> optionOpen());
         saveItem.addActionListener(e -> optionSave());
         importItem.addActionListener(e -> optionImport());
         exportItem.addActionListener(e -> optionExport());
+        replayItem.addActionListener(e -> optionReplay());
         exitItem.addActionListener(e -> System.exit(0));
+        activeRenderingItem.addActionListener(e -> setActiveRendering(activeRenderingItem.isSelected()));
     }
     
     private void optionNew() {
@@ -95,16 +126,18 @@ public class GameFrame extends JFrame {
         
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
-            try {
-                Game loadedGame = Game.open(file);
+            // Se lee en segundo plano; la interfaz se actualiza en el hilo de eventos
+            Game.openAsync(file).whenComplete((loadedGame, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this, errorMessage(error), 
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 this.game = loadedGame;
                 startLoadedGame(loadedGame);
                 JOptionPane.showMessageDialog(this, "Partida cargada exitosamente", 
                                              "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            } catch (BadIceCreamException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(), 
-                                             "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }));
         }
     }
     
@@ -130,14 +163,16 @@ public class GameFrame extends JFrame {
                 file = new File(file.getAbsolutePath() + ".dat");
             }
             
-            try {
-                game.save(file);
-                JOptionPane.showMessageDialog(this, "Partida guardada exitosamente",
-                                             "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            } catch (BadIceCreamException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(),
-                                             "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            // El juego sigue corriendo mientras se escribe el archivo
+            game.saveAsync(file, null).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this, errorMessage(error),
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Partida guardada exitosamente",
+                                                 "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                }
+            }));
         }
     }
     
@@ -152,16 +187,17 @@ public class GameFrame extends JFrame {
         
         if (result == JFileChooser.APPROVE_OPTION) {
             File file = fileChooser.getSelectedFile();
-            try {
-                Game importedGame = Game.importLevel(file);
+            Game.importLevelAsync(file).whenComplete((importedGame, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this, errorMessage(error),
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
                 this.game = importedGame;
                 startLoadedGame(importedGame);
                 JOptionPane.showMessageDialog(this, "Nivel importado exitosamente",
                                              "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            } catch (BadIceCreamException e) {
-                JOptionPane.showMessageDialog(this, e.getMessage(),
-                                             "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }));
         }
     }
     
@@ -187,10 +223,32 @@ public class GameFrame extends JFrame {
                 file = new File(file.getAbsolutePath() + ".txt");
             }
             
+            game.exportAsync(file, null).whenComplete((ignored, error) -> SwingUtilities.invokeLater(() -> {
+                if (error != null) {
+                    JOptionPane.showMessageDialog(this, errorMessage(error),
+                                                 "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(this, "Nivel exportado exitosamente",
+                                                 "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                }
+            }));
+        }
+    }
+    
+    private void optionReplay() {
+        JFileChooser fileChooser = new JFileChooser(replayDir);
+        fileChooser.setDialogTitle("Ver Repetición");
+        javax.swing.filechooser.FileNameExtensionFilter filter = 
+            new javax.swing.filechooser.FileNameExtensionFilter("Repeticiones (*.birp)", "birp");
+        fileChooser.setFileFilter(filter);
+        
+        int result = fileChooser.showOpenDialog(this);
+        
+        if (result == JFileChooser.APPROVE_OPTION) {
             try {
-                game.export(file);
-                JOptionPane.showMessageDialog(this, "Nivel exportado exitosamente",
-                                             "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                ReplayFrame replayFrame = new ReplayFrame(ReplayPlayer.open(fileChooser.getSelectedFile()));
+                replayFrame.setLocationRelativeTo(this);
+                replayFrame.setVisible(true);
             } catch (BadIceCreamException e) {
                 JOptionPane.showMessageDialog(this, e.getMessage(),
                                              "Error", JOptionPane.ERROR_MESSAGE);
@@ -198,8 +256,16 @@ public class GameFrame extends JFrame {
         }
     }
     
+    // Los errores de las operaciones asíncronas llegan envueltos en CompletionException
+    private static String errorMessage(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+        return cause.getMessage();
+    }
+    
     public void showMenu() {
         stopTimers();
+        stopRecording();
         getContentPane().removeAll();
         
         menuPanel = new MenuPanel(this);
@@ -213,7 +279,9 @@ public class GameFrame extends JFrame {
      * Inicia el juego (modo Player simple) - Para compatibilidad con código anterior
      */
     public void startGame(IceCreamFlavour flavor) {
+        prepareRecording();
         game.startGame(1, flavor);
+        startRecording();
         startGameLoop();
     }
     
@@ -222,17 +290,83 @@ public class GameFrame extends JFrame {
      */
     public void startGame(int levelNumber, IceCreamFlavour flavor, GameMode mode,
                          AIProfile profile1, AIProfile profile2) {
+        prepareRecording();
         game.startGame(levelNumber, flavor, mode, profile1, profile2);
+        startRecording();
         startGameLoop();
     }
     
     public void startLoadedGame(Game loadedGame) {
+        // Las partidas cargadas siguen con su reloj y no se graban
+        stopTimers();
+        stopRecording();
+        replayClock = null;
         this.game = loadedGame;
+        game.setLevelPack(levelPack);
         this.controller = new GameController(game);
         this.controller2 = new GameController2(game);
         startGameLoop();
     }
     
+    /**
+     * Una partida grabada necesita un reloj de ticks que avance con cada tick
+     * del bucle, como en la simulación sin interfaz, para poder repetirse.
+     */
+    private void prepareRecording() {
+        stopTimers();
+        stopRecording();
+        replayClock = replayDir != null ? new TickClock(SimulationEngine.MILLIS_PER_TICK) : null;
+        if (replayClock != null) {
+            game.setClock(replayClock);
+        }
+    }
+    
+    private void startRecording() {
+        if (replayClock == null) {
+            return;
+        }
+        File file = new File(replayDir, "replay-" + System.currentTimeMillis() + ".birp");
+        try {
+            recorder = ReplayRecorder.start(game, file);
+        } catch (BadIceCreamException e) {
+            BadIceCreamLog.log(e);
+        }
+    }
+    
+    // Reiniciar desde el HUD cierra la grabación; la partida nueva se graba aparte
+    private void restartRecording() {
+        if (recorder != null && recorder.isRestarted()) {
+            recorder = null;
+            startRecording();
+        }
+    }
+    
+    private void advanceReplayClock() {
+        if (replayClock != null) {
+            replayClock.advance();
+        }
+    }
+    
+    // Una partida abandonada deja su repetición hasta el último tick jugado
+    private void stopRecording() {
+        if (recorder != null) {
+            recorder.close();
+            recorder = null;
+        }
+    }
+    
+    /**
+     * Activa o desactiva el renderizado activo. Se aplica a la siguiente
+     * partida que se inicie.
+     */
+    public void setActiveRendering(boolean activeRendering) {
+        this.activeRendering = activeRendering;
+    }
+    
+    public boolean isActiveRendering() {
+        return activeRendering;
+    }
+    
     /**
      * Obtiene la instancia del juego
      */
@@ -251,10 +385,16 @@ public class GameFrame extends JFrame {
         
         gamePanel = new JPanel(new BorderLayout());
         hudPanel = new HUDPanel(game, this);
-        boardPanel = new GameBoardPanel(game);
-        
         gamePanel.add(hudPanel, BorderLayout.NORTH);
-        gamePanel.add(boardPanel, BorderLayout.CENTER);
+        
+        if (activeRendering) {
+            boardPanel = null;
+            activeCanvas = new ActiveGameCanvas(game, this::advanceReplayClock, this::afterTick, ActiveGameCanvas.DEFAULT_MAX_FPS);
+            gamePanel.add(activeCanvas, BorderLayout.CENTER);
+        } else {
+            boardPanel = new GameBoardPanel(game);
+            gamePanel.add(boardPanel, BorderLayout.CENTER);
+        }
         
         getContentPane().add(gamePanel);
         
@@ -281,27 +421,45 @@ public class GameFrame extends JFrame {
         revalidate();
         repaint();
         
+        if (activeCanvas != null) {
+            // El lienzo necesita estar visible para crear su BufferStrategy
+            validate();
+            activeCanvas.start();
+            return;
+        }
+        
         gameTimer = new Timer();
         gameTimer.scheduleAtFixedRate(new TimerTask() {
             @Override
             public void run() {
+                // Detenida no avanza, pero atiende reanudar, reiniciar y guardados pendientes
                 if (game.getState() == GameState.PLAYING) {
-                    Game.update();
-                    hudPanel.update();
-                    boardPanel.repaint();
-                    
-                    if (game.getState() == GameState.GAME_OVER || 
-                        game.getState() == GameState.VICTORY) {
-                        if (!gameEnded) {
-                            gameEnded = true;
-                            scheduleReturnToMenu();
-                        }
-                    }
+                    advanceReplayClock();
                 }
+                // El tablero se repinta desde onGameUpdated, solo en las celdas que cambiaron
+                game.update();
+                afterTick();
             }
         }, 0, 100);
     }
     
+    /**
+     * Tareas posteriores a cada tick, comunes a ambos bucles: actualizar el
+     * HUD y volver al menú cuando la partida termina.
+     */
+    private void afterTick() {
+        hudPanel.update();
+        restartRecording();
+        
+        if (game.getState() == GameState.GAME_OVER || 
+            game.getState() == GameState.VICTORY) {
+            if (!gameEnded) {
+                gameEnded = true;
+                scheduleReturnToMenu();
+            }
+        }
+    }
+    
     private void scheduleReturnToMenu() {
         Timer returnTimer = new Timer();
         returnTimer.schedule(new TimerTask() {
@@ -313,6 +471,15 @@ public class GameFrame extends JFrame {
     }
     
     private void stopTimers() {
+        // El tablero reemplazado dejaría de consumir las celdas modificadas del nivel
+        if (boardPanel != null) {
+            game.removeListener(boardPanel);
+            boardPanel = null;
+        }
+        if (activeCanvas != null) {
+            activeCanvas.stop();
+            activeCanvas = null;
+        }
         if (gameTimer != null) {
             gameTimer.cancel();
             gameTimer = null;
@@ -326,6 +493,7 @@ public class GameFrame extends JFrame {
     @Override
     public void dispose() {
         stopTimers();
+        stopRecording();
         MusicManager.stopBackgroundMusic();
         super.dispose();
     }
@@ -51,7 +51,7 @@ public class HUDPanel extends JPanel {
         resetButton = new JButton("R");
         resetButton.setFont(new Font("Arial", Font.BOLD, 16));
         resetButton.addActionListener(e -> {
-            game.reset();
+            game.submitInput(InputCommand.reset());
             gameFrame.requestFocus();
         });
 
@@ -80,54 +80,60 @@ public class HUDPanel extends JPanel {
         add(menuButton);
     }
 
+    /**
+     * Actualiza las etiquetas. Puede llamarse desde el hilo de la simulación:
+     * el refresco se hace en el hilo de eventos con la última instantánea
+     * publicada por el juego.
+     */
     public void update() {
-        Level level = game.getLevel();
-        Player player = game.getPlayer();
-        Player player2 = game.getPlayer2();
+        SwingUtilities.invokeLater(this::refresh);
+    }
+
+    private void refresh() {
+        WorldSnapshot world = game.getSnapshot();
 
-        if (level != null && player != null) {
+        if (world != null && world.hasPlayer(0)) {
             // Actualizar etiqueta de modo
-            String modeName = game.getGameMode().getName();
-            if (game.getGameMode() == GameMode.PLAYER_VS_MACHINE && game.getAIPlayer1() != null) {
-                modeName += " (" + game.getAIPlayer1().getProfile().getName() + ")";
-            } else if (game.getGameMode() == GameMode.MACHINE_VS_MACHINE) {
-                if (game.getAIPlayer1() != null && game.getAIPlayer2() != null) {
-                    modeName += " (" + game.getAIPlayer1().getProfile().getName() + 
-                               " vs " + game.getAIPlayer2().getProfile().getName() + ")";
+            String modeName = world.getMode().getName();
+            if (world.getMode() == GameMode.PLAYER_VS_MACHINE && world.getPlayerProfile(1) != null) {
+                modeName += " (" + world.getPlayerProfile(1).getName() + ")";
+            } else if (world.getMode() == GameMode.MACHINE_VS_MACHINE) {
+                if (world.getPlayerProfile(0) != null && world.getPlayerProfile(1) != null) {
+                    modeName += " (" + world.getPlayerProfile(0).getName() + 
+                               " vs " + world.getPlayerProfile(1).getName() + ")";
                 }
             }
             modeLabel.setText("Modo: " + modeName);
             
             // Frutas
-            int collected = (int) level.getFruits().stream().filter(Fruit::isCollected).count();
-            int total = level.getFruits().size();
-            fruitsLabel.setText("Frutas: " + collected + "/" + total);
+            fruitsLabel.setText("Frutas: " + world.getFruitsCollected() + "/" + world.getFruitsTotal());
 
             // Puntuaciones
-            String p1Status = player.isAlive() ? "" : " [MUERTO]";
-            scoreLabel.setText("P1: " + player.getScore() + p1Status);
+            String p1Status = world.isPlayerAlive(0) ? "" : " [MUERTO]";
+            scoreLabel.setText("P1: " + world.getPlayerScore(0) + p1Status);
 
-            if (game.getGameMode().isMultiplayer() && player2 != null) {
-                String p2Status = player2.isAlive() ? "" : " [MUERTO]";
-                score2Label.setText("P2: " + player2.getScore() + p2Status);
+            if (world.getMode().isMultiplayer() && world.hasPlayer(1)) {
+                String p2Status = world.isPlayerAlive(1) ? "" : " [MUERTO]";
+                score2Label.setText("P2: " + world.getPlayerScore(1) + p2Status);
             }
 
             // Tiempo
-            int time = game.getTimeRemaining();
+            int time = world.getTimeRemaining();
             int mins = time / 60;
             int secs = time % 60;
             timeLabel.setText(String.format("Tiempo: %d:%02d", mins, secs));
 
-            pauseButton.setText(game.getState() == GameState.PAUSED ? ">" : "||");
+            pauseButton.setText(world.getState() == GameState.PAUSED ? ">" : "||");
             musicButton.setText(MusicManager.isMuted() ? "♫̸" : "♫");
         }
     }
 
     private void togglePause() {
+        // La pausa se aplica entre ticks, en el hilo de la simulación
         if (game.getState() == GameState.PLAYING) {
-            game.pause();
+            game.submitInput(InputCommand.pause());
         } else if (game.getState() == GameState.PAUSED) {
-            game.resume();
+            game.submitInput(InputCommand.resume());
         }
     }
 
@@ -95,7 +95,8 @@ public class MenuModoPanel extends BackgroundPanel {
         Object[] options = {
             "Hungry (Busca frutas)",
             "Fearful (Evita peligros)",
-            "Expert (Estrategia óptima)"
+            "Expert (Estrategia óptima)",
+            "Planner (Simula jugadas)"
         };
         
         int choice = JOptionPane.showOptionDialog(
@@ -113,6 +114,7 @@ public class MenuModoPanel extends BackgroundPanel {
             case 0: return AIProfile.HUNGRY;
             case 1: return AIProfile.FEARFUL;
             case 2: return AIProfile.EXPERT;
+            case 3: return AIProfile.PLANNER;
             default: return null;
         }
     }
@@ -0,0 +1,127 @@
+package presentation;
+
+import domain.*;
+import java.awt.*;
+import javax.swing.*;
+
+/**
+ * Ventana que muestra una repetición sobre un {@link GameBoardPanel}. Permite
+ * pausar, avanzar más rápido y saltar a cualquier tick con la barra.
+ */
+public class ReplayFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
+    private static final int[] SPEEDS = { 1, 2, 4, 8, 16 };
+
+    private final ReplayPlayer replay;
+    private final JPanel boardHolder = new JPanel(new BorderLayout());
+    private final JSlider slider;
+    private final JLabel statusLabel = new JLabel();
+    private final JButton playButton = new JButton("Pausa");
+    private final JComboBox<String> speedBox = new JComboBox<>();
+    private final Timer timer;
+
+    private GameBoardPanel boardPanel;
+    private Game shownGame;
+    private boolean playing = true;
+    private boolean updatingSlider;
+
+    public ReplayFrame(ReplayPlayer replay) {
+        this.replay = replay;
+        setTitle("Repetición - Nivel " + replay.getLevelNumber());
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+
+        slider = new JSlider(0, (int) replay.getLength(), 0);
+        slider.addChangeListener(e -> {
+            if (!updatingSlider && !slider.getValueIsAdjusting()) {
+                seek(slider.getValue());
+            }
+        });
+
+        for (int speed : SPEEDS) {
+            speedBox.addItem("x" + speed);
+        }
+        playButton.addActionListener(e -> togglePlaying());
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.CENTER, 10, 5));
+        controls.add(playButton);
+        controls.add(new JLabel("Velocidad:"));
+        controls.add(speedBox);
+        controls.add(slider);
+        controls.add(statusLabel);
+
+        getContentPane().add(boardHolder, BorderLayout.CENTER);
+        getContentPane().add(controls, BorderLayout.SOUTH);
+        showGame();
+        pack();
+
+        // Un paso por tick de juego; la velocidad indica cuántos ticks se simulan
+        timer = new Timer((int) SimulationEngine.MILLIS_PER_TICK, e -> advance());
+        timer.start();
+    }
+
+    private void advance() {
+        if (!playing) {
+            return;
+        }
+        int speed = SPEEDS[speedBox.getSelectedIndex()];
+        for (int i = 0; i < speed && replay.step(); i++) {
+            // Avanzar los ticks de este paso
+        }
+        if (replay.isFinished()) {
+            playing = false;
+        }
+        refresh();
+    }
+
+    private void togglePlaying() {
+        if (!playing && replay.isFinished()) {
+            seek(0);
+        }
+        playing = !playing;
+        refresh();
+    }
+
+    private void seek(long tick) {
+        try {
+            replay.seek(tick);
+        } catch (BadIceCreamException e) {
+            playing = false;
+            JOptionPane.showMessageDialog(this, e.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+        refresh();
+        boardPanel.repaint();
+    }
+
+    private void refresh() {
+        // Saltar hacia atrás restaura otra instancia del juego
+        if (replay.getGame() != shownGame) {
+            showGame();
+        }
+        updatingSlider = true;
+        slider.setValue((int) replay.getTick());
+        updatingSlider = false;
+
+        String status = "Tick " + replay.getTick() + " / " + replay.getLength();
+        if (replay.getDesyncTick() >= 0) {
+            status += " (se desvió en el tick " + replay.getDesyncTick() + ")";
+        }
+        statusLabel.setText(status);
+        playButton.setText(playing ? "Pausa" : "Reproducir");
+    }
+
+    private void showGame() {
+        shownGame = replay.getGame();
+        boardHolder.removeAll();
+        boardPanel = new GameBoardPanel(shownGame);
+        boardHolder.add(boardPanel, BorderLayout.CENTER);
+        boardHolder.revalidate();
+        boardHolder.repaint();
+        refresh();
+    }
+
+    @Override
+    public void dispose() {
+        timer.stop();
+        super.dispose();
+    }
+}
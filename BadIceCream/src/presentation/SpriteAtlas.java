@@ -0,0 +1,220 @@
+package presentation;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import javax.imageio.ImageIO;
+
+/**
+ * Atlas de sprites del tablero. Carga cada PNG una sola vez y lo guarda ya
+ * escalado al tamaño de celda en imágenes compatibles con la pantalla, para
+ * que el pintado de cada cuadro solo copie píxeles sin reescalar.
+ * Las variantes translúcidas (jugador muerto, fogata apagada de respaldo)
+ * también se generan al cargar.
+ */
+public class SpriteAtlas {
+    // Opacidad de los jugadores muertos
+    private static final float DEAD_ALPHA = 0.3f;
+    // Opacidad de la fogata cuando no existe la imagen de fogata apagada
+    private static final float CAMPFIRE_OUT_FALLBACK_ALPHA = 0.5f;
+
+    private static final Map<Integer, SpriteAtlas> ATLASES = new HashMap<>();
+
+    /**
+     * Sprites disponibles. Las frutas se dibujan con un margen de 2 píxeles
+     * por lado, como en el tablero original.
+     */
+    public enum Sprite {
+        STRAWBERRY("fresa.png", 0, null),
+        CHOCOLATE("chocolate.png", 0, null),
+        VANILLA("vainilla.png", 0, null),
+        ICE("ice.png", 0, null),
+        WALL("muro.png", 0, null),
+        CAMPFIRE("fogata.png", 0, null),
+        CAMPFIRE_OUT("fogataApagada.png", 0, CAMPFIRE),
+        HOT_TILE("baldosaCaliente.png", 0, null),
+        SNOW("nieve.png", 0, null),
+        SQUID("calamar.png", 0, null),
+        TROLL("troll.png", 0, null),
+        POT("maceta.png", 0, null),
+        NARWHAL("narval.png", 0, POT),
+        BANANA("platano.png", 2, null),
+        GRAPE("uva.png", 2, null),
+        PINEAPPLE("piña.png", 2, BANANA),
+        CHERRY("cereza.png", 2, BANANA),
+        CACTUS("cactus.png", 2, BANANA),
+        CACTUS_THORNS("cactusPuas.png", 2, CACTUS);
+
+        private final String fileName;
+        private final int inset;
+        private final Sprite fallback;
+
+        Sprite(String fileName, int inset, Sprite fallback) {
+            this.fileName = fileName;
+            this.inset = inset;
+            this.fallback = fallback;
+        }
+
+        /**
+         * Margen en píxeles entre el borde de la celda y el sprite.
+         *
+         * @return El margen por lado.
+         */
+        public int getInset() {
+            return inset;
+        }
+    }
+
+    private final int cellSize;
+    private final GraphicsConfiguration configuration;
+    private final Map<Sprite, BufferedImage> sprites = new EnumMap<>(Sprite.class);
+    private final Map<Sprite, BufferedImage> faded = new EnumMap<>(Sprite.class);
+
+    /**
+     * Obtiene el atlas compartido para un tamaño de celda, cargándolo la
+     * primera vez que se pide.
+     *
+     * @param cellSize Tamaño de la celda en píxeles.
+     * @return El atlas.
+     */
+    public static synchronized SpriteAtlas forCellSize(int cellSize) {
+        SpriteAtlas atlas = ATLASES.get(cellSize);
+        if (atlas == null) {
+            atlas = new SpriteAtlas(cellSize);
+            ATLASES.put(cellSize, atlas);
+        }
+        return atlas;
+    }
+
+    private SpriteAtlas(int cellSize) {
+        this.cellSize = cellSize;
+        this.configuration = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration();
+        load();
+    }
+
+    private void load() {
+        // Los respaldos siempre se declaran antes que los sprites que los usan
+        for (Sprite sprite : Sprite.values()) {
+            BufferedImage image = loadScaled(sprite);
+            if (image == null && sprite.fallback != null) {
+                BufferedImage fallback = sprites.get(sprite.fallback);
+                if (sprite == Sprite.CAMPFIRE_OUT) {
+                    image = fallback == null ? null : withAlpha(fallback, CAMPFIRE_OUT_FALLBACK_ALPHA);
+                } else {
+                    image = fallback;
+                }
+            }
+            if (image != null) {
+                sprites.put(sprite, image);
+            }
+        }
+
+        for (Sprite player : new Sprite[] { Sprite.STRAWBERRY, Sprite.CHOCOLATE, Sprite.VANILLA }) {
+            BufferedImage image = sprites.get(player);
+            if (image != null) {
+                faded.put(player, withAlpha(image, DEAD_ALPHA));
+            }
+        }
+    }
+
+    private BufferedImage loadScaled(Sprite sprite) {
+        try {
+            URL url = getClass().getResource("/resources/images/" + sprite.fileName);
+            if (url == null) {
+                return null;
+            }
+            BufferedImage source = ImageIO.read(url);
+            if (source == null) {
+                return null;
+            }
+
+            int size = cellSize - 2 * sprite.inset;
+            BufferedImage scaled = createImage(size, size, isOpaque(source) ? Transparency.OPAQUE
+                    : Transparency.TRANSLUCENT);
+            Graphics2D g2d = scaled.createGraphics();
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(source, 0, 0, size, size, null);
+            g2d.dispose();
+            return scaled;
+        } catch (Exception e) {
+            System.err.println("Error cargando imagen " + sprite.fileName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private BufferedImage withAlpha(BufferedImage image, float alpha) {
+        BufferedImage result = createImage(image.getWidth(), image.getHeight(), Transparency.TRANSLUCENT);
+        Graphics2D g2d = result.createGraphics();
+        g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
+        g2d.drawImage(image, 0, 0, null);
+        g2d.dispose();
+        return result;
+    }
+
+    /**
+     * Crea una imagen compatible con la pantalla (o una imagen en memoria en
+     * modo headless).
+     *
+     * @param width        Ancho en píxeles.
+     * @param height       Alto en píxeles.
+     * @param transparency Transparencia de {@link Transparency}.
+     * @return La imagen vacía.
+     */
+    public BufferedImage createImage(int width, int height, int transparency) {
+        if (configuration != null) {
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height,
+                transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    }
+
+    private static boolean isOpaque(BufferedImage image) {
+        if (!image.getColorModel().hasAlpha()) {
+            return true;
+        }
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if ((image.getRGB(x, y) >>> 24) != 0xFF) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene un sprite ya escalado.
+     *
+     * @param sprite El sprite.
+     * @return La imagen, o null si no pudo cargarse.
+     */
+    public BufferedImage get(Sprite sprite) {
+        return sprites.get(sprite);
+    }
+
+    /**
+     * Obtiene la variante translúcida de un sprite de jugador (jugador
+     * muerto).
+     *
+     * @param sprite El sprite del jugador.
+     * @return La imagen, o null si no existe.
+     */
+    public BufferedImage getFaded(Sprite sprite) {
+        return faded.get(sprite);
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+}
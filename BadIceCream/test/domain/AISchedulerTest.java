@@ -0,0 +1,99 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el reparto del tiempo de pensar de la IA y sus
+ * métricas de latencia.
+ */
+public class AISchedulerTest {
+
+    @Test
+    public void testActionsAreShared() {
+        assertSame(AIAction.of(AIActionType.MOVE, Direction.UP), AIAction.of(AIActionType.MOVE, Direction.UP));
+        assertSame(AIAction.WAIT, AIAction.of(AIActionType.WAIT, null));
+        assertEquals(Direction.LEFT, AIAction.of(AIActionType.CREATE_ICE, Direction.LEFT).getDirection());
+
+        // Los ticks de espera no crean acciones
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = new AIPlayer(new Position(1, 1), IceCreamFlavour.CHOCOLATE, AIProfile.HUNGRY);
+        level.setPlayer(ai);
+        assertSame(AIAction.WAIT, ai.decideAction(level));
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getP50());
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        // El error de las cubetas es menor al 13%
+        assertEquals(500_000, histogram.getP50(), 500_000 * 0.13);
+        assertEquals(990_000, histogram.getP99(), 990_000 * 0.13);
+        assertTrue(histogram.getP99() >= histogram.getP50());
+
+        for (long nanos : new long[] { 0, 7, 8, 9, 1000, 123_456_789, Long.MAX_VALUE }) {
+            int bucket = LatencyHistogram.bucketOf(nanos);
+            assertTrue(LatencyHistogram.upperBound(bucket) >= nanos);
+            assertTrue(bucket == 0 || LatencyHistogram.upperBound(bucket - 1) < nanos);
+        }
+
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    public void testSchedulerRecordsOneSamplePerDecision() {
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = new AIPlayer(new Position(1, 1), IceCreamFlavour.CHOCOLATE, AIProfile.FEARFUL);
+        level.setPlayer(ai);
+        AIScheduler scheduler = new AIScheduler();
+        LatencyHistogram latency = AIScheduler.getLatency(AIProfile.FEARFUL);
+        long before = latency.getCount();
+
+        int decisions = 0;
+        for (int tick = 0; tick < 20; tick++) {
+            boolean due = ai.isDecisionDue();
+            AIAction action = scheduler.next(1, ai, level);
+            if (due) {
+                decisions++;
+            } else {
+                assertSame(AIAction.WAIT, action);
+            }
+        }
+        assertEquals(4, decisions);
+        assertEquals(before + decisions, latency.getCount());
+
+        assertThrows(IllegalArgumentException.class, () -> scheduler.setTickBudgetNanos(-1));
+    }
+
+    @Test
+    public void testPlannerSearchesWhileWaiting() {
+        Level level = TestLevels.emptyLevel();
+        level.getFruits().add(new Banana(new Position(1, 4)));
+        AIPlayer ai = new AIPlayer(new Position(1, 1), IceCreamFlavour.CHOCOLATE, AIProfile.PLANNER);
+        level.setPlayer(ai);
+        MonteCarloPlanner planner = new MonteCarloPlanner(1_000_000L, Integer.MAX_VALUE, 1);
+        ai.setPlanner(planner);
+
+        // En los ticks de espera sigue buscando y las simulaciones se suman
+        long previous = 0;
+        while (!ai.isDecisionDue()) {
+            assertSame(AIAction.WAIT, ai.decideAction(level, 200_000L));
+            assertTrue(planner.getLastIterations() > previous);
+            previous = planner.getLastIterations();
+        }
+        AIAction action = ai.decideAction(level, 200_000L);
+        assertTrue(planner.getLastIterations() > previous);
+        assertEquals(AIActionType.MOVE, action.getType());
+
+        // Un planificador de simulaciones fijas no busca entre decisiones
+        MonteCarloPlanner fixed = MonteCarloPlanner.fixed(100);
+        ai.setPlanner(fixed);
+        ai.decideAction(level, 200_000L);
+        assertEquals(0, fixed.getLastIterations());
+    }
+}
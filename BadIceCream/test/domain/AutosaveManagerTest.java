@@ -0,0 +1,92 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Pruebas unitarias para el autoguardado en anillo de puntos de control.
+ */
+public class AutosaveManagerTest {
+
+    // 200 ticks con un punto cada 20: puntos 0 a 9, el último en el archivo 1
+    private static SimulationEngine runMatch(File directory) {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(3, AIProfile.HUNGRY, AIProfile.EXPERT, 7L);
+        AutosaveManager autosave = new AutosaveManager(directory, 20, 4);
+        engine.setAutosave(autosave);
+        assertEquals(200, engine.run(200));
+        // Las escrituras van en orden: al terminar la última están todas
+        autosave.flush().join();
+        return engine;
+    }
+
+    @Test
+    public void testResumesLatestCheckpoint(@TempDir Path tempDir) throws Exception {
+        SimulationEngine original = runMatch(tempDir.toFile());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(4, files.count());
+        }
+        AutosaveManager autosave = new AutosaveManager(tempDir.toFile(), 20, 4);
+        SimulationEngine resumed = SimulationEngine.resumeLatest(autosave);
+        assertEquals(200, resumed.getTick());
+        assertArrayEquals(SaveCodec.encode(original.getGame()), SaveCodec.encode(resumed.getGame()));
+
+        // Al continuar, los puntos siguientes se encadenan con el cargado
+        resumed.run(20);
+        autosave.flush().join();
+        assertEquals(220, SimulationEngine.resumeLatest(new AutosaveManager(tempDir.toFile(), 20, 4)).getTick());
+    }
+
+    @Test
+    public void testSkipsTornAndCorruptCheckpoints(@TempDir Path tempDir) throws Exception {
+        runMatch(tempDir.toFile());
+
+        // Tick 200 es el punto 9 (archivo 1): se corta a la mitad
+        Path newest = tempDir.resolve("autosave-1.sav");
+        try (RandomAccessFile file = new RandomAccessFile(newest.toFile(), "rw")) {
+            file.setLength(file.length() / 2);
+        }
+        assertEquals(180, SimulationEngine.resumeLatest(new AutosaveManager(tempDir.toFile(), 20, 4)).getTick());
+
+        // Tick 180 es el punto 8 (archivo 0): un byte cambiado rompe la suma de control
+        Path previous = tempDir.resolve("autosave-0.sav");
+        byte[] data = Files.readAllBytes(previous);
+        data[data.length - 1] ^= 0x01;
+        Files.write(previous, data);
+        assertEquals(160, SimulationEngine.resumeLatest(new AutosaveManager(tempDir.toFile(), 20, 4)).getTick());
+    }
+
+    @Test
+    public void testDeltasAreSmallerThanFullSaves(@TempDir Path tempDir) throws Exception {
+        runMatch(tempDir.toFile());
+
+        // Con 4 archivos hay un punto completo cada 3: el 9 lo es y el 8 no
+        long full = Files.size(tempDir.resolve("autosave-1.sav"));
+        long delta = Files.size(tempDir.resolve("autosave-0.sav"));
+        assertTrue(delta < full, "diferencia " + delta + " contra completo " + full);
+    }
+
+    @Test
+    public void testDeltaRoundTrip() {
+        byte[] base = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+        byte[] longer = { 1, 9, 3, 4, 5, 6, 7, 8, 0, 10, 11, 12 };
+        byte[] shorter = { 1, 2, 3, 7 };
+        assertArrayEquals(longer, AutosaveManager.applyDelta(base, ByteBuffer.wrap(AutosaveManager.delta(base, longer))));
+        assertArrayEquals(shorter, AutosaveManager.applyDelta(base, ByteBuffer.wrap(AutosaveManager.delta(base, shorter))));
+        assertArrayEquals(base, AutosaveManager.applyDelta(base, ByteBuffer.wrap(AutosaveManager.delta(base, base))));
+    }
+
+    @Test
+    public void testNoValidCheckpoint(@TempDir Path tempDir) {
+        AutosaveManager autosave = new AutosaveManager(tempDir.toFile(), 10, 3);
+        assertThrows(BadIceCreamException.class, () -> autosave.resumeLatest(GameClock.SYSTEM));
+        assertThrows(IllegalArgumentException.class, () -> new AutosaveManager(tempDir.toFile(), 10, 1));
+    }
+}
@@ -0,0 +1,112 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para el mapa de peligros compartido por la IA.
+ */
+public class DangerMapTest {
+
+    @Test
+    public void testEnemyMarksItsNeighbourhood() {
+        Level level = TestLevels.emptyLevel();
+        Pot pot = new Pot(new Position(5, 5));
+        level.getEnemies().add(pot);
+
+        DangerMap map = level.getDangerMap();
+        assertFalse(map.isSafe(level.cellOf(5, 5)));
+        assertFalse(map.isSafe(level.cellOf(5, 6)));
+        assertTrue(map.isSafe(level.cellOf(5, 7)));
+        assertEquals(1, map.countAt(level.cellOf(5, 7), 2));
+        assertTrue(map.hasEnemyWithin(level.cellOf(6, 6), 2));
+        assertFalse(map.hasEnemyWithin(level.cellOf(8, 5), 2));
+
+        // Al moverse se actualiza solo, y el mapa es el mismo objeto
+        pot.move(new Position(8, 5));
+        assertSame(map, level.getDangerMap());
+        assertTrue(map.isSafe(level.cellOf(5, 6)));
+        assertEquals(0, map.nearestDistance(level.cellOf(8, 5)));
+        assertEquals(level.cellOf(8, 5), map.nearestDanger(level.cellOf(6, 5)));
+    }
+
+    @Test
+    public void testCampfiresAndCactiFollowTheirState() {
+        Level level = TestLevels.emptyLevel();
+        Campfire fire = new Campfire(new Position(3, 3));
+        Cactus cactus = new Cactus(new Position(9, 3));
+        level.getCampfires().add(fire);
+        level.getFruits().add(cactus);
+
+        assertFalse(level.getDangerMap().isSafe(level.cellOf(3, 4)));
+        assertTrue(level.getDangerMap().isSafe(level.cellOf(9, 4)));
+
+        fire.extinguish();
+        assertTrue(level.getDangerMap().isSafe(level.cellOf(3, 4)));
+
+        // El cactus cambia de estado en su actualización, tras 30 segundos
+        TickClock clock = new TickClock(100);
+        level.setClock(clock);
+        cactus.update(level);
+        clock.setTicks(301);
+        cactus.update(level);
+        assertTrue(cactus.hasThorns());
+        assertFalse(level.getDangerMap().isSafe(level.cellOf(9, 4)));
+    }
+
+    @Test
+    public void testEnemiesBetweenCountsTheRectangle() {
+        Level level = TestLevels.emptyLevel();
+        level.getEnemies().add(new Pot(new Position(4, 4)));
+        level.getEnemies().add(new Pot(new Position(6, 2)));
+        DangerMap map = level.getDangerMap();
+
+        assertEquals(2, map.enemiesBetween(level.cellOf(2, 2), level.cellOf(6, 5)));
+        assertEquals(1, map.enemiesBetween(level.cellOf(6, 5), level.cellOf(2, 3)));
+        assertEquals(0, map.enemiesBetween(level.cellOf(7, 7), level.cellOf(9, 9)));
+    }
+
+    @Test
+    public void testMatchesFullScanDuringAMatch() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(3, AIProfile.FEARFUL, AIProfile.EXPERT, 7L);
+        Level level = engine.getGame().getLevel();
+        for (int tick = 0; tick < 300 && engine.step(); tick++) {
+            List<Position> dangers = scanDangers(level);
+            DangerMap map = level.getDangerMap();
+            for (int cell = 0; cell < level.getWidth() * level.getHeight(); cell++) {
+                int nearest = Integer.MAX_VALUE;
+                for (Position danger : dangers) {
+                    nearest = Math.min(nearest, Math.abs(danger.getX() - cell % level.getWidth())
+                            + Math.abs(danger.getY() - cell / level.getWidth()));
+                }
+                int expected = nearest <= DangerMap.RADIUS ? nearest : -1;
+                assertEquals(expected, map.nearestDistance(cell), "tick " + tick + ", celda " + cell);
+            }
+        }
+    }
+
+    // Recorrido completo de los peligros, como hacía la IA en cada decisión
+    private static List<Position> scanDangers(Level level) {
+        List<Position> dangers = new ArrayList<>();
+        for (Enemy enemy : level.getEnemies()) {
+            if (enemy.isAlive()) {
+                dangers.add(enemy.getPosition());
+            }
+        }
+        for (Campfire fire : level.getCampfires()) {
+            if (fire.isLit()) {
+                dangers.add(fire.getPosition());
+            }
+        }
+        for (Fruit fruit : level.getFruits()) {
+            if (fruit instanceof Cactus && !fruit.isCollected() && ((Cactus) fruit).hasThorns()) {
+                dangers.add(fruit.getPosition());
+            }
+        }
+        return dangers;
+    }
+}
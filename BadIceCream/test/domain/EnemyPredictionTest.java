@@ -0,0 +1,138 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la predicción de trayectorias de los enemigos.
+ */
+public class EnemyPredictionTest {
+
+    // Tablero abierto con el azar fijo
+    private static Level emptyLevel() {
+        Level level = TestLevels.emptyLevel();
+        level.setRandomSeed(11L);
+        return level;
+    }
+
+    // Predice y luego mueve al enemigo de verdad con el jugador quieto
+    private static void assertPredictionMatches(Level level, Enemy enemy, Player player, int ticks) {
+        level.getEnemies().add(enemy);
+        level.setPlayer(player);
+        int[] predicted = enemy.predictTrajectory(level, player.getPosition(), ticks);
+        assertEquals(ticks, predicted.length);
+        for (int tick = 0; tick < ticks; tick++) {
+            enemy.updateBehavior(level, player);
+            assertEquals(level.positionOf(predicted[tick]), enemy.getPosition(), "tick " + tick);
+        }
+    }
+
+    @Test
+    public void testPotPredictionFollowsItsDelay() {
+        Level level = emptyLevel();
+        Player player = new Player(new Position(9, 5), IceCreamFlavour.VANILLA);
+        Pot pot = new Pot(new Position(3, 5));
+        level.getEnemies().add(pot);
+
+        // Da un paso cada 8 ticks
+        int[] path = pot.predictTrajectory(level, player.getPosition(), 16);
+        assertEquals(level.cellOf(3, 5), path[6]);
+        assertEquals(level.cellOf(4, 5), path[7]);
+        assertEquals(level.cellOf(5, 5), path[15]);
+
+        // Sin jugador no se mueve
+        for (int cell : pot.predictTrajectory(level, null, 16)) {
+            assertEquals(level.cellOf(3, 5), cell);
+        }
+        level.getEnemies().clear();
+        assertPredictionMatches(level, pot, player, 60);
+    }
+
+    @Test
+    public void testTrollPredictionWaitsAtIceAndTurnsBack() {
+        Level level = emptyLevel();
+        level.addIceBlock(new IceBlock(new Position(5, 1)));
+        Troll troll = new Troll(new Position(2, 1));
+        assertPredictionMatches(level, troll, new Player(new Position(7, 5), IceCreamFlavour.VANILLA), 100);
+        // Volvió por donde vino tras quedar bloqueado
+        assertEquals(Direction.LEFT, troll.getMotion(level).getDirection());
+    }
+
+    @Test
+    public void testSquidPredictionIncludesBreakingIce() {
+        Level level = emptyLevel();
+        level.addIceBlock(new IceBlock(new Position(5, 5)));
+        // Sin otro paso que romper el bloque
+        for (int y = 0; y < level.getHeight(); y++) {
+            if (y != 5) {
+                level.getWalls().add(new Wall(new Position(5, y)));
+            }
+        }
+        OrangeSquid squid = new OrangeSquid(new Position(3, 5));
+        Player player = new Player(new Position(9, 5), IceCreamFlavour.VANILLA);
+
+        // La predicción no rompe el hielo del nivel
+        int[] path = squid.predictTrajectory(level, player.getPosition(), 60);
+        assertTrue(level.isIceBlock(level.cellOf(5, 5)));
+        // Tarda 15 ticks en romper el bloque antes de seguir
+        assertEquals(level.cellOf(4, 5), path[31]);
+        assertEquals(level.cellOf(5, 5), path[32]);
+
+        assertPredictionMatches(level, squid, player, 60);
+        assertFalse(level.isIceBlock(level.cellOf(5, 5)));
+    }
+
+    @Test
+    public void testNarwhalPredictionChargesWithoutTouchingTheLevel() {
+        Level level = emptyLevel();
+        level.addIceBlock(new IceBlock(new Position(7, 5)));
+        Narwhal narwhal = new Narwhal(new Position(4, 5));
+        level.getEnemies().add(narwhal);
+        Player player = new Player(new Position(11, 5), IceCreamFlavour.VANILLA);
+
+        long randomState = level.getRandomState();
+        EnemyMotion before = narwhal.getMotion(level);
+        int[] path = narwhal.predictTrajectory(level, player.getPosition(), 20);
+
+        // Nada cambió: ni el narval, ni el hielo, ni el azar del nivel
+        assertEquals(new Position(4, 5), narwhal.getPosition());
+        assertFalse(narwhal.getMotion(level).isCharging());
+        assertEquals(before.getDirection(), narwhal.getMotion(level).getDirection());
+        assertTrue(level.isIceBlock(level.cellOf(7, 5)));
+        assertEquals(randomState, level.getRandomState());
+        // Embiste a 2 ticks por paso, atravesando el hielo
+        assertEquals(level.cellOf(10, 5), path[17]);
+
+        level.getEnemies().clear();
+        assertPredictionMatches(level, narwhal, player, 20);
+    }
+
+    @Test
+    public void testNarwhalPredictionUsesACopyOfTheRandom() {
+        Level level = emptyLevel();
+        Narwhal narwhal = new Narwhal(new Position(4, 4));
+        Player player = new Player(new Position(11, 7), IceCreamFlavour.VANILLA);
+
+        // Sin alinearse elige la dirección al azar: la predicción no consume el del nivel
+        long randomState = level.getRandomState();
+        narwhal.predictTrajectory(level, player.getPosition(), 40);
+        assertEquals(randomState, level.getRandomState());
+        assertPredictionMatches(level, narwhal, player, 40);
+        assertNotEquals(randomState, level.getRandomState());
+    }
+
+    @Test
+    public void testPredictionFromHypotheticalState() {
+        Level level = emptyLevel();
+        Pot pot = new Pot(new Position(3, 5));
+        level.getEnemies().add(pot);
+
+        EnemyMotion motion = pot.getMotion(level);
+        motion.setCell(level.cellOf(8, 2));
+        int[] path = pot.predictTrajectory(level, motion, new Position(8, 7), 8);
+        assertEquals(level.cellOf(8, 3), path[7]);
+        // Ni el estado de partida ni el enemigo cambian
+        assertEquals(level.cellOf(8, 2), motion.getCell());
+        assertEquals(new Position(3, 5), pot.getPosition());
+    }
+}
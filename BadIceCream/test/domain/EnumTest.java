@@ -7,10 +7,11 @@ public class EnumTest {
 
     @Test
     public void testAIProfileEnum() {
-        assertEquals(3, AIProfile.values().length);
+        assertEquals(4, AIProfile.values().length);
         assertEquals(AIProfile.HUNGRY, AIProfile.valueOf("HUNGRY"));
         assertEquals(AIProfile.FEARFUL, AIProfile.valueOf("FEARFUL"));
         assertEquals(AIProfile.EXPERT, AIProfile.valueOf("EXPERT"));
+        assertEquals(AIProfile.PLANNER, AIProfile.valueOf("PLANNER"));
     }
 
     @Test
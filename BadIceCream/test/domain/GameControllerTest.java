@@ -20,6 +20,8 @@ public class GameControllerTest {
         KeyEvent rightEvent = new KeyEvent(new JButton(), KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0,
                 KeyEvent.VK_D, 'd');
         controller.keyPressed(rightEvent);
+        // La entrada se aplica al inicio del siguiente tick
+        game.update();
 
         assertEquals(Direction.RIGHT, player.getDirection());
         // Position might change if move is valid
@@ -35,6 +37,7 @@ public class GameControllerTest {
         KeyEvent spaceEvent = new KeyEvent(new JButton(), KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0,
                 KeyEvent.VK_SPACE, ' ');
         controller.keyPressed(spaceEvent);
+        game.update();
 
         // Check if ice was created in front of player
         Position target = game.getPlayer().getPosition().add(game.getPlayer().getDirection());
@@ -55,7 +58,88 @@ public class GameControllerTest {
         KeyEvent leftEvent = new KeyEvent(new JButton(), KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0,
                 KeyEvent.VK_LEFT, KeyEvent.CHAR_UNDEFINED);
         controller2.keyPressed(leftEvent);
+        game.update();
 
         assertEquals(Direction.LEFT, player2.getDirection());
     }
+
+    @Test
+    public void testInputIsAppliedOnNextTick() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        GameController controller = new GameController(game);
+        Player player = game.getPlayer();
+        Position startPos = player.getPosition();
+
+        // Abajo desde (1,1) está libre en el nivel 1
+        controller.keyPressed(new KeyEvent(new JButton(), KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0,
+                KeyEvent.VK_S, 's'));
+        assertEquals(startPos, player.getPosition());
+
+        game.update();
+        assertEquals(new Position(1, 2), player.getPosition());
+    }
+
+    @Test
+    public void testInputFromManyThreads() throws InterruptedException {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA, GameMode.PLAYER_VS_PLAYER, null, null);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int playerNumber = t % 2 + 1;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    game.submitInput(InputCommand.move(playerNumber, i % 2 == 0 ? Direction.LEFT : Direction.RIGHT));
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        game.update();
+
+        // La cola quedó vacía: sin nuevas entradas los jugadores no se mueven
+        Position p1 = game.getPlayer().getPosition();
+        Position p2 = game.getPlayer2().getPosition();
+        game.update();
+        assertEquals(p1, game.getPlayer().getPosition());
+        assertEquals(p2, game.getPlayer2().getPosition());
+    }
+
+    @Test
+    public void testPauseDiscardsPendingInput() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        Position startPos = game.getPlayer().getPosition();
+
+        game.submitInput(InputCommand.move(1, Direction.DOWN));
+        game.pause();
+        game.resume();
+        game.update();
+
+        assertEquals(startPos, game.getPlayer().getPosition());
+        assertSame(InputCommand.move(1, Direction.DOWN), InputCommand.move(1, Direction.DOWN));
+    }
+
+    @Test
+    public void testPauseKeyIsAppliedBySimulation() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        GameController controller = new GameController(game);
+        KeyEvent pauseEvent = new KeyEvent(new JButton(), KeyEvent.KEY_PRESSED, System.currentTimeMillis(), 0,
+                KeyEvent.VK_P, 'p');
+
+        // El hilo de eventos solo encola la orden
+        controller.keyPressed(pauseEvent);
+        assertEquals(GameState.PLAYING, game.getState());
+        game.update();
+        assertEquals(GameState.PAUSED, game.getState());
+
+        controller.keyPressed(pauseEvent);
+        game.update();
+        assertEquals(GameState.PLAYING, game.getState());
+    }
 }
@@ -26,7 +26,7 @@ public class GameLogicTest {
 
         // Simulate 1 second of updates (10 updates per second)
         for (int i = 0; i < 10; i++) {
-            Game.update();
+            game.update();
         }
 
         assertEquals(initialTime - 1, game.getTimeRemaining());
@@ -39,7 +39,7 @@ public class GameLogicTest {
 
         // Simulate time running out
         for (int i = 0; i < 180 * 10; i++) {
-            Game.update();
+            game.update();
         }
 
         assertEquals(GameState.GAME_OVER, game.getState());
@@ -89,7 +89,7 @@ public class GameLogicTest {
         game.movePlayer(Direction.RIGHT);
 
         // Force update to check victory condition
-        Game.update();
+        game.update();
 
         assertTrue(fruit.isCollected());
         assertEquals(GameState.VICTORY, game.getState());
@@ -5,7 +5,13 @@ import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Pruebas unitarias para GameSaveManager.
@@ -62,4 +68,79 @@ public class GameSaveManagerTest {
             GameSaveManager.open(corruptedFile);
         });
     }
+
+    @Test
+    public void testSaveAsyncCapturesBetweenTicks(@TempDir Path tempDir) throws Exception {
+        File saveFile = tempDir.resolve("async.dat").toFile();
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        game.getPlayer().addScore(70);
+
+        List<Double> progress = new ArrayList<>();
+        CompletableFuture<Void> saving = game.saveAsync(saveFile, progress::add);
+        // Con la partida en curso el estado se lee en el siguiente tick
+        assertFalse(saving.isDone());
+        game.update();
+        saving.join();
+
+        assertEquals(1.0, progress.get(progress.size() - 1));
+        Game loaded = Game.openAsync(saveFile).join();
+        assertEquals(70, loaded.getPlayer().getScore());
+    }
+
+    @Test
+    public void testPauseCompletesPendingSave(@TempDir Path tempDir) throws Exception {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        game.getPlayer().addScore(40);
+
+        // Pedido antes de pausar: ya no habrá tick que lo atienda
+        File first = tempDir.resolve("first.dat").toFile();
+        CompletableFuture<Void> saving = game.saveAsync(first, null);
+        game.pause();
+        saving.get(5, TimeUnit.SECONDS);
+
+        // Pausado con la orden de control, al terminar el tick en curso
+        game.resume();
+        File second = tempDir.resolve("second.dat").toFile();
+        saving = game.saveAsync(second, null);
+        game.submitInput(InputCommand.pause());
+        game.update();
+        saving.get(5, TimeUnit.SECONDS);
+        assertEquals(GameState.PAUSED, game.getState());
+        assertEquals(40, Game.open(second).getPlayer().getScore());
+    }
+
+    @Test
+    public void testFailedWriteKeepsPreviousSave(@TempDir Path tempDir) throws Exception {
+        File saveFile = tempDir.resolve("keep.dat").toFile();
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        game.pause();
+        game.saveAsync(saveFile, null).join();
+        byte[] previous = Files.readAllBytes(saveFile.toPath());
+
+        // Un fallo a mitad de escritura no toca el archivo anterior ni deja temporales
+        game.getPlayer().addScore(500);
+        CompletableFuture<Void> failing = game.saveAsync(saveFile, fraction -> {
+            throw new IllegalStateException("fallo simulado");
+        });
+        assertThrows(CompletionException.class, failing::join);
+        assertArrayEquals(previous, Files.readAllBytes(saveFile.toPath()));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    public void testAsyncErrorsCarryTheCause(@TempDir Path tempDir) {
+        Game game = new Game();
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> game.saveAsync(tempDir.resolve("menu.dat").toFile(), null).join());
+        assertTrue(error.getCause() instanceof BadIceCreamException);
+
+        error = assertThrows(CompletionException.class,
+                () -> Game.openAsync(new File("non_existent_file.dat")).join());
+        assertTrue(error.getCause() instanceof BadIceCreamException);
+    }
 }
@@ -49,6 +49,50 @@ public class GameTest {
         assertEquals(GameState.PLAYING, game.getState(), "El juego debería estar en ejecución");
     }
 
+    /**
+     * Verifica que pausar, reanudar y reiniciar desde otro hilo se apliquen
+     * entre ticks, después de que el observador de repeticiones vea el tick.
+     */
+    @Test
+    public void testControlCommandsApplyBetweenTicks() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        GameState[] stateAtTickEnd = new GameState[1];
+        game.setReplayListener(new ReplayListener() {
+            public void onInput(InputCommand command) {
+                assertFalse(command.isControl());
+            }
+            public void onAIAction(int playerNumber, AIAction action) { }
+            public void onTickEnd() {
+                stateAtTickEnd[0] = game.getState();
+            }
+            public void onRestart() { }
+        });
+
+        // La pausa pedida durante el tick no lo interrumpe
+        game.submitInput(InputCommand.pause());
+        assertEquals(GameState.PLAYING, game.getState());
+        game.update();
+        assertEquals(GameState.PLAYING, stateAtTickEnd[0]);
+        assertEquals(GameState.PAUSED, game.getState());
+        assertEquals(1, game.getSnapshot().getTick());
+
+        // En pausa la actualización no avanza, pero reanuda; el tick llega en la siguiente
+        game.update();
+        game.submitInput(InputCommand.resume());
+        game.update();
+        assertEquals(GameState.PLAYING, game.getState());
+        assertEquals(1, game.getSnapshot().getTick());
+        game.update();
+        assertEquals(2, game.getSnapshot().getTick());
+
+        Level before = game.getLevel();
+        game.submitInput(InputCommand.reset());
+        game.update();
+        assertNotSame(before, game.getLevel());
+        assertEquals(0, game.getSnapshot().getTick());
+    }
+
     /**
      * Verifica que el jugador se mueva correctamente después de iniciar el juego.
      */
@@ -91,4 +135,82 @@ public class GameTest {
         game.startGame(1, IceCreamFlavour.VANILLA);
         assertEquals(GameState.PLAYING, game.getState());
     }
+
+    /**
+     * Verifica que dos partidas sean independientes entre sí.
+     */
+    @Test
+    public void testIndependentGames() {
+        Game first = new Game();
+        Game second = new Game();
+        first.startGame(1, IceCreamFlavour.VANILLA);
+        second.startGame(2, IceCreamFlavour.CHOCOLATE);
+
+        assertNotSame(first.getLevel(), second.getLevel());
+        assertEquals(IceCreamFlavour.VANILLA, first.getPlayer().getFlavor());
+
+        // Un segundo de juego solo en la primera partida
+        for (int i = 0; i < Game.UPDATES_PER_SECOND; i++) {
+            first.update();
+        }
+        first.pause();
+
+        assertEquals(GameState.PAUSED, first.getState());
+        assertEquals(GameState.PLAYING, second.getState());
+        assertEquals(second.getTimeRemaining() - 1, first.getTimeRemaining());
+    }
+
+    /**
+     * Verifica que varias partidas puedan simularse en paralelo.
+     */
+    @Test
+    public void testParallelMatches() throws InterruptedException {
+        SimulationEngine[] engines = new SimulationEngine[4];
+        Thread[] threads = new Thread[engines.length];
+        for (int i = 0; i < engines.length; i++) {
+            SimulationEngine engine = new SimulationEngine();
+            engine.startMachineVsMachine(1, AIProfile.EXPERT, AIProfile.HUNGRY);
+            engines[i] = engine;
+            threads[i] = new Thread(engine::runToCompletion);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (SimulationEngine engine : engines) {
+            assertNotEquals(GameState.PLAYING, engine.getGame().getState());
+        }
+    }
+
+    /**
+     * Verifica que un listener quitado no reciba más ticks, como el tablero
+     * de una partida anterior sobre el mismo juego.
+     */
+    @Test
+    public void testRemovedListenerIsNotNotified() {
+        Game game = new Game();
+        int[] updates = new int[2];
+        GameListener old = new GameListener() {
+            public void onGameUpdated() { updates[0]++; }
+            public void onGameOver() { }
+            public void onVictory() { }
+        };
+        GameListener current = new GameListener() {
+            public void onGameUpdated() { updates[1]++; }
+            public void onGameOver() { }
+            public void onVictory() { }
+        };
+        game.addListener(old);
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        game.update();
+
+        game.removeListener(old);
+        game.addListener(current);
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        game.update();
+        game.update();
+        assertEquals(1, updates[0]);
+        assertEquals(2, updates[1]);
+    }
 }
\ No newline at end of file
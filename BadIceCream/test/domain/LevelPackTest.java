@@ -0,0 +1,196 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para el formato de niveles: texto de autoría y paquete
+ * binario proyectado en memoria.
+ */
+public class LevelPackTest {
+
+    private static final String LEVEL_TEXT = String.join("\n",
+            "[LEVEL]",
+            "number=7",
+            "[MAP]",
+            "#######",
+            "#..I..#",
+            "#.*.H.#",
+            "#..o..#",
+            "#######",
+            "[SPAWNS]",
+            "1,1",
+            "5,3",
+            "[ENEMIES]",
+            "Troll,5,1",
+            "Narwhal,1,3",
+            "[WAVES]",
+            "1,GRAPE,2,1",
+            "1,GRAPE,4,1",
+            "2,CACTUS,3,2",
+            "[HOTTILES]",
+            "2,2");
+
+    @Test
+    public void testTextRoundTrip() throws BadIceCreamException {
+        LevelData data = LevelData.parse(new StringReader(LEVEL_TEXT));
+        assertEquals(7, data.getLevelNumber());
+        assertEquals(7, data.getWidth());
+        assertEquals(5, data.getHeight());
+        // La baldosa caliente bajo la fogata viene de [HOTTILES]
+        assertEquals(LevelData.CAMPFIRE | LevelData.HOT_TILE, data.getCell(2 * 7 + 2));
+        assertEquals(2, data.getWaveCount());
+        assertEquals(FruitType.CACTUS, data.getWaveFruitType(2));
+
+        StringWriter text = new StringWriter();
+        data.write(new PrintWriter(text));
+        assertSameLevel(data, LevelData.parse(new StringReader(text.toString())));
+    }
+
+    @Test
+    public void testImportExportedLevel(@TempDir Path tempDir) throws BadIceCreamException {
+        Game game = new Game();
+        game.startGame(2, IceCreamFlavour.VANILLA);
+        File file = tempDir.resolve("level2.txt").toFile();
+        game.export(file);
+
+        Level original = game.getLevel();
+        Level imported = new Level(LevelData.read(file));
+        assertEquals(2, imported.levelNumber);
+        for (int cell = 0; cell < original.getWidth() * original.getHeight(); cell++) {
+            assertEquals(original.isWall(cell), imported.isWall(cell));
+            // El mapa muestra el muro y no el hielo que el nivel 2 pone sobre el borde
+            if (!original.isWall(cell)) {
+                assertEquals(original.isIceBlock(cell), imported.isIceBlock(cell));
+            }
+            assertEquals(original.isCampfire(cell), imported.isCampfire(cell));
+            assertEquals(original.isHotTile(cell), imported.isHotTile(cell));
+            assertEquals(original.hasEnemyAt(cell), imported.hasEnemyAt(cell));
+            assertEquals(original.getFruitAt(cell) != null, imported.getFruitAt(cell) != null);
+        }
+        assertEquals(game.getPlayer().getPosition(), imported.getSpawn(0));
+
+        // Importar ya no vuelve al nivel 1: usa el mapa del archivo
+        Game importedGame = Game.importLevel(file);
+        assertEquals(imported.getIceBlocks().size(), importedGame.getLevel().getIceBlocks().size());
+    }
+
+    @Test
+    public void testPackRandomAccess(@TempDir Path tempDir) throws BadIceCreamException {
+        LevelData base = LevelData.parse(new StringReader(LEVEL_TEXT));
+        List<LevelData> levels = new ArrayList<>();
+        for (int number = 300; number >= 1; number--) {
+            levels.add(renumber(base, number));
+        }
+        File file = tempDir.resolve("levels.pack").toFile();
+        LevelPack.write(file, levels);
+
+        LevelPack pack = LevelPack.open(file);
+        assertEquals(300, pack.size());
+        assertEquals(1, pack.getLevelNumber(0));
+        assertTrue(pack.contains(150));
+        assertFalse(pack.contains(301));
+        assertSameLevel(renumber(base, 150), pack.load(150));
+        assertThrows(BadIceCreamException.class, () -> pack.load(0));
+    }
+
+    @Test
+    public void testPackLevelPlaysItsWaves(@TempDir Path tempDir) throws BadIceCreamException {
+        File file = tempDir.resolve("levels.pack").toFile();
+        LevelPack.write(file, List.of(LevelData.parse(new StringReader(LEVEL_TEXT))));
+
+        Game game = new Game();
+        game.setLevelPack(LevelPack.open(file));
+        game.startGame(7, IceCreamFlavour.VANILLA, GameMode.PLAYER_VS_PLAYER, null, null);
+        Level level = game.getLevel();
+        assertEquals(7, level.getWidth());
+        assertEquals(new Position(5, 3), game.getPlayer2().getPosition());
+        assertEquals(2, level.getFruits().size());
+
+        for (Fruit fruit : new ArrayList<>(level.getFruits())) {
+            fruit.collect();
+        }
+        level.update();
+        assertEquals(2, level.getWaveManager().getCurrentWave());
+        assertEquals(FruitType.CACTUS, level.getFruitAt(level.cellOf(3, 2)).getFruitType());
+
+        // Los niveles que no están en el paquete siguen siendo los incorporados
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        assertEquals(15, game.getLevel().getWidth());
+    }
+
+    @Test
+    public void testMissingSpawnsStayOnTheBoard() throws BadIceCreamException {
+        // Sin [SPAWNS]: las apariciones por defecto (1,1) y (13,9) no caben en 7x5
+        LevelData data = LevelData.parse(new StringReader(LEVEL_TEXT.replace("[SPAWNS]\n1,1\n5,3\n", "")));
+        assertEquals(0, data.getSpawnCount());
+        Level level = new Level(data);
+        assertEquals(new Position(1, 1), level.getSpawn(0));
+        // El segundo jugador aparece en la celda libre más cercana a la esquina opuesta
+        assertEquals(new Position(5, 3), level.getSpawn(1));
+
+        // Con solo la primera aparición en esa esquina, la segunda no repite celda
+        LevelData one = LevelData.parse(new StringReader(LEVEL_TEXT.replace("1,1\n5,3\n", "5,3\n")));
+        assertEquals(1, one.getSpawnCount());
+        assertEquals(new Position(4, 3), new Level(one).getSpawn(1));
+
+        // Un tablero sin celdas libres no se puede jugar
+        assertThrows(BadIceCreamException.class,
+                () -> LevelData.parse(new StringReader("[MAP]\n###\n#I#\n###\n")));
+    }
+
+    @Test
+    public void testRejectsInvalidPack(@TempDir Path tempDir) throws IOException {
+        File file = tempDir.resolve("broken.pack").toFile();
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 });
+        }
+        assertThrows(BadIceCreamException.class, () -> LevelPack.open(file));
+        assertThrows(BadIceCreamException.class,
+                () -> LevelData.parse(new StringReader("[MAP]\n#X#\n")));
+    }
+
+    private static LevelData renumber(LevelData data, int number) throws BadIceCreamException {
+        StringWriter text = new StringWriter();
+        data.write(new PrintWriter(text));
+        return LevelData.parse(new StringReader(text.toString().replace("number=" + data.getLevelNumber(),
+                "number=" + number)));
+    }
+
+    private static void assertSameLevel(LevelData expected, LevelData actual) {
+        assertEquals(expected.getLevelNumber(), actual.getLevelNumber());
+        assertEquals(expected.getWidth(), actual.getWidth());
+        assertEquals(expected.getHeight(), actual.getHeight());
+        for (int cell = 0; cell < expected.getWidth() * expected.getHeight(); cell++) {
+            assertEquals(expected.getCell(cell), actual.getCell(cell), "celda " + cell);
+        }
+        assertEquals(expected.getSpawnCount(), actual.getSpawnCount());
+        for (int i = 0; i < expected.getSpawnCount(); i++) {
+            assertEquals(expected.getSpawnCell(i), actual.getSpawnCell(i));
+        }
+        assertEquals(expected.getEnemyCount(), actual.getEnemyCount());
+        for (int i = 0; i < expected.getEnemyCount(); i++) {
+            assertEquals(expected.getEnemyClass(i), actual.getEnemyClass(i));
+            assertEquals(expected.getEnemyCell(i), actual.getEnemyCell(i));
+        }
+        assertEquals(expected.getWaveCount(), actual.getWaveCount());
+        for (int wave = 1; wave <= expected.getWaveCount(); wave++) {
+            assertEquals(expected.getWaveFruitType(wave), actual.getWaveFruitType(wave));
+            assertEquals(expected.getWaveSize(wave), actual.getWaveSize(wave));
+            for (int i = 0; i < expected.getWaveSize(wave); i++) {
+                assertEquals(expected.getWaveCell(wave, i), actual.getWaveCell(wave, i));
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el índice de ocupación del nivel.
+ * Verifica que las consultas puntuales sigan a las mutaciones de las entidades.
+ */
+public class OccupancyGridTest {
+
+    @Test
+    public void testIceBlockDestroyAndRepair() {
+        Level level = new Level(1);
+        Position pos = new Position(7, 5);
+        IceBlock block = new IceBlock(pos);
+        level.addIceBlock(block);
+        assertTrue(level.isIceBlock(pos));
+
+        block.destroy();
+        assertFalse(level.isIceBlock(pos));
+        assertNull(level.getIceBlockAt(pos));
+
+        block.repair();
+        assertSame(block, level.getIceBlockAt(pos));
+    }
+
+    @Test
+    public void testFruitCollectAndMove() {
+        Level level = new Level(1);
+        level.getFruits().clear();
+        Fruit fruit = new Banana(new Position(1, 1));
+        level.getFruits().add(fruit);
+        assertSame(fruit, level.getFruitAt(new Position(1, 1)));
+
+        fruit.setPosition(new Position(2, 1));
+        assertNull(level.getFruitAt(new Position(1, 1)));
+        assertSame(fruit, level.getFruitAt(new Position(2, 1)));
+
+        fruit.collect();
+        assertNull(level.getFruitAt(new Position(2, 1)));
+    }
+
+    @Test
+    public void testEnemyMoveAndDeath() {
+        Level level = new Level(1);
+        level.getEnemies().clear();
+        Pot pot = new Pot(new Position(5, 5));
+        level.getEnemies().add(pot);
+        assertTrue(level.hasEnemyAt(new Position(5, 5)));
+        assertFalse(level.hasOtherEnemyAt(new Position(5, 5), pot));
+
+        pot.move(new Position(6, 5));
+        assertFalse(level.hasEnemyAt(new Position(5, 5)));
+        assertTrue(level.hasEnemyAt(new Position(6, 5)));
+
+        pot.die();
+        assertFalse(level.hasEnemyAt(new Position(6, 5)));
+    }
+
+    @Test
+    public void testListMutationsUpdateGrid() {
+        Level level = new Level(1);
+        assertTrue(level.isWall(new Position(0, 0)));
+
+        level.getWalls().clear();
+        assertFalse(level.isWall(new Position(0, 0)));
+
+        Wall wall = new Wall(new Position(6, 5));
+        level.getWalls().add(wall);
+        assertTrue(level.isWall(new Position(6, 5)));
+
+        level.getWalls().remove(wall);
+        assertFalse(level.isWall(new Position(6, 5)));
+    }
+
+    @Test
+    public void testSharedCellKeepsRemainingObject() {
+        Level level = new Level(1);
+        level.getFruits().clear();
+        Fruit first = new Grape(new Position(1, 1));
+        Fruit second = new Grape(new Position(1, 1));
+        level.getFruits().add(first);
+        level.getFruits().add(second);
+
+        first.collect();
+        assertSame(second, level.getFruitAt(new Position(1, 1)));
+    }
+
+    @Test
+    public void testDirtyCellsTrackChanges() {
+        Level level = new Level(1);
+        int[] dirty = new int[level.getWidth() * level.getHeight()];
+        level.drainDirtyCells(dirty);
+
+        Player player = new Player(new Position(1, 1), IceCreamFlavour.VANILLA);
+        level.setPlayer(player);
+        level.drainDirtyCells(dirty);
+
+        // Movimiento del jugador: celda de origen y destino
+        player.move(new Position(2, 1));
+        int count = level.drainDirtyCells(dirty);
+        assertEquals(2, count);
+        assertEquals(level.cellOf(1, 1), dirty[0]);
+        assertEquals(level.cellOf(2, 1), dirty[1]);
+        assertEquals(0, level.drainDirtyCells(dirty));
+
+        // Hielo destruido y fogata apagada
+        IceBlock block = new IceBlock(new Position(5, 5));
+        level.getIceBlocks().add(block);
+        Campfire fire = new Campfire(new Position(6, 6));
+        level.getCampfires().add(fire);
+        level.drainDirtyCells(dirty);
+        block.destroy();
+        fire.extinguish();
+        count = level.drainDirtyCells(dirty);
+        assertEquals(2, count);
+        assertEquals(level.cellOf(5, 5), dirty[0]);
+        assertEquals(level.cellOf(6, 6), dirty[1]);
+    }
+
+    @Test
+    public void testPackedCellApi() {
+        Level level = new Level(1);
+        int cell = level.cellOf(3, 2);
+        assertEquals(2 * level.getWidth() + 3, cell);
+        assertEquals(3, level.cellX(cell));
+        assertEquals(2, level.cellY(cell));
+        assertEquals(new Position(3, 2), level.positionOf(cell));
+        assertSame(level.positionOf(cell), level.positionOf(level.cellOf(new Position(3, 2))));
+
+        assertEquals(level.cellOf(4, 2), level.neighbor(cell, Direction.RIGHT));
+        assertEquals(level.cellOf(3, 1), level.neighbor(cell, Direction.UP));
+
+        // Fuera del tablero
+        int corner = level.cellOf(0, 0);
+        assertEquals(-1, level.neighbor(corner, Direction.LEFT));
+        assertEquals(-1, level.cellOf(-1, 0));
+        assertNull(level.positionOf(-1));
+        assertFalse(level.canMoveTo(-1));
+        assertFalse(level.isIceBlock(-1));
+    }
+}
@@ -51,6 +51,13 @@ public class OrangeSquidTest {
         Position icePos = new Position(6, 5);
         level.getIceBlocks().add(new IceBlock(icePos));
 
+        // Wall column around the ice, so breaking it is the fastest way
+        for (int y = 0; y < level.getHeight(); y++) {
+            if (y != 5) {
+                level.getWalls().add(new Wall(new Position(6, y)));
+            }
+        }
+
         // Player behind ice
         Player player = new Player(new Position(8, 5), IceCreamFlavour.VANILLA);
 
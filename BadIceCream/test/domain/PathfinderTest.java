@@ -0,0 +1,144 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para el servicio de búsqueda de caminos.
+ * Verifica las distancias con muros y hielo y la invalidación de la caché.
+ */
+public class PathfinderTest {
+
+    @Test
+    public void testDistanceOnOpenBoard() {
+        Level level = TestLevels.emptyLevel();
+        Pathfinder pathfinder = level.getPathfinder();
+
+        assertEquals(5, pathfinder.distance(new Position(1, 1), new Position(4, 3), Pathfinder.ICE_IMPASSABLE));
+        assertEquals(0, pathfinder.distance(new Position(2, 2), new Position(2, 2), Pathfinder.ICE_IMPASSABLE));
+    }
+
+    @Test
+    public void testPathGoesAroundWall() {
+        Level level = TestLevels.emptyLevel();
+        Pathfinder pathfinder = level.getPathfinder();
+        Position from = new Position(5, 5);
+        Position target = new Position(7, 5);
+        assertEquals(2, pathfinder.distance(from, target, Pathfinder.ICE_IMPASSABLE));
+
+        // Muro en medio: hay que rodearlo (la caché se invalida sola)
+        level.getWalls().add(new Wall(new Position(6, 5)));
+        assertEquals(4, pathfinder.distance(from, target, Pathfinder.ICE_IMPASSABLE));
+
+        Direction step = pathfinder.nextStep(level.cellOf(from), level.cellOf(target), Pathfinder.ICE_IMPASSABLE);
+        assertTrue(step == Direction.UP || step == Direction.DOWN);
+    }
+
+    @Test
+    public void testIceCostAndInvalidation() {
+        Level level = TestLevels.emptyLevel();
+        Pathfinder pathfinder = level.getPathfinder();
+
+        // Pasillo cerrado por hielo: (1,1) -> (3,1) con muros arriba y abajo
+        for (int x = 0; x <= 4; x++) {
+            level.getWalls().add(new Wall(new Position(x, 0)));
+            level.getWalls().add(new Wall(new Position(x, 2)));
+        }
+        level.getWalls().add(new Wall(new Position(4, 1)));
+        IceBlock ice = new IceBlock(new Position(2, 1));
+        level.getIceBlocks().add(ice);
+
+        Position from = new Position(1, 1);
+        Position target = new Position(3, 1);
+        assertEquals(Pathfinder.UNREACHABLE, pathfinder.distance(from, target, Pathfinder.ICE_IMPASSABLE));
+        assertEquals(4, pathfinder.distance(from, target, 2));
+        assertEquals(Direction.RIGHT,
+                pathfinder.nextStep(level.cellOf(from), level.cellOf(target), 2));
+
+        // Al romper el hielo cambia la topología
+        int version = level.getTopologyVersion();
+        ice.destroy();
+        assertNotEquals(version, level.getTopologyVersion());
+        assertEquals(2, pathfinder.distance(from, target, Pathfinder.ICE_IMPASSABLE));
+    }
+
+    @Test
+    public void testNextStepPrefersTheFartherAxis() {
+        Level level = TestLevels.emptyLevel();
+        Pathfinder pathfinder = level.getPathfinder();
+        int target = level.cellOf(10, 6);
+
+        // Entre varios pasos igual de cortos se avanza en el eje más lejano
+        assertEquals(Direction.RIGHT, pathfinder.nextStep(level.cellOf(5, 5), target, Pathfinder.ICE_IMPASSABLE));
+        assertEquals(Direction.UP, pathfinder.nextStep(level.cellOf(9, 9), target, Pathfinder.ICE_IMPASSABLE));
+        assertNull(pathfinder.nextStep(target, target, Pathfinder.ICE_IMPASSABLE));
+    }
+
+    @Test
+    public void testCacheIsBoundedOnLargeBoards() throws BadIceCreamException {
+        int side = LevelData.MAX_SIZE;
+        Level level = new Level(new LevelData(0, side, side, new byte[side * side], new int[0], new byte[0],
+                new int[0], new FruitType[0], new int[0][]));
+        Pathfinder pathfinder = level.getPathfinder();
+        int capacity = pathfinder.getCapacity();
+        assertTrue(capacity < 64, "capacidad " + capacity);
+
+        // Un objetivo que se mueve por el tablero deja un campo por celda visitada
+        int from = level.cellOf(0, 0);
+        for (int x = 0; x < 2 * capacity; x++) {
+            assertEquals(x + 10, pathfinder.distance(from, level.cellOf(x, 10), Pathfinder.ICE_IMPASSABLE));
+            assertEquals(x + 10, pathfinder.distance(from, level.cellOf(x, 10), 2));
+        }
+        assertEquals(capacity, pathfinder.getCachedFields());
+
+        // Un campo descartado se vuelve a calcular igual
+        assertEquals(Direction.RIGHT, pathfinder.nextStep(from, level.cellOf(5, 0), Pathfinder.ICE_IMPASSABLE));
+        assertEquals(capacity, pathfinder.getCachedFields());
+    }
+
+    @Test
+    public void testChasersFollowTheSharedField() {
+        Level level = TestLevels.emptyLevel();
+        level.getCampfires().clear();
+        // Un bloque suelto entre el calamar y el jugador: rodearlo es más rápido que romperlo
+        level.getIceBlocks().add(new IceBlock(new Position(6, 5)));
+        OrangeSquid squid = new OrangeSquid(new Position(5, 5));
+        Pot pot = new Pot(new Position(5, 7));
+        level.getEnemies().add(squid);
+        level.getEnemies().add(pot);
+        Player player = new Player(new Position(9, 5), IceCreamFlavour.VANILLA);
+        level.setPlayer(player);
+
+        for (int i = 0; i < 60; i++) {
+            level.update();
+            assertTrue(level.isIceBlock(level.cellOf(6, 5)), "tick " + i);
+        }
+        assertEquals(new Position(9, 5), squid.getPosition());
+        // El pote espera al lado porque la celda del jugador está ocupada
+        assertEquals(1, Math.abs(pot.getPosition().getX() - 9) + Math.abs(pot.getPosition().getY() - 5));
+    }
+
+    @Test
+    public void testHungryAIBreaksIceOnShortestPath() {
+        Level level = TestLevels.emptyLevel();
+        // La fruta está detrás de un muro salvo por una celda con hielo
+        for (int y = 0; y < level.getHeight(); y++) {
+            if (y != 3) {
+                level.getWalls().add(new Wall(new Position(4, y)));
+            }
+        }
+        level.getIceBlocks().add(new IceBlock(new Position(4, 3)));
+        level.getFruits().add(new Banana(new Position(5, 3)));
+
+        AIPlayer ai = new AIPlayer(new Position(3, 3), IceCreamFlavour.CHOCOLATE, AIProfile.HUNGRY);
+        AIAction action = null;
+        for (int i = 0; i < 10; i++) {
+            action = ai.decideAction(level);
+            if (action.getType() != AIActionType.WAIT)
+                break;
+        }
+
+        assertEquals(AIActionType.DESTROY_ICE, action.getType());
+        assertEquals(Direction.RIGHT, action.getDirection());
+    }
+}
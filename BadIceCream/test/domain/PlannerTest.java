@@ -0,0 +1,183 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pruebas unitarias para el perfil PLANNER y su búsqueda de Monte Carlo.
+ */
+public class PlannerTest {
+
+    private static AIPlayer planner(Level level) {
+        AIPlayer ai = new AIPlayer(new Position(1, 1), IceCreamFlavour.CHOCOLATE, AIProfile.PLANNER);
+        ai.setPlanner(MonteCarloPlanner.fixed(400));
+        level.setPlayer(ai);
+        return ai;
+    }
+
+    private static AIAction decide(AIPlayer ai, Level level) {
+        AIAction action = null;
+        for (int i = 0; i < 10; i++) {
+            action = ai.decideAction(level);
+            if (action.getType() != AIActionType.WAIT) {
+                break;
+            }
+        }
+        return action;
+    }
+
+    @Test
+    public void testPlannerMovesToNearbyFruit() {
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = planner(level);
+        level.getFruits().add(new Banana(new Position(1, 3)));
+
+        AIAction action = decide(ai, level);
+        assertEquals(AIActionType.MOVE, action.getType());
+        assertEquals(Direction.DOWN, action.getDirection());
+    }
+
+    @Test
+    public void testPlannerAvoidsDeadlyCampfire() {
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = planner(level);
+        // La fruta está detrás de una fogata encendida
+        level.getCampfires().add(new Campfire(new Position(2, 1)));
+        level.getFruits().add(new Banana(new Position(3, 1)));
+        assertTrue(level.isDeadlyCampfire(level.cellOf(2, 1)));
+
+        for (int i = 0; i < 5; i++) {
+            AIAction action = decide(ai, level);
+            assertNotEquals(Direction.RIGHT, action.getDirection());
+        }
+    }
+
+    @Test
+    public void testPlannerBreaksIceInTheWay() {
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = planner(level);
+        level.getWalls().add(new Wall(new Position(0, 1)));
+        level.getWalls().add(new Wall(new Position(1, 0)));
+        level.getWalls().add(new Wall(new Position(1, 2)));
+        level.addIceBlock(new IceBlock(new Position(2, 1)));
+        level.getFruits().add(new Banana(new Position(3, 1)));
+
+        AIAction action = decide(ai, level);
+        assertEquals(AIActionType.DESTROY_ICE, action.getType());
+        assertEquals(Direction.RIGHT, action.getDirection());
+    }
+
+    @Test
+    public void testCopyDoesNotShareMutableState() {
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = planner(level);
+        level.getFruits().add(new Banana(new Position(2, 1)));
+
+        PlannerState original = new PlannerState();
+        original.load(level, ai, 5);
+        PlannerState copy = new PlannerState();
+        copy.copyFrom(original);
+        copy.step(Direction.RIGHT.ordinal(), new SplittableRandom(1));
+
+        assertEquals(0, copy.getFruitCount());
+        assertEquals(1, original.getFruitCount());
+        assertEquals(level.cellOf(1, 1), original.getPlayerCell());
+        assertTrue(copy.evaluate() > original.evaluate());
+    }
+
+    @Test
+    public void testRolloutChasersGoAroundWalls() {
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = new AIPlayer(new Position(9, 5), IceCreamFlavour.CHOCOLATE, AIProfile.PLANNER);
+        level.setPlayer(ai);
+        // Un muro entre la maceta y el jugador: acercarse en línea recta la deja atascada
+        for (int y = 3; y <= 7; y++) {
+            level.getWalls().add(new Wall(new Position(7, y)));
+        }
+        level.getEnemies().add(new Pot(new Position(5, 5)));
+
+        PlannerState state = new PlannerState();
+        state.load(level, ai, 10);
+        SplittableRandom random = new SplittableRandom(1);
+        int steps = 0;
+        while (!state.isDead() && steps < 20) {
+            state.step(-1, random);
+            steps++;
+        }
+        // El camino que rodea el muro mide 10 celdas
+        assertTrue(state.isDead(), "la maceta no alcanzó al jugador");
+        assertEquals(10, steps);
+    }
+
+    @Test
+    public void testTimedPlannerRespectsBudget() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(3, AIProfile.PLANNER, AIProfile.EXPERT, 7L);
+        Level level = engine.getGame().getLevel();
+        AIPlayer ai = (AIPlayer) level.getPlayer();
+        MonteCarloPlanner timed = MonteCarloPlanner.timed();
+        // Un solo árbol: el tiempo de CPU es el presupuesto, no uno por núcleo
+        assertEquals(1, timed.getWorkers());
+
+        // La primera decisión calienta el código; se mide la segunda
+        timed.decide(level, ai, 5);
+        long start = System.nanoTime();
+        assertNotNull(timed.decide(level, ai, 5));
+        long elapsed = System.nanoTime() - start;
+        assertTrue(timed.getLastIterations() > 0);
+        assertTrue(elapsed < 50 * MonteCarloPlanner.DEFAULT_BUDGET_NANOS, "tardó " + elapsed + " ns");
+    }
+
+    @Test
+    public void testRootParallelizationSplitsIterations() {
+        Level level = TestLevels.emptyLevel();
+        AIPlayer ai = planner(level);
+        level.getFruits().add(new Banana(new Position(1, 3)));
+        MonteCarloPlanner parallel = MonteCarloPlanner.fixed(401, 4);
+        assertEquals(4, parallel.getWorkers());
+
+        // Las simulaciones se reparten: la suma de los árboles es el total pedido
+        assertEquals(Direction.DOWN, parallel.decide(level, ai, 5));
+        assertEquals(401, parallel.getLastIterations());
+
+        // Con límite de tiempo cada árbol busca su parte del presupuesto
+        MonteCarloPlanner timed = MonteCarloPlanner.timed(4);
+        timed.decide(level, ai, 5);
+        long start = System.nanoTime();
+        assertEquals(Direction.DOWN, timed.decide(level, ai, 5));
+        long elapsed = System.nanoTime() - start;
+        assertTrue(timed.getLastIterations() > 0);
+        assertTrue(elapsed < 50 * MonteCarloPlanner.DEFAULT_BUDGET_NANOS, "tardó " + elapsed + " ns");
+    }
+
+    @Test
+    public void testParallelPlannerMatchIsReproducible() {
+        byte[][] results = new byte[2][];
+        for (int i = 0; i < 2; i++) {
+            SimulationEngine engine = new SimulationEngine();
+            engine.startMachineVsMachine(3, AIProfile.PLANNER, AIProfile.HUNGRY, 7L);
+            AIPlayer ai = (AIPlayer) engine.getGame().getLevel().getPlayer();
+            ai.setPlannerWorkers(3);
+            engine.run(150);
+            results[i] = SaveCodec.encode(engine.getGame());
+        }
+        assertArrayEquals(results[0], results[1]);
+        assertThrows(IllegalArgumentException.class,
+                () -> new AIPlayer(new Position(1, 1), IceCreamFlavour.VANILLA, AIProfile.PLANNER).setPlannerWorkers(0));
+    }
+
+    @Test
+    public void testFixedPlannerMatchIsReproducible() {
+        byte[][] results = new byte[2][];
+        for (int i = 0; i < 2; i++) {
+            SimulationEngine engine = new SimulationEngine();
+            engine.startMachineVsMachine(3, AIProfile.PLANNER, AIProfile.HUNGRY, 7L);
+            ((AIPlayer) engine.getGame().getLevel().getPlayer()).setPlanner(MonteCarloPlanner.fixed(200));
+            engine.run(150);
+            results[i] = SaveCodec.encode(engine.getGame());
+        }
+        assertArrayEquals(results[0], results[1]);
+    }
+}
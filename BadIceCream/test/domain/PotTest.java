@@ -61,9 +61,13 @@ public class PotTest {
             pot.updateBehavior(level, player);
         }
 
-        // Should NOT move right because of wall.
-        // Might try Y if player is also offset in Y, but here only X diff.
-        // If only X diff and blocked, stays put.
-        assertEquals(new Position(5, 5), pot.getPosition());
+        // Should NOT move right because of wall: it steps aside to go around it.
+        assertEquals(new Position(5, 6), pot.getPosition());
+
+        // Follows the shortest path around the wall until it reaches the player
+        for (int i = 0; i < 40; i++) {
+            pot.updateBehavior(level, player);
+        }
+        assertEquals(new Position(8, 5), pot.getPosition());
     }
 }
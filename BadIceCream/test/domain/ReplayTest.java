@@ -0,0 +1,140 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Pruebas unitarias para la grabación y repetición de partidas.
+ */
+public class ReplayTest {
+
+    @Test
+    public void testMachineVsMachineReplaysIdentically() throws BadIceCreamException {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(3, AIProfile.HUNGRY, AIProfile.EXPERT, 7L);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        ReplayRecorder recorder = ReplayRecorder.start(engine.getGame(), log);
+        engine.run(300);
+        recorder.close();
+
+        // Dos IA durante 300 ticks caben en unos pocos KB
+        assertTrue(log.size() < 2048, "registro de " + log.size() + " bytes");
+
+        ReplayPlayer replay = ReplayPlayer.read(log.toByteArray());
+        assertEquals(300, replay.getLength());
+        assertEquals(3, replay.getLevelNumber());
+        assertEquals(300, replay.run(1000));
+        assertEquals(-1, replay.getDesyncTick());
+        assertArrayEquals(SaveCodec.encode(engine.getGame()), SaveCodec.encode(replay.getGame()));
+    }
+
+    @Test
+    public void testPlayerInputsAreReplayed(@TempDir Path tempDir) throws BadIceCreamException {
+        Game game = new Game();
+        SimulationEngine engine = new SimulationEngine(game);
+        game.startGame(1, IceCreamFlavour.CHOCOLATE, GameMode.PLAYER_VS_MACHINE, AIProfile.FEARFUL, null);
+        File file = tempDir.resolve("match.birp").toFile();
+        ReplayRecorder recorder = ReplayRecorder.start(game, file);
+
+        Direction[] moves = { Direction.RIGHT, Direction.RIGHT, Direction.DOWN, Direction.DOWN, Direction.LEFT };
+        for (int i = 0; i < 60 && game.getState() == GameState.PLAYING; i++) {
+            if (i % 6 == 0) {
+                game.submitInput(InputCommand.move(1, moves[(i / 6) % moves.length]));
+            } else if (i % 6 == 3) {
+                game.submitInput(InputCommand.iceAction(1));
+            }
+            engine.step();
+        }
+        recorder.close();
+
+        ReplayPlayer replay = ReplayPlayer.open(file);
+        assertEquals(recorder.getTicks(), replay.getLength());
+        replay.runToEnd();
+        assertEquals(-1, replay.getDesyncTick());
+        assertArrayEquals(SaveCodec.encode(game), SaveCodec.encode(replay.getGame()));
+    }
+
+    @Test
+    public void testResetEndsRecording() throws BadIceCreamException {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(3, AIProfile.HUNGRY, AIProfile.EXPERT, 7L);
+        Game game = engine.getGame();
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        ReplayRecorder recorder = ReplayRecorder.start(game, log);
+        engine.run(50);
+
+        game.submitInput(InputCommand.reset());
+        engine.step();
+        assertTrue(recorder.isFinished());
+        assertTrue(recorder.isRestarted());
+        assertEquals(51, recorder.getTicks());
+
+        // La repetición llega hasta el reinicio, sin mezclar la partida nueva
+        engine.run(20);
+        ReplayPlayer replay = ReplayPlayer.read(log.toByteArray());
+        assertEquals(51, replay.getLength());
+        replay.runToEnd();
+        assertEquals(-1, replay.getDesyncTick());
+
+        // La partida nueva se graba desde su propio estado inicial
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        ReplayRecorder next = ReplayRecorder.start(game, second);
+        engine.run(30);
+        next.close();
+        assertFalse(next.isRestarted());
+        ReplayPlayer nextReplay = ReplayPlayer.read(second.toByteArray());
+        nextReplay.runToEnd();
+        assertEquals(30, nextReplay.getTick());
+        assertEquals(-1, nextReplay.getDesyncTick());
+        assertArrayEquals(SaveCodec.encode(game), SaveCodec.encode(nextReplay.getGame()));
+    }
+
+    @Test
+    public void testSeekBackAndForth() throws BadIceCreamException {
+        byte[] log = recordMatch(300);
+        ReplayPlayer straight = ReplayPlayer.read(log);
+        straight.seek(180);
+        byte[] at180 = SaveCodec.encode(straight.getGame());
+
+        ReplayPlayer seeking = ReplayPlayer.read(log);
+        seeking.seek(250);
+        seeking.seek(40);
+        assertEquals(40, seeking.getTick());
+        seeking.seek(180);
+        assertEquals(180, seeking.getTick());
+        assertArrayEquals(at180, SaveCodec.encode(seeking.getGame()));
+
+        // Más allá del final se queda en el último tick
+        seeking.seek(10_000);
+        assertEquals(300, seeking.getTick());
+        assertTrue(seeking.isFinished());
+    }
+
+    @Test
+    public void testTruncatedLogReplaysCompleteTicks() throws BadIceCreamException {
+        byte[] log = recordMatch(300);
+        ReplayPlayer replay = ReplayPlayer.read(Arrays.copyOf(log, log.length - 41));
+        assertTrue(replay.getLength() > 0 && replay.getLength() < 300);
+        replay.runToEnd();
+        assertEquals(-1, replay.getDesyncTick());
+
+        assertThrows(BadIceCreamException.class, () -> ReplayPlayer.read(Arrays.copyOf(log, 10)));
+        assertThrows(BadIceCreamException.class, () -> ReplayRecorder.start(new Game(), new ByteArrayOutputStream()));
+    }
+
+    private static byte[] recordMatch(int ticks) throws BadIceCreamException {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(3, AIProfile.HUNGRY, AIProfile.EXPERT, 7L);
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        ReplayRecorder recorder = ReplayRecorder.start(engine.getGame(), log);
+        engine.run(ticks);
+        recorder.close();
+        return log.toByteArray();
+    }
+}
@@ -0,0 +1,194 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Pruebas unitarias para el formato binario de partidas guardadas.
+ */
+public class SaveCodecTest {
+
+    @Test
+    public void testRoundTrip() throws BadIceCreamException {
+        Game game = new Game();
+        game.startGame(3, IceCreamFlavour.CHOCOLATE);
+        Level level = game.getLevel();
+        game.getPlayer().addScore(450);
+        game.getPlayer().setDirection(Direction.UP);
+        level.getFruits().get(0).collect();
+        level.getEnemies().get(1).die();
+        level.getCampfires().get(0).extinguish();
+        level.addIceBlock(new IceBlock(new Position(1, 3)));
+
+        Game loaded = SaveCodec.decode(SaveCodec.encode(game), null);
+        Level copy = loaded.getLevel();
+
+        assertEquals(3, copy.levelNumber);
+        assertEquals(450, loaded.getPlayer().getScore());
+        assertEquals(Direction.UP, loaded.getPlayer().getDirection());
+        assertEquals(IceCreamFlavour.CHOCOLATE, loaded.getPlayer().getFlavor());
+        for (int cell = 0; cell < level.getWidth() * level.getHeight(); cell++) {
+            assertEquals(level.isWall(cell), copy.isWall(cell));
+            assertEquals(level.isIceBlock(cell), copy.isIceBlock(cell));
+            assertEquals(level.isHotTile(cell), copy.isHotTile(cell));
+            assertEquals(level.isDeadlyCampfire(cell), copy.isDeadlyCampfire(cell));
+        }
+        assertEquals(level.getFruits().size(), copy.getFruits().size());
+        assertTrue(copy.getFruits().get(0).isCollected());
+        assertFalse(copy.getEnemies().get(1).isAlive());
+        assertEquals(level.getEnemies().get(0).getClass(), copy.getEnemies().get(0).getClass());
+    }
+
+    @Test
+    public void testSaveIsCompact() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        // 165 celdas: cada capa ocupa 21 bytes y las unidades unos pocos
+        assertTrue(SaveCodec.encode(game).length < 250);
+    }
+
+    @Test
+    public void testRejectsDamagedData() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        byte[] data = SaveCodec.encode(game);
+
+        byte[] flipped = data.clone();
+        flipped[flipped.length - 3] ^= 0x10;
+        assertThrows(BadIceCreamException.class, () -> SaveCodec.decode(flipped, null));
+
+        byte[] truncated = Arrays.copyOf(data, data.length - 5);
+        assertThrows(BadIceCreamException.class, () -> SaveCodec.decode(truncated, null));
+
+        // Partidas del formato anterior (serialización de Java)
+        byte[] legacy = { (byte) 0xAC, (byte) 0xED, 0, 5, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
+        assertThrows(BadIceCreamException.class, () -> SaveCodec.decode(legacy, null));
+    }
+
+    @Test
+    public void testMachineVsMachineResumesIdentically(@TempDir Path tempDir) throws BadIceCreamException {
+        SimulationEngine original = new SimulationEngine();
+        original.startMachineVsMachine(3, AIProfile.HUNGRY, AIProfile.EXPERT, 7L);
+        original.run(200);
+        File file = tempDir.resolve("match.sav").toFile();
+        GameSaveManager.save(original.getGame(), file);
+
+        SimulationEngine resumed = SimulationEngine.resume(file);
+        assertEquals(original.getTick(), resumed.getTick());
+        assertEquals(GameMode.MACHINE_VS_MACHINE, resumed.getGame().getGameMode());
+        assertTrue(resumed.getGame().getPlayer2() instanceof AIPlayer);
+
+        // Ambas partidas deben seguir exactamente igual: IA, enemigos, azar y relojes
+        for (int tick = 0; tick < 300; tick++) {
+            original.step();
+            resumed.step();
+        }
+        Game a = original.getGame();
+        Game b = resumed.getGame();
+        assertEquals(a.getPlayer().getScore(), b.getPlayer().getScore());
+        assertEquals(a.getPlayer2().getScore(), b.getPlayer2().getScore());
+        assertEquals(a.getPlayer().getPosition(), b.getPlayer().getPosition());
+        assertEquals(a.getPlayer2().getPosition(), b.getPlayer2().getPosition());
+        assertEquals(a.getState(), b.getState());
+        assertArrayEquals(SaveCodec.encode(a), SaveCodec.encode(b));
+    }
+
+    @Test
+    public void testPlannerResumesIdentically(@TempDir Path tempDir) throws BadIceCreamException {
+        for (long seed : new long[] { 1L, 7L, 42L }) {
+            SimulationEngine original = new SimulationEngine();
+            original.startMachineVsMachine(1, AIProfile.PLANNER, AIProfile.FEARFUL, seed);
+            original.run(23);
+            File file = tempDir.resolve("planner" + seed + ".sav").toFile();
+            GameSaveManager.save(original.getGame(), file);
+            SimulationEngine resumed = SimulationEngine.resume(file);
+
+            // Con reloj de ticks el planificador no depende del tiempo ni del árbol conservado
+            for (int tick = 0; tick < 150; tick++) {
+                original.step();
+                resumed.step();
+            }
+            assertArrayEquals(SaveCodec.encode(original.getGame()), SaveCodec.encode(resumed.getGame()),
+                    "semilla " + seed);
+        }
+    }
+
+    @Test
+    public void testImportedLevelReopens(@TempDir Path tempDir) throws BadIceCreamException, IOException {
+        File levelFile = tempDir.resolve("small.txt").toFile();
+        Files.writeString(levelFile.toPath(), String.join("\n",
+                "[LEVEL]",
+                "number=1",
+                "[MAP]",
+                "#######",
+                "#..I..#",
+                "#.*.H.#",
+                "#.....#",
+                "#######",
+                "[SPAWNS]",
+                "1,3",
+                "[ENEMIES]",
+                "Troll,5,1",
+                "[WAVES]",
+                "1,GRAPE,2,1",
+                "2,CACTUS,3,3"));
+        Game game = Game.importLevel(levelFile);
+        for (Fruit fruit : new ArrayList<>(game.getLevel().getFruits())) {
+            fruit.collect();
+        }
+        for (int tick = 0; tick < 5; tick++) {
+            game.update();
+        }
+        assertEquals(2, game.getLevel().getWaveManager().getCurrentWave());
+
+        File saveFile = tempDir.resolve("small.sav").toFile();
+        game.save(saveFile);
+        Game opened = Game.open(saveFile);
+
+        // Se abre sobre el mapa importado aunque su número sea el de un nivel incorporado
+        Level level = opened.getLevel();
+        assertEquals(7, level.getWidth());
+        assertEquals(5, level.getHeight());
+        assertNotNull(level.getLevelData());
+        assertEquals(FruitType.CACTUS, level.getFruitAt(level.cellOf(3, 3)).getFruitType());
+        assertEquals(new Position(1, 3), level.getSpawn(0));
+        assertEquals(2, level.getWaveManager().getCurrentWave());
+        assertEquals(game.getPlayer().getPosition(), opened.getPlayer().getPosition());
+        assertEquals(game.getLevel().getEnemies().get(0).getPosition(), level.getEnemies().get(0).getPosition());
+        for (int cell = 0; cell < level.getWidth() * level.getHeight(); cell++) {
+            assertEquals(game.getLevel().isWall(cell), level.isWall(cell));
+            assertEquals(game.getLevel().isIceBlock(cell), level.isIceBlock(cell));
+            assertEquals(game.getLevel().isHotTile(cell), level.isHotTile(cell));
+            assertEquals(game.getLevel().isDeadlyCampfire(cell), level.isDeadlyCampfire(cell));
+        }
+
+        // Reiniciar vuelve al principio del mapa importado, no al nivel incorporado 1
+        opened.reset();
+        assertEquals(7, opened.getLevel().getWidth());
+        assertEquals(1, opened.getLevel().getWaveManager().getCurrentWave());
+        assertEquals(new Position(1, 3), opened.getPlayer().getPosition());
+    }
+
+    @Test
+    public void testPlayerVsMachineReloadsWithBothPlayers() throws BadIceCreamException {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.STRAWBERRY, GameMode.PLAYER_VS_MACHINE, AIProfile.FEARFUL, null);
+        game.getPlayer2().addScore(300);
+
+        Game loaded = SaveCodec.decode(SaveCodec.encode(game), null);
+        assertEquals(GameMode.PLAYER_VS_MACHINE, loaded.getGameMode());
+        assertFalse(loaded.getPlayer() instanceof AIPlayer);
+        assertTrue(loaded.getPlayer2() instanceof AIPlayer);
+        assertEquals(AIProfile.FEARFUL, ((AIPlayer) loaded.getPlayer2()).getProfile());
+        assertEquals(300, loaded.getPlayer2().getScore());
+        assertEquals(game.getPlayer2().getPosition(), loaded.getPlayer2().getPosition());
+    }
+}
@@ -0,0 +1,76 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la simulación sin interfaz.
+ * Verifica que el juego avance con el reloj de ticks y no con el tiempo real.
+ */
+public class SimulationEngineTest {
+
+    @Test
+    public void testCampfireTogglesOnTickTime() {
+        Level level = new Level(1);
+        TickClock clock = new TickClock(100);
+        level.setClock(clock);
+        level.getCampfires().clear();
+        Campfire fire = new Campfire(new Position(3, 3));
+        level.getCampfires().add(fire);
+
+        level.update();
+        assertTrue(fire.isLit());
+
+        // 5 segundos de juego = 50 ticks de 100 ms, sin esperar tiempo real
+        for (int i = 0; i < 49; i++) {
+            clock.advance();
+            level.update();
+        }
+        assertTrue(fire.isLit());
+
+        clock.advance();
+        level.update();
+        assertFalse(fire.isLit());
+    }
+
+    @Test
+    public void testCactusUsesLevelClock() {
+        Level level = new Level(1);
+        TickClock clock = new TickClock(1000);
+        level.setClock(clock);
+        Cactus cactus = new Cactus(new Position(5, 5));
+        level.getFruits().add(cactus);
+
+        cactus.update(level);
+        assertEquals(30000, cactus.getTimeUntilStateChange());
+
+        for (int i = 0; i < 30; i++) {
+            clock.advance();
+        }
+        cactus.update(level);
+        assertTrue(cactus.hasThorns());
+    }
+
+    @Test
+    public void testMachineVsMachineRunsToCompletion() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(1, AIProfile.EXPERT, AIProfile.HUNGRY);
+        assertEquals(GameState.PLAYING, engine.getGame().getState());
+
+        GameState result = engine.runToCompletion();
+
+        assertNotEquals(GameState.PLAYING, result);
+        assertTrue(engine.getTick() <= SimulationEngine.MAX_MATCH_TICKS);
+        assertSame(engine.getClock(), engine.getGame().getLevel().getClock());
+    }
+
+    @Test
+    public void testStepStopsWhenMatchIsOver() {
+        SimulationEngine engine = new SimulationEngine();
+        engine.startMachineVsMachine(1, AIProfile.FEARFUL, AIProfile.FEARFUL);
+        engine.getGame().pause();
+
+        assertFalse(engine.step());
+        assertEquals(0, engine.getTick());
+    }
+}
@@ -0,0 +1,27 @@
+package domain;
+
+/**
+ * Niveles de prueba compartidos por las pruebas de la IA y de los enemigos.
+ */
+final class TestLevels {
+
+    private TestLevels() {
+        // Clase de utilidad
+    }
+
+    /**
+     * Crea el nivel 1 sin frutas, enemigos, muros, hielo ni fogatas: un
+     * tablero abierto de 15x11 con las apariciones por defecto.
+     *
+     * @return El nivel.
+     */
+    static Level emptyLevel() {
+        Level level = new Level(1);
+        level.getFruits().clear();
+        level.getEnemies().clear();
+        level.getWalls().clear();
+        level.getIceBlocks().clear();
+        level.getCampfires().clear();
+        return level;
+    }
+}
@@ -0,0 +1,55 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para el torneo de IA.
+ * Verifica la reproducibilidad con semilla y la agregación de resultados.
+ */
+public class TournamentRunnerTest {
+
+    @Test
+    public void testSeededMatchIsReproducible() {
+        TournamentRunner.MatchResult first = TournamentRunner.playMatch(2, AIProfile.HUNGRY, AIProfile.EXPERT, 7L);
+        TournamentRunner.MatchResult second = TournamentRunner.playMatch(2, AIProfile.HUNGRY, AIProfile.EXPERT, 7L);
+
+        assertEquals(first.getScore1(), second.getScore1());
+        assertEquals(first.getScore2(), second.getScore2());
+        assertEquals(first.getTicks(), second.getTicks());
+        assertEquals(first.getSurvivalTicks1(), second.getSurvivalTicks1());
+        assertEquals(first.getFinalState(), second.getFinalState());
+        assertNotEquals(GameState.PLAYING, first.getFinalState());
+    }
+
+    @Test
+    public void testTournamentAggregatesPairings() throws Exception {
+        AIProfile[] profiles = { AIProfile.HUNGRY, AIProfile.FEARFUL };
+        TournamentRunner runner = new TournamentRunner(new int[] { 1 }, profiles, 2, 1L, 2);
+
+        TournamentReport report = runner.run();
+
+        assertEquals(8, report.getMatchCount());
+        assertEquals(4, report.getPairings().size());
+        TournamentReport.PairingStats stats = report.getPairing(AIProfile.HUNGRY, AIProfile.FEARFUL);
+        assertEquals(2, stats.getMatches());
+        assertEquals(2, stats.getWins1() + stats.getWins2() + stats.getDraws());
+        assertTrue(stats.getTicksPerSecond() > 0);
+
+        File csv = File.createTempFile("tournament", ".csv");
+        File json = File.createTempFile("tournament", ".json");
+        csv.deleteOnExit();
+        json.deleteOnExit();
+        report.writeCsv(csv);
+        report.writeJson(json);
+
+        List<String> lines = Files.readAllLines(csv.toPath());
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).startsWith("profile1,profile2,matches"));
+        assertTrue(new String(Files.readAllBytes(json.toPath())).contains("\"profile1\": \"HUNGRY\""));
+    }
+}
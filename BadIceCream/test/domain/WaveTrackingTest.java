@@ -0,0 +1,86 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pruebas unitarias para el seguimiento de oleadas por eventos: el contador de
+ * frutas pendientes, los eventos de oleada y la compactación de frutas.
+ */
+public class WaveTrackingTest {
+
+    @Test
+    public void testRemainingFruitsFollowCollection() {
+        Level level = new Level(1);
+        FruitWaveManager manager = level.getWaveManager();
+        int total = level.getFruits().size();
+
+        assertEquals(total, manager.getRemainingFruits());
+        level.getFruits().get(0).collect();
+        assertEquals(total - 1, manager.getRemainingFruits());
+
+        // Recolectar dos veces la misma fruta no cuenta de nuevo
+        level.getFruits().get(0).collect();
+        assertEquals(total - 1, manager.getRemainingFruits());
+
+        // Quitar una fruta sin recoger también la descuenta
+        level.getFruits().remove(1);
+        assertEquals(total - 2, manager.getRemainingFruits());
+    }
+
+    @Test
+    public void testWaveEvents() {
+        Level level = new Level(1);
+        FruitWaveManager manager = level.getWaveManager();
+        List<String> events = new ArrayList<>();
+        manager.addWaveListener(new WaveListener() {
+            @Override
+            public void onWaveStarted(int wave, FruitType fruitType) {
+                events.add("start " + wave + " " + fruitType);
+            }
+
+            @Override
+            public void onWaveCompleted(int wave) {
+                events.add("end " + wave);
+            }
+        });
+
+        for (Fruit fruit : new ArrayList<>(level.getFruits())) {
+            fruit.collect();
+        }
+        assertEquals(List.of("end 1"), events);
+        assertTrue(manager.isCurrentWaveCompleted());
+
+        level.update();
+        assertEquals(List.of("end 1", "start 2 " + FruitType.BANANA), events);
+        assertFalse(manager.isCurrentWaveCompleted());
+        assertEquals(level.getFruits().size(), manager.getRemainingFruits());
+    }
+
+    @Test
+    public void testCollectedFruitsAreCompacted() {
+        Level level = new Level(1);
+        int wave1 = level.getFruits().size();
+        for (Fruit fruit : new ArrayList<>(level.getFruits())) {
+            fruit.collect();
+        }
+        level.update();
+
+        // La lista solo conserva la oleada nueva
+        assertEquals(wave1, level.getCompactedFruitCount());
+        assertTrue(level.getFruits().stream().noneMatch(Fruit::isCollected));
+
+        // El HUD sigue viendo el total de frutas del nivel
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        for (Fruit fruit : new ArrayList<>(game.getLevel().getFruits())) {
+            fruit.collect();
+        }
+        game.update();
+        WorldSnapshot world = game.getSnapshot();
+        assertEquals(wave1, world.getFruitsCollected());
+        assertEquals(wave1 + game.getLevel().getFruits().size(), world.getFruitsTotal());
+    }
+}
@@ -0,0 +1,95 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pruebas unitarias para la instantánea del mundo publicada por el juego.
+ * Verifica que refleje el nivel y que no cambie al avanzar la simulación.
+ */
+public class WorldSnapshotTest {
+
+    @Test
+    public void testSnapshotMatchesLevel() {
+        Game game = new Game();
+        game.startGame(2, IceCreamFlavour.VANILLA, GameMode.PLAYER_VS_MACHINE, AIProfile.EXPERT, null);
+        Level level = game.getLevel();
+        WorldSnapshot world = game.getSnapshot();
+
+        assertNotNull(world);
+        assertEquals(0, world.getTick());
+        assertEquals(GameState.PLAYING, world.getState());
+        assertEquals(level.getWidth(), world.getWidth());
+        assertEquals(level.getHeight(), world.getHeight());
+
+        for (int cell = 0; cell < level.getWidth() * level.getHeight(); cell++) {
+            assertEquals(level.isWall(cell), world.getStaticCell(cell) == WorldSnapshot.WALL);
+            assertEquals(level.isHotTile(cell) && !level.isWall(cell),
+                    world.getStaticCell(cell) == WorldSnapshot.HOT_TILE);
+            assertEquals(level.isIceBlock(cell), world.getGroundCell(cell) == WorldSnapshot.ICE);
+            Fruit fruit = level.getFruitAt(cell);
+            assertEquals(fruit == null ? null : fruit.getFruitType(), world.getFruitType(cell));
+        }
+
+        assertEquals(level.getEnemies().size(), world.getEnemyCount());
+        assertEquals(level.cellOf(game.getPlayer().getPosition()), world.getPlayerCell(0));
+        assertEquals(AIProfile.EXPERT, world.getPlayerProfile(1));
+        assertNull(world.getPlayerProfile(0));
+        assertEquals(level.getFruits().size(), world.getFruitsTotal());
+    }
+
+    @Test
+    public void testPublishedSnapshotIsImmutable() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        WorldSnapshot before = game.getSnapshot();
+        int playerCell = before.getPlayerCell(0);
+
+        game.submitInput(InputCommand.move(1, Direction.DOWN));
+        game.update();
+        WorldSnapshot after = game.getSnapshot();
+
+        assertNotSame(before, after);
+        assertEquals(1, after.getTick());
+        assertEquals(playerCell, before.getPlayerCell(0));
+        assertNotEquals(playerCell, after.getPlayerCell(0));
+        // La capa estática se comparte entre ticks del mismo nivel
+        assertTrue(after.sameLayout(before));
+
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        assertFalse(game.getSnapshot().sameLayout(after));
+    }
+
+    @Test
+    public void testPauseIsPublished() {
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+
+        game.pause();
+        assertEquals(GameState.PAUSED, game.getSnapshot().getState());
+        game.resume();
+        assertEquals(GameState.PLAYING, game.getSnapshot().getState());
+    }
+
+    @Test
+    public void testSnapshotIsOnlyPublishedBySimulation() throws BadIceCreamException {
+        // Sin partida no hay instantánea, y leerla no la crea
+        Game empty = new Game();
+        assertNull(empty.getSnapshot());
+        assertNull(empty.getSnapshot());
+
+        Game game = new Game();
+        game.startGame(1, IceCreamFlavour.VANILLA);
+        game.submitInput(InputCommand.move(1, Direction.DOWN));
+        for (int tick = 0; tick < 5; tick++) {
+            game.update();
+        }
+
+        // Al abrir se publica el estado ya restaurado, no el del nivel recién creado
+        Game opened = GameSaveManager.decode(GameSaveManager.encode(game), GameClock.SYSTEM);
+        WorldSnapshot world = opened.getSnapshot();
+        assertEquals(5, world.getTick());
+        assertEquals(game.getSnapshot().getPlayerCell(0), world.getPlayerCell(0));
+        assertEquals(game.getTimeRemaining(), world.getTimeRemaining());
+    }
+}
@@ -0,0 +1,46 @@
+package presentation;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import presentation.SpriteAtlas.Sprite;
+
+/**
+ * Pruebas unitarias para el atlas de sprites del tablero.
+ * Verifica el escalado previo y las variantes translúcidas.
+ */
+public class SpriteAtlasTest {
+
+    @Test
+    public void testSpritesArePreScaled() {
+        SpriteAtlas atlas = SpriteAtlas.forCellSize(40);
+        assertSame(atlas, SpriteAtlas.forCellSize(40));
+
+        for (Sprite sprite : Sprite.values()) {
+            BufferedImage image = atlas.get(sprite);
+            assertNotNull(image, "Sprite sin cargar: " + sprite);
+            int expected = 40 - 2 * sprite.getInset();
+            assertEquals(expected, image.getWidth());
+            assertEquals(expected, image.getHeight());
+        }
+    }
+
+    @Test
+    public void testDeadPlayerVariantIsTranslucent() {
+        SpriteAtlas atlas = SpriteAtlas.forCellSize(40);
+        BufferedImage alive = atlas.get(Sprite.VANILLA);
+        BufferedImage dead = atlas.getFaded(Sprite.VANILLA);
+        assertNotNull(dead);
+        assertNull(atlas.getFaded(Sprite.WALL));
+
+        // Ningún píxel del jugador muerto es más opaco que el 30% del original
+        for (int y = 0; y < alive.getHeight(); y++) {
+            for (int x = 0; x < alive.getWidth(); x++) {
+                int aliveAlpha = alive.getRGB(x, y) >>> 24;
+                int deadAlpha = dead.getRGB(x, y) >>> 24;
+                assertTrue(deadAlpha <= Math.round(aliveAlpha * 0.3f) + 1);
+            }
+        }
+    }
+}